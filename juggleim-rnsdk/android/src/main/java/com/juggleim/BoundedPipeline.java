@@ -0,0 +1,124 @@
+package com.juggleim;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 有界并行执行一组任务
+ * 同时进行中的项不超过 parallelism，一项结束后开始下一项；每项在 executor 上启动，结束可在任意线程回调。
+ * executor 拒绝执行（已关闭）时，其余未开始的项不执行 Step 直接结束，调用方应把没有写入结果的项视为失败。
+ */
+public class BoundedPipeline {
+
+    public interface Step {
+        /**
+         * 在 executor 上启动第 index 项，结束时调用 item.finish；异常需自行捕获并结束该项
+         */
+        void start(int index, Item item);
+    }
+
+    public interface Listener {
+        /**
+         * 每项结束时回调，completed 为已结束的项数
+         */
+        void onItem(int index, int completed);
+
+        void onComplete();
+    }
+
+    /**
+     * 单项的结束句柄，回调可能重复到达，只有第一次结束生效
+     */
+    public static class Item {
+        private final Run run;
+        private final int index;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Item(Run run, int index) {
+            this.run = run;
+            this.index = index;
+        }
+
+        /**
+         * 结束该项，update 在通知前执行，用于写入结果；已结束过时返回 false，update 不执行
+         */
+        public boolean finish(Runnable update) {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            if (update != null) {
+                update.run();
+            }
+            run.finished(index);
+            return true;
+        }
+    }
+
+    private final Executor executor;
+
+    public BoundedPipeline(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void run(int total, int parallelism, Step step, Listener listener) {
+        if (total == 0) {
+            listener.onComplete();
+            return;
+        }
+        Run run = new Run(executor, total, step, listener);
+        for (int i = 0; i < Math.min(Math.max(1, parallelism), total); i++) {
+            run.startNext();
+        }
+    }
+
+    private static class Run {
+        private final Executor executor;
+        private final int total;
+        private final Step step;
+        private final Listener listener;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        Run(Executor executor, int total, Step step, Listener listener) {
+            this.executor = executor;
+            this.total = total;
+            this.step = step;
+            this.listener = listener;
+        }
+
+        private volatile boolean rejected;
+
+        void startNext() {
+            if (rejected) {
+                return;
+            }
+            int index = next.getAndIncrement();
+            if (index >= total) {
+                return;
+            }
+            Item item = new Item(this, index);
+            try {
+                executor.execute(() -> step.start(index, item));
+            } catch (RejectedExecutionException e) {
+                rejected = true;
+                // 循环结束其余各项，避免逐项递归
+                item.finish(null);
+                for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+                    new Item(this, i).finish(null);
+                }
+            }
+        }
+
+        void finished(int index) {
+            int done = completed.incrementAndGet();
+            listener.onItem(index, done);
+            if (done == total) {
+                listener.onComplete();
+            } else {
+                startNext();
+            }
+        }
+    }
+}
@@ -1,70 +1,32 @@
 package com.juggleim;
 
-import android.content.ContentResolver;
 import android.content.Context;
 import android.net.Uri;
 import android.util.Log;
 
 import androidx.core.content.FileProvider;
 
+import com.juggleim.media.MediaStager;
+
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 
 public class FileUtils {
+    /**
+     * 将 content:// 转换为本地文件路径，内容相同的资源复用同一个暂存文件
+     *
+     * @return 本地路径，复制失败时返回 null
+     */
     public static String convertContentUriToFile(Context context, String contentUri) {
-        if (contentUri.startsWith("file://")) {
-            return contentUri.substring(7);
-        }
-        if (!contentUri.startsWith("content://")) {
-            return contentUri;
-        }        
-        InputStream inputStream = null;
-        OutputStream outputStream = null;
-        File tempFile = null;
-
         try {
-            // 获取 ContentResolver
-            ContentResolver resolver = context.getContentResolver();
-
-            // 获取输入流
-            inputStream = resolver.openInputStream(Uri.parse(contentUri));
-
-            // 创建临时文件
-            tempFile = new File(context.getCacheDir(), System.currentTimeMillis() + "temp_image.jpg");
-            if (tempFile.exists()) {
-                tempFile.delete(); // 如果文件存在，删除它
-            }
-
-            // 写入文件
-            outputStream = new FileOutputStream(tempFile);
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = inputStream.read(buffer)) > 0) {
-                outputStream.write(buffer, 0, length);
-            }
-            outputStream.flush();
-        } catch (Exception e) {
+            return MediaStager.getInstance(context).stage(contentUri);
+        } catch (IOException e) {
             Log.e("FileUtils", "Error converting content Uri to file", e);
-        } finally {
-            // 关闭流
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-                if (outputStream != null) {
-                    outputStream.close();
-                }
-            } catch (Exception e) {
-                Log.e("FileUtils", "Error closing streams", e);
-            }
+            return null;
         }
-        return tempFile.getAbsolutePath();
     }
 
     /**
@@ -1,7 +1,15 @@
 package com.juggleim;
 
+import android.content.ComponentCallbacks2;
+import android.content.ContentResolver;
+import android.content.Intent;
+import android.content.UriPermission;
+import android.net.Uri;
+import android.content.res.Configuration;
+import android.os.SystemClock;
 import android.util.Log;
 
+import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
@@ -9,6 +17,7 @@ import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.facebook.react.bridge.WritableArray;
@@ -43,13 +52,60 @@ import com.juggle.im.model.GroupMember;
 import com.juggle.im.model.MessageQueryOptions;
 import com.juggle.im.model.SearchConversationsResult;
 import com.juggle.im.push.PushConfig;
-
+import com.juggleim.cache.FetchCoalescer;
+import com.juggleim.cache.GroupMemberCache;
+import com.juggleim.cache.SnapshotCache;
+import com.juggleim.conversation.ConversationEventGate;
+import com.juggleim.conversation.ConversationIndex;
+import com.juggleim.conversation.ConversationInfoPager;
+import com.juggleim.conversation.ConversationListPatch;
+import com.juggleim.conversation.ConversationSnapshot;
+import com.juggleim.media.BatchUploader;
+import com.juggleim.media.ChunkedUploader;
+import com.juggleim.media.ImageProcessor;
+import com.juggleim.media.MediaDownloader;
+import com.juggleim.media.MediaSendQueue;
+import com.juggleim.media.MediaStager;
+import com.juggleim.media.StagingJanitor;
+import com.juggleim.message.BroadcastSender;
+import com.juggleim.message.HistoryCursor;
+import com.juggleim.message.MessageExporter;
+import com.juggleim.message.MessageImporter;
+import com.juggleim.message.MessageRingCache;
+import com.juggleim.message.ReadReceiptBatcher;
+import com.juggleim.search.MatchHighlighter;
+import com.juggleim.search.MentionIndex;
+import com.juggleim.search.NameIndex;
+import com.juggleim.search.PinyinConverter;
+import com.juggleim.search.SearchSession;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.json.JSONObject;
 import org.json.JSONArray;
@@ -64,6 +120,8 @@ import javax.annotation.Nonnull;
  */
 public class JuggleIMManager extends ReactContextBaseJavaModule {
     private static final String MODULE_NAME = "JuggleIM";
+    // 桥接层内部监听器标识
+    private static final String INTERNAL_LISTENER_KEY = "__juggleim_rn_internal__";
     private Map<String, IConnectionManager.IConnectionStatusListener> connectionListeners = new HashMap<>();
     private Map<String, IMessageManager.IMessageListener> messageListeners = new HashMap<>();
     private Map<String, IMessageManager.IMessageReadReceiptListener> readReceiptListeners = new HashMap<>();
@@ -73,8 +131,196 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
     // 自定义消息类型注册表
     private Map<String, String> customMessageTypes = new HashMap<>();
 
+    // 桥接层后台任务调度
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // 媒体消息的暂存与发送，单线程保证发送顺序
+    private final ExecutorService mediaExecutor = Executors.newSingleThreadExecutor();
+    // 批量媒体消息发送队列
+    private final MediaSendQueue mediaSendQueue = new MediaSendQueue(mediaExecutor, 3, this::emitMediaBatchState);
+    private final StagingJanitor stagingJanitor;
+    // 图片压缩与缩略图，线程数受限以控制解码内存
+    private final ImageProcessor imageProcessor;
+    private final AtomicBoolean stagingTrimScheduled = new AtomicBoolean(false);
+    private static final long STAGING_TRIM_DELAY_MS = 5000;
+    private static final int STAGING_TRIM_BATCH = 50;
+    // 分片上传，独立线程池避免大文件阻塞其它媒体消息
+    private final ExecutorService uploadExecutor = Executors.newFixedThreadPool(2);
+    private final ChunkedUploader chunkedUploader;
+    private final Map<String, Future<?>> chunkedUploads = new ConcurrentHashMap<>();
+    private static final int CHUNKED_UPLOAD_RETRIES = 3;
+    private static final long CHUNKED_UPLOAD_BACKOFF_MS = 2000;
+    private static final int URI_GRANT_NONE = 0;
+    private static final int URI_GRANT_HELD = 1;
+    private static final int URI_GRANT_TAKEN = 2;
+    // 媒体下载与磁盘缓存
+    private final MediaDownloader mediaDownloader;
+    // 列表窗口 ID 到其下载请求的 owner
+    private final Map<String, Set<String>> downloadWindows = new HashMap<>();
+    private final AtomicLong nextDownloadId = new AtomicLong();
+    // 边输入边搜索，单线程执行，过期代数的任务直接跳过
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private final Map<String, SearchSessionState> searchSessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSearchSessionId = new AtomicLong();
+    // 用户、群组、会话别名的名称索引，随用户/群组信息缓存增量更新
+    private final PinyinConverter pinyinConverter = PinyinConverter.create();
+    private final NameIndex nameIndex = new NameIndex(pinyinConverter);
+    private static final int NAME_INDEX_BATCH = 200;
+    // 群 @ 候选索引，按最近使用排序，空闲超时或超过群数上限时淘汰
+    private final LinkedHashMap<String, MentionIndex> mentionIndexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicBoolean mentionEvictionScheduled = new AtomicBoolean(false);
+    private static final int MENTION_INDEX_MAX_GROUPS = 4;
+    private static final long MENTION_INDEX_IDLE_MS = 60000;
+    // 可见消息的已读回执，按会话合并后延迟批量发送
+    private final ReadReceiptBatcher readReceiptBatcher = new ReadReceiptBatcher(scheduler,
+            (conversation, messageIds, callback) ->
+                    JIM.getInstance().getMessageManager().sendReadReceipt(conversation, messageIds, callback),
+            (conversation, messageIds) -> {
+                // 已读状态以本地消息库为准，其他端或之前的会话已发送过回执的消息不再排队
+                Set<String> readIds = new HashSet<>();
+                List<Message> messages = JIM.getInstance().getMessageManager().getMessagesByMessageIds(messageIds);
+                if (messages != null) {
+                    for (Message message : messages) {
+                        if (message != null && message.isHasRead()) {
+                            readIds.add(message.getMessageId());
+                        }
+                    }
+                }
+                return readIds;
+            },
+            (conversation, messageIds, errorCode) -> {
+                if (errorCode == 0) {
+                    // 字段在后面声明，需要通过 this 引用
+                    this.messageRingCache.removeConversation(conversationKey(conversation));
+                }
+                WritableMap params = new WritableNativeMap();
+                params.putMap("conversation", convertConversationToMap(conversation));
+                WritableArray ids = new WritableNativeArray();
+                for (String id : messageIds) {
+                    ids.pushString(id);
+                }
+                params.putArray("messageIds", ids);
+                params.putInt("errorCode", errorCode);
+                sendEvent("ReadReceiptsFlushed", params);
+            });
+
+    // 用户/群组信息远端拉取合并，SDK 超时未回调时按失败结束
+    private static final long INFO_FETCH_TIMEOUT_MS = 30000;
+    private final FetchCoalescer<UserInfo> userInfoFetcher = new FetchCoalescer<>(scheduler,
+            (ids, callback) -> {
+                for (String id : ids) {
+                    JIM.getInstance().getUserInfoManager().fetchUserInfo(id, new JIMConst.IResultCallback<UserInfo>() {
+                        @Override
+                        public void onSuccess(UserInfo userInfo) {
+                            callback.onResult(id, userInfo);
+                        }
+
+                        @Override
+                        public void onError(int i) {
+                            callback.onError(id, i);
+                        }
+                    });
+                }
+            }, 20, 50, INFO_FETCH_TIMEOUT_MS);
+    private final FetchCoalescer<GroupInfo> groupInfoFetcher = new FetchCoalescer<>(scheduler,
+            (ids, callback) -> {
+                for (String id : ids) {
+                    JIM.getInstance().getUserInfoManager().fetchGroupInfo(id, new JIMConst.IResultCallback<GroupInfo>() {
+                        @Override
+                        public void onSuccess(GroupInfo groupInfo) {
+                            callback.onResult(id, groupInfo);
+                        }
+
+                        @Override
+                        public void onError(int i) {
+                            callback.onError(id, i);
+                        }
+                    });
+                }
+            }, 20, 50, INFO_FETCH_TIMEOUT_MS);
+
+    // 已转换的用户/群组信息缓存
+    private final SnapshotCache infoCache = new SnapshotCache(
+            (int) Math.min(4 * 1024 * 1024, Runtime.getRuntime().maxMemory() / 64));
+    // 群成员缓存，按群组最近使用淘汰；SDK 没有成员变更回调，超过 TTL 后重新查询
+    private static final long GROUP_MEMBER_TTL_MS = 5 * 60 * 1000;
+    private final GroupMemberCache groupMemberCache = new GroupMemberCache(20000, GROUP_MEMBER_TTL_MS);
+    // 内存会话索引，用于直接响应会话列表分页查询
+    private final ConversationIndex conversationIndex = new ConversationIndex();
+    // 各会话最近消息缓存，用于直接响应首页历史消息查询
+    private final MessageRingCache messageRingCache = new MessageRingCache(100,
+            (int) Math.min(8 * 1024 * 1024, Runtime.getRuntime().maxMemory() / 32));
+    // 历史消息游标
+    private final Map<String, HistoryCursor> historyCursors = new ConcurrentHashMap<>();
+    private final AtomicLong nextCursorId = new AtomicLong();
+    // 订阅会话列表增量补丁的 JS 监听，全部取消后停止推送
+    private final Set<String> conversationPatchSubscribers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // 批量会话操作期间暂缓单个会话的变更事件，结束后合并为一次推送
+    private final ConversationEventGate conversationEventGate = new ConversationEventGate();
+    private static final long BULK_CONVERSATION_GRACE_MS = 300;
+    // SDK 回调迟迟不到时，超过该时间按失败结束批量操作并释放暂缓
+    private static final long BULK_CONVERSATION_TIMEOUT_MS = 30000;
+    // 本地消息导入，单线程依次执行，不占用其它后台线程
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor();
+    private final Map<String, AtomicBoolean> messageImports = new ConcurrentHashMap<>();
+    private static final int MESSAGE_IMPORT_BATCH = 500;
+    private static final long MESSAGE_IMPORT_PROGRESS_MS = 500;
+    // 历史消息导出，单线程依次执行，分页读取时阻塞的是该线程
+    private final ExecutorService exportExecutor = Executors.newSingleThreadExecutor();
+    private final Map<String, AtomicBoolean> messageExports = new ConcurrentHashMap<>();
+    private static final int MESSAGE_EXPORT_PAGE_SIZE = 100;
+    private static final long MESSAGE_EXPORT_PROGRESS_MS = 500;
+    private boolean internalListenersRegistered = false;
+
+    private final ComponentCallbacks2 memoryCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            infoCache.onTrimMemory(level);
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+                groupMemberCache.clear();
+                messageRingCache.clear();
+            }
+        }
+
+        @Override
+        public void onConfigurationChanged(@Nonnull Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            infoCache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+            groupMemberCache.clear();
+            messageRingCache.clear();
+        }
+    };
+
+    // 进入后台时立即发送待发送的已读回执
+    private final LifecycleEventListener lifecycleListener = new LifecycleEventListener() {
+        @Override
+        public void onHostResume() {
+        }
+
+        @Override
+        public void onHostPause() {
+            flushReadReceiptsAsync();
+        }
+
+        @Override
+        public void onHostDestroy() {
+            flushReadReceiptsAsync();
+        }
+    };
+
     public JuggleIMManager(@Nonnull ReactApplicationContext reactContext) {
         super(reactContext);
+        reactContext.registerComponentCallbacks(memoryCallbacks);
+        reactContext.addLifecycleEventListener(lifecycleListener);
+        stagingJanitor = new StagingJanitor(MediaStager.getInstance(reactContext), reactContext.getCacheDir());
+        imageProcessor = new ImageProcessor(MediaStager.getInstance(reactContext).getStagingDir(),
+                Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)));
+        scheduleStagingTrim(30 * 1000);
+        chunkedUploader = new ChunkedUploader(new File(reactContext.getFilesDir(), "juggleim_uploads"),
+                MediaStager.getInstance(reactContext));
+        mediaDownloader = new MediaDownloader(new File(reactContext.getCacheDir(), "juggleim_downloads"), 3);
     }
 
     @Nonnull
@@ -83,6 +329,26 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         return MODULE_NAME;
     }
 
+    @Override
+    public void invalidate() {
+        getReactApplicationContext().unregisterComponentCallbacks(memoryCallbacks);
+        getReactApplicationContext().removeLifecycleEventListener(lifecycleListener);
+        readReceiptBatcher.flushAll();
+        closeAllHistoryCursors();
+        userInfoFetcher.shutdown();
+        groupInfoFetcher.shutdown();
+        scheduler.shutdownNow();
+        mediaExecutor.shutdown();
+        uploadExecutor.shutdownNow();
+        mediaDownloader.shutdown();
+        searchExecutor.shutdownNow();
+        cancelAllMessageImports();
+        importExecutor.shutdownNow();
+        cancelAllMessageExports();
+        exportExecutor.shutdownNow();
+        super.invalidate();
+    }
+
     // 添加这两个方法以解决React Native的警告
     @ReactMethod
     public void addListener(String eventName) {
@@ -120,6 +386,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         logBuilder.setLogConsoleLevel(JLogLevel.JLogLevelVerbose);
         builder.setJLogConfig(new JLogConfig(logBuilder));
         JIM.getInstance().init(getCurrentActivity(), appKey, builder.build());
+        registerInternalListeners();
     }
 
         /**
@@ -137,6 +404,286 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
             builder.setPushConfig(new PushConfig.Builder().build());
         }
         JIM.getInstance().init(getCurrentActivity(), appKey, builder.build());
+        registerInternalListeners();
+    }
+
+    /**
+     * 注册桥接层内部使用的 SDK 监听器，用于维护各类缓存
+     */
+    private synchronized void registerInternalListeners() {
+        if (internalListenersRegistered) {
+            return;
+        }
+        internalListenersRegistered = true;
+        JIM.getInstance().getConnectionManager().addConnectionStatusListener(INTERNAL_LISTENER_KEY,
+                new IConnectionManager.IConnectionStatusListener() {
+                    @Override
+                    public void onStatusChange(JIMConst.ConnectionStatus status, int code, String extra) {
+                        if (status == JIMConst.ConnectionStatus.CONNECTED) {
+                            resumeChunkedUploads();
+                        }
+                    }
+
+                    @Override
+                    public void onDbOpen() {
+                        scheduler.execute(() -> loadConversationIndex());
+                    }
+
+                    @Override
+                    public void onDbClose() {
+                        // 数据库关闭意味着切换或退出账号，缓存全部失效
+                        infoCache.clear();
+                        groupMemberCache.clear();
+                        conversationIndex.clear();
+                        messageRingCache.clear();
+                        nameIndex.clear();
+                        readReceiptBatcher.clear();
+                        cancelAllMessageImports();
+                        cancelAllMessageExports();
+                        conversationEventGate.clear();
+                        synchronized (mentionIndexes) {
+                            mentionIndexes.clear();
+                        }
+                        closeAllHistoryCursors();
+                        for (SearchSessionState state : searchSessions.values()) {
+                            state.messageSession.reset();
+                            state.conversationSession.reset();
+                        }
+                    }
+                });
+        JIM.getInstance().getMessageManager().addListener(INTERNAL_LISTENER_KEY,
+                new IMessageManager.IMessageListener() {
+                    @Override
+                    public void onMessageReceive(Message message) {
+                        cacheMessage(message);
+                    }
+
+                    @Override
+                    public void onMessageRecall(Message message) {
+                        cacheMessage(message);
+                        invalidateHistoryCursors(message.getConversation());
+                    }
+
+                    @Override
+                    public void onMessageUpdate(Message message) {
+                        cacheMessage(message);
+                        invalidateHistoryCursors(message.getConversation());
+                    }
+
+                    @Override
+                    public void onMessageDelete(Conversation conversation, List<Long> clientMsgNos) {
+                        messageRingCache.removeMessages(conversationKey(conversation), clientMsgNos);
+                        invalidateHistoryCursors(conversation);
+                    }
+
+                    @Override
+                    public void onMessageClear(Conversation conversation, long timestamp, String senderId) {
+                        messageRingCache.clearBefore(conversationKey(conversation), timestamp);
+                        invalidateHistoryCursors(conversation);
+                    }
+
+                    @Override
+                    public void onMessageReactionAdd(Conversation conversation, MessageReaction reaction) {
+                    }
+
+                    @Override
+                    public void onMessageReactionRemove(Conversation conversation, MessageReaction reaction) {
+                    }
+
+                    @Override
+                    public void onMessageSetTop(Message message, UserInfo userInfo, boolean b) {
+                    }
+                });
+        // 已读状态变化没有逐条消息回调，直接丢弃该会话缓存
+        JIM.getInstance().getMessageManager().addReadReceiptListener(INTERNAL_LISTENER_KEY,
+                new IMessageManager.IMessageReadReceiptListener() {
+                    @Override
+                    public void onMessagesRead(Conversation conversation, List<String> messageIds) {
+                        messageRingCache.removeConversation(conversationKey(conversation));
+                    }
+
+                    @Override
+                    public void onGroupMessagesRead(Conversation conversation,
+                            Map<String, GroupMessageReadInfo> messages) {
+                        messageRingCache.removeConversation(conversationKey(conversation));
+                    }
+                });
+        // 批量操作暂缓的会话同样跳过，结束时由批量操作重新读取并合并推送
+        JIM.getInstance().getConversationManager().addListener(INTERNAL_LISTENER_KEY,
+                new IConversationManager.IConversationListener() {
+                    @Override
+                    public void onConversationInfoAdd(List<ConversationInfo> conversationInfoList) {
+                        upsertConversationIndex(withoutHeldConversations(conversationInfoList));
+                    }
+
+                    @Override
+                    public void onConversationInfoUpdate(List<ConversationInfo> conversationInfoList) {
+                        upsertConversationIndex(withoutHeldConversations(conversationInfoList));
+                    }
+
+                    @Override
+                    public void onConversationInfoDelete(List<ConversationInfo> conversationInfoList) {
+                        List<String> keys = new ArrayList<>();
+                        for (ConversationInfo info : withoutHeldConversations(conversationInfoList)) {
+                            keys.add(conversationKey(info.getConversation()));
+                        }
+                        removeFromConversationIndex(keys);
+                    }
+
+                    @Override
+                    public void onTotalUnreadMessageCountUpdate(int count) {
+                    }
+                });
+    }
+
+    /**
+     * 分页读取全部会话构建内存索引，期间到达的会话事件优先
+     */
+    private void loadConversationIndex() {
+        int generation = conversationIndex.getGeneration();
+        try {
+            ConversationInfoPager pager = newConversationInfoPager();
+            List<ConversationInfo> page;
+            while ((page = pager.next()) != null) {
+                for (ConversationInfo info : page) {
+                    if (!conversationIndex.upsertIfAbsent(buildConversationSnapshot(info), generation)) {
+                        return;
+                    }
+                }
+            }
+            synchronized (conversationIndex) {
+                if (conversationIndex.markReady(generation)) {
+                    emitConversationListReset();
+                }
+            }
+            Log.d("JuggleIM", "conversation index loaded: " + conversationIndex.size());
+        } catch (Exception e) {
+            Log.e("JuggleIM", "loadConversationIndex error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从最新开始按排序时间分页读取全部会话，相同 sortTime 的会话不会因分页边界被跳过
+     */
+    private static ConversationInfoPager newConversationInfoPager() {
+        return new ConversationInfoPager((count, startTime) -> JIM.getInstance().getConversationManager()
+                .getConversationInfoList(count, startTime, JIMConst.PullDirection.OLDER), 200);
+    }
+
+    private static String conversationKey(Conversation conversation) {
+        return ConversationSnapshot.keyOf(conversation.getConversationType().getValue(),
+                conversation.getConversationId());
+    }
+
+    private ConversationSnapshot buildConversationSnapshot(ConversationInfo info) {
+        return new ConversationSnapshot(conversationKey(info.getConversation()), info.getSortTime(),
+                info.getTopTime(), info.isTop(), convertConversationInfoToMap(info));
+    }
+
+    private void upsertConversationIndex(List<ConversationInfo> conversationInfoList) {
+        List<ConversationSnapshot> snapshots = new ArrayList<>();
+        for (ConversationInfo info : conversationInfoList) {
+            snapshots.add(buildConversationSnapshot(info));
+        }
+        synchronized (conversationIndex) {
+            emitConversationPatches(conversationIndex.upsert(snapshots));
+        }
+    }
+
+    private void removeFromConversationIndex(List<String> keys) {
+        synchronized (conversationIndex) {
+            emitConversationPatches(conversationIndex.remove(keys));
+        }
+    }
+
+    /**
+     * 桥接层修改会话后，从 SDK 重新读取该会话以保持索引一致
+     */
+    private void refreshConversationIndex(Conversation conversation) {
+        if (conversation == null) {
+            return;
+        }
+        ConversationInfo info = JIM.getInstance().getConversationManager().getConversationInfo(conversation);
+        if (info != null) {
+            upsertConversationIndex(Collections.singletonList(info));
+        } else {
+            removeFromConversationIndex(Collections.singletonList(conversationKey(conversation)));
+        }
+    }
+
+    /**
+     * 推送会话列表增量补丁，索引就绪前 JS 应以快照为准
+     * 需在 conversationIndex 锁内与索引修改一起调用，保证补丁按版本顺序到达 JS
+     */
+    private void emitConversationPatches(ConversationIndex.PatchBatch batch) {
+        if (conversationPatchSubscribers.isEmpty() || !conversationIndex.isReady() || batch.patches.isEmpty()) {
+            return;
+        }
+        WritableArray patches = new WritableNativeArray();
+        for (ConversationListPatch patch : batch.patches) {
+            WritableMap map = new WritableNativeMap();
+            map.putString("op", patch.getOp());
+            map.putString("key", patch.getKey());
+            if (patch.getFrom() >= 0) {
+                map.putInt("from", patch.getFrom());
+            }
+            if (patch.getTo() >= 0) {
+                map.putInt("to", patch.getTo());
+            }
+            if (patch.getSnapshot() != null) {
+                map.putMap("item", RNTypeConverter.copyMap(patch.getSnapshot().getMap()));
+            }
+            patches.pushMap(map);
+        }
+        WritableMap params = new WritableNativeMap();
+        params.putDouble("version", batch.version);
+        params.putArray("patches", patches);
+        sendEvent("ConversationListPatched", params);
+    }
+
+    /**
+     * 通知 JS 重新拉取会话列表快照
+     */
+    private void emitConversationListReset() {
+        if (conversationPatchSubscribers.isEmpty()) {
+            return;
+        }
+        WritableMap params = new WritableNativeMap();
+        params.putDouble("version", conversationIndex.getVersion());
+        params.putBoolean("reset", true);
+        sendEvent("ConversationListPatched", params);
+    }
+
+    private MessageRingCache.CachedMessage buildCachedMessage(Message message, ReadableMap map) {
+        int bytes = SnapshotCache.estimateBytes(null, message.getMessageId(), message.getSenderUserId(),
+                message.getLocalAttribute());
+        if (message.getContent() != null) {
+            byte[] content = message.getContent().encode();
+            bytes += content != null ? content.length * 2 : 0;
+        }
+        return new MessageRingCache.CachedMessage(message.getMessageId(), message.getClientMsgNo(),
+                message.getTimestamp(), RNTypeConverter.copyMap(map), bytes);
+    }
+
+    /**
+     * 转换消息，并在该会话已缓存时同步更新缓存
+     */
+    private WritableMap convertAndCacheMessage(Message message) {
+        WritableMap map = convertMessageToMap(message);
+        if (message.getConversation() != null) {
+            String key = conversationKey(message.getConversation());
+            if (messageRingCache.contains(key)) {
+                messageRingCache.upsert(key, buildCachedMessage(message, map));
+            }
+        }
+        return map;
+    }
+
+    private void cacheMessage(Message message) {
+        if (message != null && message.getConversation() != null
+                && messageRingCache.contains(conversationKey(message.getConversation()))) {
+            convertAndCacheMessage(message);
+        }
     }
 
     /**
@@ -388,10 +935,14 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
 
             @Override
             public void onConversationInfoUpdate(List<ConversationInfo> conversationInfoList) {
+                List<ConversationInfo> visible = withoutHeldConversations(conversationInfoList);
+                if (visible.isEmpty()) {
+                    return;
+                }
                 WritableMap params = new WritableNativeMap();
                 params.putString("key", key);
                 WritableArray conversations = new WritableNativeArray();
-                for (ConversationInfo info : conversationInfoList) {
+                for (ConversationInfo info : visible) {
                     conversations.pushMap(convertConversationInfoToMap(info));
                 }
                 params.putArray("conversations", conversations);
@@ -400,10 +951,14 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
 
             @Override
             public void onConversationInfoDelete(List<ConversationInfo> conversationInfoList) {
+                List<ConversationInfo> visible = withoutHeldConversations(conversationInfoList);
+                if (visible.isEmpty()) {
+                    return;
+                }
                 WritableMap params = new WritableNativeMap();
                 params.putString("key", key);
                 WritableArray conversations = new WritableNativeArray();
-                for (ConversationInfo info : conversationInfoList) {
+                for (ConversationInfo info : visible) {
                     conversations.pushMap(convertConversationInfoToMap(info));
                 }
                 params.putArray("conversations", conversations);
@@ -503,13 +1058,21 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
      * 将消息对象转换为Map
      */
     private WritableMap convertMessageToMap(Message message) {
+        return convertMessageToMap(message, true);
+    }
+
+    /**
+     * @param includeContent 为 false 时 content 只包含 contentType
+     */
+    private WritableMap convertMessageToMap(Message message, boolean includeContent) {
         WritableMap map = new WritableNativeMap();
         map.putString("messageId", message.getMessageId());
         map.putDouble("clientMsgNo", message.getClientMsgNo());
         map.putDouble("timestamp", message.getTimestamp());
         map.putString("senderUserId", message.getSenderUserId());
         map.putMap("conversation", convertConversationToMap(message.getConversation()));
-        WritableMap contentMap = convertMessageContentToMap(message.getContent());
+        WritableMap contentMap = includeContent ? convertMessageContentToMap(message.getContent())
+                : new WritableNativeMap();
         contentMap.putString("contentType", message.getContentType());
         map.putMap("content", contentMap);
 
@@ -572,10 +1135,26 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         byte[] bytes = content.encode();
         String str = new String(bytes, StandardCharsets.UTF_8);
         WritableMap map = RNTypeConverter.stringToWritableMap(str);
+        // 没有本地文件时使用下载缓存中的文件；只查内存，不在消息转换中读磁盘
+        String localPath = null;
+        if (content instanceof MediaMessageContent) {
+            MediaMessageContent media = (MediaMessageContent) content;
+            localPath = media.getLocalPath();
+            if (localPath == null || localPath.isEmpty()) {
+                localPath = mediaDownloader.peek(media.getUrl());
+            }
+            if (localPath != null) {
+                map.putString("localPath", localPath);
+            }
+        }
         if (content instanceof ImageMessage) {
             ImageMessage img = (ImageMessage) content;
-            map.putString("localPath", img.getLocalPath());
-            map.putString("thumbnailLocalPath", img.getThumbnailLocalPath());
+            String thumbnailLocalPath = img.getThumbnailLocalPath();
+            if (thumbnailLocalPath == null || thumbnailLocalPath.isEmpty()) {
+                thumbnailLocalPath = mediaDownloader.peek(img.getThumbnailUrl());
+            }
+            map.putString("localPath", localPath);
+            map.putString("thumbnailLocalPath", thumbnailLocalPath);
             map.putString("thumbnailUrl", img.getThumbnailUrl());
         } else if (content instanceof StreamTextMessage) {
             StreamTextMessage streamText = (StreamTextMessage) content;
@@ -917,10 +1496,16 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
 
     /**
      * 获取会话信息列表
+     * 索引就绪后由内存响应，置顶会话在前，各自按 sortTime 倒序；同一 sortTime 的会话不会被页边界拆开
      */
     @ReactMethod
     public void getConversationInfoList(int count, double ts, int pullDirection, Promise promise) {
         try {
+            List<ConversationSnapshot> snapshots = conversationIndex.query(count, (long) ts, pullDirection != 0, false);
+            if (snapshots != null) {
+                promise.resolve(convertConversationSnapshotsToArray(snapshots));
+                return;
+            }
             JIMConst.PullDirection direction = pullDirection == 0 ? JIMConst.PullDirection.NEWER
                     : JIMConst.PullDirection.OLDER;
 
@@ -944,6 +1529,11 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
     @ReactMethod
     public void getTopConversationInfoList(int count, double ts, int pullDirection, Promise promise) {
         try {
+            List<ConversationSnapshot> snapshots = conversationIndex.query(count, (long) ts, pullDirection != 0, true);
+            if (snapshots != null) {
+                promise.resolve(convertConversationSnapshotsToArray(snapshots));
+                return;
+            }
             JIMConst.PullDirection direction = pullDirection == 0 ? JIMConst.PullDirection.NEWER
                     : JIMConst.PullDirection.OLDER;
 
@@ -961,14 +1551,67 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         }
     }
 
+    private WritableArray convertConversationSnapshotsToArray(List<ConversationSnapshot> snapshots) {
+        WritableArray result = new WritableNativeArray();
+        for (ConversationSnapshot snapshot : snapshots) {
+            result.pushMap(RNTypeConverter.copyMap(snapshot.getMap()));
+        }
+        return result;
+    }
+
+    /**
+     * 开启会话列表增量补丁推送，并返回当前按展示顺序排列的会话快照
+     * 展示顺序为置顶会话按 topTime 倒序在前，其余按 sortTime 倒序；索引未就绪时 ready 为 false，
+     * 就绪后会推送一次 reset 事件
+     *
+     * @param subscriberId 监听的 ID，同一监听重新同步时重复调用不会重复计数
+     */
+    @ReactMethod
+    public void startConversationListPatches(String subscriberId, Promise promise) {
+        conversationPatchSubscribers.add(subscriberId);
+        WritableMap result = new WritableNativeMap();
+        synchronized (conversationIndex) {
+            result.putBoolean("ready", conversationIndex.isReady());
+            result.putDouble("version", conversationIndex.getVersion());
+            result.putArray("conversations", convertConversationSnapshotsToArray(conversationIndex.displaySnapshot()));
+        }
+        promise.resolve(result);
+    }
+
+    /**
+     * 取消一个监听的会话列表增量补丁订阅，没有订阅者后停止推送
+     */
+    @ReactMethod
+    public void stopConversationListPatches(String subscriberId) {
+        conversationPatchSubscribers.remove(subscriberId);
+    }
+
+    /**
+     * 获取内存会话索引统计
+     */
+    @ReactMethod
+    public void getConversationIndexMetrics(Promise promise) {
+        WritableMap result = new WritableNativeMap();
+        result.putBoolean("ready", conversationIndex.isReady());
+        result.putInt("size", conversationIndex.size());
+        result.putDouble("servedCount", conversationIndex.getServedCount());
+        result.putDouble("fallbackCount", conversationIndex.getFallbackCount());
+        promise.resolve(result);
+    }
+
     /**
      * 获取用户信息
      */
     @ReactMethod
     public void getUserInfo(String userId, Promise promise) {
+        WritableMap cached = infoCache.get(userCacheKey(userId));
+        if (cached != null) {
+            promise.resolve(cached);
+            return;
+        }
         UserInfo userInfo = JIM.getInstance().getUserInfoManager().getUserInfo(userId);
         if (userInfo != null) {
-            promise.resolve(convertUserInfoToMap(userInfo));
+            promise.resolve(cacheUserInfo(userInfo));
         } else {
             promise.resolve(null);
         }
@@ -979,20 +1622,66 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void getGroupInfo(String groupId, Promise promise) {
+        WritableMap cached = infoCache.get(groupCacheKey(groupId));
+        if (cached != null) {
+            promise.resolve(cached);
+            return;
+        }
         GroupInfo groupInfo = JIM.getInstance().getUserInfoManager().getGroupInfo(groupId);
         if (groupInfo != null) {
-            promise.resolve(convertGroupInfoToMap(groupInfo));
+            promise.resolve(cacheGroupInfo(groupInfo));
         } else {
             promise.resolve(null);
         }
     }
 
+    private static String userCacheKey(String userId) {
+        return "u:" + userId;
+    }
+
+    private static String groupCacheKey(String groupId) {
+        return "g:" + groupId;
+    }
+
+    /**
+     * 转换用户信息并写入缓存，返回可直接交给 JS 的 map
+     */
+    private WritableMap cacheUserInfo(UserInfo userInfo) {
+        WritableMap map = convertUserInfoToMap(userInfo);
+        indexName(NameIndex.KIND_USER, userInfo.getUserId(), userInfo.getUserName());
+        infoCache.put(userCacheKey(userInfo.getUserId()), map, SnapshotCache.estimateBytes(userInfo.getExtra(),
+                userInfo.getUserId(), userInfo.getUserName(), userInfo.getPortrait()));
+        return map;
+    }
+
+    /**
+     * 在搜索线程上更新 SDK 名称的索引，拼音转换不占用调用线程
+     */
+    private void indexName(String kind, String id, String name) {
+        try {
+            searchExecutor.execute(() -> nameIndex.putName(kind, id, name));
+        } catch (RejectedExecutionException e) {
+            Log.w("JuggleIM", "indexName rejected: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 转换群组信息并写入缓存，返回可直接交给 JS 的 map
+     */
+    private WritableMap cacheGroupInfo(GroupInfo groupInfo) {
+        WritableMap map = convertGroupInfoToMap(groupInfo);
+        indexName(NameIndex.KIND_GROUP, groupInfo.getGroupId(), groupInfo.getGroupName());
+        infoCache.put(groupCacheKey(groupInfo.getGroupId()), map, SnapshotCache.estimateBytes(groupInfo.getExtra(),
+                groupInfo.getGroupId(), groupInfo.getGroupName(), groupInfo.getPortrait()));
+        return map;
+    }
+
     /**
      * 获取群成员信息
      */
     @ReactMethod
     public void getGroupMember(String groupId, String userId, Promise promise) {
-        GroupMember groupMember = JIM.getInstance().getUserInfoManager().getGroupMember(groupId, userId);
+        GroupMember groupMember = loadGroupMember(groupId, userId);
         if (groupMember != null) {
             promise.resolve(convertGroupMemberToMap(groupMember));
         } else {
@@ -1001,32 +1690,326 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
     }
 
     /**
-     * 获取单个会话信息
+     * 批量获取群成员信息
+     *
+     * @param groupId 群组ID
+     * @param userIds 用户ID列表，返回结果与其一一对应，不存在的成员为 null
      */
     @ReactMethod
-    public void getConversationInfo(ReadableMap conversationMap, Promise promise) {
-        Conversation conversation = convertMapToConversation(conversationMap);
-        ConversationInfo conversationInfo = com.juggle.im.JIM.getInstance().getConversationManager()
-                .getConversationInfo(conversation);
-        promise.resolve(convertConversationInfoToMap(conversationInfo));
+    public void getGroupMembers(String groupId, ReadableArray userIds, Promise promise) {
+        try {
+            WritableArray array = new WritableNativeArray();
+            for (int i = 0; i < userIds.size(); i++) {
+                GroupMember groupMember = loadGroupMember(groupId, userIds.getString(i));
+                if (groupMember != null) {
+                    array.pushMap(convertGroupMemberToMap(groupMember));
+                } else {
+                    array.pushNull();
+                }
+            }
+            promise.resolve(array);
+        } catch (Exception e) {
+            promise.reject("GET_GROUP_MEMBERS_ERROR", e.getMessage());
+        }
     }
 
     /**
-     * 上传图片
+     * 分页查看本地缓存中的群成员（仅 Android）
+     * SDK 未提供群成员枚举接口，这里只读缓存：范围为通过 getGroupMember/getGroupMembers 加载过且未过期的成员，
+     * 按 userId 升序；未加载过成员的群返回空列表，不代表群里没有成员
+     *
+     * @param groupId 群组ID
+     * @param cursor  上一页返回的 nextCursor，首页传空
+     * @param count   每页数量
+     * @return {members, nextCursor, hasMoreCached}
      */
     @ReactMethod
-    public void uploadImage(String localPath, Promise promise) {
-        try {
-            String path = localPath;
-            if (path.startsWith("file://")) {
-                path = path.substring(7);
-            }
-            JIM.getInstance().getMessageManager().uploadImage(localPath, new JIMConst.IResultCallback<String>() {
-                @Override
-                public void onSuccess(String s) {
-                    promise.resolve(s);
-                }
-
+    public void peekCachedGroupMembers(String groupId, String cursor, int count, Promise promise) {
+        List<GroupMember> members = groupMemberCache.page(groupId, cursor, count);
+        WritableArray array = new WritableNativeArray();
+        for (GroupMember member : members) {
+            array.pushMap(convertGroupMemberToMap(member));
+        }
+        String nextCursor = members.isEmpty() ? cursor : members.get(members.size() - 1).getUserId();
+        WritableMap result = new WritableNativeMap();
+        result.putArray("members", array);
+        result.putString("nextCursor", nextCursor);
+        result.putBoolean("hasMoreCached", groupMemberCache.hasMoreAfter(groupId, nextCursor));
+        promise.resolve(result);
+    }
+
+    /**
+     * 优先从缓存读取群成员，未命中时查询 SDK 并写入缓存
+     */
+    private GroupMember loadGroupMember(String groupId, String userId) {
+        GroupMember groupMember = groupMemberCache.get(groupId, userId);
+        if (groupMember != null) {
+            return groupMember;
+        }
+        groupMember = JIM.getInstance().getUserInfoManager().getGroupMember(groupId, userId);
+        if (groupMember != null) {
+            groupMemberCache.put(groupId, groupMember);
+        }
+        return groupMember;
+    }
+
+    /**
+     * 打开群的 @ 候选索引（仅 Android）
+     * 输入框打开时调用，在搜索线程上以群昵称和用户名建立索引；空闲一段时间后自动释放。
+     * SDK 未提供群成员枚举接口，索引范围为已缓存的成员和 userIds 中的成员。
+     *
+     * @param userIds 群成员 ID 列表，可为空
+     * @return {groupId, size}
+     */
+    @ReactMethod
+    public void openMentionIndex(String groupId, ReadableArray userIds, Promise promise) {
+        long now = SystemClock.elapsedRealtime();
+        MentionIndex index;
+        boolean created = false;
+        synchronized (mentionIndexes) {
+            index = mentionIndexes.get(groupId);
+            if (index == null) {
+                index = new MentionIndex(groupId, pinyinConverter, now);
+                mentionIndexes.put(groupId, index);
+                created = true;
+                Iterator<MentionIndex> it = mentionIndexes.values().iterator();
+                while (mentionIndexes.size() > MENTION_INDEX_MAX_GROUPS && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+            index.touch(now);
+        }
+        scheduleMentionEviction();
+        List<String> ids = new ArrayList<>();
+        if (userIds != null) {
+            for (int i = 0; i < userIds.size(); i++) {
+                ids.add(userIds.getString(i));
+            }
+        }
+        MentionIndex target = index;
+        if (!created && ids.isEmpty()) {
+            promise.resolve(convertMentionIndexToMap(target));
+            return;
+        }
+        try {
+            searchExecutor.execute(() -> {
+                try {
+                    buildMentionIndex(target, ids);
+                    promise.resolve(convertMentionIndexToMap(target));
+                } catch (Exception e) {
+                    promise.reject("MENTION_INDEX_ERROR", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject("MENTION_INDEX_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 查询 @ 候选成员（仅 Android）
+     * 结果可直接作为 mentionInfo.targetUsers 的元素发送；索引仍在建立时返回已索引部分。
+     *
+     * @param query 输入的 @ 之后的文本，为空时返回前 limit 个成员
+     * @return [{userId, nickname, avatar, groupDisplayName, matchType}]
+     */
+    @ReactMethod
+    public void searchMentionCandidates(String groupId, String query, int limit, Promise promise) {
+        MentionIndex index;
+        synchronized (mentionIndexes) {
+            index = mentionIndexes.get(groupId);
+        }
+        WritableArray result = new WritableNativeArray();
+        if (index != null) {
+            index.touch(SystemClock.elapsedRealtime());
+            for (MentionIndex.Candidate candidate : index.search(query, Math.max(1, limit))) {
+                WritableMap map = new WritableNativeMap();
+                map.putString("userId", candidate.userId);
+                map.putString("nickname", candidate.nickname);
+                map.putString("avatar", candidate.avatar);
+                map.putString("groupDisplayName", candidate.groupDisplayName);
+                map.putString("matchType", nameMatchTypeToString(candidate.matchType));
+                result.pushMap(map);
+            }
+        }
+        promise.resolve(result);
+    }
+
+    /**
+     * 关闭群的 @ 候选索引（仅 Android）
+     * 索引保留到空闲超时，期间再次打开无需重建。
+     */
+    @ReactMethod
+    public void closeMentionIndex(String groupId) {
+        synchronized (mentionIndexes) {
+            MentionIndex index = mentionIndexes.get(groupId);
+            if (index != null) {
+                index.touch(SystemClock.elapsedRealtime());
+            }
+        }
+        scheduleMentionEviction();
+    }
+
+    private void buildMentionIndex(MentionIndex index, List<String> userIds) {
+        String groupId = index.getGroupId();
+        Map<String, GroupMember> members = new LinkedHashMap<>();
+        for (GroupMember member : groupMemberCache.getAll(groupId)) {
+            members.put(member.getUserId(), member);
+        }
+        for (String userId : userIds) {
+            if (!members.containsKey(userId)) {
+                members.put(userId, loadGroupMember(groupId, userId));
+            }
+        }
+        List<String> ids = new ArrayList<>(members.keySet());
+        for (int start = 0; start < ids.size(); start += NAME_INDEX_BATCH) {
+            List<String> batch = new ArrayList<>(ids.subList(start, Math.min(ids.size(), start + NAME_INDEX_BATCH)));
+            Map<String, UserInfo> users = new HashMap<>();
+            List<UserInfo> userList = JIM.getInstance().getUserInfoManager().getUserInfoList(batch);
+            if (userList != null) {
+                for (UserInfo user : userList) {
+                    users.put(user.getUserId(), user);
+                }
+            }
+            for (String userId : batch) {
+                UserInfo user = users.get(userId);
+                GroupMember member = members.get(userId);
+                index.put(userId, user != null ? user.getUserName() : null, user != null ? user.getPortrait() : null,
+                        member != null ? member.getGroupDisplayName() : null);
+            }
+        }
+        index.setReady();
+    }
+
+    private static WritableMap convertMentionIndexToMap(MentionIndex index) {
+        WritableMap map = new WritableNativeMap();
+        map.putString("groupId", index.getGroupId());
+        map.putInt("size", index.size());
+        return map;
+    }
+
+    private void scheduleMentionEviction() {
+        if (!mentionEvictionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::evictIdleMentionIndexes, MENTION_INDEX_IDLE_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            mentionEvictionScheduled.set(false);
+        }
+    }
+
+    private void evictIdleMentionIndexes() {
+        mentionEvictionScheduled.set(false);
+        long now = SystemClock.elapsedRealtime();
+        boolean remaining;
+        synchronized (mentionIndexes) {
+            Iterator<MentionIndex> it = mentionIndexes.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().getLastAccessMs() >= MENTION_INDEX_IDLE_MS) {
+                    it.remove();
+                }
+            }
+            remaining = !mentionIndexes.isEmpty();
+        }
+        if (remaining) {
+            scheduleMentionEviction();
+        }
+    }
+
+    /**
+     * 发送时仅带 userId 的 @ 对象，从已打开的候选索引补全名称和头像
+     */
+    private void fillMentionTarget(UserInfo userInfo) {
+        synchronized (mentionIndexes) {
+            for (MentionIndex index : mentionIndexes.values()) {
+                MentionIndex.Candidate candidate = index.get(userInfo.getUserId());
+                if (candidate != null) {
+                    userInfo.setUserName(candidate.nickname);
+                    if (userInfo.getPortrait() == null) {
+                        userInfo.setPortrait(candidate.avatar);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取单个会话信息
+     */
+    @ReactMethod
+    public void getConversationInfo(ReadableMap conversationMap, Promise promise) {
+        Conversation conversation = convertMapToConversation(conversationMap);
+        ConversationInfo conversationInfo = com.juggle.im.JIM.getInstance().getConversationManager()
+                .getConversationInfo(conversation);
+        promise.resolve(convertConversationInfoToMap(conversationInfo));
+    }
+
+    /**
+     * 批量获取会话信息
+     * 内存会话索引就绪时直接从索引读取，否则逐个查询 SDK；不存在的会话为 null，顺序与传入一致
+     *
+     * @param options fields 需要返回的字段，如 ["unreadCount", "isTop"]，conversation 始终返回；为空时返回全部字段
+     */
+    @ReactMethod
+    public void getConversationInfos(ReadableArray conversations, ReadableMap options, Promise promise) {
+        try {
+            Set<String> fields = null;
+            if (options != null && options.hasKey("fields") && !options.isNull("fields")) {
+                ReadableArray array = options.getArray("fields");
+                fields = new HashSet<>();
+                fields.add("conversation");
+                for (int i = 0; i < array.size(); i++) {
+                    fields.add(array.getString(i));
+                }
+            }
+            boolean fromIndex = conversationIndex.isReady();
+            WritableArray result = new WritableNativeArray();
+            for (int i = 0; i < conversations.size(); i++) {
+                Conversation conversation = convertMapToConversation(conversations.getMap(i));
+                WritableMap item;
+                if (fromIndex) {
+                    // 索引中的 map 只能以副本形式返回
+                    ConversationSnapshot snapshot = conversationIndex.get(conversationKey(conversation));
+                    item = snapshot == null ? null : fields != null
+                            ? RNTypeConverter.projectMap(snapshot.getMap(), fields)
+                            : RNTypeConverter.copyMap(snapshot.getMap());
+                } else {
+                    ConversationInfo info = JIM.getInstance().getConversationManager().getConversationInfo(conversation);
+                    item = convertConversationInfoToMap(info, fields == null || fields.contains("lastMessage"));
+                    if (item != null && fields != null) {
+                        item = RNTypeConverter.projectMap(item, fields);
+                    }
+                }
+                if (item == null) {
+                    result.pushNull();
+                } else {
+                    result.pushMap(item);
+                }
+            }
+            promise.resolve(result);
+        } catch (Exception e) {
+            promise.reject("GET_CONVERSATION_INFOS_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 上传图片
+     */
+    @ReactMethod
+    public void uploadImage(String localPath, Promise promise) {
+        try {
+            String path = localPath;
+            if (path.startsWith("file://")) {
+                path = path.substring(7);
+            }
+            JIM.getInstance().getMessageManager().uploadImage(localPath, new JIMConst.IResultCallback<String>() {
+                @Override
+                public void onSuccess(String s) {
+                    promise.resolve(s);
+                }
+
                 @Override
                 public void onError(int i) {
                     promise.reject(String.valueOf(i), "Upload failed with code: " + i);
@@ -1038,6 +2021,60 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         }
     }
 
+    /**
+     * 批量上传图片（仅 Android）
+     * 同时上传的数量受 parallelism 限制（默认 3），每张结束后通过 ImageUploadProgress 通知汇总进度。
+     *
+     * @param localPaths 图片路径，支持 content://
+     * @param batchId    批次标识，用于匹配进度事件
+     * @param options    parallelism 同时上传数
+     * @return 与 localPaths 顺序一致的结果 [{index, localPath, url, errorCode}]，errorCode 为 0 表示成功
+     */
+    @ReactMethod
+    public void uploadImages(ReadableArray localPaths, String batchId, ReadableMap options, Promise promise) {
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < localPaths.size(); i++) {
+            sources.add(localPaths.getString(i));
+        }
+        int parallelism = options != null && options.hasKey("parallelism") ? options.getInt("parallelism") : 3;
+        newImageBatchUploader().upload(sources, parallelism, new BatchUploader.Listener() {
+            @Override
+            public void onItem(BatchUploader.ItemResult item, int completed, int failed, int total) {
+                WritableMap params = convertUploadResult(item);
+                params.putString("batchId", batchId);
+                params.putInt("completed", completed);
+                params.putInt("failed", failed);
+                params.putInt("total", total);
+                params.putInt("progress", completed * 100 / total);
+                sendEvent("ImageUploadProgress", params);
+            }
+
+            @Override
+            public void onComplete(List<BatchUploader.ItemResult> results) {
+                WritableArray array = new WritableNativeArray();
+                for (BatchUploader.ItemResult item : results) {
+                    array.pushMap(convertUploadResult(item));
+                }
+                promise.resolve(array);
+            }
+        });
+    }
+
+    private BatchUploader newImageBatchUploader() {
+        return new BatchUploader(mediaExecutor, MediaStager.getInstance(getReactApplicationContext()),
+                this::stageMedia,
+                (path, callback) -> JIM.getInstance().getMessageManager().uploadImage(path, callback));
+    }
+
+    private WritableMap convertUploadResult(BatchUploader.ItemResult item) {
+        WritableMap map = new WritableNativeMap();
+        map.putInt("index", item.index);
+        map.putString("localPath", item.source);
+        map.putString("url", item.url);
+        map.putInt("errorCode", item.errorCode);
+        return map;
+    }
+
     /**
      * 创建会话信息
      */
@@ -1049,6 +2086,9 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 .createConversationInfo(conversationInfo, new IConversationManager.ICreateConversationInfoCallback() {
                     @Override
                     public void onSuccess(ConversationInfo info) {
+                        if (info != null) {
+                            upsertConversationIndex(Collections.singletonList(info));
+                        }
                         promise.resolve(convertConversationInfoToMap(info));
                     }
 
@@ -1070,6 +2110,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 .deleteConversationInfo(conversation, new IConversationManager.ISimpleCallback() {
                     @Override
                     public void onSuccess() {
+                        removeFromConversationIndex(Collections.singletonList(conversationKey(conversation)));
                         promise.resolve(true);
                     }
 
@@ -1091,6 +2132,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 .setMute(conversation, isMute, new IConversationManager.ISimpleCallback() {
                     @Override
                     public void onSuccess() {
+                        refreshConversationIndex(conversation);
                         promise.resolve(true);
                     }
 
@@ -1112,6 +2154,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 .clearUnreadCount(conversation, new IConversationManager.ISimpleCallback() {
                     @Override
                     public void onSuccess() {
+                        refreshConversationIndex(conversation);
                         promise.resolve(true);
                     }
 
@@ -1130,6 +2173,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         Conversation conversation = convertMapToConversation(conversationMap);
         com.juggle.im.JIM.getInstance().getConversationManager()
                 .setDraft(conversation, draft);
+        refreshConversationIndex(conversation);
         promise.resolve(true);
     }
 
@@ -1153,6 +2197,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 .setTop(conversation, isTop, new IConversationManager.ISimpleCallback() {
                     @Override
                     public void onSuccess() {
+                        refreshConversationIndex(conversation);
                         promise.resolve(true);
                     }
 
@@ -1163,6 +2208,234 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 });
     }
 
+    /**
+     * 批量清除会话未读数（仅 Android）
+     * 期间不推送单个会话的变更，结束后统一推送一次 ConversationInfoUpdated
+     *
+     * @return {successCount, failedCount, results}，results 与 conversations 一一对应
+     */
+    @ReactMethod
+    public void clearUnreadCounts(ReadableArray conversations, Promise promise) {
+        runBulkConversationOperation(conversations, (conversation, callback) ->
+                JIM.getInstance().getConversationManager().clearUnreadCount(conversation, callback), promise);
+    }
+
+    /**
+     * 批量设置会话免打扰（仅 Android）
+     */
+    @ReactMethod
+    public void setMuteForConversations(ReadableArray conversations, boolean isMute, Promise promise) {
+        runBulkConversationOperation(conversations, (conversation, callback) ->
+                JIM.getInstance().getConversationManager().setMute(conversation, isMute, callback), promise);
+    }
+
+    /**
+     * 批量设置会话置顶（仅 Android）
+     */
+    @ReactMethod
+    public void setTopForConversations(ReadableArray conversations, boolean isTop, Promise promise) {
+        runBulkConversationOperation(conversations, (conversation, callback) ->
+                JIM.getInstance().getConversationManager().setTop(conversation, isTop, callback), promise);
+    }
+
+    /**
+     * 批量删除会话（仅 Android）
+     * 结束后统一推送一次 ConversationInfoDeleted
+     */
+    @ReactMethod
+    public void deleteConversationInfos(ReadableArray conversations, Promise promise) {
+        runBulkConversationOperation(conversations, (conversation, callback) ->
+                JIM.getInstance().getConversationManager().deleteConversationInfo(conversation, callback), promise);
+    }
+
+    private interface ConversationOperation {
+        void run(Conversation conversation, IConversationManager.ISimpleCallback callback);
+    }
+
+    /**
+     * 对每个会话并发执行操作，全部结束并等待 SDK 的后续事件到达后释放暂缓，合并推送一次变更
+     * 暂缓期间的事件（包括操作失败的会话上的其它变更）都被跳过，释放后重新读取全部会话：
+     * 仍存在的推送 ConversationInfoUpdated，已不存在的从索引移除并推送 ConversationInfoDeleted。
+     * BULK_CONVERSATION_TIMEOUT_MS 内未回调的会话按失败（-1）结束，之后到达的回调被忽略
+     */
+    private void runBulkConversationOperation(ReadableArray conversationArray, ConversationOperation operation,
+                                              Promise promise) {
+        List<Conversation> conversations = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        try {
+            for (int i = 0; i < conversationArray.size(); i++) {
+                Conversation conversation = convertMapToConversation(conversationArray.getMap(i));
+                conversations.add(conversation);
+                keys.add(conversationKey(conversation));
+            }
+        } catch (Exception e) {
+            promise.reject("BULK_CONVERSATION_ERROR", e.getMessage());
+            return;
+        }
+        int total = conversations.size();
+        if (total == 0) {
+            promise.resolve(convertBulkResultToMap(conversations, new int[0]));
+            return;
+        }
+        conversationEventGate.hold(keys);
+        // 会话被删除（包括其它端同时删除）后无法再读取，先保存用于删除事件
+        List<ConversationInfo> previousInfos = new ArrayList<>();
+        for (Conversation conversation : conversations) {
+            previousInfos.add(JIM.getInstance().getConversationManager().getConversationInfo(conversation));
+        }
+        int[] errorCodes = new int[total];
+        boolean[] settled = new boolean[total];
+        AtomicInteger remaining = new AtomicInteger(total);
+        AtomicBoolean finished = new AtomicBoolean(false);
+        AtomicReference<ScheduledFuture<?>> deadline = new AtomicReference<>();
+        Runnable finish = () -> {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            ScheduledFuture<?> timeout = deadline.get();
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            try {
+                scheduler.schedule(() -> {
+                    conversationEventGate.release(keys);
+                    List<ConversationInfo> updated = new ArrayList<>();
+                    List<ConversationInfo> deleted = new ArrayList<>();
+                    List<String> removedKeys = new ArrayList<>();
+                    for (int i = 0; i < total; i++) {
+                        ConversationInfo info = JIM.getInstance().getConversationManager()
+                                .getConversationInfo(conversations.get(i));
+                        if (info != null) {
+                            updated.add(info);
+                        } else {
+                            removedKeys.add(keys.get(i));
+                            if (previousInfos.get(i) != null) {
+                                deleted.add(previousInfos.get(i));
+                            }
+                        }
+                    }
+                    if (!removedKeys.isEmpty()) {
+                        removeFromConversationIndex(removedKeys);
+                    }
+                    if (!updated.isEmpty()) {
+                        upsertConversationIndex(updated);
+                        emitToConversationListeners("ConversationInfoUpdated", updated);
+                    }
+                    if (!deleted.isEmpty()) {
+                        emitToConversationListeners("ConversationInfoDeleted", deleted);
+                    }
+                    int[] codes;
+                    synchronized (settled) {
+                        codes = errorCodes.clone();
+                    }
+                    promise.resolve(convertBulkResultToMap(conversations, codes));
+                }, BULK_CONVERSATION_GRACE_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                conversationEventGate.release(keys);
+                promise.reject("BULK_CONVERSATION_ERROR", e.getMessage());
+            }
+        };
+        try {
+            deadline.set(scheduler.schedule(() -> {
+                synchronized (settled) {
+                    for (int i = 0; i < total; i++) {
+                        if (!settled[i]) {
+                            settled[i] = true;
+                            errorCodes[i] = -1;
+                        }
+                    }
+                }
+                finish.run();
+            }, BULK_CONVERSATION_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException e) {
+            conversationEventGate.release(keys);
+            promise.reject("BULK_CONVERSATION_ERROR", e.getMessage());
+            return;
+        }
+        for (int i = 0; i < total; i++) {
+            int index = i;
+            IConversationManager.ISimpleCallback callback = new IConversationManager.ISimpleCallback() {
+                @Override
+                public void onSuccess() {
+                    settle(0);
+                }
+
+                @Override
+                public void onError(int errorCode) {
+                    settle(errorCode != 0 ? errorCode : -1);
+                }
+
+                private void settle(int errorCode) {
+                    synchronized (settled) {
+                        // 重复回调或超时后到达的回调不再计数
+                        if (settled[index]) {
+                            return;
+                        }
+                        settled[index] = true;
+                        errorCodes[index] = errorCode;
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        finish.run();
+                    }
+                }
+            };
+            try {
+                operation.run(conversations.get(i), callback);
+            } catch (Exception e) {
+                callback.onError(-1);
+            }
+        }
+    }
+
+    /**
+     * 向每个已注册的会话监听推送一次合并后的事件
+     */
+    private void emitToConversationListeners(String eventName, List<ConversationInfo> infos) {
+        for (String key : new ArrayList<>(conversationListeners.keySet())) {
+            WritableMap params = new WritableNativeMap();
+            params.putString("key", key);
+            WritableArray conversations = new WritableNativeArray();
+            for (ConversationInfo info : infos) {
+                conversations.pushMap(convertConversationInfoToMap(info));
+            }
+            params.putArray("conversations", conversations);
+            sendEvent(eventName, params);
+        }
+    }
+
+    private List<ConversationInfo> withoutHeldConversations(List<ConversationInfo> infos) {
+        if (conversationEventGate.isEmpty()) {
+            return infos;
+        }
+        List<ConversationInfo> result = new ArrayList<>();
+        for (ConversationInfo info : infos) {
+            if (!conversationEventGate.isHeld(conversationKey(info.getConversation()))) {
+                result.add(info);
+            }
+        }
+        return result;
+    }
+
+    private static WritableMap convertBulkResultToMap(List<Conversation> conversations, int[] errorCodes) {
+        WritableArray results = new WritableNativeArray();
+        int failed = 0;
+        for (int i = 0; i < conversations.size(); i++) {
+            WritableMap item = new WritableNativeMap();
+            item.putInt("conversationType", conversations.get(i).getConversationType().getValue());
+            item.putString("conversationId", conversations.get(i).getConversationId());
+            item.putInt("errorCode", errorCodes[i]);
+            results.pushMap(item);
+            if (errorCodes[i] != 0) {
+                failed++;
+            }
+        }
+        WritableMap map = new WritableNativeMap();
+        map.putInt("successCount", conversations.size() - failed);
+        map.putInt("failedCount", failed);
+        map.putArray("results", results);
+        return map;
+    }
+
     /**
      * 将 ReadableMap 转换为 Conversation 对象
      */
@@ -1197,6 +2470,13 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
      * 将 ConversationInfo 转换为 WritableMap
      */
     private WritableMap convertConversationInfoToMap(ConversationInfo info) {
+        return convertConversationInfoToMap(info, true);
+    }
+
+    /**
+     * @param includeLastMessage 为 false 时跳过最后一条消息的转换
+     */
+    private WritableMap convertConversationInfoToMap(ConversationInfo info, boolean includeLastMessage) {
         if (info == null) {
             return null;
         }
@@ -1210,7 +2490,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         map.putDouble("topTime", info.getTopTime());
         map.putDouble("sortTime", info.getSortTime());
 
-        if (info.getLastMessage() != null) {
+        if (includeLastMessage && info.getLastMessage() != null) {
             map.putMap("lastMessage", convertMessageToMap(info.getLastMessage()));
         }
 
@@ -1263,7 +2543,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 new IMessageManager.ISendMessageCallback() {
                     @Override
                     public void onSuccess(Message sentMessage) {
-                        WritableMap result = convertMessageToMap(sentMessage);
+                        WritableMap result = convertAndCacheMessage(sentMessage);
                         WritableMap event = new WritableNativeMap();
                         event.putString("messageId", messageId);
                         event.putMap("message", result);
@@ -1272,7 +2552,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
 
                     @Override
                     public void onError(Message message, int errorCode) {
-                        WritableMap errorResult = convertMessageToMap(message);
+                        WritableMap errorResult = convertAndCacheMessage(message);
                         WritableMap event = new WritableNativeMap();
                         event.putString("messageId", messageId);
                         event.putMap("message", errorResult);
@@ -1280,86 +2560,360 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                         sendEvent("onMessageSentError", event);
                     }
                 });
-        WritableMap result = convertMessageToMap(sendMsg);
+        WritableMap result = convertAndCacheMessage(sendMsg);
         result.putString("messageId", messageId);
         promise.resolve(result);
     }
 
     /**
-     * 保存消息到本地数据库
-     * @param messageMap 消息内容字典，包含 conversation、content、options、direction
-     * @param promise Promise回调
+     * 将同一内容发送到多个会话（仅 Android）
+     * 内容先校验一次，每个会话各自构建消息内容与选项（SDK 会修改传入的对象）；同时等待回执的发送数不超过 parallelism，
+     * 每个会话结束时推送 BroadcastSendProgress，只带发送结果而不带完整消息。模块关闭时未完成的批次以错误结束。
+     *
+     * @param messageMap    content、pushData，同 sendMessage，不含会话
+     * @param conversations 目标会话列表
+     * @param batchId       批次 ID，用于区分事件
+     * @param options       parallelism 并发数（默认 5）
+     * @return 全部结束后返回与 conversations 一一对应的结果
      */
     @ReactMethod
-    public void saveMessage(ReadableMap messageMap, Promise promise) {
+    public void sendMessageToConversations(ReadableMap messageMap, ReadableArray conversations, String batchId,
+                                           ReadableMap options, Promise promise) {
+        ReadableMap contentMap = messageMap.hasKey("content") ? messageMap.getMap("content") : null;
+        if (contentMap == null) {
+            promise.reject("BROADCAST_SEND_ERROR", "Message content is required");
+            return;
+        }
+        List<Conversation> targets = new ArrayList<>();
         try {
-            // 获取会话
-            ReadableMap conversationMap = messageMap.getMap("conversation");
-            if (conversationMap == null) {
-                promise.reject("SAVE_MESSAGE_ERROR", "Conversation is required");
-                return;
+            convertMapToMessageContent(contentMap);
+            for (int i = 0; i < conversations.size(); i++) {
+                targets.add(convertMapToConversation(conversations.getMap(i)));
             }
-            Conversation conversation = convertMapToConversation(conversationMap);
-
-            // 获取消息内容
-            ReadableMap contentMap = messageMap.getMap("content");
-            if (contentMap == null) {
-                promise.reject("SAVE_MESSAGE_ERROR", "Message content is required");
-                return;
+        } catch (Exception e) {
+            promise.reject("BROADCAST_SEND_ERROR", e.getMessage());
+            return;
+        }
+        int parallelism = options != null && options.hasKey("parallelism") ? options.getInt("parallelism") : 5;
+        BroadcastSender sender = new BroadcastSender(scheduler, (conversation, callback) -> {
+            MessageOptions messageOptions = new MessageOptions();
+            PushData pushData = convertMapToPushData(messageMap);
+            if (pushData != null) {
+                messageOptions.setPushData(pushData);
+            }
+            return JIM.getInstance().getMessageManager().sendMessage(convertMapToMessageContent(contentMap),
+                    conversation, messageOptions, callback);
+        });
+        sender.send(targets, parallelism, new BroadcastSender.Listener() {
+            @Override
+            public void onItem(BroadcastSender.ItemResult item, int completed, int failed, int total) {
+                WritableMap params = convertBroadcastResultToMap(item);
+                params.putString("batchId", batchId);
+                params.putInt("completed", completed);
+                params.putInt("failed", failed);
+                params.putInt("total", total);
+                sendEvent("BroadcastSendProgress", params);
             }
-            MessageContent content = convertMapToMessageContent(contentMap);
 
-            // 获取消息方向，默认为1（发送）
-            int direction = 1; // Default: sent
-            if (messageMap.hasKey("direction")) {
-                direction = (int) messageMap.getDouble("direction");
-            }
-
-            // 构建MessageOptions（可选）
-            MessageOptions options = null;
-            if (messageMap.hasKey("options")) {
-                ReadableMap optionsMap = messageMap.getMap("options");
-                if (optionsMap != null) {
-                    options = new MessageOptions();
-                    PushData pushData = convertMapToPushDataFromMap(optionsMap);
-                    if (pushData != null) {
-                        options.setPushData(pushData);
-                    }
-                    if (optionsMap.hasKey("mentionInfo")) {
-                        ReadableMap mentionInfoMap = optionsMap.getMap("mentionInfo");
-                        if (mentionInfoMap != null) {
-                            MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
-                            options.setMentionInfo(mentionInfo);
-                        }
-                    }
-                    if (optionsMap.hasKey("referredMessageId")) {
-                        options.setReferredMessageId(optionsMap.getString("referredMessageId"));
-                    }
+            @Override
+            public void onComplete(List<BroadcastSender.ItemResult> results) {
+                if (scheduler.isShutdown()) {
+                    promise.reject("BROADCAST_SEND_ERROR", "Module is shutting down");
+                    return;
                 }
+                WritableArray array = new WritableNativeArray();
+                for (BroadcastSender.ItemResult item : results) {
+                    array.pushMap(convertBroadcastResultToMap(item));
+                }
+                promise.resolve(array);
             }
+        });
+    }
 
-            // 调用原生SDK保存消息
-            Message savedMessage;
-            if (options != null) {
-                savedMessage = JIM.getInstance().getMessageManager().saveMessage(content, conversation, options);
-            } else {
-                savedMessage = JIM.getInstance().getMessageManager().saveMessage(content, conversation);
-            }
-
-            // 设置消息方向 (convert int to MessageDirection enum)
-            Message.MessageDirection messageDirection = (direction == 2)
-                ? Message.MessageDirection.RECEIVE
-                : Message.MessageDirection.SEND;
-            savedMessage.setDirection(messageDirection);
+    private static WritableMap convertBroadcastResultToMap(BroadcastSender.ItemResult item) {
+        WritableMap map = new WritableNativeMap();
+        map.putInt("index", item.index);
+        map.putInt("conversationType", item.conversation.getConversationType().getValue());
+        map.putString("conversationId", item.conversation.getConversationId());
+        map.putDouble("clientMsgNo", item.clientMsgNo);
+        map.putString("messageId", item.messageId);
+        map.putDouble("timestamp", item.timestamp);
+        map.putInt("errorCode", item.errorCode);
+        return map;
+    }
 
-            WritableMap result = convertMessageToMap(savedMessage);
+    /**
+     * 保存消息到本地数据库
+     * @param messageMap 消息内容字典，包含 conversation、content、options、direction
+     * @param promise Promise回调
+     */
+    @ReactMethod
+    public void saveMessage(ReadableMap messageMap, Promise promise) {
+        try {
+            Message savedMessage = saveMessageToDb(messageMap);
+            WritableMap result = convertAndCacheMessage(savedMessage);
             promise.resolve(result);
+        } catch (IllegalArgumentException e) {
+            promise.reject("SAVE_MESSAGE_ERROR", e.getMessage());
         } catch (Exception e) {
             Log.e("JuggleIM", "saveMessage error: " + e.getMessage(), e);
             promise.reject("SAVE_MESSAGE_ERROR", e.getMessage());
         }
     }
 
+    /**
+     * 解析消息字典并保存到本地数据库，缺少会话或内容时抛出 IllegalArgumentException
+     */
+    private Message saveMessageToDb(ReadableMap messageMap) {
+        // 获取会话
+        ReadableMap conversationMap = messageMap.getMap("conversation");
+        if (conversationMap == null) {
+            throw new IllegalArgumentException("Conversation is required");
+        }
+        Conversation conversation = convertMapToConversation(conversationMap);
+
+        // 获取消息内容
+        ReadableMap contentMap = messageMap.getMap("content");
+        if (contentMap == null) {
+            throw new IllegalArgumentException("Message content is required");
+        }
+        MessageContent content = convertMapToMessageContent(contentMap);
+
+        // 获取消息方向，默认为1（发送）
+        int direction = 1; // Default: sent
+        if (messageMap.hasKey("direction")) {
+            direction = (int) messageMap.getDouble("direction");
+        }
+
+        // 构建MessageOptions（可选）
+        MessageOptions options = null;
+        if (messageMap.hasKey("options")) {
+            ReadableMap optionsMap = messageMap.getMap("options");
+            if (optionsMap != null) {
+                options = new MessageOptions();
+                PushData pushData = convertMapToPushDataFromMap(optionsMap);
+                if (pushData != null) {
+                    options.setPushData(pushData);
+                }
+                if (optionsMap.hasKey("mentionInfo")) {
+                    ReadableMap mentionInfoMap = optionsMap.getMap("mentionInfo");
+                    if (mentionInfoMap != null) {
+                        MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
+                        options.setMentionInfo(mentionInfo);
+                    }
+                }
+                if (optionsMap.hasKey("referredMessageId")) {
+                    options.setReferredMessageId(optionsMap.getString("referredMessageId"));
+                }
+            }
+        }
+
+        // 调用原生SDK保存消息
+        Message savedMessage;
+        if (options != null) {
+            savedMessage = JIM.getInstance().getMessageManager().saveMessage(content, conversation, options);
+        } else {
+            savedMessage = JIM.getInstance().getMessageManager().saveMessage(content, conversation);
+        }
+
+        // 设置消息方向 (convert int to MessageDirection enum)
+        Message.MessageDirection messageDirection = (direction == 2)
+            ? Message.MessageDirection.RECEIVE
+            : Message.MessageDirection.SEND;
+        savedMessage.setDirection(messageDirection);
+        return savedMessage;
+    }
+
+    /**
+     * 从 NDJSON 文件批量导入本地消息（仅 Android）
+     * 每行为一条 saveMessage 的参数；进度通过 MessageImportProgress 事件推送，结果只包含计数和失败的行号
+     * SDK 只能以当前用户发送、当前时间保存消息，不能用于迁移聊天记录：保存前先检查全部行，
+     * 有带 timestamp、senderUserId 或接收方向（direction 为 2）的行时直接以该行的错误拒绝，不写入任何消息。
+     * 每行单独调用 saveMessage，没有事务，中断后已保存的行保留，可用 skipLines 继续
+     * @param path 文件路径，支持 file:// 前缀
+     * @param importId 导入 ID，用于进度事件和取消，可为空
+     * @param options 可选参数，包含 batchSize、skipLines
+     */
+    @ReactMethod
+    public void importMessages(String path, String importId, ReadableMap options, Promise promise) {
+        String filePath = path != null && path.startsWith("file://") ? path.substring(7) : path;
+        File file = filePath != null ? new File(filePath) : null;
+        if (file == null || !file.isFile()) {
+            promise.reject("IMPORT_MESSAGES_ERROR", "File not found: " + path);
+            return;
+        }
+        int batchSize = options != null && options.hasKey("batchSize") && !options.isNull("batchSize")
+                ? options.getInt("batchSize") : MESSAGE_IMPORT_BATCH;
+        long skipLines = options != null && options.hasKey("skipLines") && !options.isNull("skipLines")
+                ? (long) options.getDouble("skipLines") : 0;
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        if (importId != null && messageImports.putIfAbsent(importId, cancelled) != null) {
+            promise.reject("IMPORT_MESSAGES_ERROR", "Import already running: " + importId);
+            return;
+        }
+        // 当前批次涉及的会话，批次内暂缓这些会话的变更事件，批次结束后合并推送；只在导入线程上访问
+        AtomicReference<Map<String, Conversation>> batchTouched = new AtomicReference<>(new LinkedHashMap<>());
+        MessageImporter importer = new MessageImporter(JuggleIMManager::checkImportableMessage, line -> {
+            ReadableMap messageMap = RNTypeConverter.parseJsonObject(line);
+            ReadableMap conversationMap = messageMap.hasKey("conversation") ? messageMap.getMap("conversation") : null;
+            if (conversationMap != null) {
+                Conversation conversation = convertMapToConversation(conversationMap);
+                String key = conversationKey(conversation);
+                if (!batchTouched.get().containsKey(key)) {
+                    batchTouched.get().put(key, conversation);
+                    conversationEventGate.hold(Collections.singletonList(key));
+                }
+            }
+            saveMessageToDb(messageMap);
+        }, batchSize, MESSAGE_IMPORT_PROGRESS_MS);
+        MessageImporter.Listener listener = new MessageImporter.Listener() {
+            @Override
+            public void onBatch(MessageImporter.Result progress) {
+                if (!batchTouched.get().isEmpty()) {
+                    finishMessageImport(batchTouched.getAndSet(new LinkedHashMap<>()), null);
+                }
+            }
+
+            @Override
+            public void onProgress(MessageImporter.Result progress) {
+                sendEvent("MessageImportProgress", convertImportResultToMap(importId, progress, false));
+            }
+        };
+        try {
+            importExecutor.execute(() -> {
+                MessageImporter.Result result = null;
+                String error = null;
+                try {
+                    result = importer.run(file, skipLines, cancelled, listener);
+                } catch (Exception e) {
+                    Log.e("JuggleIM", "importMessages error: " + e.getMessage(), e);
+                    error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                } finally {
+                    if (importId != null) {
+                        messageImports.remove(importId, cancelled);
+                    }
+                }
+                MessageImporter.Result finalResult = result;
+                String finalError = error;
+                // 出错中断时当前批次的暂缓也要释放；完成回调排在之前各批次的推送之后
+                finishMessageImport(batchTouched.get(), () -> {
+                    if (finalResult != null) {
+                        promise.resolve(convertImportResultToMap(importId, finalResult, true));
+                    } else {
+                        promise.reject("IMPORT_MESSAGES_ERROR", finalError);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            if (importId != null) {
+                messageImports.remove(importId, cancelled);
+            }
+            promise.reject("IMPORT_MESSAGES_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 取消正在进行的消息导入（仅 Android）
+     * 当前批次保存完成后停止，已导入的消息保留
+     */
+    @ReactMethod
+    public void cancelMessageImport(String importId, Promise promise) {
+        AtomicBoolean cancelled = messageImports.get(importId);
+        if (cancelled != null) {
+            cancelled.set(true);
+        }
+        promise.resolve(cancelled != null);
+    }
+
+    private void cancelAllMessageImports() {
+        for (AtomicBoolean cancelled : messageImports.values()) {
+            cancelled.set(true);
+        }
+    }
+
+    /**
+     * 导入的行只允许当前用户此刻发送的消息：SDK 的 saveMessage 无法保存其它时间、发送者或方向，
+     * 因此 importMessages 不能用于迁移聊天记录。JSON 格式错误的行在这里放过，保存时计为失败
+     */
+    private static void checkImportableMessage(String line) {
+        JSONObject json;
+        try {
+            json = new JSONObject(line);
+        } catch (JSONException e) {
+            return;
+        }
+        String unsupported = null;
+        if (!json.isNull("timestamp")) {
+            unsupported = "timestamp";
+        } else if (!json.isNull("senderUserId")) {
+            unsupported = "senderUserId";
+        } else if (!json.isNull("direction") && json.optInt("direction", 1) != 1) {
+            unsupported = "direction " + json.opt("direction");
+        }
+        if (unsupported != null) {
+            throw new IllegalArgumentException(unsupported + " is not supported: importMessages saves each line as a new"
+                    + " message sent by the current user at the current time and cannot import history");
+        }
+    }
+
+    /**
+     * 一批导入结束并等待 SDK 的后续事件到达后释放暂缓，丢弃相关会话的消息缓存，合并推送一次会话变更
+     * 在 scheduler 上按提交顺序执行，done 可为空
+     */
+    private void finishMessageImport(Map<String, Conversation> touched, Runnable done) {
+        List<String> keys = new ArrayList<>(touched.keySet());
+        try {
+            scheduler.schedule(() -> {
+                conversationEventGate.release(keys);
+                List<ConversationInfo> changed = new ArrayList<>();
+                for (Map.Entry<String, Conversation> entry : touched.entrySet()) {
+                    messageRingCache.removeConversation(entry.getKey());
+                    invalidateHistoryCursors(entry.getValue());
+                    ConversationInfo info = JIM.getInstance().getConversationManager().getConversationInfo(entry.getValue());
+                    if (info != null) {
+                        changed.add(info);
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    upsertConversationIndex(changed);
+                    emitToConversationListeners("ConversationInfoUpdated", changed);
+                }
+                if (done != null) {
+                    done.run();
+                }
+            }, BULK_CONVERSATION_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            conversationEventGate.release(keys);
+            if (done != null) {
+                done.run();
+            }
+        }
+    }
+
+    private static WritableMap convertImportResultToMap(String importId, MessageImporter.Result result, boolean finished) {
+        WritableMap map = new WritableNativeMap();
+        if (importId != null) {
+            map.putString("importId", importId);
+        }
+        map.putDouble("processed", result.processed);
+        map.putDouble("imported", result.imported);
+        map.putDouble("failed", result.failed);
+        map.putDouble("bytesRead", result.bytesRead);
+        map.putDouble("totalBytes", result.totalBytes);
+        if (finished) {
+            map.putBoolean("cancelled", result.cancelled);
+            WritableArray failures = new WritableNativeArray();
+            for (MessageImporter.Failure failure : result.failures) {
+                WritableMap item = new WritableNativeMap();
+                item.putDouble("line", failure.line);
+                item.putString("error", failure.error);
+                failures.pushMap(item);
+            }
+            map.putArray("failures", failures);
+        }
+        return map;
+    }
+
     /**
      * 从options字典中转换PushData
      */
@@ -1449,9 +3003,11 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
             }
 
 
+            SearchHighlight highlight = parseSearchHighlight(optionsMap);
             WritableArray result = new WritableNativeArray();
             for (Message message : messages) {
-                result.pushMap(convertMessageToMap(message));
+                result.pushMap(highlight != null ? convertSearchHitToMap(message, searchContent, highlight)
+                        : convertMessageToMap(message));
             }
             promise.resolve(result);
         } catch (Exception e) {
@@ -1474,74 +3030,9 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 return;
             }
 
-            MessageQueryOptions.Builder builder = new MessageQueryOptions.Builder();
+            MessageQueryOptions.Builder builder = newMessageQueryBuilder(optionsMap);
             builder.setSearchContent(searchContent);
 
-            if (optionsMap.hasKey("senderUserIds")) {
-                ReadableArray senderUserIdsArray = optionsMap.getArray("senderUserIds");
-                if (senderUserIdsArray != null) {
-                    List<String> senderUserIds = new ArrayList<>();
-                    for (int i = 0; i < senderUserIdsArray.size(); i++) {
-                        senderUserIds.add(senderUserIdsArray.getString(i));
-                    }
-                    builder.setSenderUserIds(senderUserIds);
-                }
-            }
-
-            if (optionsMap.hasKey("contentTypes")) {
-                ReadableArray contentTypesArray = optionsMap.getArray("contentTypes");
-                if (contentTypesArray != null) {
-                    List<String> contentTypes = new ArrayList<>();
-                    for (int i = 0; i < contentTypesArray.size(); i++) {
-                        contentTypes.add(contentTypesArray.getString(i));
-                    }
-                    builder.setContentTypes(contentTypes);
-                }
-            }
-
-            if (optionsMap.hasKey("conversations")) {
-                ReadableArray conversationsArray = optionsMap.getArray("conversations");
-                if (conversationsArray != null) {
-                    List<Conversation> conversations = new ArrayList<>();
-                    for (int i = 0; i < conversationsArray.size(); i++) {
-                        conversations.add(convertMapToConversation(conversationsArray.getMap(i)));
-                    }
-                    builder.setConversations(conversations);
-                }
-            }
-
-            if (optionsMap.hasKey("states")) {
-                ReadableArray statesArray = optionsMap.getArray("states");
-                if (statesArray != null) {
-                    List<Message.MessageState> states = new ArrayList<>();
-                    for (int i = 0; i < statesArray.size(); i++) {
-                        int stateValue = (int) statesArray.getDouble(i);
-                        states.add(Message.MessageState.values()[stateValue]);
-                    }
-                    builder.setStates(states);
-                }
-            }
-
-            if (optionsMap.hasKey("direction")) {
-                int directionInt = optionsMap.getInt("direction");
-                Message.MessageDirection messageDirection = (directionInt == 2)
-                    ? Message.MessageDirection.RECEIVE
-                    : Message.MessageDirection.SEND;
-                builder.setDirection(messageDirection);
-            }
-
-            if (optionsMap.hasKey("conversationTypes")) {
-                ReadableArray conversationTypesArray = optionsMap.getArray("conversationTypes");
-                if (conversationTypesArray != null) {
-                    List<Conversation.ConversationType> conversationTypes = new ArrayList<>();
-                    for (int i = 0; i < conversationTypesArray.size(); i++) {
-                        int typeValue = (int) conversationTypesArray.getDouble(i);
-                        conversationTypes.add(Conversation.ConversationType.values()[typeValue - 1]);
-                    }
-                    builder.setConversationTypes(conversationTypes);
-                }
-            }
-
             MessageQueryOptions options = builder.build();
 
             JIM.getInstance().getMessageManager().searchConversationsWithMessageContent(
@@ -1566,507 +3057,2470 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         }
     }
 
-    /**
-     * 根据clientMsgNo列表删除消息
-     */
-    @ReactMethod
-    public void deleteMessagesByClientMsgNoList(ReadableMap conversationMap, ReadableArray clientMsgNos,
-            Promise promise) {
-        Conversation conversation = convertMapToConversation(conversationMap);
-        List<Long> msgNoList = new ArrayList<>();
-        for (int i = 0; i < clientMsgNos.size(); i++) {
-            msgNoList.add((long) clientMsgNos.getDouble(i));
+    private static class SearchSessionState {
+        final boolean conversations;
+        final ReadableMap options;
+        final int limit;
+        final int chunkSize;
+        final SearchMessageFilter messageFilter;
+        final SearchSession<Message> messageSession = new SearchSession<>();
+        final SearchSession<SearchConversationsResult> conversationSession = new SearchSession<>();
+
+        SearchSessionState(boolean conversations, ReadableMap options, int limit, int chunkSize,
+                           SearchMessageFilter messageFilter) {
+            this.conversations = conversations;
+            this.options = options;
+            this.limit = limit;
+            this.chunkSize = chunkSize;
+            this.messageFilter = messageFilter;
         }
-
-        JIM.getInstance().getMessageManager()
-                .deleteMessagesByClientMsgNoList(conversation, msgNoList, new IMessageManager.ISimpleCallback() {
-                    @Override
-                    public void onSuccess() {
-                        promise.resolve(true);
-                    }
-
-                    @Override
-                    public void onError(int errorCode) {
-                        promise.reject("error", "Error code: " + errorCode);
-                    }
-                });
     }
 
     /**
-     * 获取历史消息
+     * 消息搜索会话的筛选条件
+     * SDK 的消息搜索只支持搜索词、会话与类型，其余条件在结果中筛选，含义同 searchConversationsWithMessageContent
      */
-    @ReactMethod
-    public void getMessages(ReadableMap conversationMap, int direction, ReadableMap options, Promise promise) {
-        try {
-            Conversation conversation = convertMapToConversation(conversationMap);
-            GetMessageOptions getOptions = new GetMessageOptions();
+    private static class SearchMessageFilter {
+        Set<String> contentTypes;
+        Set<String> senderUserIds;
+        Set<String> conversationKeys;
+        Set<Integer> conversationTypes;
+        Set<Integer> states;
+        // 1 发送，2 接收，0 不限
+        int direction;
+
+        boolean isEmpty() {
+            return contentTypes == null && senderUserIds == null && conversationKeys == null
+                    && conversationTypes == null && states == null && direction == 0;
+        }
 
-            if (options.hasKey("count")) {
-                getOptions.setCount(options.getInt("count"));
+        boolean matches(Message message) {
+            if (contentTypes != null && !contentTypes.contains(message.getContentType())) {
+                return false;
+            }
+            if (senderUserIds != null && !senderUserIds.contains(message.getSenderUserId())) {
+                return false;
+            }
+            Conversation conversation = message.getConversation();
+            if (conversationKeys != null
+                    && (conversation == null || !conversationKeys.contains(conversationKey(conversation)))) {
+                return false;
             }
-            if (options.hasKey("startTime")) {
-                getOptions.setStartTime((long) options.getDouble("startTime"));
+            if (conversationTypes != null && (conversation == null
+                    || !conversationTypes.contains(conversation.getConversationType().getValue()))) {
+                return false;
             }
+            if (states != null && (message.getState() == null || !states.contains(message.getState().getValue()))) {
+                return false;
+            }
+            return direction == 0
+                    || (message.getDirection() != null && message.getDirection().getValue() == direction);
+        }
+    }
 
-            JIMConst.PullDirection pullDirection = direction == 0 ? JIMConst.PullDirection.NEWER
-                    : JIMConst.PullDirection.OLDER;
-            JIM.getInstance().getMessageManager().getMessages(
-                    conversation,
-                    pullDirection,
-                    getOptions,
-                    new IMessageManager.IGetMessagesCallbackV3() {
-                        @Override
-                        public void onGetMessages(List<Message> messages, long timestamp, boolean hasMore, int code) {
-                            WritableMap result = new WritableNativeMap();
-                            WritableArray messageArray = new WritableNativeArray();
-                            for (Message msg : messages) {
-                                messageArray.pushMap(convertMessageToMap(msg));
-                            }
-                            result.putArray("messages", messageArray);
-                            result.putDouble("timestamp", timestamp);
-                            result.putBoolean("hasMore", hasMore);
-                            result.putInt("code", code);
-                            promise.resolve(result);
-                        }
-                    });
-        } catch (Exception e) {
-            promise.reject("GET_MESSAGES_ERROR", e.getMessage());
+    private SearchMessageFilter parseSearchMessageFilter(ReadableMap options) {
+        SearchMessageFilter filter = new SearchMessageFilter();
+        ReadableArray array = options.hasKey("contentTypes") ? options.getArray("contentTypes") : null;
+        if (array != null) {
+            filter.contentTypes = new HashSet<>();
+            for (int i = 0; i < array.size(); i++) {
+                filter.contentTypes.add(array.getString(i));
+            }
+        }
+        array = options.hasKey("senderUserIds") ? options.getArray("senderUserIds") : null;
+        if (array != null) {
+            filter.senderUserIds = new HashSet<>();
+            for (int i = 0; i < array.size(); i++) {
+                filter.senderUserIds.add(array.getString(i));
+            }
+        }
+        array = options.hasKey("conversations") ? options.getArray("conversations") : null;
+        if (array != null) {
+            filter.conversationKeys = new HashSet<>();
+            for (int i = 0; i < array.size(); i++) {
+                filter.conversationKeys.add(conversationKey(convertMapToConversation(array.getMap(i))));
+            }
+        }
+        array = options.hasKey("conversationTypes") ? options.getArray("conversationTypes") : null;
+        if (array != null) {
+            filter.conversationTypes = new HashSet<>();
+            for (int i = 0; i < array.size(); i++) {
+                filter.conversationTypes.add((int) array.getDouble(i));
+            }
+        }
+        array = options.hasKey("states") ? options.getArray("states") : null;
+        if (array != null) {
+            filter.states = new HashSet<>();
+            for (int i = 0; i < array.size(); i++) {
+                filter.states.add((int) array.getDouble(i));
+            }
+        }
+        if (options.hasKey("direction")) {
+            filter.direction = options.getInt("direction");
         }
+        return filter;
+    }
+
+    private interface SearchResultConverter<T> {
+        WritableMap convert(T item);
     }
 
     /**
-     * 撤回消息
+     * 打开搜索会话（仅 Android）
+     *
+     * @param options type 为 message（默认）或 conversation；limit 单次搜索的最大条数（默认 100），
+     *                chunkSize 每批推送的条数（默认 20）；其余字段同 searchMessage / searchConversationsWithMessageContent，
+     *                消息会话的 senderUserIds、conversations、states、direction 等在 SDK 结果中筛选
+     * @return 会话 ID
      */
     @ReactMethod
-    public void recallMessage(String messageId, ReadableMap extras, Promise promise) {
+    public void openSearchSession(ReadableMap options, Promise promise) {
+        boolean conversations = options.hasKey("type") && "conversation".equals(options.getString("type"));
+        int limit = options.hasKey("limit") ? Math.max(1, options.getInt("limit")) : 100;
+        int chunkSize = options.hasKey("chunkSize") ? Math.max(1, options.getInt("chunkSize")) : 20;
         try {
-            Map<String, String> extrasMap = new HashMap<>();
-            if (extras != null) {
-                ReadableMapKeySetIterator it = extras.keySetIterator();
-                extrasMap = new HashMap<>();
-                while (it.hasNextKey()) {
-                    extrasMap.put(it.nextKey(), extras.getString(it.nextKey()));
-                }
-            }
-            JIM.getInstance().getMessageManager().recallMessage(
-                    messageId,
-                    extrasMap,
-                    new IMessageManager.IRecallMessageCallback() {
-                        @Override
-                        public void onSuccess(Message m) {
-                            promise.resolve(true);
-                        }
-
-                        @Override
-                        public void onError(int errorCode) {
-                            promise.reject("RECALL_MESSAGE_ERROR", errorCode + "");
-                        }
-                    });
+            SearchMessageFilter filter = conversations ? null : parseSearchMessageFilter(options);
+            String sessionId = String.valueOf(nextSearchSessionId.incrementAndGet());
+            searchSessions.put(sessionId,
+                    new SearchSessionState(conversations, RNTypeConverter.copyMap(options), limit, chunkSize, filter));
+            promise.resolve(sessionId);
         } catch (Exception e) {
-            promise.reject("RECALL_MESSAGE_ERROR", e.getMessage());
+            promise.reject("SEARCH_SESSION_ERROR", e.getMessage());
         }
     }
 
     /**
-     * 添加消息反应
+     * 更新搜索词（仅 Android）
+     * 结果通过 SearchSessionResults 分批推送，每批带有本次查询的代数；更新后旧代数的搜索不再推送。
+     * 新搜索词以上一次为前缀且上一次结果未被截断时，在上一次结果中筛选。
+     *
+     * @return 本次查询的代数
      */
     @ReactMethod
-    public void addMessageReaction(ReadableMap messageMap, String reactionId, Promise promise) {
+    public void updateSearchSession(String sessionId, String query, Promise promise) {
+        SearchSessionState state = searchSessions.get(sessionId);
+        if (state == null) {
+            promise.reject("SEARCH_SESSION_ERROR", "Search session not found");
+            return;
+        }
+        long gen = state.conversations ? state.conversationSession.update() : state.messageSession.update();
+        promise.resolve((double) gen);
         try {
-            String messageId = messageMap.getString("messageId");
-            Conversation conversation = convertMapToConversation(messageMap);
-
-            JIM.getInstance().getMessageManager().addMessageReaction(
-                    messageId,
-                    conversation,
-                    reactionId,
-                    new IMessageManager.ISimpleCallback() {
-                        @Override
-                        public void onSuccess() {
-                            promise.resolve(true);
-                        }
-
-                        @Override
-                        public void onError(int errorCode) {
-                            promise.reject("ADD_REACTION_ERROR", errorCode + "");
-                        }
-                    });
-        } catch (Exception e) {
-            promise.reject("ADD_REACTION_ERROR", e.getMessage());
+            searchExecutor.execute(() -> {
+                try {
+                    if (state.conversations) {
+                        runConversationSearch(sessionId, state, query, gen);
+                    } else {
+                        runMessageSearch(sessionId, state, query, gen);
+                    }
+                } catch (Exception e) {
+                    Log.e("JuggleIM", "search session error: " + e.getMessage(), e);
+                    WritableMap params = new WritableNativeMap();
+                    params.putString("sessionId", sessionId);
+                    params.putDouble("generation", gen);
+                    params.putString("error", e.getMessage());
+                    sendEvent("SearchSessionError", params);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w("JuggleIM", "updateSearchSession rejected: " + e.getMessage());
         }
     }
 
     /**
-     * 移除消息反应
+     * 关闭搜索会话（仅 Android）
      */
     @ReactMethod
-    public void removeMessageReaction(ReadableMap messageMap, String reactionId, Promise promise) {
-        try {
-            String messageId = messageMap.getString("messageId");
-            Conversation conversation = convertMapToConversation(messageMap);
+    public void closeSearchSession(String sessionId) {
+        SearchSessionState state = searchSessions.remove(sessionId);
+        if (state != null) {
+            state.messageSession.reset();
+            state.conversationSession.reset();
+        }
+    }
 
-            JIM.getInstance().getMessageManager().removeMessageReaction(
-                    messageId,
-                    conversation,
-                    reactionId,
-                    new IMessageManager.ISimpleCallback() {
-                        @Override
-                        public void onSuccess() {
-                            promise.resolve(true);
-                        }
+    private void runMessageSearch(String sessionId, SearchSessionState state, String query, long gen) {
+        SearchSession<Message> session = state.messageSession;
+        if (!session.isCurrent(gen)) {
+            return;
+        }
+        String normalized = SearchSession.normalize(query);
+        if (normalized.isEmpty()) {
+            session.commit(gen, query, Collections.<Message>emptyList(), false);
+            emitSearchResults(sessionId, gen, query, Collections.<Message>emptyList(), false, state.chunkSize,
+                    session, this::convertMessageToMap);
+            return;
+        }
+        SearchHighlight highlight = parseSearchHighlight(state.options);
+        SearchResultConverter<Message> converter = highlight != null
+                ? message -> convertSearchHitToMap(message, query, highlight) : this::convertMessageToMap;
+        List<Message> candidates = session.candidates(query);
+        // 其它类型只能从编码后的 JSON 中匹配，会命中字段名或地址，这类结果交给 SDK 重新搜索
+        if (candidates != null && !isNarrowable(candidates)) {
+            candidates = null;
+        }
+        boolean narrowed = candidates != null;
+        List<Message> results;
+        if (narrowed) {
+            results = new ArrayList<>();
+            for (Message message : candidates) {
+                String text = searchableText(message.getContent());
+                if (text != null && text.toLowerCase(Locale.ROOT).contains(normalized)) {
+                    results.add(message);
+                }
+            }
+        } else {
+            ReadableMap options = state.options;
+            ReadableMap conversationMap = options.hasKey("conversation") ? options.getMap("conversation") : null;
+            if (conversationMap != null) {
+                results = JIM.getInstance().getMessageManager().searchMessageInConversation(
+                        convertMapToConversation(conversationMap), query.trim(), state.limit, 0,
+                        JIMConst.PullDirection.OLDER);
+            } else {
+                Set<String> contentTypes = state.messageFilter.contentTypes;
+                results = JIM.getInstance().getMessageManager().searchMessage(query.trim(), state.limit, 0,
+                        JIMConst.PullDirection.OLDER, contentTypes != null ? new ArrayList<>(contentTypes) : null);
+            }
+            if (results == null) {
+                results = new ArrayList<>();
+            }
+        }
+        // 是否截断按 SDK 返回的条数判断，筛选掉的消息也占用了条数上限
+        boolean complete = narrowed || results.size() < state.limit;
+        if (!narrowed && !state.messageFilter.isEmpty()) {
+            List<Message> filtered = new ArrayList<>(results.size());
+            for (Message message : results) {
+                if (state.messageFilter.matches(message)) {
+                    filtered.add(message);
+                }
+            }
+            results = filtered;
+        }
+        if (!session.commit(gen, query, results, complete)) {
+            return;
+        }
+        emitSearchResults(sessionId, gen, query, results, narrowed, state.chunkSize, session, converter);
+    }
 
-                        @Override
-                        public void onError(int errorCode) {
-                            promise.reject("REMOVE_REACTION_ERROR", errorCode + "");
-                        }
-                    });
-        } catch (Exception e) {
-            promise.reject("REMOVE_REACTION_ERROR", e.getMessage());
+    private void runConversationSearch(String sessionId, SearchSessionState state, String query, long gen) {
+        SearchSession<SearchConversationsResult> session = state.conversationSession;
+        if (!session.isCurrent(gen)) {
+            return;
+        }
+        SearchResultConverter<SearchConversationsResult> converter = result -> {
+            WritableMap map = new WritableNativeMap();
+            map.putInt("matchedCount", result.getMatchedCount());
+            map.putMap("conversationInfo", convertConversationInfoToMap(result.getConversationInfo()));
+            return map;
+        };
+        List<SearchConversationsResult> candidates = session.candidates(query);
+        if (SearchSession.normalize(query).isEmpty() || (candidates != null && candidates.isEmpty())) {
+            List<SearchConversationsResult> empty = Collections.emptyList();
+            session.commit(gen, query, empty, candidates != null);
+            emitSearchResults(sessionId, gen, query, empty, candidates != null, state.chunkSize, session, converter);
+            return;
+        }
+        MessageQueryOptions.Builder builder = newMessageQueryBuilder(state.options);
+        builder.setSearchContent(query.trim());
+        boolean narrowed = candidates != null;
+        if (narrowed) {
+            // 只在上一次命中的会话中重新统计
+            List<Conversation> scope = new ArrayList<>();
+            for (SearchConversationsResult result : candidates) {
+                scope.add(result.getConversationInfo().getConversation());
+            }
+            builder.setConversations(scope);
         }
+        JIM.getInstance().getMessageManager().searchConversationsWithMessageContent(builder.build(),
+                new IMessageManager.ISearchConversationWithMessageContentCallback() {
+                    @Override
+                    public void onComplete(List<SearchConversationsResult> resultList) {
+                        List<SearchConversationsResult> results = resultList != null
+                                ? resultList : Collections.<SearchConversationsResult>emptyList();
+                        try {
+                            searchExecutor.execute(() -> {
+                                if (session.commit(gen, query, results, true)) {
+                                    emitSearchResults(sessionId, gen, query, results, narrowed, state.chunkSize,
+                                            session, converter);
+                                }
+                            });
+                        } catch (RejectedExecutionException e) {
+                            Log.w("JuggleIM", "search result dropped: " + e.getMessage());
+                        }
+                    }
+                });
     }
 
     /**
-     * 发送图片消息
+     * 分批转换并推送结果，每批之前检查代数是否过期
      */
-    @ReactMethod
-    public void sendImageMessage(ReadableMap messageMap, String messageId, Promise promise) {
-        try {
-            Conversation conversation = convertMapToConversation(messageMap);
-            ImageMessage imageMessage = new ImageMessage();
+    private <T> void emitSearchResults(String sessionId, long gen, String query, List<T> results, boolean narrowed,
+                                       int chunkSize, SearchSession<T> session, SearchResultConverter<T> converter) {
+        int offset = 0;
+        do {
+            if (!session.isCurrent(gen)) {
+                return;
+            }
+            int end = Math.min(results.size(), offset + chunkSize);
+            WritableArray items = new WritableNativeArray();
+            for (int i = offset; i < end; i++) {
+                items.pushMap(converter.convert(results.get(i)));
+            }
+            WritableMap params = new WritableNativeMap();
+            params.putString("sessionId", sessionId);
+            params.putDouble("generation", gen);
+            params.putString("query", query);
+            params.putArray("items", items);
+            params.putInt("offset", offset);
+            params.putInt("total", results.size());
+            params.putBoolean("narrowed", narrowed);
+            params.putBoolean("done", end >= results.size());
+            sendEvent("SearchSessionResults", params);
+            offset = end;
+        } while (offset < results.size());
+    }
 
-            ReadableMap contentMap = messageMap.getMap("content");
-            if (contentMap.hasKey("localPath")) {
-                String path = FileUtils.convertContentUriToFile(getReactApplicationContext(),
-                        contentMap.getString("localPath"));
-                imageMessage.setLocalPath(path);
+    /**
+     * 上一次结果是否都能在本地筛选，只支持文本和文件消息
+     */
+    private static boolean isNarrowable(List<Message> messages) {
+        for (Message message : messages) {
+            MessageContent content = message.getContent();
+            if (!(content instanceof TextMessage) && !(content instanceof FileMessage)) {
+                return false;
             }
-            if (contentMap.hasKey("thumbnailLocalPath")) {
-                String path = FileUtils.convertContentUriToFile(getReactApplicationContext(),
-                        contentMap.getString("localPath"));
-                imageMessage.setThumbnailLocalPath(path);
+        }
+        return true;
+    }
+
+    /**
+     * 消息中参与搜索的文本，用于在上一次结果中筛选；文本消息为内容，文件消息为文件名
+     */
+    private static String searchableText(MessageContent content) {
+        if (content instanceof TextMessage) {
+            return ((TextMessage) content).getContent();
+        }
+        if (content instanceof FileMessage) {
+            return ((FileMessage) content).getName();
+        }
+        return null;
+    }
+
+    private static class SearchHighlight {
+        int snippetLength = 60;
+        int maxRanges = 10;
+        boolean includeContent = true;
+    }
+
+    /**
+     * 解析搜索选项中的 highlight，可为 true 或 {snippetLength, maxRanges, includeContent}，未开启时返回 null
+     */
+    private static SearchHighlight parseSearchHighlight(ReadableMap optionsMap) {
+        if (optionsMap == null || !optionsMap.hasKey("highlight") || optionsMap.isNull("highlight")) {
+            return null;
+        }
+        if (optionsMap.getType("highlight") == ReadableType.Boolean) {
+            return optionsMap.getBoolean("highlight") ? new SearchHighlight() : null;
+        }
+        ReadableMap map = optionsMap.getMap("highlight");
+        SearchHighlight highlight = new SearchHighlight();
+        if (map.hasKey("snippetLength")) {
+            highlight.snippetLength = Math.max(0, map.getInt("snippetLength"));
+        }
+        if (map.hasKey("maxRanges")) {
+            highlight.maxRanges = Math.max(1, map.getInt("maxRanges"));
+        }
+        if (map.hasKey("includeContent")) {
+            highlight.includeContent = map.getBoolean("includeContent");
+        }
+        return highlight;
+    }
+
+    /**
+     * 转换搜索命中的消息并附加 highlight：{field, snippet, snippetStart, truncatedStart, truncatedEnd, ranges, snippetRanges}
+     * 文本消息匹配 content，文件消息匹配 name，其它类型不附加。
+     */
+    private WritableMap convertSearchHitToMap(Message message, String query, SearchHighlight highlight) {
+        WritableMap map = convertMessageToMap(message, highlight.includeContent);
+        MessageContent content = message.getContent();
+        String field;
+        String text;
+        if (content instanceof TextMessage) {
+            field = "content";
+            text = ((TextMessage) content).getContent();
+        } else if (content instanceof FileMessage) {
+            field = "name";
+            text = ((FileMessage) content).getName();
+        } else {
+            return map;
+        }
+        MatchHighlighter.Result result = MatchHighlighter.highlight(text, query, highlight.snippetLength,
+                highlight.maxRanges);
+        if (result == null) {
+            return map;
+        }
+        WritableMap highlightMap = new WritableNativeMap();
+        highlightMap.putString("field", field);
+        highlightMap.putString("snippet", result.snippet);
+        highlightMap.putInt("snippetStart", result.snippetStart);
+        highlightMap.putBoolean("truncatedStart", result.truncatedStart);
+        highlightMap.putBoolean("truncatedEnd", result.truncatedEnd);
+        highlightMap.putArray("ranges", convertRangesToArray(result.ranges));
+        highlightMap.putArray("snippetRanges", convertRangesToArray(result.snippetRanges));
+        map.putMap("highlight", highlightMap);
+        return map;
+    }
+
+    private static WritableArray convertRangesToArray(List<int[]> ranges) {
+        WritableArray array = new WritableNativeArray();
+        for (int[] range : ranges) {
+            WritableArray pair = new WritableNativeArray();
+            pair.pushInt(range[0]);
+            pair.pushInt(range[1]);
+            array.pushArray(pair);
+        }
+        return array;
+    }
+
+    /**
+     * 按搜索选项中的发送者、类型、会话等条件创建查询，不含搜索内容
+     */
+    private MessageQueryOptions.Builder newMessageQueryBuilder(ReadableMap optionsMap) {
+        MessageQueryOptions.Builder builder = new MessageQueryOptions.Builder();
+
+        if (optionsMap.hasKey("senderUserIds")) {
+            ReadableArray senderUserIdsArray = optionsMap.getArray("senderUserIds");
+            if (senderUserIdsArray != null) {
+                List<String> senderUserIds = new ArrayList<>();
+                for (int i = 0; i < senderUserIdsArray.size(); i++) {
+                    senderUserIds.add(senderUserIdsArray.getString(i));
+                }
+                builder.setSenderUserIds(senderUserIds);
             }
-            if (contentMap.hasKey("url")) {
-                imageMessage.setUrl(contentMap.getString("url"));
+        }
+
+        if (optionsMap.hasKey("contentTypes")) {
+            ReadableArray contentTypesArray = optionsMap.getArray("contentTypes");
+            if (contentTypesArray != null) {
+                List<String> contentTypes = new ArrayList<>();
+                for (int i = 0; i < contentTypesArray.size(); i++) {
+                    contentTypes.add(contentTypesArray.getString(i));
+                }
+                builder.setContentTypes(contentTypes);
             }
-            if (contentMap.hasKey("thumbnailUrl")) {
-                imageMessage.setThumbnailUrl(contentMap.getString("thumbnailUrl"));
+        }
+
+        if (optionsMap.hasKey("conversations")) {
+            ReadableArray conversationsArray = optionsMap.getArray("conversations");
+            if (conversationsArray != null) {
+                List<Conversation> conversations = new ArrayList<>();
+                for (int i = 0; i < conversationsArray.size(); i++) {
+                    conversations.add(convertMapToConversation(conversationsArray.getMap(i)));
+                }
+                builder.setConversations(conversations);
             }
-            if (contentMap.hasKey("width")) {
-                imageMessage.setWidth(contentMap.getInt("width"));
+        }
+
+        if (optionsMap.hasKey("states")) {
+            ReadableArray statesArray = optionsMap.getArray("states");
+            if (statesArray != null) {
+                List<Message.MessageState> states = new ArrayList<>();
+                for (int i = 0; i < statesArray.size(); i++) {
+                    int stateValue = (int) statesArray.getDouble(i);
+                    states.add(Message.MessageState.values()[stateValue]);
+                }
+                builder.setStates(states);
             }
-            if (contentMap.hasKey("height")) {
-                imageMessage.setHeight(contentMap.getInt("height"));
+        }
+
+        if (optionsMap.hasKey("direction")) {
+            int directionInt = optionsMap.getInt("direction");
+            Message.MessageDirection messageDirection = (directionInt == 2)
+                ? Message.MessageDirection.RECEIVE
+                : Message.MessageDirection.SEND;
+            builder.setDirection(messageDirection);
+        }
+
+        if (optionsMap.hasKey("conversationTypes")) {
+            ReadableArray conversationTypesArray = optionsMap.getArray("conversationTypes");
+            if (conversationTypesArray != null) {
+                List<Conversation.ConversationType> conversationTypes = new ArrayList<>();
+                for (int i = 0; i < conversationTypesArray.size(); i++) {
+                    int typeValue = (int) conversationTypesArray.getDouble(i);
+                    conversationTypes.add(Conversation.ConversationType.values()[typeValue - 1]);
+                }
+                builder.setConversationTypes(conversationTypes);
             }
+        }
+        return builder;
+    }
 
-            MessageOptions options = new MessageOptions();
-            PushData pushData = convertMapToPushData(messageMap);
-            if (pushData != null) {
-                options.setPushData(pushData);
+    private static class NameIndexEntry {
+        final String kind;
+        final String id;
+        final List<String> names;
+
+        NameIndexEntry(String kind, String id, List<String> names) {
+            this.kind = kind;
+            this.id = id;
+            this.names = names;
+        }
+    }
+
+    /**
+     * 添加或更新名称索引条目（仅 Android）
+     * 用户和群组名称在获取用户/群组信息时自动索引，此方法用于补充会话别名、备注名等，与 SDK 名称分开保存。
+     *
+     * @param entries 每项包含 kind（user / group / conversation）、id、name 和可选的 aliases；
+     *                name 与 aliases 均为空时移除此前补充的名称，SDK 名称保留
+     */
+    @ReactMethod
+    public void updateNameIndex(ReadableArray entries, Promise promise) {
+        List<NameIndexEntry> items = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            ReadableMap entry = entries.getMap(i);
+            if (entry == null || !entry.hasKey("kind") || !entry.hasKey("id")) {
+                continue;
             }
-            ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
-            if (mentionInfoMap != null) {
-                MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
-                options.setMentionInfo(mentionInfo);
+            List<String> names = new ArrayList<>();
+            if (entry.hasKey("name") && !entry.isNull("name")) {
+                names.add(entry.getString("name"));
             }
-            if (messageMap.hasKey("referredMessageId")) {
-                options.setReferredMessageId(messageMap.getString("referredMessageId"));
+            if (entry.hasKey("aliases") && !entry.isNull("aliases")) {
+                ReadableArray aliases = entry.getArray("aliases");
+                for (int j = 0; j < aliases.size(); j++) {
+                    names.add(aliases.getString(j));
+                }
+            }
+            items.add(new NameIndexEntry(entry.getString("kind"), entry.getString("id"), names));
+        }
+        try {
+            // 拼音转换放到搜索线程，避免大批量条目阻塞 JS 调用
+            searchExecutor.execute(() -> {
+                for (NameIndexEntry item : items) {
+                    nameIndex.putAliases(item.kind, item.id, item.names);
+                }
+                promise.resolve(items.size());
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject("NAME_INDEX_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 从名称索引中移除条目（仅 Android）
+     *
+     * @param entries 每项包含 kind 和 id
+     */
+    @ReactMethod
+    public void removeFromNameIndex(ReadableArray entries) {
+        List<String[]> keys = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            ReadableMap entry = entries.getMap(i);
+            if (entry != null && entry.hasKey("kind") && entry.hasKey("id")) {
+                keys.add(new String[]{entry.getString("kind"), entry.getString("id")});
             }
+        }
+        try {
+            // 与索引更新在同一线程上按顺序执行
+            searchExecutor.execute(() -> {
+                for (String[] key : keys) {
+                    nameIndex.remove(key[0], key[1]);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w("JuggleIM", "removeFromNameIndex rejected: " + e.getMessage());
+        }
+    }
 
-            Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
-                    imageMessage,
-                    conversation,
-                    options,
-                    new IMessageManager.ISendMediaMessageCallback() {
-                        @Override
-                        public void onProgress(int progress, Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putInt("progress", progress);
-                            params.putMap("message", convertMessageToMap(message));
-                            Log.d("JuggleIM", "onMediaMessageProgress: " + progress);
-                            sendEvent("onMediaMessageProgress", params);
+    /**
+     * 从本地数据库批量索引用户和群组名称（仅 Android）
+     * 在搜索线程上分批读取，不经过 JS，也不写入用户/群组信息缓存。
+     *
+     * @param options userIds、groupIds
+     * @return 已索引的条目数
+     */
+    @ReactMethod
+    public void indexContacts(ReadableMap options, Promise promise) {
+        List<String> userIds = new ArrayList<>();
+        List<String> groupIds = new ArrayList<>();
+        if (options.hasKey("userIds")) {
+            ReadableArray array = options.getArray("userIds");
+            for (int i = 0; i < array.size(); i++) {
+                userIds.add(array.getString(i));
+            }
+        }
+        if (options.hasKey("groupIds")) {
+            ReadableArray array = options.getArray("groupIds");
+            for (int i = 0; i < array.size(); i++) {
+                groupIds.add(array.getString(i));
+            }
+        }
+        try {
+            searchExecutor.execute(() -> {
+                try {
+                    int count = 0;
+                    for (int start = 0; start < userIds.size(); start += NAME_INDEX_BATCH) {
+                        List<String> batch = userIds.subList(start, Math.min(userIds.size(), start + NAME_INDEX_BATCH));
+                        List<UserInfo> users = JIM.getInstance().getUserInfoManager()
+                                .getUserInfoList(new ArrayList<>(batch));
+                        if (users != null) {
+                            for (UserInfo user : users) {
+                                nameIndex.putName(NameIndex.KIND_USER, user.getUserId(), user.getUserName());
+                                count++;
+                            }
                         }
-
-                        @Override
-                        public void onSuccess(Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageSent", params);
+                    }
+                    for (int start = 0; start < groupIds.size(); start += NAME_INDEX_BATCH) {
+                        List<String> batch = groupIds.subList(start, Math.min(groupIds.size(), start + NAME_INDEX_BATCH));
+                        List<GroupInfo> groups = JIM.getInstance().getUserInfoManager()
+                                .getGroupInfoList(new ArrayList<>(batch));
+                        if (groups != null) {
+                            for (GroupInfo group : groups) {
+                                nameIndex.putName(NameIndex.KIND_GROUP, group.getGroupId(), group.getGroupName());
+                                count++;
+                            }
                         }
+                    }
+                    promise.resolve(count);
+                } catch (Exception e) {
+                    promise.reject("NAME_INDEX_ERROR", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject("NAME_INDEX_ERROR", e.getMessage());
+        }
+    }
 
-                        @Override
-                        public void onError(Message message, int errorCode) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            params.putInt("errorCode", errorCode);
-                            sendEvent("onMediaMessageSentError", params);
-                        }
+    /**
+     * 按名称前缀、全拼或首字母查询（仅 Android）
+     * 结果按完全匹配、名称前缀、拼音前缀、首字母、名称中间位置的顺序排列。
+     *
+     * @param options kinds 限定条目类型；limit 最大条数（默认 20）
+     * @return [{kind, id, name, matchType}]
+     */
+    @ReactMethod
+    public void searchNames(String query, ReadableMap options, Promise promise) {
+        Set<String> kinds = null;
+        int limit = 20;
+        if (options != null) {
+            if (options.hasKey("kinds") && !options.isNull("kinds")) {
+                ReadableArray array = options.getArray("kinds");
+                kinds = new HashSet<>();
+                for (int i = 0; i < array.size(); i++) {
+                    kinds.add(array.getString(i));
+                }
+            }
+            if (options.hasKey("limit")) {
+                limit = Math.max(1, options.getInt("limit"));
+            }
+        }
+        WritableArray result = new WritableNativeArray();
+        for (NameIndex.Match match : nameIndex.search(query, kinds, limit)) {
+            result.pushMap(convertNameMatchToMap(match));
+        }
+        promise.resolve(result);
+    }
 
-                        @Override
-                        public void onCancel(Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageCancelled", params);
-                        }
-                    });
+    /**
+     * 获取名称索引统计（仅 Android）
+     */
+    @ReactMethod
+    public void getNameIndexMetrics(Promise promise) {
+        WritableMap result = new WritableNativeMap();
+        result.putInt("size", nameIndex.size());
+        result.putInt("tokenCount", nameIndex.getTokenCount());
+        result.putBoolean("pinyinSupported", nameIndex.isPinyinSupported());
+        promise.resolve(result);
+    }
 
-            WritableMap result = convertMessageToMap(message);
-            result.putString("messageId", messageId);
-            promise.resolve(result);
+    private static WritableMap convertNameMatchToMap(NameIndex.Match match) {
+        WritableMap map = new WritableNativeMap();
+        map.putString("kind", match.kind);
+        map.putString("id", match.id);
+        map.putString("name", match.name);
+        map.putString("matchType", nameMatchTypeToString(match.matchType));
+        return map;
+    }
+
+    private static String nameMatchTypeToString(int matchType) {
+        switch (matchType) {
+            case NameIndex.MATCH_NAME:
+                return "name";
+            case NameIndex.MATCH_PINYIN:
+                return "pinyin";
+            case NameIndex.MATCH_INITIALS:
+                return "initials";
+            default:
+                return "infix";
+        }
+    }
+
+    /**
+     * 根据clientMsgNo列表删除消息
+     */
+    @ReactMethod
+    public void deleteMessagesByClientMsgNoList(ReadableMap conversationMap, ReadableArray clientMsgNos,
+            Promise promise) {
+        Conversation conversation = convertMapToConversation(conversationMap);
+        List<Long> msgNoList = new ArrayList<>();
+        for (int i = 0; i < clientMsgNos.size(); i++) {
+            msgNoList.add((long) clientMsgNos.getDouble(i));
+        }
+
+        JIM.getInstance().getMessageManager()
+                .deleteMessagesByClientMsgNoList(conversation, msgNoList, new IMessageManager.ISimpleCallback() {
+                    @Override
+                    public void onSuccess() {
+                        messageRingCache.removeMessages(conversationKey(conversation), msgNoList);
+                        invalidateHistoryCursors(conversation);
+                        promise.resolve(true);
+                    }
+
+                    @Override
+                    public void onError(int errorCode) {
+                        promise.reject("error", "Error code: " + errorCode);
+                    }
+                });
+    }
+
+    /**
+     * 获取历史消息
+     */
+    @ReactMethod
+    public void getMessages(ReadableMap conversationMap, int direction, ReadableMap options, Promise promise) {
+        try {
+            Conversation conversation = convertMapToConversation(conversationMap);
+            int count = options.hasKey("count") ? options.getInt("count") : 0;
+            long startTime = options.hasKey("startTime") ? (long) options.getDouble("startTime") : 0;
+            JIMConst.PullDirection pullDirection = direction == 0 ? JIMConst.PullDirection.NEWER
+                    : JIMConst.PullDirection.OLDER;
+            loadMessagePage(conversation, pullDirection, startTime, count, (messages, timestamp, hasMore, code) -> {
+                WritableMap result = new WritableNativeMap();
+                WritableArray messageArray = new WritableNativeArray();
+                for (WritableMap map : messages) {
+                    messageArray.pushMap(map);
+                }
+                result.putArray("messages", messageArray);
+                result.putDouble("timestamp", timestamp);
+                result.putBoolean("hasMore", hasMore);
+                result.putInt("code", code);
+                promise.resolve(result);
+            });
         } catch (Exception e) {
-            promise.reject("SEND_IMAGE_MESSAGE_ERROR", e.getMessage());
+            promise.reject("GET_MESSAGES_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 加载一页历史消息并转换，首页优先由最近消息缓存响应
+     *
+     * @param count 小于等于 0 时使用 SDK 默认条数
+     */
+    private void loadMessagePage(Conversation conversation, JIMConst.PullDirection pullDirection, long startTime,
+            int count, HistoryCursor.PageCallback callback) {
+        GetMessageOptions getOptions = new GetMessageOptions();
+        if (count > 0) {
+            getOptions.setCount(count);
+        }
+        if (startTime > 0) {
+            getOptions.setStartTime(startTime);
+        }
+        // 从最新消息向前拉取的首页可以由缓存直接响应
+        String cacheKey = conversationKey(conversation);
+        boolean latestPage = pullDirection == JIMConst.PullDirection.OLDER && startTime <= 0;
+        if (latestPage && count > 0) {
+            MessageRingCache.Page page = messageRingCache.query(cacheKey, count);
+            if (page != null) {
+                List<WritableMap> messages = new ArrayList<>(page.messages.size());
+                for (MessageRingCache.CachedMessage cached : page.messages) {
+                    messages.add(RNTypeConverter.copyMap(cached.getMap()));
+                }
+                callback.onPage(messages, page.timestamp, page.hasMore, 0);
+                return;
+            }
+        }
+        if (latestPage) {
+            // 查询期间到达的消息事件由缓存记录，fill 时合并
+            messageRingCache.beginFill(cacheKey);
+        }
+        JIM.getInstance().getMessageManager().getMessages(
+                conversation,
+                pullDirection,
+                getOptions,
+                new IMessageManager.IGetMessagesCallbackV3() {
+                    @Override
+                    public void onGetMessages(List<Message> messages, long timestamp, boolean hasMore, int code) {
+                        List<WritableMap> result = new ArrayList<>();
+                        List<MessageRingCache.CachedMessage> cachedPage = latestPage && code == 0
+                                ? new ArrayList<MessageRingCache.CachedMessage>() : null;
+                        if (messages != null) {
+                            for (Message msg : messages) {
+                                WritableMap map = convertMessageToMap(msg);
+                                if (cachedPage != null) {
+                                    cachedPage.add(buildCachedMessage(msg, map));
+                                }
+                                result.add(map);
+                            }
+                        }
+                        if (cachedPage != null) {
+                            messageRingCache.fill(cacheKey, cachedPage, hasMore);
+                        } else if (latestPage) {
+                            messageRingCache.cancelFill(cacheKey);
+                        }
+                        callback.onPage(result, timestamp, hasMore, code);
+                    }
+                });
+    }
+
+    /**
+     * 打开历史消息游标（仅 Android）
+     * 每交付一页后在后台预取更早的消息
+     *
+     * @param options count 每页条数，startTime 起始时间（0 表示从最新消息开始），prefetchDepth 预取页数，默认 1
+     */
+    @ReactMethod
+    public void openMessageCursor(ReadableMap conversationMap, ReadableMap options, Promise promise) {
+        try {
+            Conversation conversation = convertMapToConversation(conversationMap);
+            int count = options != null && options.hasKey("count") ? options.getInt("count") : 20;
+            long startTime = options != null && options.hasKey("startTime") ? (long) options.getDouble("startTime") : 0;
+            int prefetchDepth = options != null && options.hasKey("prefetchDepth") ? options.getInt("prefetchDepth") : 1;
+            String cursorId = String.valueOf(nextCursorId.incrementAndGet());
+            HistoryCursor cursor = new HistoryCursor(conversationKey(conversation), startTime, count, prefetchDepth,
+                    (from, pageCount, callback) -> loadMessagePage(conversation, JIMConst.PullDirection.OLDER, from,
+                            pageCount, callback));
+            historyCursors.put(cursorId, cursor);
+            promise.resolve(cursorId);
+        } catch (Exception e) {
+            promise.reject("OPEN_MESSAGE_CURSOR_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 读取游标的下一页历史消息（仅 Android）
+     * 返回 prefetched 表示该页是否来自预取
+     */
+    @ReactMethod
+    public void nextMessagePage(String cursorId, Promise promise) {
+        HistoryCursor cursor = historyCursors.get(cursorId);
+        if (cursor == null) {
+            promise.reject("MESSAGE_CURSOR_CLOSED", "Cursor not found: " + cursorId);
+            return;
+        }
+        cursor.next(new HistoryCursor.PageConsumer() {
+            @Override
+            public void onPage(HistoryCursor.Page page, boolean prefetched) {
+                WritableMap result = new WritableNativeMap();
+                WritableArray messageArray = new WritableNativeArray();
+                for (WritableMap map : page.messages) {
+                    messageArray.pushMap(map);
+                }
+                result.putArray("messages", messageArray);
+                result.putDouble("timestamp", page.timestamp);
+                result.putBoolean("hasMore", page.hasMore);
+                result.putInt("code", page.code);
+                result.putBoolean("prefetched", prefetched);
+                promise.resolve(result);
+            }
+
+            @Override
+            public void onClosed() {
+                promise.reject("MESSAGE_CURSOR_CLOSED", "Cursor closed: " + cursorId);
+            }
+        });
+    }
+
+    /**
+     * 关闭历史消息游标，取消未完成的预取（仅 Android）
+     */
+    @ReactMethod
+    public void closeMessageCursor(String cursorId, Promise promise) {
+        HistoryCursor cursor = historyCursors.remove(cursorId);
+        if (cursor != null) {
+            cursor.close();
+        }
+        promise.resolve(cursor != null);
+    }
+
+    /**
+     * 会话消息发生删除或修改后，让相关游标丢弃预取结果
+     */
+    private void invalidateHistoryCursors(Conversation conversation) {
+        if (historyCursors.isEmpty() || conversation == null) {
+            return;
+        }
+        String key = conversationKey(conversation);
+        for (HistoryCursor cursor : historyCursors.values()) {
+            if (cursor.getConversationKey().equals(key)) {
+                cursor.invalidate();
+            }
+        }
+    }
+
+    private void closeAllHistoryCursors() {
+        for (HistoryCursor cursor : historyCursors.values()) {
+            cursor.close();
+        }
+        historyCursors.clear();
+    }
+
+    /**
+     * 导出会话历史消息到文件（仅 Android）
+     * conversations 为空时导出全部会话；进度通过 MessageExportProgress 事件推送，结果只包含文件路径和统计
+     * @param path 输出文件路径，支持 file:// 前缀，已存在时覆盖
+     * @param exportId 导出 ID，用于进度事件和取消，可为空
+     * @param options format（ndjson 或 binary，默认 ndjson）、pageSize 每页条数、startTime 起始时间（0 表示从最新消息开始）
+     */
+    @ReactMethod
+    public void exportMessages(ReadableArray conversations, String path, String exportId, ReadableMap options,
+                               Promise promise) {
+        String filePath = path != null && path.startsWith("file://") ? path.substring(7) : path;
+        if (filePath == null || filePath.isEmpty()) {
+            promise.reject("EXPORT_MESSAGES_ERROR", "Path is required");
+            return;
+        }
+        String formatName = options != null && options.hasKey("format") && !options.isNull("format")
+                ? options.getString("format") : "ndjson";
+        int format;
+        if ("ndjson".equals(formatName)) {
+            format = MessageExporter.FORMAT_NDJSON;
+        } else if ("binary".equals(formatName)) {
+            format = MessageExporter.FORMAT_BINARY;
+        } else {
+            promise.reject("EXPORT_MESSAGES_ERROR", "Unsupported format: " + formatName);
+            return;
+        }
+        int pageSize = options != null && options.hasKey("pageSize") && !options.isNull("pageSize")
+                ? options.getInt("pageSize") : MESSAGE_EXPORT_PAGE_SIZE;
+        long startTime = options != null && options.hasKey("startTime") && !options.isNull("startTime")
+                ? (long) options.getDouble("startTime") : 0;
+        MessageExporter.ConversationPager pager;
+        if (conversations != null && conversations.size() > 0) {
+            List<Conversation> targets = new ArrayList<>();
+            try {
+                for (int i = 0; i < conversations.size(); i++) {
+                    targets.add(convertMapToConversation(conversations.getMap(i)));
+                }
+            } catch (Exception e) {
+                promise.reject("EXPORT_MESSAGES_ERROR", e.getMessage());
+                return;
+            }
+            boolean[] delivered = {false};
+            pager = () -> {
+                if (delivered[0]) {
+                    return null;
+                }
+                delivered[0] = true;
+                return targets;
+            };
+        } else {
+            pager = allConversationsPager();
+        }
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        if (exportId != null && messageExports.putIfAbsent(exportId, cancelled) != null) {
+            promise.reject("EXPORT_MESSAGES_ERROR", "Export already running: " + exportId);
+            return;
+        }
+        File file = new File(filePath);
+        MessageExporter exporter = new MessageExporter(this::loadRawMessagePage, format, pageSize, startTime,
+                MESSAGE_EXPORT_PROGRESS_MS);
+        try {
+            exportExecutor.execute(() -> {
+                long startMs = System.currentTimeMillis();
+                try {
+                    MessageExporter.Result result = exporter.run(file, pager, cancelled,
+                            progress -> sendEvent("MessageExportProgress", convertExportResultToMap(exportId, progress)));
+                    WritableMap map = convertExportResultToMap(exportId, result);
+                    map.putString("path", result.cancelled ? null : file.getAbsolutePath());
+                    map.putString("format", formatName);
+                    map.putBoolean("cancelled", result.cancelled);
+                    map.putDouble("durationMs", System.currentTimeMillis() - startMs);
+                    promise.resolve(map);
+                } catch (Exception e) {
+                    Log.e("JuggleIM", "exportMessages error: " + e.getMessage(), e);
+                    promise.reject("EXPORT_MESSAGES_ERROR", e.getMessage());
+                } finally {
+                    if (exportId != null) {
+                        messageExports.remove(exportId, cancelled);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (exportId != null) {
+                messageExports.remove(exportId, cancelled);
+            }
+            promise.reject("EXPORT_MESSAGES_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 取消历史消息导出，已写入的部分文件会被删除（仅 Android）
+     */
+    @ReactMethod
+    public void cancelMessageExport(String exportId, Promise promise) {
+        AtomicBoolean cancelled = messageExports.get(exportId);
+        if (cancelled != null) {
+            cancelled.set(true);
+        }
+        promise.resolve(cancelled != null);
+    }
+
+    private void cancelAllMessageExports() {
+        for (AtomicBoolean cancelled : messageExports.values()) {
+            cancelled.set(true);
+        }
+    }
+
+    /**
+     * 按排序时间分页列出全部会话，与 loadConversationIndex 的分页方式相同
+     */
+    private MessageExporter.ConversationPager allConversationsPager() {
+        ConversationInfoPager pager = newConversationInfoPager();
+        return () -> {
+            List<ConversationInfo> page = pager.next();
+            if (page == null) {
+                return null;
+            }
+            List<Conversation> result = new ArrayList<>(page.size());
+            for (ConversationInfo info : page) {
+                result.add(info.getConversation());
+            }
+            return result;
+        };
+    }
+
+    /**
+     * 读取一页更早的消息，不经过消息缓存和 Map 转换
+     */
+    private void loadRawMessagePage(Conversation conversation, long startTime, int count,
+                                    MessageExporter.PageCallback callback) {
+        GetMessageOptions getOptions = new GetMessageOptions();
+        getOptions.setCount(count);
+        if (startTime > 0) {
+            getOptions.setStartTime(startTime);
+        }
+        JIM.getInstance().getMessageManager().getMessages(
+                conversation,
+                JIMConst.PullDirection.OLDER,
+                getOptions,
+                new IMessageManager.IGetMessagesCallbackV3() {
+                    @Override
+                    public void onGetMessages(List<Message> messages, long timestamp, boolean hasMore, int code) {
+                        callback.onPage(messages, timestamp, hasMore, code);
+                    }
+                });
+    }
+
+    private static WritableMap convertExportResultToMap(String exportId, MessageExporter.Result result) {
+        WritableMap map = new WritableNativeMap();
+        if (exportId != null) {
+            map.putString("exportId", exportId);
+        }
+        map.putInt("conversationCount", result.conversationCount);
+        map.putInt("failedConversationCount", result.failedConversationCount);
+        map.putDouble("messageCount", result.messageCount);
+        map.putDouble("bytesWritten", result.bytesWritten);
+        return map;
+    }
+
+    /**
+     * 获取最近消息缓存统计（仅 Android）
+     */
+    @ReactMethod
+    public void getMessageCacheMetrics(Promise promise) {
+        long hit = messageRingCache.getHitCount();
+        long miss = messageRingCache.getMissCount();
+        WritableMap result = new WritableNativeMap();
+        result.putDouble("hitCount", hit);
+        result.putDouble("missCount", miss);
+        result.putDouble("hitRatio", hit + miss > 0 ? (double) hit / (hit + miss) : 0);
+        result.putInt("conversationCount", messageRingCache.getConversationCount());
+        result.putInt("sizeBytes", messageRingCache.getSizeBytes());
+        result.putInt("maxSizeBytes", messageRingCache.getMaxBytes());
+        promise.resolve(result);
+    }
+
+    /**
+     * 撤回消息
+     */
+    @ReactMethod
+    public void recallMessage(String messageId, ReadableMap extras, Promise promise) {
+        try {
+            Map<String, String> extrasMap = new HashMap<>();
+            if (extras != null) {
+                ReadableMapKeySetIterator it = extras.keySetIterator();
+                extrasMap = new HashMap<>();
+                while (it.hasNextKey()) {
+                    extrasMap.put(it.nextKey(), extras.getString(it.nextKey()));
+                }
+            }
+            JIM.getInstance().getMessageManager().recallMessage(
+                    messageId,
+                    extrasMap,
+                    new IMessageManager.IRecallMessageCallback() {
+                        @Override
+                        public void onSuccess(Message m) {
+                            if (m != null) {
+                                convertAndCacheMessage(m);
+                            }
+                            promise.resolve(true);
+                        }
+
+                        @Override
+                        public void onError(int errorCode) {
+                            promise.reject("RECALL_MESSAGE_ERROR", errorCode + "");
+                        }
+                    });
+        } catch (Exception e) {
+            promise.reject("RECALL_MESSAGE_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 添加消息反应
+     */
+    @ReactMethod
+    public void addMessageReaction(ReadableMap messageMap, String reactionId, Promise promise) {
+        try {
+            String messageId = messageMap.getString("messageId");
+            Conversation conversation = convertMapToConversation(messageMap);
+
+            JIM.getInstance().getMessageManager().addMessageReaction(
+                    messageId,
+                    conversation,
+                    reactionId,
+                    new IMessageManager.ISimpleCallback() {
+                        @Override
+                        public void onSuccess() {
+                            promise.resolve(true);
+                        }
+
+                        @Override
+                        public void onError(int errorCode) {
+                            promise.reject("ADD_REACTION_ERROR", errorCode + "");
+                        }
+                    });
+        } catch (Exception e) {
+            promise.reject("ADD_REACTION_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 移除消息反应
+     */
+    @ReactMethod
+    public void removeMessageReaction(ReadableMap messageMap, String reactionId, Promise promise) {
+        try {
+            String messageId = messageMap.getString("messageId");
+            Conversation conversation = convertMapToConversation(messageMap);
+
+            JIM.getInstance().getMessageManager().removeMessageReaction(
+                    messageId,
+                    conversation,
+                    reactionId,
+                    new IMessageManager.ISimpleCallback() {
+                        @Override
+                        public void onSuccess() {
+                            promise.resolve(true);
+                        }
+
+                        @Override
+                        public void onError(int errorCode) {
+                            promise.reject("REMOVE_REACTION_ERROR", errorCode + "");
+                        }
+                    });
+        } catch (Exception e) {
+            promise.reject("REMOVE_REACTION_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 压缩原图并生成缩略图，尺寸以处理结果为准；处理失败时按原图发送
+     * 在图片处理线程池中调用，多张图片可以并行处理
+     *
+     * @param original 为 true 时保留原图，只补齐尺寸和缩略图
+     */
+    private void applyImageProcessing(ImageMessage imageMessage, boolean original) {
+        try {
+            ImageProcessor.Result result = imageProcessor.process(imageMessage.getLocalPath(),
+                    imageProcessor.getDefaultOptions(), original);
+            imageMessage.setLocalPath(result.path);
+            imageMessage.setWidth(result.width);
+            imageMessage.setHeight(result.height);
+            if (imageMessage.getThumbnailLocalPath() == null) {
+                imageMessage.setThumbnailLocalPath(result.thumbnailPath);
+            }
+            Log.d("JuggleIM", "image processed: " + result.originalBytes + " -> " + result.bytes + " bytes");
+        } catch (IOException e) {
+            Log.e("JuggleIM", "image processing failed, sending original: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 设置图片发送前处理参数（仅 Android）
+     *
+     * @param options maxDimension 长边上限，quality 初始压缩质量，maxBytes 字节预算，thumbnailDimension 缩略图长边
+     */
+    @ReactMethod
+    public void configureImageProcessing(ReadableMap options) {
+        ImageProcessor.Options processOptions = imageProcessor.getDefaultOptions();
+        if (options.hasKey("maxDimension")) {
+            processOptions.maxDimension = options.getInt("maxDimension");
+        }
+        if (options.hasKey("quality")) {
+            processOptions.quality = options.getInt("quality");
+        }
+        if (options.hasKey("minQuality")) {
+            processOptions.minQuality = options.getInt("minQuality");
+        }
+        if (options.hasKey("maxBytes")) {
+            processOptions.maxBytes = (long) options.getDouble("maxBytes");
+        }
+        if (options.hasKey("thumbnailDimension")) {
+            processOptions.thumbnailDimension = options.getInt("thumbnailDimension");
+        }
+        if (options.hasKey("thumbnailQuality")) {
+            processOptions.thumbnailQuality = options.getInt("thumbnailQuality");
+        }
+        imageProcessor.setDefaultOptions(processOptions);
+    }
+
+    /**
+     * 处理本地图片，返回压缩后的路径、尺寸与缩略图（仅 Android）
+     * 可用于发送前预览，结果会被后续发送复用
+     */
+    @ReactMethod
+    public void processImage(String localPath, boolean original, Promise promise) {
+        imageProcessor.execute(() -> {
+            try {
+                ImageProcessor.Result result = imageProcessor.process(stageMedia(localPath),
+                        imageProcessor.getDefaultOptions(), original);
+                WritableMap map = new WritableNativeMap();
+                map.putString("localPath", result.path);
+                map.putInt("width", result.width);
+                map.putInt("height", result.height);
+                map.putString("thumbnailLocalPath", result.thumbnailPath);
+                map.putDouble("originalSize", result.originalBytes);
+                map.putDouble("size", result.bytes);
+                promise.resolve(map);
+            } catch (Exception e) {
+                promise.reject("PROCESS_IMAGE_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 发送期间保护消息引用的暂存文件不被清理
+     */
+    private List<String> pinStagedMedia(MessageContent content) {
+        List<String> paths = new ArrayList<>();
+        if (content instanceof MediaMessageContent) {
+            paths.add(((MediaMessageContent) content).getLocalPath());
+        }
+        if (content instanceof ImageMessage) {
+            paths.add(((ImageMessage) content).getThumbnailLocalPath());
+        }
+        MediaStager stager = MediaStager.getInstance(getReactApplicationContext());
+        for (String path : paths) {
+            stager.pin(path);
+        }
+        return paths;
+    }
+
+    /**
+     * 媒体发送结束：解除暂存文件保护，通知发送队列
+     * 失败的消息可能被重发，刷新其文件的使用时间
+     */
+    private void finishMediaSend(List<String> stagedPaths, MediaSendQueue.Handle handle, int state) {
+        MediaStager stager = MediaStager.getInstance(getReactApplicationContext());
+        for (String path : stagedPaths) {
+            stager.unpin(path);
+            if (state == MediaSendQueue.STATE_FAILED) {
+                stager.touch(path);
+            }
+        }
+        scheduleStagingTrim(STAGING_TRIM_DELAY_MS);
+        if (handle != null) {
+            handle.finish(state == MediaSendQueue.STATE_SUCCEEDED);
+        }
+    }
+
+    /**
+     * 分步清理暂存区，每步删除少量文件后让出调度线程
+     */
+    private void scheduleStagingTrim(long delayMs) {
+        if (!stagingTrimScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::runStagingTrimStep, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            stagingTrimScheduled.set(false);
+        }
+    }
+
+    private void runStagingTrimStep() {
+        stagingTrimScheduled.set(false);
+        try {
+            StagingJanitor.Result result = stagingJanitor.trimStep(STAGING_TRIM_BATCH);
+            if (result.deletedCount > 0) {
+                Log.d("JuggleIM", "staging trim reclaimed " + result.reclaimedBytes + " bytes");
+            }
+            if (!result.done) {
+                scheduleStagingTrim(100);
+            }
+        } catch (Exception e) {
+            Log.e("JuggleIM", "staging trim error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 设置媒体暂存区的大小与保留时间（仅 Android）
+     *
+     * @param options maxBytes 最大字节数，maxAgeMs 最长保留毫秒数
+     */
+    @ReactMethod
+    public void configureMediaStaging(ReadableMap options) {
+        long maxBytes = options.hasKey("maxBytes") ? (long) options.getDouble("maxBytes") : 0;
+        long maxAgeMs = options.hasKey("maxAgeMs") ? (long) options.getDouble("maxAgeMs") : 0;
+        stagingJanitor.configure(maxBytes, maxAgeMs);
+        scheduleStagingTrim(0);
+    }
+
+    /**
+     * 立即清理媒体暂存区（仅 Android）
+     * 返回本次删除的文件数与回收的字节数
+     */
+    @ReactMethod
+    public void cleanMediaStaging(Promise promise) {
+        try {
+            scheduler.execute(() -> {
+                try {
+                    int deletedCount = 0;
+                    long reclaimedBytes = 0;
+                    StagingJanitor.Result result;
+                    do {
+                        result = stagingJanitor.trimStep(STAGING_TRIM_BATCH);
+                        deletedCount += result.deletedCount;
+                        reclaimedBytes += result.reclaimedBytes;
+                    } while (!result.done);
+                    WritableMap map = new WritableNativeMap();
+                    map.putInt("deletedCount", deletedCount);
+                    map.putDouble("reclaimedBytes", reclaimedBytes);
+                    map.putDouble("remainingBytes", result.remainingBytes);
+                    promise.resolve(map);
+                } catch (Exception e) {
+                    promise.reject("CLEAN_MEDIA_STAGING_ERROR", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject("CLEAN_MEDIA_STAGING_ERROR", "Module is shutting down");
+        }
+    }
+
+    /**
+     * 获取媒体暂存区统计（仅 Android）
+     */
+    @ReactMethod
+    public void getMediaStagingMetrics(Promise promise) {
+        MediaStager stager = MediaStager.getInstance(getReactApplicationContext());
+        WritableMap map = new WritableNativeMap();
+        map.putDouble("stagedCount", stager.getStagedCount());
+        map.putDouble("reusedCount", stager.getReusedCount());
+        map.putDouble("copiedBytes", stager.getCopiedBytes());
+        map.putInt("pinnedCount", stager.getPinnedCount());
+        map.putDouble("sizeBytes", stagingJanitor.getLastRemainingBytes());
+        map.putDouble("maxBytes", stagingJanitor.getMaxBytes());
+        map.putDouble("maxAgeMs", stagingJanitor.getMaxAgeMs());
+        map.putDouble("deletedCount", stagingJanitor.getTotalDeletedCount());
+        map.putDouble("reclaimedBytes", stagingJanitor.getTotalReclaimedBytes());
+        promise.resolve(map);
+    }
+
+    /**
+     * 设置媒体下载缓存（仅 Android）
+     *
+     * @param options maxBytes 磁盘缓存上限，parallelism 同时下载数
+     */
+    @ReactMethod
+    public void configureMediaDownload(ReadableMap options) {
+        long maxBytes = options.hasKey("maxBytes") ? (long) options.getDouble("maxBytes") : 0;
+        int parallelism = options.hasKey("parallelism") ? options.getInt("parallelism") : 0;
+        mediaDownloader.configure(maxBytes, parallelism);
+    }
+
+    /**
+     * 下载媒体文件到缓存（仅 Android），同一 url 的并发请求共享一次下载
+     *
+     * @param url      文件地址
+     * @param priority 0 可见，1 预取，2 后台
+     * @return 本地路径
+     */
+    @ReactMethod
+    public void downloadMedia(String url, int priority, Promise promise) {
+        mediaDownloader.request(url, "download:" + nextDownloadId.incrementAndGet(), priority, new MediaDownloader.Callback() {
+            @Override
+            public void onComplete(String url, String localPath) {
+                promise.resolve(localPath);
+            }
+
+            @Override
+            public void onError(String url, String error) {
+                promise.reject("DOWNLOAD_MEDIA_ERROR", error);
+            }
+
+            @Override
+            public void onCancelled(String url) {
+                promise.reject("DOWNLOAD_MEDIA_ERROR", "Download cancelled");
+            }
+        });
+    }
+
+    /**
+     * 更新列表可见窗口的下载请求（仅 Android）
+     * 可见项优先下载，预取项随后；不再出现在窗口中的项取消下载。
+     * 完成后通过 MediaDownloadCompleted / MediaDownloadFailed 通知。
+     *
+     * @param windowId 列表标识
+     * @param visible  可见项 [{messageId, url}]
+     * @param prefetch 预取项 [{messageId, url}]
+     */
+    @ReactMethod
+    public void setMediaDownloadWindow(String windowId, ReadableArray visible, ReadableArray prefetch) {
+        Set<String> owners = new HashSet<>();
+        requestWindowDownloads(windowId, visible, MediaDownloader.PRIORITY_VISIBLE, owners);
+        requestWindowDownloads(windowId, prefetch, MediaDownloader.PRIORITY_PREFETCH, owners);
+        Set<String> previous;
+        synchronized (downloadWindows) {
+            previous = downloadWindows.put(windowId, owners);
+        }
+        if (previous != null) {
+            for (String owner : previous) {
+                if (!owners.contains(owner)) {
+                    mediaDownloader.cancel(owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * 取消列表窗口的全部下载请求（仅 Android）
+     */
+    @ReactMethod
+    public void clearMediaDownloadWindow(String windowId) {
+        Set<String> owners;
+        synchronized (downloadWindows) {
+            owners = downloadWindows.remove(windowId);
+        }
+        if (owners != null) {
+            for (String owner : owners) {
+                mediaDownloader.cancel(owner);
+            }
+        }
+    }
+
+    private void requestWindowDownloads(String windowId, ReadableArray items, int priority, Set<String> owners) {
+        if (items == null) {
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            ReadableMap item = items.getMap(i);
+            String messageId = item.getString("messageId");
+            String url = item.hasKey("url") ? item.getString("url") : null;
+            if (url == null || url.isEmpty()) {
+                continue;
+            }
+            String owner = windowId + ":" + messageId;
+            if (!owners.add(owner)) {
+                continue;
+            }
+            mediaDownloader.request(url, owner, priority, new MediaDownloader.Callback() {
+                @Override
+                public void onComplete(String url, String localPath) {
+                    WritableMap params = new WritableNativeMap();
+                    params.putString("windowId", windowId);
+                    params.putString("messageId", messageId);
+                    params.putString("url", url);
+                    params.putString("localPath", localPath);
+                    sendEvent("MediaDownloadCompleted", params);
+                }
+
+                @Override
+                public void onError(String url, String error) {
+                    WritableMap params = new WritableNativeMap();
+                    params.putString("windowId", windowId);
+                    params.putString("messageId", messageId);
+                    params.putString("url", url);
+                    params.putString("error", error);
+                    sendEvent("MediaDownloadFailed", params);
+                }
+
+                @Override
+                public void onCancelled(String url) {
+                    // 离开窗口或清空缓存，列表重新设置窗口时会再次请求
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取媒体下载统计（仅 Android）
+     */
+    @ReactMethod
+    public void getMediaDownloadMetrics(Promise promise) {
+        WritableMap map = new WritableNativeMap();
+        map.putDouble("hitCount", mediaDownloader.getHitCount());
+        map.putDouble("downloadCount", mediaDownloader.getDownloadCount());
+        map.putDouble("coalescedCount", mediaDownloader.getCoalescedCount());
+        map.putDouble("cancelledCount", mediaDownloader.getCancelledCount());
+        map.putDouble("failedCount", mediaDownloader.getFailedCount());
+        map.putDouble("downloadedBytes", mediaDownloader.getDownloadedBytes());
+        map.putInt("pendingCount", mediaDownloader.getPendingCount());
+        map.putDouble("cacheBytes", mediaDownloader.getCacheBytes());
+        map.putDouble("maxBytes", mediaDownloader.getMaxBytes());
+        promise.resolve(map);
+    }
+
+    /**
+     * 清空媒体下载缓存（仅 Android）
+     */
+    @ReactMethod
+    public void clearMediaDownloadCache(Promise promise) {
+        try {
+            scheduler.execute(() -> {
+                try {
+                    mediaDownloader.clear();
+                    promise.resolve(true);
+                } catch (Exception e) {
+                    promise.reject("CLEAR_MEDIA_DOWNLOAD_ERROR", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject("CLEAR_MEDIA_DOWNLOAD_ERROR", "Module is shutting down");
+        }
+    }
+
+    /**
+     * 将 JS 传入的媒体地址转换为 SDK 可读取的本地路径
+     */
+    private String stageMedia(String source) throws IOException {
+        return MediaStager.getInstance(getReactApplicationContext()).stage(source);
+    }
+
+    /**
+     * 批量发送媒体消息（仅 Android）
+     * 按 content.contentType 选择图片、文件、语音或通用媒体发送；同时发送的条数受队列并发数限制，
+     * 同一会话按数组顺序开始发送。单条消息沿用 onMediaMessage* 事件，批次汇总进度通过 MediaBatchProgress 通知。
+     *
+     * @param messages 消息数组，每项需包含 messageId 用于匹配单条事件
+     */
+    @ReactMethod
+    public void sendMediaMessageBatch(ReadableArray messages, String batchId, Promise promise) {
+        try {
+            List<String> conversationKeys = new ArrayList<>();
+            List<MediaSendQueue.Task> tasks = new ArrayList<>();
+            for (int i = 0; i < messages.size(); i++) {
+                ReadableMap messageMap = messages.getMap(i);
+                int index = i;
+                conversationKeys.add(conversationKey(convertMapToConversation(messageMap)));
+                tasks.add(handle -> dispatchBatchMediaSend(batchId, index, messageMap, handle));
+            }
+            mediaSendQueue.enqueue(batchId, conversationKeys, tasks);
+            promise.resolve(batchId);
+        } catch (Exception e) {
+            promise.reject("SEND_MEDIA_BATCH_ERROR", e.getMessage());
+        }
+    }
+
+    /**
+     * 图片在处理线程池中压缩后发送，其余类型在媒体线程中发送
+     */
+    private void dispatchBatchMediaSend(String batchId, int index, ReadableMap messageMap,
+                                        MediaSendQueue.Handle handle) {
+        ReadableMap contentMap = messageMap.getMap("content");
+        if (contentMap == null || !contentMap.hasKey("contentType")
+                || !"jg:img".equals(contentMap.getString("contentType"))) {
+            startBatchMediaSend(batchId, index, messageMap, handle);
+            return;
+        }
+        try {
+            imageProcessor.execute(() -> startBatchMediaSend(batchId, index, messageMap, handle));
+        } catch (RejectedExecutionException e) {
+            handle.finish(false);
+        }
+    }
+
+    private void startBatchMediaSend(String batchId, int index, ReadableMap messageMap, MediaSendQueue.Handle handle) {
+        String messageId = messageMap.hasKey("messageId") ? messageMap.getString("messageId") : batchId + "_" + index;
+        WritableMap event = new WritableNativeMap();
+        event.putString("batchId", batchId);
+        event.putInt("index", index);
+        event.putString("messageId", messageId);
+        try {
+            ReadableMap contentMap = messageMap.getMap("content");
+            String contentType = contentMap != null && contentMap.hasKey("contentType")
+                    ? contentMap.getString("contentType") : "";
+            WritableMap local;
+            if ("jg:img".equals(contentType)) {
+                local = doSendImageMessage(messageMap, messageId, handle);
+            } else if ("jg:file".equals(contentType)) {
+                local = doSendFileMessage(messageMap, messageId, handle);
+            } else if ("jg:voice".equals(contentType)) {
+                local = doSendVoiceMessage(messageMap, messageId, handle);
+            } else {
+                local = doSendMediaMessage(messageMap, messageId, handle);
+            }
+            event.putMap("message", local);
+            sendEvent("MediaBatchItemStarted", event);
+        } catch (Exception e) {
+            Log.e("JuggleIM", "batch media send error: " + e.getMessage(), e);
+            event.putString("error", e.getMessage());
+            sendEvent("MediaBatchItemFailed", event);
+            handle.finish(false);
+        }
+    }
+
+    private void emitMediaBatchState(MediaSendQueue.BatchState state) {
+        WritableMap params = new WritableNativeMap();
+        params.putString("batchId", state.batchId);
+        params.putInt("total", state.total);
+        params.putInt("succeeded", state.succeeded);
+        params.putInt("failed", state.failed);
+        params.putInt("cancelled", state.cancelled);
+        params.putInt("running", state.running);
+        params.putBoolean("paused", state.paused);
+        params.putInt("progress", state.progress);
+        params.putBoolean("finished", state.isFinished());
+        sendEvent("MediaBatchProgress", params);
+    }
+
+    /**
+     * 暂停批次，已开始的消息继续发送（仅 Android）
+     */
+    @ReactMethod
+    public void pauseMediaBatch(String batchId, Promise promise) {
+        promise.resolve(mediaSendQueue.pause(batchId));
+    }
+
+    /**
+     * 恢复批次（仅 Android）
+     */
+    @ReactMethod
+    public void resumeMediaBatch(String batchId, Promise promise) {
+        promise.resolve(mediaSendQueue.resume(batchId));
+    }
+
+    /**
+     * 取消批次中尚未开始的消息，已开始的消息继续发送直到结束（仅 Android）
+     */
+    @ReactMethod
+    public void cancelPendingMediaBatch(String batchId, Promise promise) {
+        promise.resolve(mediaSendQueue.cancelPending(batchId));
+    }
+
+    /**
+     * 设置批量媒体发送的并发数，默认 3（仅 Android）
+     */
+    @ReactMethod
+    public void setMediaSendParallelism(int parallelism) {
+        mediaSendQueue.setParallelism(parallelism);
+    }
+
+    /**
+     * 发送图片消息
+     */
+    @ReactMethod
+    public void sendImageMessage(ReadableMap messageMap, String messageId, Promise promise) {
+        try {
+            imageProcessor.execute(() -> {
+                try {
+                    promise.resolve(doSendImageMessage(messageMap, messageId, null));
+                } catch (Exception e) {
+                    promise.reject("SEND_IMAGE_MESSAGE_ERROR", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject("SEND_IMAGE_MESSAGE_ERROR", "Module is shutting down");
+        }
+    }
+
+    private WritableMap doSendImageMessage(ReadableMap messageMap, String messageId, MediaSendQueue.Handle handle)
+            throws Exception {
+        Conversation conversation = convertMapToConversation(messageMap);
+        ImageMessage imageMessage = new ImageMessage();
+
+        ReadableMap contentMap = messageMap.getMap("content");
+        if (contentMap.hasKey("localPath")) {
+            imageMessage.setLocalPath(stageMedia(contentMap.getString("localPath")));
+        }
+        if (contentMap.hasKey("thumbnailLocalPath")) {
+            imageMessage.setThumbnailLocalPath(stageMedia(contentMap.getString("thumbnailLocalPath")));
+        }
+        if (contentMap.hasKey("url")) {
+            imageMessage.setUrl(contentMap.getString("url"));
+        }
+        if (contentMap.hasKey("thumbnailUrl")) {
+            imageMessage.setThumbnailUrl(contentMap.getString("thumbnailUrl"));
+        }
+        if (contentMap.hasKey("width")) {
+            imageMessage.setWidth(contentMap.getInt("width"));
+        }
+        if (contentMap.hasKey("height")) {
+            imageMessage.setHeight(contentMap.getInt("height"));
+        }
+        if (imageMessage.getLocalPath() != null) {
+            boolean original = contentMap.hasKey("original") && contentMap.getBoolean("original");
+            applyImageProcessing(imageMessage, original);
+        }
+
+        MessageOptions options = new MessageOptions();
+        PushData pushData = convertMapToPushData(messageMap);
+        if (pushData != null) {
+            options.setPushData(pushData);
+        }
+        ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
+        if (mentionInfoMap != null) {
+            MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
+            options.setMentionInfo(mentionInfo);
+        }
+        if (messageMap.hasKey("referredMessageId")) {
+            options.setReferredMessageId(messageMap.getString("referredMessageId"));
+        }
+
+        List<String> stagedPaths = pinStagedMedia(imageMessage);
+        Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
+                imageMessage,
+                conversation,
+                options,
+                new IMessageManager.ISendMediaMessageCallback() {
+                    @Override
+                    public void onProgress(int progress, Message message) {
+                        if (handle != null) {
+                            handle.progress(progress);
+                        }
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putInt("progress", progress);
+                        params.putMap("message", convertMessageToMap(message));
+                        Log.d("JuggleIM", "onMediaMessageProgress: " + progress);
+                        sendEvent("onMediaMessageProgress", params);
+                    }
+
+                    @Override
+                    public void onSuccess(Message message) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        sendEvent("onMediaMessageSent", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_SUCCEEDED);
+                    }
+
+                    @Override
+                    public void onError(Message message, int errorCode) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        params.putInt("errorCode", errorCode);
+                        sendEvent("onMediaMessageSentError", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_FAILED);
+                    }
+
+                    @Override
+                    public void onCancel(Message message) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        sendEvent("onMediaMessageCancelled", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_CANCELLED);
+                    }
+                });
+
+        WritableMap result = convertAndCacheMessage(message);
+        result.putString("messageId", messageId);
+        return result;
+    }
+
+    /**
+     * 发送文件消息
+     */
+    @ReactMethod
+    public void sendFileMessage(ReadableMap messageMap, String messageId, Promise promise) {
+        mediaExecutor.execute(() -> {
+            try {
+                promise.resolve(doSendFileMessage(messageMap, messageId, null));
+            } catch (Exception e) {
+                promise.reject("SEND_FILE_MESSAGE_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    private WritableMap doSendFileMessage(ReadableMap messageMap, String messageId, MediaSendQueue.Handle handle)
+            throws Exception {
+        Conversation conversation = convertMapToConversation(messageMap);
+        FileMessage fileMessage = new FileMessage();
+
+        ReadableMap contentMap = messageMap.getMap("content");
+        if (contentMap.hasKey("localPath")) {
+            fileMessage.setLocalPath(stageMedia(contentMap.getString("localPath")));
+        }
+        if (contentMap.hasKey("url")) {
+            fileMessage.setUrl(contentMap.getString("url"));
+        }
+        if (contentMap.hasKey("name")) {
+            fileMessage.setName(contentMap.getString("name"));
+        }
+        if (contentMap.hasKey("size")) {
+            fileMessage.setSize((long) contentMap.getDouble("size"));
+        }
+        if (contentMap.hasKey("type")) {
+            fileMessage.setType(contentMap.getString("type"));
+        }
+        MessageOptions options = new MessageOptions();
+        PushData pushData = convertMapToPushData(messageMap);
+        if (pushData != null) {
+            options.setPushData(pushData);
+        }
+        ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
+        if (mentionInfoMap != null) {
+            MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
+            options.setMentionInfo(mentionInfo);
+        }
+        if (messageMap.hasKey("referredMessageId")) {
+            options.setReferredMessageId(messageMap.getString("referredMessageId"));
+        }
+
+        List<String> stagedPaths = pinStagedMedia(fileMessage);
+        Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
+                fileMessage,
+                conversation,
+                options,
+                new IMessageManager.ISendMediaMessageCallback() {
+                    @Override
+                    public void onProgress(int progress, Message message) {
+                        if (handle != null) {
+                            handle.progress(progress);
+                        }
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putInt("progress", progress);
+                        params.putMap("message", convertMessageToMap(message));
+                        sendEvent("onMediaMessageProgress", params);
+                    }
+
+                    @Override
+                    public void onSuccess(Message message) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        sendEvent("onMediaMessageSent", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_SUCCEEDED);
+                    }
+
+                    @Override
+                    public void onError(Message message, int errorCode) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        params.putInt("errorCode", errorCode);
+                        sendEvent("onMediaMessageSentError", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_FAILED);
+                    }
+
+                    @Override
+                    public void onCancel(Message message) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        sendEvent("onMediaMessageCancelled", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_CANCELLED);
+                    }
+                });
+
+        WritableMap result = convertAndCacheMessage(message);
+        result.putString("messageId", messageId);
+        return result;
+    }
+
+    /**
+     * 发送语音消息
+     */
+    @ReactMethod
+    public void sendVoiceMessage(ReadableMap messageMap, String messageId, Promise promise) {
+        mediaExecutor.execute(() -> {
+            try {
+                promise.resolve(doSendVoiceMessage(messageMap, messageId, null));
+            } catch (Exception e) {
+                promise.reject("SEND_VOICE_MESSAGE_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    private WritableMap doSendVoiceMessage(ReadableMap messageMap, String messageId, MediaSendQueue.Handle handle)
+            throws Exception {
+        Conversation conversation = convertMapToConversation(messageMap);
+        VoiceMessage voiceMessage = new VoiceMessage();
+
+        ReadableMap contentMap = messageMap.getMap("content");
+        if (contentMap.hasKey("localPath")) {
+            voiceMessage.setLocalPath(stageMedia(contentMap.getString("localPath")));
+        }
+        if (contentMap.hasKey("url")) {
+            voiceMessage.setUrl(contentMap.getString("url"));
+        }
+        if (contentMap.hasKey("duration")) {
+            voiceMessage.setDuration(contentMap.getInt("duration"));
+        }
+        MessageOptions options = new MessageOptions();
+        PushData pushData = convertMapToPushData(messageMap);
+        if (pushData != null) {
+            options.setPushData(pushData);
+        }
+        ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
+        if (mentionInfoMap != null) {
+            MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
+            options.setMentionInfo(mentionInfo);
+        }
+        if (messageMap.hasKey("referredMessageId")) {
+            options.setReferredMessageId(messageMap.getString("referredMessageId"));
+        }
+        List<String> stagedPaths = pinStagedMedia(voiceMessage);
+        Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
+                voiceMessage,
+                conversation,
+                options,
+                new IMessageManager.ISendMediaMessageCallback() {
+                    @Override
+                    public void onProgress(int progress, Message message) {
+                        if (handle != null) {
+                            handle.progress(progress);
+                        }
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putInt("progress", progress);
+                        params.putMap("message", convertMessageToMap(message));
+                        Log.d("JuggleIM", "onMediaMessageProgress: " + progress);
+                        sendEvent("onMediaMessageProgress", params);
+                    }
+
+                    @Override
+                    public void onSuccess(Message message) {
+                        WritableMap result = convertAndCacheMessage(message);
+                        result.putString("messageId", messageId);
+                        Log.d("JuggleIM", "onMediaMessageSent");
+                        sendEvent("onMediaMessageSent", result);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_SUCCEEDED);
+                    }
+
+                    @Override
+                    public void onError(Message message, int errorCode) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        params.putInt("errorCode", errorCode);
+                        sendEvent("onMediaMessageSentError", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_FAILED);
+                    }
+
+                    @Override
+                    public void onCancel(Message message) {
+                        WritableMap result = convertAndCacheMessage(message);
+                        result.putString("messageId", messageId);
+                        sendEvent("onMediaMessageCancelled", result);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_CANCELLED);
+                    }
+                });
+
+        WritableMap result = convertAndCacheMessage(message);
+        result.putString("messageId", messageId);
+        return result;
+    }
+
+    /**
+     * 发送媒体消息
+     */
+    @ReactMethod
+    public void sendMediaMessage(ReadableMap messageMap, String messageId, Promise promise) {
+        try {
+            promise.resolve(doSendMediaMessage(messageMap, messageId, null));
+        } catch (Exception e) {
+            promise.reject("SEND_MEDIA_MESSAGE_ERROR", e.getMessage());
+        }
+    }
+
+    private WritableMap doSendMediaMessage(ReadableMap messageMap, String messageId, MediaSendQueue.Handle handle)
+            throws Exception {
+        Conversation conversation = convertMapToConversation(messageMap);
+        ReadableMap contentMap = messageMap.getMap("content");
+        MessageContent content = convertMapToMessageContent(contentMap);
+        
+        if (!(content instanceof MediaMessageContent)) {
+            throw new IllegalArgumentException("Content is not a media message");
+        }
+
+        MessageOptions options = new MessageOptions();
+        PushData pushData = convertMapToPushData(messageMap);
+        if (pushData != null) {
+            options.setPushData(pushData);
+        }
+        ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
+        if (mentionInfoMap != null) {
+            MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
+            options.setMentionInfo(mentionInfo);
+        }
+        if (messageMap.hasKey("referredMessageId")) {
+            options.setReferredMessageId(messageMap.getString("referredMessageId"));
+        }
+
+        List<String> stagedPaths = pinStagedMedia(content);
+        Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
+                (MediaMessageContent) content,
+                conversation,
+                options,
+                new IMessageManager.ISendMediaMessageCallback() {
+                    @Override
+                    public void onProgress(int progress, Message message) {
+                        if (handle != null) {
+                            handle.progress(progress);
+                        }
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putInt("progress", progress);
+                        params.putMap("message", convertMessageToMap(message));
+                        sendEvent("onMediaMessageProgress", params);
+                    }
+
+                    @Override
+                    public void onSuccess(Message message) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        sendEvent("onMediaMessageSent", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_SUCCEEDED);
+                    }
+
+                    @Override
+                    public void onError(Message message, int errorCode) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        params.putInt("errorCode", errorCode);
+                        sendEvent("onMediaMessageSentError", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_FAILED);
+                    }
+
+                    @Override
+                    public void onCancel(Message message) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        sendEvent("onMediaMessageCancelled", params);
+                        finishMediaSend(stagedPaths, handle, MediaSendQueue.STATE_CANCELLED);
+                    }
+                });
+
+        WritableMap result = convertAndCacheMessage(message);
+        result.putString("messageId", messageId);
+        return result;
+    }
+
+    /**
+     * 设置分片上传（仅 Android）
+     *
+     * @param options endpoint 上传服务地址，chunkSize 分片字节数，headers 请求头，connectTimeout/readTimeout 超时毫秒数，
+     *                directRead 是否直接读取 content:// 而不复制到暂存区（默认 true）
+     */
+    @ReactMethod
+    public void configureChunkedUpload(ReadableMap options) {
+        ChunkedUploader.Config config = new ChunkedUploader.Config();
+        config.endpoint = options.hasKey("endpoint") ? options.getString("endpoint") : null;
+        if (config.endpoint != null && config.endpoint.endsWith("/")) {
+            config.endpoint = config.endpoint.substring(0, config.endpoint.length() - 1);
+        }
+        if (options.hasKey("chunkSize") && options.getDouble("chunkSize") > 0) {
+            config.chunkSize = (int) options.getDouble("chunkSize");
+        }
+        if (options.hasKey("connectTimeout")) {
+            config.connectTimeoutMs = options.getInt("connectTimeout");
+        }
+        if (options.hasKey("readTimeout")) {
+            config.readTimeoutMs = options.getInt("readTimeout");
+        }
+        if (options.hasKey("directRead")) {
+            config.directRead = options.getBoolean("directRead");
+        }
+        ReadableMap headers = options.hasKey("headers") ? options.getMap("headers") : null;
+        if (headers != null) {
+            ReadableMapKeySetIterator iterator = headers.keySetIterator();
+            while (iterator.hasNextKey()) {
+                String key = iterator.nextKey();
+                config.headers.put(key, headers.getString(key));
+            }
         }
+        chunkedUploader.setConfig(config);
+        resumeChunkedUploads();
     }
 
     /**
-     * 发送文件消息
+     * 分片上传后发送文件/媒体消息（仅 Android）
+     * 上传进度保存在本地，断网或重启后只补传缺失的分片；上传完成后才发送消息。
+     * 上传进度通过 onMediaMessageProgress 通知，重试耗尽后通过 onChunkedUploadPaused 通知并等待重连。
+     *
+     * @return uploadId、size、uploadedSize
      */
     @ReactMethod
-    public void sendFileMessage(ReadableMap messageMap, String messageId, Promise promise) {
-        try {
-            Conversation conversation = convertMapToConversation(messageMap);
-            FileMessage fileMessage = new FileMessage();
+    public void sendMessageChunked(ReadableMap messageMap, String messageId, Promise promise) {
+        long startedAt = SystemClock.elapsedRealtime();
+        mediaExecutor.execute(() -> {
+            try {
+                if (!chunkedUploader.isConfigured()) {
+                    promise.reject("SEND_CHUNKED_ERROR", "Chunked upload is not configured");
+                    return;
+                }
+                ReadableMap contentMap = messageMap.getMap("content");
+                if (contentMap == null || !contentMap.hasKey("localPath")) {
+                    promise.reject("SEND_CHUNKED_ERROR", "content.localPath is required");
+                    return;
+                }
+                // 能随机读取且能持久化读权限的 content:// 直接上传，否则重启后无法续传，改为先复制到暂存区
+                String source = contentMap.getString("localPath");
+                MediaStager stager = MediaStager.getInstance(getReactApplicationContext());
+                boolean direct = chunkedUploader.isDirectRead() && isSeekableSource(stager, source);
+                boolean grantTaken = false;
+                if (direct) {
+                    int grant = takeReadGrant(source);
+                    direct = grant != URI_GRANT_NONE;
+                    grantTaken = grant == URI_GRANT_TAKEN;
+                }
+                long stagedBytes = 0;
+                if (!direct) {
+                    MediaStager.Staged staged = stager.stageCounted(source);
+                    source = staged.path;
+                    stagedBytes = staged.copiedBytes;
+                }
+                // 直接上传时来源只保存在上传状态中，消息的 localPath 保持为文件路径或省略
+                WritableMap message = RNTypeConverter.copyMap(messageMap);
+                WritableMap content = RNTypeConverter.copyMap(contentMap);
+                if (direct) {
+                    content.putNull("localPath");
+                } else {
+                    content.putString("localPath", source);
+                }
+                message.putMap("content", content);
 
-            ReadableMap contentMap = messageMap.getMap("content");
-            if (contentMap.hasKey("localPath")) {
-                String path = FileUtils.convertContentUriToFile(getReactApplicationContext(),
-                        contentMap.getString("localPath"));
-                fileMessage.setLocalPath(path);
-            }
-            if (contentMap.hasKey("url")) {
-                fileMessage.setUrl(contentMap.getString("url"));
-            }
-            if (contentMap.hasKey("name")) {
-                fileMessage.setName(contentMap.getString("name"));
-            }
-            if (contentMap.hasKey("size")) {
-                fileMessage.setSize((long) contentMap.getDouble("size"));
-            }
-            if (contentMap.hasKey("type")) {
-                fileMessage.setType(contentMap.getString("type"));
-            }
-            MessageOptions options = new MessageOptions();
-            PushData pushData = convertMapToPushData(messageMap);
-            if (pushData != null) {
-                options.setPushData(pushData);
-            }
-            ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
-            if (mentionInfoMap != null) {
-                MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
-                options.setMentionInfo(mentionInfo);
-            }
-            if (messageMap.hasKey("referredMessageId")) {
-                options.setReferredMessageId(messageMap.getString("referredMessageId"));
+                JSONObject payload = new JSONObject();
+                payload.put("messageId", messageId);
+                payload.put("message", convertReadableMapToJSON(message));
+                if (grantTaken) {
+                    payload.put("releaseUriGrant", true);
+                }
+                ChunkedUploader.State state = chunkedUploader.prepare(
+                        source, messageId, payload.toString(), startedAt, direct, stagedBytes);
+
+                WritableMap result = new WritableNativeMap();
+                result.putString("messageId", messageId);
+                result.putString("uploadId", state.uploadId);
+                result.putDouble("size", state.size);
+                result.putDouble("uploadedSize", state.getUploadedBytes());
+                promise.resolve(result);
+                startChunkedUpload(state);
+            } catch (Exception e) {
+                promise.reject("SEND_CHUNKED_ERROR", e.getMessage());
             }
+        });
+    }
 
-            Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
-                    fileMessage,
-                    conversation,
-                    options,
-                    new IMessageManager.ISendMediaMessageCallback() {
-                        @Override
-                        public void onProgress(int progress, Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putInt("progress", progress);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageProgress", params);
-                        }
-
-                        @Override
-                        public void onSuccess(Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageSent", params);
-                        }
-
-                        @Override
-                        public void onError(Message message, int errorCode) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            params.putInt("errorCode", errorCode);
-                            sendEvent("onMediaMessageSentError", params);
-                        }
+    /**
+     * 为直接上传的 content:// 持久化读权限，进程重启后续传仍可读取
+     *
+     * @return URI_GRANT_NONE 无法持久化，URI_GRANT_HELD 已持有，URI_GRANT_TAKEN 本次申请（上传结束后释放）
+     */
+    private int takeReadGrant(String source) {
+        Uri uri = Uri.parse(source);
+        ContentResolver resolver = getReactApplicationContext().getContentResolver();
+        for (UriPermission permission : resolver.getPersistedUriPermissions()) {
+            if (permission.isReadPermission() && uri.equals(permission.getUri())) {
+                return URI_GRANT_HELD;
+            }
+        }
+        try {
+            resolver.takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            return URI_GRANT_TAKEN;
+        } catch (SecurityException e) {
+            // 选择文件时没有 FLAG_GRANT_PERSISTABLE_URI_PERMISSION
+            return URI_GRANT_NONE;
+        }
+    }
 
-                        @Override
-                        public void onCancel(Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageCancelled", params);
-                        }
-                    });
+    /**
+     * 释放上传时申请的读权限，仍有其他上传使用同一来源时保留
+     */
+    private void releaseReadGrant(ChunkedUploader.State state) {
+        WritableMap payload = RNTypeConverter.stringToWritableMap(state.payload);
+        if (payload == null || !payload.hasKey("releaseUriGrant") || !payload.getBoolean("releaseUriGrant")) {
+            return;
+        }
+        for (ChunkedUploader.State pending : chunkedUploader.loadPending()) {
+            if (pending.path.equals(state.path)) {
+                return;
+            }
+        }
+        try {
+            getReactApplicationContext().getContentResolver().releasePersistableUriPermission(
+                    Uri.parse(state.path), Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        } catch (SecurityException e) {
+            Log.w("JuggleIM", "releasePersistableUriPermission failed: " + e.getMessage());
+        }
+    }
 
-            WritableMap result = convertMessageToMap(message);
-            result.putString("messageId", messageId);
-            promise.resolve(result);
-        } catch (Exception e) {
-            promise.reject("SEND_FILE_MESSAGE_ERROR", e.getMessage());
+    private static boolean isSeekableSource(MediaStager stager, String source) {
+        if (!source.startsWith("content://")) {
+            return false;
+        }
+        try (FileChannel channel = stager.openReadChannel(source)) {
+            return channel != null;
+        } catch (IOException e) {
+            return false;
         }
     }
 
     /**
-     * 发送语音消息
+     * 获取分片上传指标（仅 Android）
+     * direct 为直接读取 content:// 的上传，staged 为先复制到暂存区的上传；
+     * diskBytesWritten 为上传前写入磁盘的字节数，avgTimeToFirstByteMs 为从发起到开始发送第一个分片的平均耗时；
+     * 两种方式都有数据时 comparison 给出直接上传相对先复制的差值：每次上传少写入的字节数和提前的首字节耗时
      */
     @ReactMethod
-    public void sendVoiceMessage(ReadableMap messageMap, String messageId, Promise promise) {
-        try {
-            Conversation conversation = convertMapToConversation(messageMap);
-            VoiceMessage voiceMessage = new VoiceMessage();
+    public void getChunkedUploadMetrics(Promise promise) {
+        ChunkedUploader.ModeMetrics direct = chunkedUploader.getDirectMetrics();
+        ChunkedUploader.ModeMetrics staged = chunkedUploader.getStagedMetrics();
+        WritableMap result = new WritableNativeMap();
+        result.putMap("direct", convertUploadMetrics(direct));
+        result.putMap("staged", convertUploadMetrics(staged));
+        if (direct.firstByteCount > 0 && staged.firstByteCount > 0) {
+            WritableMap comparison = new WritableNativeMap();
+            comparison.putDouble("diskBytesSavedPerUpload",
+                    averageDiskBytes(staged) - averageDiskBytes(direct));
+            comparison.putDouble("timeToFirstByteSavedMs",
+                    averageTimeToFirstByte(staged) - averageTimeToFirstByte(direct));
+            result.putMap("comparison", comparison);
+        }
+        promise.resolve(result);
+    }
 
-            ReadableMap contentMap = messageMap.getMap("content");
-            if (contentMap.hasKey("localPath")) {
-                String path = FileUtils.convertContentUriToFile(getReactApplicationContext(),
-                        contentMap.getString("localPath"));
-                voiceMessage.setLocalPath(path.replace("file://", ""));
-            }
-            if (contentMap.hasKey("url")) {
-                voiceMessage.setUrl(contentMap.getString("url"));
-            }
-            if (contentMap.hasKey("duration")) {
-                voiceMessage.setDuration(contentMap.getInt("duration"));
-            }
-            MessageOptions options = new MessageOptions();
-            PushData pushData = convertMapToPushData(messageMap);
-            if (pushData != null) {
-                options.setPushData(pushData);
-            }
-            ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
-            if (mentionInfoMap != null) {
-                MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
-                options.setMentionInfo(mentionInfo);
-            }
-            if (messageMap.hasKey("referredMessageId")) {
-                options.setReferredMessageId(messageMap.getString("referredMessageId"));
-            }
-            Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
-                    voiceMessage,
-                    conversation,
-                    options,
-                    new IMessageManager.ISendMediaMessageCallback() {
-                        @Override
-                        public void onProgress(int progress, Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putInt("progress", progress);
-                            params.putMap("message", convertMessageToMap(message));
-                            Log.d("JuggleIM", "onMediaMessageProgress: " + progress);
-                            sendEvent("onMediaMessageProgress", params);
-                        }
+    private WritableMap convertUploadMetrics(ChunkedUploader.ModeMetrics metrics) {
+        WritableMap map = new WritableNativeMap();
+        map.putDouble("uploadCount", metrics.uploadCount);
+        map.putDouble("diskBytesWritten", metrics.diskBytesWritten);
+        map.putDouble("networkBytes", metrics.networkBytes);
+        map.putDouble("avgTimeToFirstByteMs", averageTimeToFirstByte(metrics));
+        return map;
+    }
 
-                        @Override
-                        public void onSuccess(Message message) {
-                            WritableMap result = convertMessageToMap(message);
-                            result.putString("messageId", messageId);
-                            Log.d("JuggleIM", "onMediaMessageSent");
-                            sendEvent("onMediaMessageSent", result);
-                        }
+    private static double averageDiskBytes(ChunkedUploader.ModeMetrics metrics) {
+        return metrics.uploadCount > 0 ? (double) metrics.diskBytesWritten / metrics.uploadCount : 0;
+    }
 
-                        @Override
-                        public void onError(Message message, int errorCode) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            params.putInt("errorCode", errorCode);
-                            sendEvent("onMediaMessageSentError", params);
-                        }
+    private static double averageTimeToFirstByte(ChunkedUploader.ModeMetrics metrics) {
+        return metrics.firstByteCount > 0 ? (double) metrics.totalFirstByteMs / metrics.firstByteCount : 0;
+    }
 
-                        @Override
-                        public void onCancel(Message message) {
-                            WritableMap result = convertMessageToMap(message);
-                            result.putString("messageId", messageId);
-                            sendEvent("onMediaMessageCancelled", result);
-                        }
-                    });
+    /**
+     * 获取未完成的分片上传（仅 Android），用于重启后恢复界面状态
+     */
+    @ReactMethod
+    public void getPendingChunkedUploads(Promise promise) {
+        scheduler.execute(() -> {
+            WritableArray array = new WritableNativeArray();
+            for (ChunkedUploader.State state : chunkedUploader.loadPending()) {
+                WritableMap payload = RNTypeConverter.stringToWritableMap(state.payload);
+                WritableMap item = new WritableNativeMap();
+                item.putString("uploadId", state.uploadId);
+                item.putString("messageId", payload != null ? payload.getString("messageId") : null);
+                item.putDouble("size", state.size);
+                item.putDouble("uploadedSize", state.getUploadedBytes());
+                item.putBoolean("running", chunkedUploads.containsKey(state.uploadId));
+                if (payload != null && payload.hasKey("message")) {
+                    item.putMap("message", RNTypeConverter.copyMap(payload.getMap("message")));
+                }
+                array.pushMap(item);
+            }
+            promise.resolve(array);
+        });
+    }
 
-            WritableMap result = convertMessageToMap(message);
-            result.putString("messageId", messageId);
-            promise.resolve(result);
-        } catch (Exception e) {
-            promise.reject("SEND_VOICE_MESSAGE_ERROR", e.getMessage());
+    /**
+     * 取消分片上传并删除本地进度（仅 Android）
+     */
+    @ReactMethod
+    public void cancelChunkedUpload(String uploadId, Promise promise) {
+        Future<?> future = chunkedUploads.remove(uploadId);
+        if (future != null) {
+            future.cancel(true);
         }
+        scheduler.execute(() -> {
+            for (ChunkedUploader.State state : chunkedUploader.loadPending()) {
+                if (state.uploadId.equals(uploadId)) {
+                    chunkedUploader.remove(uploadId);
+                    releaseReadGrant(state);
+                    WritableMap payload = RNTypeConverter.stringToWritableMap(state.payload);
+                    WritableMap params = new WritableNativeMap();
+                    params.putString("messageId", payload != null ? payload.getString("messageId") : null);
+                    params.putString("uploadId", uploadId);
+                    sendEvent("onMediaMessageCancelled", params);
+                }
+            }
+            promise.resolve(true);
+        });
     }
 
     /**
-     * 发送媒体消息
+     * 继续所有未在进行中的分片上传
      */
-    @ReactMethod
-    public void sendMediaMessage(ReadableMap messageMap, String messageId, Promise promise) {
+    private void resumeChunkedUploads() {
+        if (!chunkedUploader.isConfigured()) {
+            return;
+        }
         try {
-            Conversation conversation = convertMapToConversation(messageMap);
-            ReadableMap contentMap = messageMap.getMap("content");
-            MessageContent content = convertMapToMessageContent(contentMap);
-            
-            if (!(content instanceof MediaMessageContent)) {
-                promise.reject("SEND_MEDIA_MESSAGE_ERROR", "Content is not a media message");
+            scheduler.execute(() -> {
+                for (ChunkedUploader.State state : chunkedUploader.loadPending()) {
+                    startChunkedUpload(state);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w("JuggleIM", "resumeChunkedUploads rejected: " + e.getMessage());
+        }
+    }
+
+    private void startChunkedUpload(ChunkedUploader.State state) {
+        synchronized (chunkedUploads) {
+            if (chunkedUploads.containsKey(state.uploadId)) {
                 return;
             }
+            MediaStager.getInstance(getReactApplicationContext()).pin(state.path);
+            // 先登记再执行，任务结束时的移除不会早于登记
+            FutureTask<Void> task = new FutureTask<>(() -> runChunkedUpload(state), null);
+            chunkedUploads.put(state.uploadId, task);
+            try {
+                uploadExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                chunkedUploads.remove(state.uploadId);
+                MediaStager.getInstance(getReactApplicationContext()).unpin(state.path);
+            }
+        }
+    }
 
-            MessageOptions options = new MessageOptions();
-            PushData pushData = convertMapToPushData(messageMap);
-            if (pushData != null) {
-                options.setPushData(pushData);
+    private void runChunkedUpload(ChunkedUploader.State state) {
+        WritableMap payload = RNTypeConverter.stringToWritableMap(state.payload);
+        String messageId = payload != null ? payload.getString("messageId") : null;
+        ReadableMap messageMap = payload != null ? payload.getMap("message") : null;
+        try {
+            if (messageMap == null) {
+                throw new IOException("Upload state has no message");
             }
-            ReadableMap mentionInfoMap = messageMap.getMap("mentionInfo");
-            if (mentionInfoMap != null) {
-                MessageMentionInfo mentionInfo = convertMapToMentionInfo(mentionInfoMap);
-                options.setMentionInfo(mentionInfo);
+            String url = null;
+            IOException lastError = null;
+            for (int attempt = 0; attempt < CHUNKED_UPLOAD_RETRIES && url == null; attempt++) {
+                try {
+                    url = chunkedUploader.upload(state, (uploaded, total) -> {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putString("uploadId", state.uploadId);
+                        params.putInt("progress", total > 0 ? (int) (uploaded * 100 / total) : 100);
+                        sendEvent("onMediaMessageProgress", params);
+                    });
+                } catch (IOException e) {
+                    lastError = e;
+                    if (Thread.currentThread().isInterrupted() || !chunkedUploads.containsKey(state.uploadId)) {
+                        return;
+                    }
+                    Thread.sleep(CHUNKED_UPLOAD_BACKOFF_MS << attempt);
+                }
             }
-            if (messageMap.hasKey("referredMessageId")) {
-                options.setReferredMessageId(messageMap.getString("referredMessageId"));
+            if (url == null) {
+                // 保留进度，重连后继续
+                WritableMap params = new WritableNativeMap();
+                params.putString("messageId", messageId);
+                params.putString("uploadId", state.uploadId);
+                params.putDouble("size", state.size);
+                params.putDouble("uploadedSize", state.getUploadedBytes());
+                params.putString("error", lastError != null ? lastError.getMessage() : null);
+                sendEvent("onChunkedUploadPaused", params);
+                return;
             }
+            sendUploadedMessage(messageMap, messageId, url);
+            // SDK 已接收消息后再删除上传状态，之前退出时重启会用已合并的地址重新发送
+            chunkedUploader.remove(state.uploadId);
+            releaseReadGrant(state);
+        } catch (InterruptedException e) {
+            // 已取消
+        } catch (Exception e) {
+            Log.e("JuggleIM", "chunked upload failed: " + e.getMessage());
+            chunkedUploader.remove(state.uploadId);
+            releaseReadGrant(state);
+            WritableMap params = new WritableNativeMap();
+            params.putString("messageId", messageId);
+            params.putString("uploadId", state.uploadId);
+            params.putInt("errorCode", -1);
+            sendEvent("onMediaMessageSentError", params);
+        } finally {
+            chunkedUploads.remove(state.uploadId);
+            MediaStager.getInstance(getReactApplicationContext()).unpin(state.path);
+        }
+    }
 
-            Message message = JIM.getInstance().getMessageManager().sendMediaMessage(
-                    (MediaMessageContent) content,
-                    conversation,
-                    options,
-                    new IMessageManager.ISendMediaMessageCallback() {
-                        @Override
-                        public void onProgress(int progress, Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putInt("progress", progress);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageProgress", params);
-                        }
-
-                        @Override
-                        public void onSuccess(Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageSent", params);
-                        }
+    /**
+     * 文件已上传，带上地址直接发送消息，SDK 不再上传
+     */
+    private void sendUploadedMessage(ReadableMap messageMap, String messageId, String url) {
+        Conversation conversation = convertMapToConversation(messageMap);
+        ReadableMap contentMap = messageMap.getMap("content");
+        WritableMap uploaded = RNTypeConverter.copyMap(contentMap);
+        uploaded.putString("url", url);
+        MessageContent content = convertMapToMessageContent(uploaded);
+        // 直接上传的 content:// 不写入消息，SDK 只接受文件路径
+        String localPath = contentMap.hasKey("localPath") && !contentMap.isNull("localPath")
+                ? contentMap.getString("localPath") : null;
+        if (content instanceof MediaMessageContent) {
+            ((MediaMessageContent) content).setLocalPath(
+                    localPath != null && !localPath.startsWith("content://") ? localPath : null);
+        }
 
-                        @Override
-                        public void onError(Message message, int errorCode) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            params.putInt("errorCode", errorCode);
-                            sendEvent("onMediaMessageSentError", params);
-                        }
+        MessageOptions options = new MessageOptions();
+        PushData pushData = convertMapToPushData(messageMap);
+        if (pushData != null) {
+            options.setPushData(pushData);
+        }
+        ReadableMap mentionInfoMap = messageMap.hasKey("mentionInfo") ? messageMap.getMap("mentionInfo") : null;
+        if (mentionInfoMap != null) {
+            options.setMentionInfo(convertMapToMentionInfo(mentionInfoMap));
+        }
+        if (messageMap.hasKey("referredMessageId")) {
+            options.setReferredMessageId(messageMap.getString("referredMessageId"));
+        }
 
-                        @Override
-                        public void onCancel(Message message) {
-                            WritableMap params = new WritableNativeMap();
-                            params.putString("messageId", messageId);
-                            params.putMap("message", convertMessageToMap(message));
-                            sendEvent("onMediaMessageCancelled", params);
-                        }
-                    });
+        JIM.getInstance().getMessageManager().sendMessage(
+                content,
+                conversation,
+                options,
+                new IMessageManager.ISendMessageCallback() {
+                    @Override
+                    public void onSuccess(Message message) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        sendEvent("onMediaMessageSent", params);
+                    }
 
-            WritableMap result = convertMessageToMap(message);
-            result.putString("messageId", messageId);
-            promise.resolve(result);
-        } catch (Exception e) {
-            promise.reject("SEND_MEDIA_MESSAGE_ERROR", e.getMessage());
-        }
+                    @Override
+                    public void onError(Message message, int errorCode) {
+                        WritableMap params = new WritableNativeMap();
+                        params.putString("messageId", messageId);
+                        params.putMap("message", convertAndCacheMessage(message));
+                        params.putInt("errorCode", errorCode);
+                        sendEvent("onMediaMessageSentError", params);
+                    }
+                });
     }
 
     /**
@@ -2081,7 +5535,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 public void onSuccess(Message message) {
                     WritableMap params = new WritableNativeMap();
                     params.putString("messageId", messageId);
-                    params.putMap("message", convertMessageToMap(message));
+                    params.putMap("message", convertAndCacheMessage(message));
                     sendEvent("onMessageSent", params);
                 }
 
@@ -2089,12 +5543,12 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 public void onError(Message message, int errorCode) {
                     WritableMap params = new WritableNativeMap();
                     params.putString("messageId", messageId);
-                    params.putMap("message", convertMessageToMap(message));
+                    params.putMap("message", convertAndCacheMessage(message));
                     params.putInt("errorCode", errorCode);
                     sendEvent("onMessageSentError", params);
                 }
             });
-            WritableMap result = convertMessageToMap(sendMsg);
+            WritableMap result = convertAndCacheMessage(sendMsg);
             result.putString("messageId", messageId);
             promise.resolve(result);
         } catch (Exception e) {
@@ -2109,6 +5563,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
     public void resendMediaMessage(ReadableMap messageMap, String messageId, Promise promise) {
         try {
             Message message = convertMapToMessage(messageMap);
+            List<String> stagedPaths = pinStagedMedia(message.getContent());
             Message sendMsg = JIM.getInstance().getMessageManager().resendMediaMessage(message, new IMessageManager.ISendMediaMessageCallback() {
                 @Override
                 public void onProgress(int progress, Message message) {
@@ -2123,28 +5578,31 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                 public void onSuccess(Message message) {
                     WritableMap params = new WritableNativeMap();
                     params.putString("messageId", messageId);
-                    params.putMap("message", convertMessageToMap(message));
+                    params.putMap("message", convertAndCacheMessage(message));
                     sendEvent("onMediaMessageSent", params);
+                    finishMediaSend(stagedPaths, null, MediaSendQueue.STATE_SUCCEEDED);
                 }
 
                 @Override
                 public void onError(Message message, int errorCode) {
                     WritableMap params = new WritableNativeMap();
                     params.putString("messageId", messageId);
-                    params.putMap("message", convertMessageToMap(message));
+                    params.putMap("message", convertAndCacheMessage(message));
                     params.putInt("errorCode", errorCode);
                     sendEvent("onMediaMessageSentError", params);
+                    finishMediaSend(stagedPaths, null, MediaSendQueue.STATE_FAILED);
                 }
 
                 @Override
                 public void onCancel(Message message) {
                     WritableMap params = new WritableNativeMap();
                     params.putString("messageId", messageId);
-                    params.putMap("message", convertMessageToMap(message));
+                    params.putMap("message", convertAndCacheMessage(message));
                     sendEvent("onMediaMessageCancelled", params);
+                    finishMediaSend(stagedPaths, null, MediaSendQueue.STATE_CANCELLED);
                 }
             });
-            WritableMap result = convertMessageToMap(sendMsg);
+            WritableMap result = convertAndCacheMessage(sendMsg);
             result.putString("messageId", messageId);
             promise.resolve(result);
         } catch (Exception e) {
@@ -2248,6 +5706,9 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
             for (int i = 0; i < targetUsers.size(); i++) {
                 ReadableMap userMap = targetUsers.getMap(i);
                 UserInfo userInfo = convertMapToUserInfo(userMap);
+                if (userInfo.getUserName() == null && userInfo.getUserId() != null) {
+                    fillMentionTarget(userInfo);
+                }
                 targetUsersList.add(userInfo);
             }
             mentionInfo.setTargetUsers(targetUsersList);
@@ -2314,6 +5775,8 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                     new IMessageManager.ISendReadReceiptCallback() {
                         @Override
                         public void onSuccess() {
+                            // 缓存中的 hasRead 已过期
+                            messageRingCache.removeConversation(conversationKey(conversation));
                             promise.resolve(true);
                         }
 
@@ -2328,6 +5791,66 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         }
     }
 
+    /**
+     * 上报会话中当前可见的消息（仅 Android）
+     * 未发送过回执的 ID 按会话合并，在设置的间隔后批量发送；应用进入后台时立即发送。
+     * 每个请求结束时推送 ReadReceiptsFlushed；失败的 ID 自动退避重试，最多 3 次。
+     *
+     * @param messageIds 可见的他人发送的消息 ID
+     */
+    @ReactMethod
+    public void reportVisibleMessages(ReadableMap conversationMap, ReadableArray messageIds) {
+        Conversation conversation = convertMapToConversation(conversationMap);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < messageIds.size(); i++) {
+            ids.add(messageIds.getString(i));
+        }
+        readReceiptBatcher.report(conversationKey(conversation), conversation, ids);
+    }
+
+    /**
+     * 立即发送全部待发送的已读回执（仅 Android）
+     */
+    @ReactMethod
+    public void flushReadReceipts() {
+        flushReadReceiptsAsync();
+    }
+
+    /**
+     * 设置已读回执合并参数（仅 Android）
+     *
+     * @param options debounceMs 合并间隔（默认 1000），maxBatch 每个请求的最大条数（默认 50）
+     */
+    @ReactMethod
+    public void configureReadReceipts(ReadableMap options) {
+        long debounceMs = options.hasKey("debounceMs") ? (long) options.getDouble("debounceMs") : -1;
+        int maxBatch = options.hasKey("maxBatch") ? options.getInt("maxBatch") : 0;
+        readReceiptBatcher.configure(debounceMs, maxBatch);
+    }
+
+    /**
+     * 获取已读回执合并统计（仅 Android）
+     */
+    @ReactMethod
+    public void getReadReceiptMetrics(Promise promise) {
+        WritableMap result = new WritableNativeMap();
+        result.putDouble("reportedCount", readReceiptBatcher.getReportedCount());
+        result.putDouble("dedupedCount", readReceiptBatcher.getDedupedCount());
+        result.putDouble("sentCount", readReceiptBatcher.getSentCount());
+        result.putDouble("requestCount", readReceiptBatcher.getRequestCount());
+        result.putDouble("retryCount", readReceiptBatcher.getRetryCount());
+        result.putInt("pendingCount", readReceiptBatcher.getPendingCount());
+        promise.resolve(result);
+    }
+
+    private void flushReadReceiptsAsync() {
+        try {
+            scheduler.execute(readReceiptBatcher::flushAll);
+        } catch (RejectedExecutionException e) {
+            Log.w("JuggleIM", "flushReadReceipts rejected: " + e.getMessage());
+        }
+    }
+
     /**
      * 更新消息
      * 
@@ -2346,7 +5869,7 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
                     new IMessageManager.IMessageCallback() {
                         @Override
                         public void onSuccess(Message message) {
-                            promise.resolve(convertMessageToMap(message));
+                            promise.resolve(convertAndCacheMessage(message));
                         }
 
                         @Override
@@ -2424,12 +5947,13 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void fetchUserInfo(String userId, Promise promise) {
-        JIM.getInstance().getUserInfoManager().fetchUserInfo(userId, new JIMConst.IResultCallback<UserInfo>() {
+        userInfoFetcher.request(userId, new JIMConst.IResultCallback<UserInfo>() {
             @Override
             public void onSuccess(UserInfo userInfo) {
                 if (userInfo != null) {
-                    promise.resolve(convertUserInfoToMap(userInfo));
+                    promise.resolve(cacheUserInfo(userInfo));
                 } else {
+                    infoCache.remove(userCacheKey(userId));
                     promise.resolve(null);
                 }
             }
@@ -2448,12 +5972,13 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void fetchGroupInfo(String groupId, Promise promise) {
-        JIM.getInstance().getUserInfoManager().fetchGroupInfo(groupId, new JIMConst.IResultCallback<GroupInfo>() {
+        groupInfoFetcher.request(groupId, new JIMConst.IResultCallback<GroupInfo>() {
             @Override
             public void onSuccess(GroupInfo groupInfo) {
                 if (groupInfo != null) {
-                    promise.resolve(convertGroupInfoToMap(groupInfo));
+                    promise.resolve(cacheGroupInfo(groupInfo));
                 } else {
+                    infoCache.remove(groupCacheKey(groupId));
                     promise.resolve(null);
                 }
             }
@@ -2465,6 +5990,30 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
         });
     }
 
+    /**
+     * 获取用户/群组信息拉取合并统计
+     */
+    @ReactMethod
+    public void getInfoFetchMetrics(Promise promise) {
+        WritableMap result = new WritableNativeMap();
+        result.putMap("user", convertFetchMetricsToMap(userInfoFetcher));
+        result.putMap("group", convertFetchMetricsToMap(groupInfoFetcher));
+        promise.resolve(result);
+    }
+
+    private WritableMap convertFetchMetricsToMap(FetchCoalescer<?> coalescer) {
+        WritableMap map = new WritableNativeMap();
+        long batchCount = coalescer.getBatchCount();
+        map.putDouble("requestCount", coalescer.getRequestCount());
+        map.putDouble("inFlightHitCount", coalescer.getInFlightHitCount());
+        map.putDouble("dedupeCount", coalescer.getWindowDedupeCount());
+        map.putDouble("batchCount", batchCount);
+        map.putDouble("fetchedCount", coalescer.getFetchedIdCount());
+        map.putDouble("averageBatchSize", batchCount == 0 ? 0 : (double) coalescer.getFetchedIdCount() / batchCount);
+        map.putInt("maxBatchSize", coalescer.getMaxObservedBatchSize());
+        return map;
+    }
+
     /**
      * 批量获取用户信息
      * 
@@ -2472,14 +6021,30 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void getUserInfoList(ReadableArray userIdList, Promise promise) {
-        List<String> ids = new ArrayList<>();
+        Map<String, WritableMap> found = new HashMap<>();
+        List<String> missIds = new ArrayList<>();
         for (int i = 0; i < userIdList.size(); i++) {
-            ids.add(userIdList.getString(i));
+            String id = userIdList.getString(i);
+            WritableMap cached = infoCache.get(userCacheKey(id));
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missIds.add(id);
+            }
+        }
+        if (!missIds.isEmpty()) {
+            List<UserInfo> users = JIM.getInstance().getUserInfoManager().getUserInfoList(missIds);
+            for (UserInfo user : users) {
+                found.put(user.getUserId(), cacheUserInfo(user));
+            }
         }
-        List<UserInfo> users = JIM.getInstance().getUserInfoManager().getUserInfoList(ids);
+        // 按传入顺序返回，未找到的 id 跳过
         WritableArray array = new WritableNativeArray();
-        for (UserInfo user : users) {
-            array.pushMap(convertUserInfoToMap(user));
+        for (int i = 0; i < userIdList.size(); i++) {
+            WritableMap map = found.remove(userIdList.getString(i));
+            if (map != null) {
+                array.pushMap(map);
+            }
         }
         promise.resolve(array);
     }
@@ -2491,15 +6056,49 @@ public class JuggleIMManager extends ReactContextBaseJavaModule {
      */
     @ReactMethod
     public void getGroupInfoList(ReadableArray groupIdList, Promise promise) {
-        List<String> ids = new ArrayList<>();
+        Map<String, WritableMap> found = new HashMap<>();
+        List<String> missIds = new ArrayList<>();
         for (int i = 0; i < groupIdList.size(); i++) {
-            ids.add(groupIdList.getString(i));
+            String id = groupIdList.getString(i);
+            WritableMap cached = infoCache.get(groupCacheKey(id));
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missIds.add(id);
+            }
+        }
+        if (!missIds.isEmpty()) {
+            List<GroupInfo> groups = JIM.getInstance().getUserInfoManager().getGroupInfoList(missIds);
+            for (GroupInfo group : groups) {
+                found.put(group.getGroupId(), cacheGroupInfo(group));
+            }
         }
-        List<GroupInfo> groups = JIM.getInstance().getUserInfoManager().getGroupInfoList(ids);
+        // 按传入顺序返回，未找到的 id 跳过
         WritableArray array = new WritableNativeArray();
-        for (GroupInfo group : groups) {
-            array.pushMap(convertGroupInfoToMap(group));
+        for (int i = 0; i < groupIdList.size(); i++) {
+            WritableMap map = found.remove(groupIdList.getString(i));
+            if (map != null) {
+                array.pushMap(map);
+            }
         }
         promise.resolve(array);
     }
+
+    /**
+     * 获取用户/群组信息缓存统计
+     */
+    @ReactMethod
+    public void getInfoCacheMetrics(Promise promise) {
+        int hit = infoCache.hitCount();
+        int miss = infoCache.missCount();
+        WritableMap result = new WritableNativeMap();
+        result.putInt("hitCount", hit);
+        result.putInt("missCount", miss);
+        result.putDouble("hitRatio", hit + miss == 0 ? 0 : (double) hit / (hit + miss));
+        result.putInt("evictionCount", infoCache.evictionCount());
+        result.putInt("entryCount", infoCache.entryCount());
+        result.putInt("sizeBytes", infoCache.size());
+        result.putInt("maxSizeBytes", infoCache.maxSize());
+        promise.resolve(result);
+    }
 }
\ No newline at end of file
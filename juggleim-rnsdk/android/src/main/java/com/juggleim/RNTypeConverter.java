@@ -100,6 +100,50 @@ public class RNTypeConverter {
         return obj instanceof String || obj instanceof Number || obj instanceof Boolean;
     }
 
+    // === ReadableMap 拷贝 ===
+    // WritableNativeMap 被传给 JS 后即失效，缓存中的 map 只能以副本形式返回
+    public static WritableMap copyMap(ReadableMap source) {
+        WritableMap map = new WritableNativeMap();
+        if (source != null) {
+            map.merge(source);
+        }
+        return map;
+    }
+
+    // 只拷贝指定的顶层字段，不存在的字段跳过
+    public static WritableMap projectMap(ReadableMap source, Collection<String> keys) {
+        WritableMap map = new WritableNativeMap();
+        if (source == null) {
+            return map;
+        }
+        for (String key : keys) {
+            if (!source.hasKey(key)) {
+                continue;
+            }
+            switch (source.getType(key)) {
+                case Null:
+                    map.putNull(key);
+                    break;
+                case Boolean:
+                    map.putBoolean(key, source.getBoolean(key));
+                    break;
+                case Number:
+                    map.putDouble(key, source.getDouble(key));
+                    break;
+                case String:
+                    map.putString(key, source.getString(key));
+                    break;
+                case Map:
+                    map.putMap(key, copyMap(source.getMap(key)));
+                    break;
+                case Array:
+                    map.putArray(key, Arguments.fromList(source.getArray(key).toArrayList()));
+                    break;
+            }
+        }
+        return map;
+    }
+
     // === ReadableMap -> 对象 ===
     public static <T> T fromReadableMap(ReadableMap map, Class<T> clazz) {
         try {
@@ -189,6 +233,15 @@ public class RNTypeConverter {
         return map;
     }
 
+    /**
+     * 与 stringToWritableMap 相同，但解析失败时抛出异常而不是返回空字典
+     */
+    public static WritableMap parseJsonObject(String json) throws JSONException {
+        WritableMap map = new WritableNativeMap();
+        convertJsonObject(new JSONObject(json), map);
+        return map;
+    }
+
     private static void convertJsonObject(JSONObject jsonObject, WritableMap map)
             throws JSONException {
 
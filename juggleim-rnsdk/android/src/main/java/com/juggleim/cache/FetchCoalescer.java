@@ -0,0 +1,245 @@
+package com.juggleim.cache;
+
+import com.juggle.im.JIMConst;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 远端拉取合并器
+ * 同一 id 的并发请求共享一次进行中的拉取；短时间窗口内的不同 id 合并为一批拉取。
+ * 拉取抛出异常、超时未回调或 shutdown 后，等待中的请求以 ERROR_CODE 失败。
+ */
+public class FetchCoalescer<T> {
+
+    public static final int ERROR_CODE = -1;
+
+    /**
+     * 批量拉取实现，每个 id 必须且只能回调一次 onResult 或 onError
+     */
+    public interface BatchFetcher<T> {
+        void fetch(List<String> ids, BatchCallback<T> callback);
+    }
+
+    public interface BatchCallback<T> {
+        void onResult(String id, T value);
+
+        void onError(String id, int errorCode);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final BatchFetcher<T> fetcher;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final long timeoutMs;
+
+    // 等待下一次 flush 的请求
+    private final Map<String, List<JIMConst.IResultCallback<T>>> pending = new LinkedHashMap<>();
+    // 已发出、尚未返回的请求
+    private final Map<String, List<JIMConst.IResultCallback<T>>> inFlight = new HashMap<>();
+    // 尚有 id 未结束的批次
+    private final Set<Map<String, List<JIMConst.IResultCallback<T>>>> batches =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+    private ScheduledFuture<?> flushFuture;
+    private boolean shutdown;
+
+    private long requestCount;
+    private long inFlightHitCount;
+    private long windowDedupeCount;
+    private long batchCount;
+    private long fetchedIdCount;
+    private int maxObservedBatchSize;
+
+    public FetchCoalescer(ScheduledExecutorService scheduler, BatchFetcher<T> fetcher, long windowMs,
+                          int maxBatchSize, long timeoutMs) {
+        this.scheduler = scheduler;
+        this.fetcher = fetcher;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public void request(String id, JIMConst.IResultCallback<T> callback) {
+        boolean flushNow = false;
+        boolean rejected;
+        synchronized (this) {
+            rejected = shutdown;
+            if (!rejected) {
+                requestCount++;
+                List<JIMConst.IResultCallback<T>> waiters = inFlight.get(id);
+                if (waiters != null) {
+                    inFlightHitCount++;
+                    waiters.add(callback);
+                    return;
+                }
+                waiters = pending.get(id);
+                if (waiters != null) {
+                    windowDedupeCount++;
+                    waiters.add(callback);
+                    return;
+                }
+                waiters = new ArrayList<>();
+                waiters.add(callback);
+                pending.put(id, waiters);
+                if (pending.size() >= maxBatchSize) {
+                    flushNow = true;
+                } else if (flushFuture == null) {
+                    try {
+                        flushFuture = scheduler.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        flushNow = true;
+                    }
+                }
+            }
+        }
+        if (flushNow) {
+            flush();
+        } else if (rejected) {
+            callback.onError(ERROR_CODE);
+        }
+    }
+
+    /**
+     * 停止合并，等待中和进行中的请求全部失败，之后的请求直接失败
+     */
+    public void shutdown() {
+        List<List<JIMConst.IResultCallback<T>>> waiters;
+        List<Map<String, List<JIMConst.IResultCallback<T>>>> active;
+        synchronized (this) {
+            shutdown = true;
+            if (flushFuture != null) {
+                flushFuture.cancel(false);
+                flushFuture = null;
+            }
+            waiters = new ArrayList<>(pending.values());
+            pending.clear();
+            active = new ArrayList<>(batches);
+        }
+        for (List<JIMConst.IResultCallback<T>> list : waiters) {
+            fail(list);
+        }
+        for (Map<String, List<JIMConst.IResultCallback<T>>> batch : active) {
+            failAll(batch);
+        }
+    }
+
+    private void flush() {
+        List<String> ids;
+        Map<String, List<JIMConst.IResultCallback<T>>> batch;
+        synchronized (this) {
+            if (flushFuture != null) {
+                flushFuture.cancel(false);
+                flushFuture = null;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            ids = new ArrayList<>(pending.keySet());
+            batch = new HashMap<>(pending);
+            batches.add(batch);
+            inFlight.putAll(pending);
+            pending.clear();
+            batchCount++;
+            fetchedIdCount += ids.size();
+            maxObservedBatchSize = Math.max(maxObservedBatchSize, ids.size());
+        }
+        try {
+            scheduler.schedule(() -> failAll(batch), timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 调度器已停止，本批次由 shutdown 结束
+        }
+        try {
+            fetcher.fetch(ids, new BatchCallback<T>() {
+                @Override
+                public void onResult(String id, T value) {
+                    for (JIMConst.IResultCallback<T> waiter : complete(batch, id)) {
+                        waiter.onSuccess(value);
+                    }
+                }
+
+                @Override
+                public void onError(String id, int errorCode) {
+                    for (JIMConst.IResultCallback<T> waiter : complete(batch, id)) {
+                        waiter.onError(errorCode);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            failAll(batch);
+        }
+    }
+
+    /**
+     * 结束本批次中的 id；超时或 shutdown 后才到达的回调不再影响之后发起的同 id 请求
+     */
+    private synchronized List<JIMConst.IResultCallback<T>> complete(
+            Map<String, List<JIMConst.IResultCallback<T>>> batch, String id) {
+        List<JIMConst.IResultCallback<T>> waiters = batch.remove(id);
+        if (batch.isEmpty()) {
+            batches.remove(batch);
+        }
+        if (waiters == null) {
+            return new ArrayList<>();
+        }
+        if (inFlight.get(id) == waiters) {
+            inFlight.remove(id);
+        }
+        return waiters;
+    }
+
+    private void failAll(Map<String, List<JIMConst.IResultCallback<T>>> batch) {
+        List<String> ids;
+        synchronized (this) {
+            ids = new ArrayList<>(batch.keySet());
+        }
+        for (String id : ids) {
+            fail(complete(batch, id));
+        }
+    }
+
+    private void fail(List<JIMConst.IResultCallback<T>> waiters) {
+        for (JIMConst.IResultCallback<T> waiter : waiters) {
+            waiter.onError(ERROR_CODE);
+        }
+    }
+
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * 加入已在进行中的拉取的请求数
+     */
+    public synchronized long getInFlightHitCount() {
+        return inFlightHitCount;
+    }
+
+    /**
+     * 同一窗口内重复 id 被合并的请求数
+     */
+    public synchronized long getWindowDedupeCount() {
+        return windowDedupeCount;
+    }
+
+    public synchronized long getBatchCount() {
+        return batchCount;
+    }
+
+    public synchronized long getFetchedIdCount() {
+        return fetchedIdCount;
+    }
+
+    public synchronized int getMaxObservedBatchSize() {
+        return maxObservedBatchSize;
+    }
+}
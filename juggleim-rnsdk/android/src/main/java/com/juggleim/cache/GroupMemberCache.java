@@ -0,0 +1,159 @@
+package com.juggleim.cache;
+
+import android.os.SystemClock;
+
+import com.juggle.im.model.GroupMember;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 按群组分桶的群成员缓存
+ * 桶按最近使用排序，成员总数超过上限时淘汰最久未使用的群组。
+ * SDK 没有群成员与用户资料的变更回调，成员写入超过 ttlMs 后视为过期，下次读取时重新查询。
+ */
+public class GroupMemberCache {
+
+    private static class Entry {
+        final GroupMember member;
+        final long loadedAtMs;
+
+        Entry(GroupMember member, long loadedAtMs) {
+            this.member = member;
+            this.loadedAtMs = loadedAtMs;
+        }
+    }
+
+    private final int maxMembers;
+    private final long ttlMs;
+    // accessOrder = true，迭代顺序即最近最少使用顺序
+    private final LinkedHashMap<String, TreeMap<String, Entry>> groups = new LinkedHashMap<>(16, 0.75f, true);
+    private int memberCount;
+
+    public GroupMemberCache(int maxMembers, long ttlMs) {
+        this.maxMembers = maxMembers;
+        this.ttlMs = ttlMs;
+    }
+
+    public synchronized GroupMember get(String groupId, String userId) {
+        TreeMap<String, Entry> members = groups.get(groupId);
+        Entry entry = members != null ? members.get(userId) : null;
+        if (entry == null) {
+            return null;
+        }
+        if (isExpired(entry, SystemClock.elapsedRealtime())) {
+            members.remove(userId);
+            memberCount--;
+            return null;
+        }
+        return entry.member;
+    }
+
+    public synchronized void put(String groupId, GroupMember member) {
+        TreeMap<String, Entry> members = groups.get(groupId);
+        if (members == null) {
+            members = new TreeMap<>();
+            groups.put(groupId, members);
+        }
+        if (members.put(member.getUserId(), new Entry(member, SystemClock.elapsedRealtime())) == null) {
+            memberCount++;
+        }
+        trim(groupId);
+    }
+
+    /**
+     * 返回该群已缓存且未过期的全部成员
+     */
+    public synchronized List<GroupMember> getAll(String groupId) {
+        List<GroupMember> result = new ArrayList<>();
+        TreeMap<String, Entry> members = liveMembers(groupId);
+        if (members != null) {
+            for (Entry entry : members.values()) {
+                result.add(entry.member);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按 userId 升序分页读取已缓存的成员
+     *
+     * @param cursor 上一页最后一个成员的 userId，为空时从头开始
+     * @param count  返回数量上限
+     */
+    public synchronized List<GroupMember> page(String groupId, String cursor, int count) {
+        List<GroupMember> result = new ArrayList<>();
+        TreeMap<String, Entry> members = liveMembers(groupId);
+        if (members == null || count <= 0) {
+            return result;
+        }
+        Map<String, Entry> tail = (cursor == null || cursor.isEmpty()) ? members : members.tailMap(cursor, false);
+        for (Entry entry : tail.values()) {
+            if (result.size() >= count) {
+                break;
+            }
+            result.add(entry.member);
+        }
+        return result;
+    }
+
+    public synchronized boolean hasMoreAfter(String groupId, String cursor) {
+        TreeMap<String, Entry> members = liveMembers(groupId);
+        return members != null && cursor != null && members.higherKey(cursor) != null;
+    }
+
+    public synchronized void removeGroup(String groupId) {
+        TreeMap<String, Entry> members = groups.remove(groupId);
+        if (members != null) {
+            memberCount -= members.size();
+        }
+    }
+
+    public synchronized void clear() {
+        groups.clear();
+        memberCount = 0;
+    }
+
+    public synchronized int getMemberCount() {
+        return memberCount;
+    }
+
+    /**
+     * 移除该群已过期的成员后返回成员表
+     */
+    private TreeMap<String, Entry> liveMembers(String groupId) {
+        TreeMap<String, Entry> members = groups.get(groupId);
+        if (members == null) {
+            return null;
+        }
+        long now = SystemClock.elapsedRealtime();
+        Iterator<Entry> it = members.values().iterator();
+        while (it.hasNext()) {
+            if (isExpired(it.next(), now)) {
+                it.remove();
+                memberCount--;
+            }
+        }
+        return members;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlMs > 0 && now - entry.loadedAtMs >= ttlMs;
+    }
+
+    private void trim(String keepGroupId) {
+        Iterator<Map.Entry<String, TreeMap<String, Entry>>> it = groups.entrySet().iterator();
+        while (memberCount > maxMembers && it.hasNext()) {
+            Map.Entry<String, TreeMap<String, Entry>> eldest = it.next();
+            if (eldest.getKey().equals(keepGroupId)) {
+                continue;
+            }
+            memberCount -= eldest.getValue().size();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.juggleim.cache;
+
+import android.content.ComponentCallbacks2;
+import android.util.LruCache;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+import com.juggleim.RNTypeConverter;
+
+import java.util.Map;
+
+/**
+ * 已转换对象快照的 LRU 缓存，按估算字节数限制容量
+ * 存入和取出均为副本，调用方可以直接把原 map 传给 JS。
+ */
+public class SnapshotCache {
+
+    private static class Entry {
+        final ReadableMap map;
+        final int bytes;
+
+        Entry(ReadableMap map, int bytes) {
+            this.map = map;
+            this.bytes = bytes;
+        }
+    }
+
+    private final LruCache<String, Entry> cache;
+
+    public SnapshotCache(int maxBytes) {
+        cache = new LruCache<String, Entry>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Entry entry) {
+                return entry.bytes;
+            }
+        };
+    }
+
+    public WritableMap get(String key) {
+        Entry entry = cache.get(key);
+        return entry != null ? RNTypeConverter.copyMap(entry.map) : null;
+    }
+
+    public void put(String key, ReadableMap map, int bytes) {
+        cache.put(key, new Entry(RNTypeConverter.copyMap(map), bytes));
+    }
+
+    public void remove(String key) {
+        cache.remove(key);
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    /**
+     * 响应系统内存压力
+     */
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            cache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW
+                || level == ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            cache.trimToSize(cache.maxSize() / 2);
+        }
+    }
+
+    public int hitCount() {
+        return cache.hitCount();
+    }
+
+    public int missCount() {
+        return cache.missCount();
+    }
+
+    public int evictionCount() {
+        return cache.evictionCount();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int maxSize() {
+        return cache.maxSize();
+    }
+
+    public int entryCount() {
+        return cache.snapshot().size();
+    }
+
+    /**
+     * 粗略估算字符串及扩展字段占用的字节数
+     */
+    public static int estimateBytes(Map<String, String> extra, String... values) {
+        int bytes = 64;
+        for (String value : values) {
+            if (value != null) {
+                bytes += 40 + value.length() * 2;
+            }
+        }
+        if (extra != null) {
+            for (Map.Entry<String, String> entry : extra.entrySet()) {
+                bytes += 80 + entry.getKey().length() * 2
+                        + (entry.getValue() != null ? entry.getValue().length() * 2 : 0);
+            }
+        }
+        return bytes;
+    }
+}
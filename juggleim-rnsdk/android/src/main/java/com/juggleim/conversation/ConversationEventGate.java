@@ -0,0 +1,43 @@
+package com.juggleim.conversation;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 批量会话操作期间暂缓单个会话的变更事件
+ * 同一会话可被多个批量操作同时持有，全部释放后才恢复事件。
+ */
+public class ConversationEventGate {
+    private final Map<String, Integer> holds = new HashMap<>();
+
+    public synchronized void hold(Collection<String> keys) {
+        for (String key : keys) {
+            Integer count = holds.get(key);
+            holds.put(key, count == null ? 1 : count + 1);
+        }
+    }
+
+    public synchronized void release(Collection<String> keys) {
+        for (String key : keys) {
+            Integer count = holds.get(key);
+            if (count == null || count <= 1) {
+                holds.remove(key);
+            } else {
+                holds.put(key, count - 1);
+            }
+        }
+    }
+
+    public synchronized boolean isHeld(String key) {
+        return holds.containsKey(key);
+    }
+
+    public synchronized boolean isEmpty() {
+        return holds.isEmpty();
+    }
+
+    public synchronized void clear() {
+        holds.clear();
+    }
+}
@@ -0,0 +1,279 @@
+package com.juggleim.conversation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 内存会话索引
+ * 由会话监听事件增量维护，全量加载完成后直接响应分页查询，不再访问数据库。
+ * 会话列表顺序为置顶会话在前，各自按 sortTime 倒序。
+ */
+public class ConversationIndex {
+
+    // 置顶会话与其余会话分别按 sortTime 倒序，前者接后者即列表顺序
+    private final SortedConversationList pinned = new SortedConversationList(SortedConversationList.BY_SORT_TIME);
+    private final SortedConversationList others = new SortedConversationList(SortedConversationList.BY_SORT_TIME);
+    private final SortedConversationList tops = new SortedConversationList(SortedConversationList.BY_TOP_TIME);
+    // 界面展示顺序，用于生成列表增量补丁
+    private final SortedConversationList display = new SortedConversationList(SortedConversationList.BY_DISPLAY_ORDER);
+    // 展示列表每变化一批递增一次
+    private long version;
+    private boolean ready;
+    // 每次清空后递增，用于丢弃过期的全量加载结果
+    private int generation;
+    // 全量加载期间删除的会话，加载读到的旧数据不再写回
+    private final Set<String> removedWhileLoading = new HashSet<>();
+    private long servedCount;
+    private long fallbackCount;
+
+    /**
+     * 一批会话变更对应的展示列表补丁
+     */
+    public static class PatchBatch {
+        public final long version;
+        public final List<ConversationListPatch> patches;
+
+        PatchBatch(long version, List<ConversationListPatch> patches) {
+            this.version = version;
+            this.patches = patches;
+        }
+    }
+
+    public synchronized PatchBatch upsert(List<ConversationSnapshot> snapshots) {
+        List<ConversationListPatch> patches = new ArrayList<>();
+        for (ConversationSnapshot snapshot : snapshots) {
+            patches.add(upsertOne(snapshot));
+        }
+        return newBatch(patches);
+    }
+
+    public synchronized PatchBatch remove(List<String> keys) {
+        List<ConversationListPatch> patches = new ArrayList<>();
+        for (String key : keys) {
+            pinned.remove(key);
+            others.remove(key);
+            tops.remove(key);
+            if (!ready) {
+                removedWhileLoading.add(key);
+            }
+            int from = display.remove(key);
+            if (from >= 0) {
+                patches.add(ConversationListPatch.forRemove(from, key));
+            }
+        }
+        return newBatch(patches);
+    }
+
+    /**
+     * 全量加载时使用，不覆盖已由事件写入的较新数据，也不写回加载期间已删除的会话；加载完成前不产生补丁
+     *
+     * @return 索引在加载期间被清空过时返回 false，调用方应停止加载
+     */
+    public synchronized boolean upsertIfAbsent(ConversationSnapshot snapshot, int loadGeneration) {
+        if (loadGeneration != generation) {
+            return false;
+        }
+        if (get(snapshot.getKey()) == null && !removedWhileLoading.contains(snapshot.getKey())) {
+            upsertOne(snapshot);
+        }
+        return true;
+    }
+
+    private ConversationListPatch upsertOne(ConversationSnapshot snapshot) {
+        if (snapshot.isTop()) {
+            others.remove(snapshot.getKey());
+            pinned.upsert(snapshot);
+            tops.upsert(snapshot);
+        } else {
+            pinned.remove(snapshot.getKey());
+            tops.remove(snapshot.getKey());
+            others.upsert(snapshot);
+        }
+        int[] move = display.upsert(snapshot);
+        return ConversationListPatch.forUpsert(move[0], move[1], snapshot);
+    }
+
+    private PatchBatch newBatch(List<ConversationListPatch> patches) {
+        if (!patches.isEmpty()) {
+            version++;
+        }
+        return new PatchBatch(version, patches);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * 按展示顺序返回当前全部会话
+     */
+    public synchronized List<ConversationSnapshot> displaySnapshot() {
+        return display.range(0, display.size());
+    }
+
+    public synchronized ConversationSnapshot get(String key) {
+        ConversationSnapshot snapshot = pinned.get(key);
+        return snapshot != null ? snapshot : others.get(key);
+    }
+
+    public synchronized void clear() {
+        pinned.clear();
+        others.clear();
+        tops.clear();
+        display.clear();
+        removedWhileLoading.clear();
+        version++;
+        ready = false;
+        generation++;
+    }
+
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 全量加载完成后标记就绪，加载期间索引被清空过则忽略
+     *
+     * @return 是否标记成功
+     */
+    public synchronized boolean markReady(int loadGeneration) {
+        if (loadGeneration != generation) {
+            return false;
+        }
+        ready = true;
+        removedWhileLoading.clear();
+        version++;
+        return true;
+    }
+
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    public synchronized int size() {
+        return pinned.size() + others.size();
+    }
+
+    /**
+     * 分页查询，时间戳语义与 SDK getConversationInfoList/getTopConversationInfoList 一致
+     * 同一时间的会话不会被页边界拆开，页尾或页首可能多出几条，调用方以首尾会话的时间继续分页不会跳过会话。
+     *
+     * @param ts      分页时间戳，0 表示从最新开始
+     * @param older   true 拉取比 ts 更早的会话，false 拉取比 ts 更新的会话
+     * @param topOnly 是否只查询置顶会话（按 topTime 分页）
+     * @return 索引未就绪时返回 null，调用方应回退到 SDK 查询
+     */
+    public synchronized List<ConversationSnapshot> query(int count, long ts, boolean older, boolean topOnly) {
+        if (!ready) {
+            fallbackCount++;
+            return null;
+        }
+        servedCount++;
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        if (topOnly) {
+            if (older) {
+                int start = ts <= 0 ? 0 : tops.firstOlderThan(ts, true);
+                return tops.range(start, tops.runEnd(Math.min(tops.size(), start + count), true) - start);
+            }
+            int end = tops.firstNotNewerThan(ts, true);
+            int start = tops.runStart(Math.max(0, end - count), true);
+            return tops.range(start, end - start);
+        }
+        return older ? queryOlder(count, ts) : queryNewer(count, ts);
+    }
+
+    /**
+     * 列表顺序下 ts 之后的一页
+     * 置顶与其余会话中都有时间为 ts 的会话时，按其余会话中的位置继续；页尾因此不会停在这种置顶会话上
+     */
+    private List<ConversationSnapshot> queryOlder(int count, long ts) {
+        int pinnedSize = pinned.size();
+        int start;
+        if (ts <= 0 || ts > newestSortTime()) {
+            start = 0;
+        } else if (!others.containsTime(ts, false) && pinned.containsTime(ts, false)) {
+            start = pinned.firstOlderThan(ts, false);
+        } else {
+            start = pinnedSize + others.firstOlderThan(ts, false);
+        }
+        int total = pinnedSize + others.size();
+        if (start >= total) {
+            return new ArrayList<>();
+        }
+        int end = Math.min(total, start + count);
+        if (end <= pinnedSize) {
+            end = pinned.runEnd(end, false);
+            long last = pinned.get(end - 1).getSortTime();
+            if (others.containsTime(last, false)) {
+                end = pinnedSize + others.firstOlderThan(last, false);
+            }
+        } else {
+            end = pinnedSize + others.runEnd(end - pinnedSize, false);
+        }
+        return range(start, end);
+    }
+
+    /**
+     * 列表顺序下 ts 之前的一页
+     * 置顶与其余会话中都有时间为 ts 的会话时，按置顶会话中的位置继续；页首因此不会停在这种其余会话上
+     */
+    private List<ConversationSnapshot> queryNewer(int count, long ts) {
+        int pinnedSize = pinned.size();
+        int end;
+        if (pinned.containsTime(ts, false)) {
+            end = pinned.firstNotNewerThan(ts, false);
+        } else {
+            end = pinnedSize + others.firstNotNewerThan(ts, false);
+        }
+        int start = Math.max(0, end - count);
+        if (start < pinnedSize) {
+            start = pinned.runStart(start, false);
+        } else if (start < end) {
+            start = pinnedSize + others.runStart(start - pinnedSize, false);
+            long first = others.get(start - pinnedSize).getSortTime();
+            if (pinned.containsTime(first, false)) {
+                start = pinned.firstNotNewerThan(first, false);
+            }
+        }
+        return range(start, end);
+    }
+
+    private long newestSortTime() {
+        long newest = 0;
+        if (pinned.size() > 0) {
+            newest = pinned.get(0).getSortTime();
+        }
+        if (others.size() > 0) {
+            newest = Math.max(newest, others.get(0).getSortTime());
+        }
+        return newest;
+    }
+
+    /**
+     * 列表顺序下 [start, end) 的会话
+     */
+    private List<ConversationSnapshot> range(int start, int end) {
+        int pinnedSize = pinned.size();
+        List<ConversationSnapshot> result = new ArrayList<>(Math.max(0, end - start));
+        if (start < pinnedSize) {
+            result.addAll(pinned.range(start, Math.min(end, pinnedSize) - start));
+        }
+        if (end > pinnedSize) {
+            int from = Math.max(start, pinnedSize) - pinnedSize;
+            result.addAll(others.range(from, end - pinnedSize - from));
+        }
+        return result;
+    }
+
+    public synchronized long getServedCount() {
+        return servedCount;
+    }
+
+    public synchronized long getFallbackCount() {
+        return fallbackCount;
+    }
+}
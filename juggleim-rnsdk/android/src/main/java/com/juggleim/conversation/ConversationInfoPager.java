@@ -0,0 +1,80 @@
+package com.juggleim.conversation;
+
+import com.juggle.im.model.Conversation;
+import com.juggle.im.model.ConversationInfo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 按排序时间向更早方向分页读取全部会话
+ * SDK 只返回 sortTime 严格小于起点的会话，以上一页最后的 sortTime 为起点会跳过与其相同的会话；
+ * 这里以 last + 1 为起点重叠读取边界时间，并跳过边界时间上已返回过的会话。
+ * 同一 sortTime 的会话多于一页时，整页都是已返回过的会话，此时加倍页大小重读，直到越过这一组会话。
+ */
+public class ConversationInfoPager {
+
+    public interface PageSource {
+        List<ConversationInfo> load(int count, long startTime);
+    }
+
+    private final PageSource source;
+    private int pageSize;
+    private long startTime;
+    private long boundaryTime = -1;
+    // 边界时间上已返回的会话
+    private final Set<String> boundaryKeys = new HashSet<>();
+    private boolean exhausted;
+
+    public ConversationInfoPager(PageSource source, int pageSize) {
+        this.source = source;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * 读取下一页未返回过的会话，没有更多时返回 null
+     */
+    public List<ConversationInfo> next() {
+        while (!exhausted) {
+            List<ConversationInfo> page = source.load(pageSize, startTime);
+            if (page == null || page.isEmpty()) {
+                exhausted = true;
+                return null;
+            }
+            List<ConversationInfo> result = new ArrayList<>(page.size());
+            for (ConversationInfo info : page) {
+                if (info.getSortTime() != boundaryTime || !boundaryKeys.contains(keyOf(info))) {
+                    result.add(info);
+                }
+            }
+            if (result.isEmpty() && page.size() >= pageSize) {
+                pageSize *= 2;
+                continue;
+            }
+            long last = page.get(page.size() - 1).getSortTime();
+            if (last != boundaryTime) {
+                boundaryTime = last;
+                boundaryKeys.clear();
+            }
+            for (ConversationInfo info : page) {
+                if (info.getSortTime() == last) {
+                    boundaryKeys.add(keyOf(info));
+                }
+            }
+            exhausted = page.size() < pageSize;
+            startTime = last + 1;
+            if (!result.isEmpty()) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static String keyOf(ConversationInfo info) {
+        Conversation conversation = info.getConversation();
+        return ConversationSnapshot.keyOf(conversation.getConversationType().getValue(),
+                conversation.getConversationId());
+    }
+}
@@ -0,0 +1,60 @@
+package com.juggleim.conversation;
+
+/**
+ * 会话列表的增量变更
+ * 下标均以依次应用之前的补丁后的列表为准，move 的 to 为移除 from 之后的插入位置。
+ */
+public class ConversationListPatch {
+    public static final String INSERT = "insert";
+    public static final String MOVE = "move";
+    public static final String UPDATE = "update";
+    public static final String REMOVE = "remove";
+
+    private final String op;
+    private final int from;
+    private final int to;
+    private final ConversationSnapshot snapshot;
+    private final String key;
+
+    private ConversationListPatch(String op, int from, int to, ConversationSnapshot snapshot, String key) {
+        this.op = op;
+        this.from = from;
+        this.to = to;
+        this.snapshot = snapshot;
+        this.key = key;
+    }
+
+    static ConversationListPatch forUpsert(int from, int to, ConversationSnapshot snapshot) {
+        if (from < 0) {
+            return new ConversationListPatch(INSERT, -1, to, snapshot, snapshot.getKey());
+        }
+        return new ConversationListPatch(from == to ? UPDATE : MOVE, from, to, snapshot, snapshot.getKey());
+    }
+
+    static ConversationListPatch forRemove(int from, String key) {
+        return new ConversationListPatch(REMOVE, from, -1, null, key);
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * remove 时为 null
+     */
+    public ConversationSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,49 @@
+package com.juggleim.conversation;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * 会话摘要快照，持有已转换好的会话 map 以及排序所需字段
+ */
+public class ConversationSnapshot {
+    private final String key;
+    private final long sortTime;
+    private final long topTime;
+    private final boolean isTop;
+    private final ReadableMap map;
+
+    public ConversationSnapshot(String key, long sortTime, long topTime, boolean isTop, ReadableMap map) {
+        this.key = key;
+        this.sortTime = sortTime;
+        this.topTime = topTime;
+        this.isTop = isTop;
+        this.map = map;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getSortTime() {
+        return sortTime;
+    }
+
+    public long getTopTime() {
+        return topTime;
+    }
+
+    public boolean isTop() {
+        return isTop;
+    }
+
+    /**
+     * 快照内部持有的 map，只能拷贝后交给 JS
+     */
+    public ReadableMap getMap() {
+        return map;
+    }
+
+    public static String keyOf(int conversationType, String conversationId) {
+        return conversationType + ":" + conversationId;
+    }
+}
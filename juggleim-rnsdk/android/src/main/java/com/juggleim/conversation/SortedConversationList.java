@@ -0,0 +1,184 @@
+package com.juggleim.conversation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按给定顺序维护的会话快照列表
+ * 基于有序数组 + 二分查找，定位 O(log n)，插入/删除只移动数组引用。
+ */
+public class SortedConversationList {
+
+    /**
+     * 按 sortTime 倒序，与 SDK getConversationInfoList 一致
+     */
+    public static final Comparator<ConversationSnapshot> BY_SORT_TIME = new Comparator<ConversationSnapshot>() {
+        @Override
+        public int compare(ConversationSnapshot a, ConversationSnapshot b) {
+            int c = Long.compare(b.getSortTime(), a.getSortTime());
+            return c != 0 ? c : a.getKey().compareTo(b.getKey());
+        }
+    };
+
+    /**
+     * 按 topTime 倒序，用于置顶会话列表
+     */
+    public static final Comparator<ConversationSnapshot> BY_TOP_TIME = new Comparator<ConversationSnapshot>() {
+        @Override
+        public int compare(ConversationSnapshot a, ConversationSnapshot b) {
+            int c = Long.compare(b.getTopTime(), a.getTopTime());
+            return c != 0 ? c : a.getKey().compareTo(b.getKey());
+        }
+    };
+
+    /**
+     * 界面展示顺序：置顶会话按 topTime 倒序在前，其余按 sortTime 倒序
+     */
+    public static final Comparator<ConversationSnapshot> BY_DISPLAY_ORDER = new Comparator<ConversationSnapshot>() {
+        @Override
+        public int compare(ConversationSnapshot a, ConversationSnapshot b) {
+            if (a.isTop() != b.isTop()) {
+                return a.isTop() ? -1 : 1;
+            }
+            return a.isTop() ? BY_TOP_TIME.compare(a, b) : BY_SORT_TIME.compare(a, b);
+        }
+    };
+
+    private final Comparator<ConversationSnapshot> comparator;
+    private final ArrayList<ConversationSnapshot> items = new ArrayList<>();
+    private final Map<String, ConversationSnapshot> byKey = new HashMap<>();
+
+    public SortedConversationList(Comparator<ConversationSnapshot> comparator) {
+        this.comparator = comparator;
+    }
+
+    public ConversationSnapshot get(String key) {
+        return byKey.get(key);
+    }
+
+    public ConversationSnapshot get(int index) {
+        return items.get(index);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public int indexOf(String key) {
+        ConversationSnapshot snapshot = byKey.get(key);
+        if (snapshot == null) {
+            return -1;
+        }
+        int index = Collections.binarySearch(items, snapshot, comparator);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * 插入或替换快照
+     *
+     * @return {原位置, 新位置}，新插入时原位置为 -1
+     */
+    public int[] upsert(ConversationSnapshot snapshot) {
+        int from = remove(snapshot.getKey());
+        int index = Collections.binarySearch(items, snapshot, comparator);
+        int to = index >= 0 ? index : -(index + 1);
+        items.add(to, snapshot);
+        byKey.put(snapshot.getKey(), snapshot);
+        return new int[]{from, to};
+    }
+
+    /**
+     * @return 被删除快照原来的位置，不存在时返回 -1
+     */
+    public int remove(String key) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            items.remove(index);
+            byKey.remove(key);
+        }
+        return index;
+    }
+
+    public void clear() {
+        items.clear();
+        byKey.clear();
+    }
+
+    public List<ConversationSnapshot> range(int from, int count) {
+        int start = Math.max(0, from);
+        int end = Math.min(items.size(), start + Math.max(0, count));
+        return new ArrayList<>(items.subList(start, end));
+    }
+
+    /**
+     * 列表中是否有 time(item) == ts 的会话
+     */
+    public boolean containsTime(long ts, boolean useTopTime) {
+        int index = firstNotNewerThan(ts, useTopTime);
+        return index < items.size() && time(index, useTopTime) == ts;
+    }
+
+    /**
+     * 页尾 end（不含）落在同一时间的会话中间时，向后移到这一组会话之后
+     */
+    public int runEnd(int end, boolean useTopTime) {
+        while (end > 0 && end < items.size() && time(end, useTopTime) == time(end - 1, useTopTime)) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * 页首 start 落在同一时间的会话中间时，向前移到这一组会话的第一个
+     */
+    public int runStart(int start, boolean useTopTime) {
+        while (start > 0 && start < items.size() && time(start - 1, useTopTime) == time(start, useTopTime)) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * 第一个满足 time(item) < ts 的位置（列表按时间倒序）
+     */
+    public int firstOlderThan(long ts, boolean useTopTime) {
+        int lo = 0;
+        int hi = items.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            long t = useTopTime ? items.get(mid).getTopTime() : items.get(mid).getSortTime();
+            if (t >= ts) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * 第一个满足 time(item) <= ts 的位置（列表按时间倒序），此前的元素都比 ts 更新
+     */
+    public int firstNotNewerThan(long ts, boolean useTopTime) {
+        int lo = 0;
+        int hi = items.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            long t = useTopTime ? items.get(mid).getTopTime() : items.get(mid).getSortTime();
+            if (t > ts) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private long time(int index, boolean useTopTime) {
+        return useTopTime ? items.get(index).getTopTime() : items.get(index).getSortTime();
+    }
+}
@@ -0,0 +1,113 @@
+package com.juggleim.media;
+
+import com.juggle.im.JIMConst;
+import com.juggleim.BoundedPipeline;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量上传
+ * 同时进行的上传数不超过 parallelism，一项结束后开始下一项；路径转换在 executor 上执行。
+ * 上传期间暂存文件被标记为使用中，清理时跳过。
+ */
+public class BatchUploader {
+
+    public interface Uploader {
+        void upload(String path, JIMConst.IResultCallback<String> callback);
+    }
+
+    public interface PathResolver {
+        String resolve(String source) throws IOException;
+    }
+
+    public interface Listener {
+        /**
+         * 每项结束时回调
+         */
+        void onItem(ItemResult item, int completed, int failed, int total);
+
+        void onComplete(List<ItemResult> results);
+    }
+
+    public static class ItemResult {
+        public final int index;
+        public final String source;
+        public String localPath;
+        public String url;
+        // 0 表示成功；没有收到结果（如执行器已关闭）时保持 -1
+        public int errorCode = -1;
+
+        ItemResult(int index, String source) {
+            this.index = index;
+            this.source = source;
+        }
+
+        public boolean isSuccess() {
+            return errorCode == 0 && url != null;
+        }
+    }
+
+    private final Executor executor;
+    private final MediaStager stager;
+    private final PathResolver resolver;
+    private final Uploader uploader;
+
+    public BatchUploader(Executor executor, MediaStager stager, PathResolver resolver, Uploader uploader) {
+        this.executor = executor;
+        this.stager = stager;
+        this.resolver = resolver;
+        this.uploader = uploader;
+    }
+
+    public void upload(List<String> sources, int parallelism, Listener listener) {
+        int total = sources.size();
+        ItemResult[] results = new ItemResult[total];
+        for (int i = 0; i < total; i++) {
+            results[i] = new ItemResult(i, sources.get(i));
+        }
+        AtomicInteger failed = new AtomicInteger();
+        new BoundedPipeline(executor).run(total, parallelism, (index, handle) -> {
+            ItemResult item = results[index];
+            try {
+                item.localPath = resolver.resolve(item.source);
+                stager.pin(item.localPath);
+                uploader.upload(item.localPath, new JIMConst.IResultCallback<String>() {
+                    @Override
+                    public void onSuccess(String url) {
+                        handle.finish(() -> {
+                            item.url = url;
+                            item.errorCode = 0;
+                        });
+                    }
+
+                    @Override
+                    public void onError(int errorCode) {
+                        handle.finish(() -> item.errorCode = errorCode != 0 ? errorCode : -1);
+                    }
+                });
+            } catch (Exception e) {
+                // 任何异常都要结束该项，否则批次不会完成，后续项也不会开始
+                handle.finish(() -> item.errorCode = -1);
+            }
+        }, new BoundedPipeline.Listener() {
+            @Override
+            public void onItem(int index, int completed) {
+                ItemResult item = results[index];
+                stager.unpin(item.localPath);
+                if (!item.isSuccess()) {
+                    failed.incrementAndGet();
+                }
+                listener.onItem(item, completed, failed.get(), total);
+            }
+
+            @Override
+            public void onComplete() {
+                listener.onComplete(Arrays.asList(results));
+            }
+        });
+    }
+}
@@ -0,0 +1,528 @@
+package com.juggleim.media;
+
+import android.os.SystemClock;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 分片断点续传
+ * 协议（contentKey 由来源、大小、修改时间和分片大小计算）：
+ * GET  {endpoint}/{contentKey}               查询服务端已收到的分片，返回 {"chunks":[0,1,...]}，404 表示尚未开始
+ * PUT  {endpoint}/{contentKey}/{index}       上传一个分片，Content-Range: bytes start-end/total
+ * POST {endpoint}/{contentKey}/complete      合并分片，请求体 {"name","size","chunkCount"}，返回 {"url"}
+ * 本地状态按消息保存（uploadId 含 messageId），同一文件发往多个会话时互不覆盖；
+ * 服务端会话按 contentKey 共享，已上传的分片可被其他消息复用，同一内容的上传依次进行。
+ * 已完成的分片记录在本地状态文件中，进程重启后从缺失的分片继续；上传完成后状态保留到调用方发出消息再 remove。
+ * content:// 来源直接按偏移从文件描述符读取分片，不复制到暂存区。
+ */
+public class ChunkedUploader {
+
+    private static final int COMPLETED_URL_CACHE_SIZE = 64;
+    private static final int REMOVED_CACHE_SIZE = 256;
+
+    public interface ProgressListener {
+        void onProgress(long uploadedBytes, long totalBytes);
+    }
+
+    public static class Config {
+        public String endpoint;
+        public int chunkSize = 2 * 1024 * 1024;
+        public Map<String, String> headers = new HashMap<>();
+        public int connectTimeoutMs = 15000;
+        public int readTimeoutMs = 30000;
+        // 关闭后 content:// 先复制到暂存区再上传，用于对比
+        public boolean directRead = true;
+    }
+
+    /**
+     * 按读取方式统计的上传指标
+     */
+    public static class ModeMetrics {
+        public long uploadCount;
+        // 上传前写入磁盘的字节数
+        public long diskBytesWritten;
+        public long networkBytes;
+        public long firstByteCount;
+        public long totalFirstByteMs;
+
+        ModeMetrics copy() {
+            ModeMetrics copy = new ModeMetrics();
+            copy.uploadCount = uploadCount;
+            copy.diskBytesWritten = diskBytesWritten;
+            copy.networkBytes = networkBytes;
+            copy.firstByteCount = firstByteCount;
+            copy.totalFirstByteMs = totalFirstByteMs;
+            return copy;
+        }
+    }
+
+    /**
+     * 持久化的上传状态
+     */
+    public static class State {
+        public final String uploadId;
+        // 服务端上传会话的标识，相同内容的上传共用
+        public final String contentKey;
+        // 本地路径或 content:// 地址
+        public final String path;
+        public final String name;
+        public final long size;
+        public final long lastModified;
+        public final int chunkSize;
+        final BitSet completed = new BitSet();
+        // 上传完成后发送消息所需的信息，由调用方定义
+        public String payload;
+        // 以下仅在本进程内有效，用于统计首字节耗时
+        long startedAtMs;
+        boolean direct;
+        boolean firstByteSent;
+
+        State(String uploadId, String contentKey, String path, String name, long size, long lastModified,
+              int chunkSize) {
+            this.uploadId = uploadId;
+            this.contentKey = contentKey;
+            this.path = path;
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.chunkSize = chunkSize;
+        }
+
+        public int getChunkCount() {
+            return (int) ((size + chunkSize - 1) / chunkSize);
+        }
+
+        public long getUploadedBytes() {
+            long bytes = 0;
+            for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) {
+                bytes += chunkLength(i);
+            }
+            return bytes;
+        }
+
+        long chunkLength(int index) {
+            return Math.min(chunkSize, size - (long) index * chunkSize);
+        }
+    }
+
+    private final File stateDir;
+    private final MediaStager stager;
+    private volatile Config config;
+    // 最近取消的上传，进行中的分片完成后不再写回状态；只需覆盖仍在进行的上传，保留最近的若干条
+    private final Set<String> removed = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > REMOVED_CACHE_SIZE;
+        }
+    });
+    // 正在上传的内容，同一 contentKey 的上传依次进行
+    private final Set<String> activeContents = new HashSet<>();
+    // 本进程内已合并的内容地址，相同内容的后续上传直接复用
+    private final Map<String, String> completedUrls = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > COMPLETED_URL_CACHE_SIZE;
+        }
+    };
+
+    private final ModeMetrics directMetrics = new ModeMetrics();
+    private final ModeMetrics stagedMetrics = new ModeMetrics();
+
+    public ChunkedUploader(File stateDir, MediaStager stager) {
+        this.stateDir = stateDir;
+        this.stager = stager;
+    }
+
+    public void setConfig(Config config) {
+        this.config = config;
+    }
+
+    public boolean isDirectRead() {
+        Config current = config;
+        return current == null || current.directRead;
+    }
+
+    public boolean isConfigured() {
+        Config current = config;
+        return current != null && current.endpoint != null && !current.endpoint.isEmpty();
+    }
+
+    /**
+     * 创建或读取消息对应的上传状态；来源变化后重新开始
+     *
+     * @param source         本地路径或 content:// 地址
+     * @param messageId      发送方的消息标识，同一来源的不同消息各自保存状态
+     * @param startedAtMs    发起发送的时间，用于统计首字节耗时
+     * @param direct         是否直接读取来源
+     * @param stagedBytes    上传前为此来源写入暂存区的字节数
+     */
+    public synchronized State prepare(String source, String messageId, String payload, long startedAtMs,
+                                      boolean direct, long stagedBytes) throws IOException {
+        Config current = requireConfig();
+        MediaStager.SourceInfo info = stager.describe(source);
+        if (info.size < 0) {
+            throw new IOException("Unknown size: " + source);
+        }
+        String contentKey = sha1(source + "|" + info.size + "|" + info.lastModified + "|" + current.chunkSize);
+        String uploadId = sha1(contentKey + "|" + messageId);
+        State state = load(uploadId);
+        if (state == null || state.size != info.size || state.lastModified != info.lastModified) {
+            state = new State(uploadId, contentKey, source, info.displayName, info.size, info.lastModified,
+                    current.chunkSize);
+        }
+        removed.remove(uploadId);
+        state.payload = payload;
+        state.startedAtMs = startedAtMs;
+        state.direct = direct;
+        save(state);
+        ModeMetrics metrics = direct ? directMetrics : stagedMetrics;
+        metrics.uploadCount++;
+        metrics.diskBytesWritten += stagedBytes;
+        return state;
+    }
+
+    /**
+     * 上传缺失的分片并合并，返回文件地址
+     * 在调用线程同步执行，中断线程可停止上传；同一内容正在上传时等待其结束。
+     * 不删除本地状态，调用方用地址发出消息后再调用 remove，中途退出时重启可以继续发送
+     */
+    public String upload(State state, ProgressListener listener) throws IOException {
+        Config current = requireConfig();
+        acquireContent(state.contentKey);
+        try {
+            String url;
+            synchronized (this) {
+                url = completedUrls.get(state.contentKey);
+            }
+            if (url == null) {
+                url = uploadChunks(current, state, listener);
+                synchronized (this) {
+                    completedUrls.put(state.contentKey, url);
+                }
+            } else {
+                listener.onProgress(state.size, state.size);
+            }
+            return url;
+        } finally {
+            releaseContent(state.contentKey);
+        }
+    }
+
+    private String uploadChunks(Config current, State state, ProgressListener listener) throws IOException {
+        syncRemoteChunks(current, state);
+        long uploaded = state.getUploadedBytes();
+        listener.onProgress(uploaded, state.size);
+        try (FileChannel channel = stager.openReadChannel(state.path)) {
+            if (channel == null) {
+                throw new IOException("Source is not seekable: " + state.path);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(state.chunkSize);
+            for (int index = 0; index < state.getChunkCount(); index++) {
+                if (state.completed.get(index)) {
+                    continue;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Upload interrupted");
+                }
+                long start = (long) index * state.chunkSize;
+                int length = (int) state.chunkLength(index);
+                buffer.clear();
+                buffer.limit(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new IOException("File truncated: " + state.path);
+                    }
+                }
+                putChunk(current, state, index, start, buffer.array(), length);
+                synchronized (this) {
+                    state.completed.set(index);
+                    (state.direct ? directMetrics : stagedMetrics).networkBytes += length;
+                    save(state);
+                }
+                uploaded += length;
+                listener.onProgress(uploaded, state.size);
+            }
+        }
+        return complete(current, state);
+    }
+
+    private synchronized void acquireContent(String contentKey) throws IOException {
+        while (activeContents.contains(contentKey)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Upload interrupted");
+            }
+        }
+        activeContents.add(contentKey);
+    }
+
+    private synchronized void releaseContent(String contentKey) {
+        activeContents.remove(contentKey);
+        notifyAll();
+    }
+
+    /**
+     * 读取所有未完成的上传
+     */
+    public synchronized List<State> loadPending() {
+        List<State> states = new ArrayList<>();
+        File[] files = stateDir.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            return states;
+        }
+        for (File file : files) {
+            State state = load(file.getName().substring(0, file.getName().length() - 5));
+            if (state != null) {
+                states.add(state);
+            }
+        }
+        return states;
+    }
+
+    private synchronized void recordFirstByte(State state) {
+        if (state.firstByteSent || state.startedAtMs <= 0) {
+            return;
+        }
+        state.firstByteSent = true;
+        ModeMetrics metrics = state.direct ? directMetrics : stagedMetrics;
+        metrics.firstByteCount++;
+        metrics.totalFirstByteMs += SystemClock.elapsedRealtime() - state.startedAtMs;
+    }
+
+    public synchronized ModeMetrics getDirectMetrics() {
+        return directMetrics.copy();
+    }
+
+    /**
+     * 先复制到暂存区再上传的指标
+     */
+    public synchronized ModeMetrics getStagedMetrics() {
+        return stagedMetrics.copy();
+    }
+
+    public synchronized void remove(String uploadId) {
+        removed.add(uploadId);
+        new File(stateDir, uploadId + ".json").delete();
+    }
+
+    private void syncRemoteChunks(Config config, State state) throws IOException {
+        HttpURLConnection connection = open(config, config.endpoint + "/" + state.contentKey, "GET");
+        try {
+            int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_FOUND) {
+                state.completed.clear();
+                return;
+            }
+            if (code / 100 != 2) {
+                throw new IOException("Query upload failed: " + code);
+            }
+            JSONArray chunks = new JSONObject(readBody(connection.getInputStream())).optJSONArray("chunks");
+            // 以服务端为准，丢弃本地记录中服务端没有的分片；超出分片范围的序号不可信，忽略后重新上传对应分片
+            BitSet remote = new BitSet();
+            int chunkCount = state.getChunkCount();
+            if (chunks != null) {
+                for (int i = 0; i < chunks.length(); i++) {
+                    int index = chunks.getInt(i);
+                    if (index >= 0 && index < chunkCount) {
+                        remote.set(index);
+                    }
+                }
+            }
+            synchronized (this) {
+                state.completed.clear();
+                state.completed.or(remote);
+                save(state);
+            }
+        } catch (JSONException e) {
+            throw new IOException(e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void putChunk(Config config, State state, int index, long start, byte[] data, int length)
+            throws IOException {
+        HttpURLConnection connection = open(config, config.endpoint + "/" + state.contentKey + "/" + index, "PUT");
+        try {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(length);
+            connection.setRequestProperty("Content-Type", "application/octet-stream");
+            connection.setRequestProperty("Content-Range",
+                    "bytes " + start + "-" + (start + length - 1) + "/" + state.size);
+            try (OutputStream out = connection.getOutputStream()) {
+                recordFirstByte(state);
+                out.write(data, 0, length);
+            }
+            int code = connection.getResponseCode();
+            if (code / 100 != 2) {
+                throw new IOException("Upload chunk " + index + " failed: " + code);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private String complete(Config config, State state) throws IOException {
+        HttpURLConnection connection = open(config, config.endpoint + "/" + state.contentKey + "/complete", "POST");
+        try {
+            JSONObject body = new JSONObject();
+            body.put("name", state.name != null ? state.name : new File(state.path).getName());
+            body.put("size", state.size);
+            body.put("chunkCount", state.getChunkCount());
+            byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(bytes.length);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+            int code = connection.getResponseCode();
+            if (code / 100 != 2) {
+                throw new IOException("Complete upload failed: " + code);
+            }
+            String url = new JSONObject(readBody(connection.getInputStream())).optString("url", null);
+            if (url == null || url.isEmpty()) {
+                throw new IOException("Complete upload returned no url");
+            }
+            return url;
+        } catch (JSONException e) {
+            throw new IOException(e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private HttpURLConnection open(Config config, String url, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(config.connectTimeoutMs);
+        connection.setReadTimeout(config.readTimeoutMs);
+        for (Map.Entry<String, String> header : config.headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+        return connection;
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = input.read(buffer)) > 0) {
+                out.write(buffer, 0, length);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    private Config requireConfig() throws IOException {
+        if (!isConfigured()) {
+            throw new IOException("Chunked upload endpoint is not configured");
+        }
+        return config;
+    }
+
+    private static String sha1(String key) throws IOException {
+        try {
+            java.security.MessageDigest digest = java.security.MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private State load(String uploadId) {
+        File file = new File(stateDir, uploadId + ".json");
+        if (!file.exists()) {
+            return null;
+        }
+        try (FileInputStream in = new FileInputStream(file)) {
+            JSONObject json = new JSONObject(readBody(in));
+            State state = new State(uploadId, json.getString("contentKey"), json.getString("path"),
+                    json.optString("name", null), json.getLong("size"), json.getLong("lastModified"),
+                    json.getInt("chunkSize"));
+            JSONArray completed = json.optJSONArray("completed");
+            if (completed != null) {
+                for (int i = 0; i < completed.length(); i++) {
+                    state.completed.set(completed.getInt(i));
+                }
+            }
+            state.payload = json.optString("payload", null);
+            state.direct = state.path.startsWith("content://");
+            return state;
+        } catch (IOException | JSONException e) {
+            file.delete();
+            return null;
+        }
+    }
+
+    private void save(State state) throws IOException {
+        if (removed.contains(state.uploadId)) {
+            throw new IOException("Upload cancelled");
+        }
+        if (!stateDir.exists() && !stateDir.mkdirs() && !stateDir.exists()) {
+            throw new IOException("Cannot create dir: " + stateDir);
+        }
+        try {
+            JSONObject json = new JSONObject();
+            json.put("contentKey", state.contentKey);
+            json.put("path", state.path);
+            if (state.name != null) {
+                json.put("name", state.name);
+            }
+            json.put("size", state.size);
+            json.put("lastModified", state.lastModified);
+            json.put("chunkSize", state.chunkSize);
+            JSONArray completed = new JSONArray();
+            for (int i = state.completed.nextSetBit(0); i >= 0; i = state.completed.nextSetBit(i + 1)) {
+                completed.put(i);
+            }
+            json.put("completed", completed);
+            if (state.payload != null) {
+                json.put("payload", state.payload);
+            }
+            File temp = new File(stateDir, state.uploadId + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            File target = new File(stateDir, state.uploadId + ".json");
+            if (!temp.renameTo(target)) {
+                temp.delete();
+                throw new IOException("Cannot save upload state");
+            }
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+    }
+}
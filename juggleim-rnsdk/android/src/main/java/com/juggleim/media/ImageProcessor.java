@@ -0,0 +1,332 @@
+package com.juggleim.media;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片发送前处理
+ * 先只读文件头获取尺寸，按 inSampleSize 降采样并在解码时缩放到目标尺寸，再按质量逐级压缩到字节预算内并生成缩略图。
+ * 输出写入暂存区，文件名由源文件和参数决定，重发时直接复用。
+ * 输出为 JPEG；带透明通道的 PNG/WebP 保持原格式，避免透明区域变黑。
+ */
+public class ImageProcessor {
+
+    public static class Options {
+        // 长边上限
+        public int maxDimension = 2048;
+        public int quality = 85;
+        public int minQuality = 50;
+        // 压缩后的字节预算
+        public long maxBytes = 1024 * 1024;
+        public int thumbnailDimension = 240;
+        public int thumbnailQuality = 70;
+
+        public Options copy() {
+            Options options = new Options();
+            options.maxDimension = maxDimension;
+            options.quality = quality;
+            options.minQuality = minQuality;
+            options.maxBytes = maxBytes;
+            options.thumbnailDimension = thumbnailDimension;
+            options.thumbnailQuality = thumbnailQuality;
+            return options;
+        }
+    }
+
+    public static class Result {
+        public final String path;
+        public final int width;
+        public final int height;
+        public final String thumbnailPath;
+        public final long originalBytes;
+        public final long bytes;
+
+        Result(String path, int width, int height, String thumbnailPath, long originalBytes, long bytes) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.thumbnailPath = thumbnailPath;
+            this.originalBytes = originalBytes;
+            this.bytes = bytes;
+        }
+    }
+
+    private final File outputDir;
+    private final ExecutorService executor;
+    private volatile Options defaultOptions = new Options();
+
+    public ImageProcessor(File outputDir, int parallelism) {
+        this.outputDir = outputDir;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    public Options getDefaultOptions() {
+        return defaultOptions.copy();
+    }
+
+    public void setDefaultOptions(Options options) {
+        this.defaultOptions = options.copy();
+    }
+
+    /**
+     * 在处理线程池中执行任务，任务内可直接调用 process；线程数限制同时解码的图片数量
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * @param keepOriginal 为 true 时只读取尺寸并生成缩略图，不压缩原图
+     */
+    public Result process(String path, Options options, boolean keepOriginal) throws IOException {
+        File source = new File(path);
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Unsupported image: " + path);
+        }
+        int orientation = readOrientation(path);
+        boolean swap = orientation == ExifInterface.ORIENTATION_TRANSPOSE
+                || orientation == ExifInterface.ORIENTATION_ROTATE_90
+                || orientation == ExifInterface.ORIENTATION_TRANSVERSE
+                || orientation == ExifInterface.ORIENTATION_ROTATE_270;
+        int width = swap ? bounds.outHeight : bounds.outWidth;
+        int height = swap ? bounds.outWidth : bounds.outHeight;
+        long originalBytes = source.length();
+        // 动图与已满足要求的图片保持原样
+        boolean animated = "image/gif".equals(bounds.outMimeType);
+        boolean withinLimits = Math.max(width, height) <= options.maxDimension && originalBytes <= options.maxBytes
+                && orientation == ExifInterface.ORIENTATION_NORMAL;
+        String base = outputBaseName(source);
+
+        String outputPath = path;
+        long bytes = originalBytes;
+        if (!keepOriginal && !animated && !withinLimits) {
+            String stem = String.format(Locale.ROOT, "%s.%d-%d-%d", base,
+                    options.maxDimension, options.quality, options.maxBytes);
+            File output = findOutput(stem, bounds.outMimeType);
+            if (output == null) {
+                Bitmap bitmap = decodeScaled(path, bounds, orientation, options.maxDimension);
+                try {
+                    Bitmap.CompressFormat format = outputFormat(bitmap, bounds.outMimeType);
+                    output = new File(outputDir, stem + "." + extensionOf(format));
+                    writeWithinBudget(bitmap, output, format, options.quality, options.minQuality, options.maxBytes);
+                } finally {
+                    bitmap.recycle();
+                }
+            }
+            BitmapFactory.Options scaled = new BitmapFactory.Options();
+            scaled.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(output.getAbsolutePath(), scaled);
+            outputPath = output.getAbsolutePath();
+            width = scaled.outWidth;
+            height = scaled.outHeight;
+            bytes = output.length();
+        }
+
+        String thumbnailStem = String.format(Locale.ROOT, "%s.thumb%d", base, options.thumbnailDimension);
+        File thumbnail = findOutput(thumbnailStem, bounds.outMimeType);
+        if (thumbnail == null) {
+            Bitmap bitmap = decodeScaled(path, bounds, orientation, options.thumbnailDimension);
+            try {
+                Bitmap.CompressFormat format = outputFormat(bitmap, bounds.outMimeType);
+                thumbnail = new File(outputDir, thumbnailStem + "." + extensionOf(format));
+                writeImage(bitmap, thumbnail, format, options.thumbnailQuality);
+            } finally {
+                bitmap.recycle();
+            }
+        }
+        return new Result(outputPath, width, height, thumbnail.getAbsolutePath(), originalBytes, bytes);
+    }
+
+    private String outputBaseName(File source) {
+        String name = source.getName();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        // 暂存区文件名已经包含内容哈希；其他来源附加大小与修改时间避免同名冲突
+        if (!outputDir.equals(source.getParentFile())) {
+            stem = stem + "-" + source.length() + "-" + source.lastModified();
+        }
+        return stem;
+    }
+
+    private Bitmap decodeScaled(String path, BitmapFactory.Options bounds, int orientation, int maxDimension)
+            throws IOException {
+        int longEdge = Math.max(bounds.outWidth, bounds.outHeight);
+        BitmapFactory.Options decode = new BitmapFactory.Options();
+        decode.inSampleSize = 1;
+        while (longEdge / (decode.inSampleSize * 2) >= maxDimension) {
+            decode.inSampleSize *= 2;
+        }
+        // inSampleSize 只能按 2 的幂降采样，例如 4000px 到 2048px 时仍为 1；剩余比例交给解码器缩放，
+        // 不再先解出接近原图大小的位图
+        int sampledEdge = longEdge / decode.inSampleSize;
+        if (sampledEdge > maxDimension) {
+            decode.inScaled = true;
+            decode.inDensity = sampledEdge;
+            decode.inTargetDensity = maxDimension;
+        }
+        Bitmap bitmap = BitmapFactory.decodeFile(path, decode);
+        if (bitmap == null) {
+            throw new IOException("Decode failed: " + path);
+        }
+        bitmap.setDensity(Bitmap.DENSITY_NONE);
+        float scale = Math.min(1f, (float) maxDimension / Math.max(bitmap.getWidth(), bitmap.getHeight()));
+        if (scale >= 1f && orientation == ExifInterface.ORIENTATION_NORMAL) {
+            return bitmap;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        applyOrientation(matrix, orientation);
+        Bitmap transformed = Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+        if (transformed != bitmap) {
+            bitmap.recycle();
+        }
+        return transformed;
+    }
+
+    /**
+     * 查找已生成的输出，可能带透明通道的来源还要查找保持原格式的文件
+     */
+    private File findOutput(String stem, String mimeType) {
+        File jpeg = new File(outputDir, stem + ".jpg");
+        if (jpeg.exists() && jpeg.length() > 0) {
+            return jpeg;
+        }
+        String alphaExtension = alphaExtension(mimeType);
+        if (alphaExtension != null) {
+            File alpha = new File(outputDir, stem + "." + alphaExtension);
+            if (alpha.exists() && alpha.length() > 0) {
+                return alpha;
+            }
+        }
+        return null;
+    }
+
+    private static Bitmap.CompressFormat outputFormat(Bitmap bitmap, String mimeType) {
+        String alphaExtension = alphaExtension(mimeType);
+        if (alphaExtension == null || !bitmap.hasAlpha()) {
+            return Bitmap.CompressFormat.JPEG;
+        }
+        return "webp".equals(alphaExtension) ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.PNG;
+    }
+
+    private static String alphaExtension(String mimeType) {
+        if ("image/png".equals(mimeType)) {
+            return "png";
+        }
+        if ("image/webp".equals(mimeType)) {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static String extensionOf(Bitmap.CompressFormat format) {
+        switch (format) {
+            case PNG:
+                return "png";
+            case WEBP:
+                return "webp";
+            default:
+                return "jpg";
+        }
+    }
+
+    private void writeWithinBudget(Bitmap bitmap, File output, Bitmap.CompressFormat format, int quality,
+                                   int minQuality, long maxBytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int q = quality;
+        while (true) {
+            buffer.reset();
+            bitmap.compress(format, q, buffer);
+            // PNG 忽略质量参数，只压缩一次
+            if (format == Bitmap.CompressFormat.PNG || buffer.size() <= maxBytes || q - 10 < minQuality) {
+                break;
+            }
+            q -= 10;
+        }
+        writeAtomically(buffer, output);
+    }
+
+    private void writeImage(Bitmap bitmap, File output, Bitmap.CompressFormat format, int quality)
+            throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        bitmap.compress(format, quality, buffer);
+        writeAtomically(buffer, output);
+    }
+
+    private void writeAtomically(ByteArrayOutputStream buffer, File output) throws IOException {
+        if (!outputDir.exists() && !outputDir.mkdirs() && !outputDir.exists()) {
+            throw new IOException("Cannot create dir: " + outputDir);
+        }
+        File temp = new File(outputDir, MediaStager.TEMP_PREFIX + System.nanoTime());
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            buffer.writeTo(out);
+        }
+        if (!temp.renameTo(output)) {
+            temp.delete();
+            throw new IOException("Cannot write " + output);
+        }
+    }
+
+    private static int readOrientation(String path) {
+        try {
+            int orientation = new ExifInterface(path).getAttributeInt(ExifInterface.TAG_ORIENTATION,
+                    ExifInterface.ORIENTATION_NORMAL);
+            return orientation >= ExifInterface.ORIENTATION_FLIP_HORIZONTAL
+                    && orientation <= ExifInterface.ORIENTATION_ROTATE_270
+                    ? orientation : ExifInterface.ORIENTATION_NORMAL;
+        } catch (IOException e) {
+            return ExifInterface.ORIENTATION_NORMAL;
+        }
+    }
+
+    /**
+     * 按 EXIF 方向把图片转正，包括镜像的 2、4、5、7
+     */
+    private static void applyOrientation(Matrix matrix, int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,577 @@
+package com.juggleim.media;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 媒体下载管理
+ * 下载结果保存在磁盘 LRU 缓存中，同一 url 的请求共享一次下载。
+ * 每个请求属于一个 owner（通常是消息 ID），owner 全部取消后尚未开始或进行中的下载随之取消；
+ * 可见区域的请求优先于预取请求。请求被取消、缓存被清空或下载器关闭时，未完成的回调收到 onCancelled。
+ */
+public class MediaDownloader {
+    public static final int PRIORITY_VISIBLE = 0;
+    public static final int PRIORITY_PREFETCH = 1;
+    public static final int PRIORITY_BACKGROUND = 2;
+
+    private static final String TEMP_SUFFIX = ".download";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int URL_NAME_CACHE_SIZE = 1024;
+
+    public interface Callback {
+        void onComplete(String url, String localPath);
+
+        void onError(String url, String error);
+
+        /**
+         * 请求在完成前被取消，之后不会再收到其他回调
+         */
+        void onCancelled(String url);
+    }
+
+    private final class Job implements Runnable, Comparable<Job> {
+        final String url;
+        final long seq;
+        volatile int priority;
+        final Map<String, Callback> owners = new LinkedHashMap<>();
+        final Map<String, Integer> priorities = new HashMap<>();
+        volatile boolean cancelled;
+        volatile HttpURLConnection connection;
+
+        Job(String url, int priority, long seq) {
+            this.url = url;
+            this.priority = priority;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (priority != other.priority) {
+                return priority < other.priority ? -1 : 1;
+            }
+            return Long.compare(seq, other.seq);
+        }
+
+        @Override
+        public void run() {
+            synchronized (MediaDownloader.this) {
+                if (cancelled) {
+                    return;
+                }
+                running.add(this);
+            }
+            String path = null;
+            String error = null;
+            try {
+                path = download(this);
+            } catch (Exception e) {
+                error = e.getMessage() != null ? e.getMessage() : e.toString();
+            }
+            List<Callback> callbacks;
+            synchronized (MediaDownloader.this) {
+                running.remove(this);
+                removeJob(url, this);
+                if (cancelled) {
+                    return;
+                }
+                for (String owner : owners.keySet()) {
+                    if (url.equals(ownerUrls.get(owner))) {
+                        ownerUrls.remove(owner);
+                    }
+                }
+                callbacks = new ArrayList<>(owners.values());
+            }
+            for (Callback callback : callbacks) {
+                if (path != null) {
+                    callback.onComplete(url, path);
+                } else {
+                    callback.onError(url, error);
+                }
+            }
+        }
+    }
+
+    private final File cacheDir;
+    private final ThreadPoolExecutor executor;
+    private volatile long maxBytes = 256L * 1024 * 1024;
+    private volatile int connectTimeoutMs = 15000;
+    private volatile int readTimeoutMs = 30000;
+
+    // 文件名到大小，按访问顺序排列
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(64, 0.75f, true);
+    private long cacheBytes;
+    private boolean indexLoaded;
+
+    private final Map<String, Job> jobs = new HashMap<>();
+    private final Set<Job> running = new HashSet<>();
+    // owner 到其请求的 url
+    private final Map<String, String> ownerUrls = new HashMap<>();
+    // 本进程内下载或查到过的 url 到缓存文件名，供 peek 在不读磁盘、不计算哈希的情况下返回路径
+    private final Map<String, String> urlNames = new LinkedHashMap<String, String>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > URL_NAME_CACHE_SIZE;
+        }
+    };
+    private boolean shutdown;
+    private long seq;
+
+    private long hitCount;
+    private long downloadCount;
+    private long coalescedCount;
+    private long cancelledCount;
+    private long failedCount;
+    private long downloadedBytes;
+
+    public MediaDownloader(File cacheDir, int parallelism) {
+        this.cacheDir = cacheDir;
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void configure(long maxBytes, int parallelism) {
+        if (maxBytes > 0) {
+            this.maxBytes = maxBytes;
+        }
+        if (parallelism > 0) {
+            if (parallelism > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(parallelism);
+                executor.setCorePoolSize(parallelism);
+            } else {
+                executor.setCorePoolSize(parallelism);
+                executor.setMaximumPoolSize(parallelism);
+            }
+        }
+        trim();
+    }
+
+    /**
+     * 返回已缓存的本地路径，未缓存返回 null
+     */
+    public String lookup(String url) {
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        String name = fileName(url);
+        synchronized (this) {
+            ensureIndex();
+            if (index.get(name) == null) {
+                return null;
+            }
+        }
+        File file = new File(cacheDir, name);
+        if (!file.exists()) {
+            return null;
+        }
+        synchronized (this) {
+            urlNames.put(url, name);
+        }
+        return file.getAbsolutePath();
+    }
+
+    /**
+     * 只查询内存中已知的缓存路径，不读磁盘也不计算文件名，可在消息转换等高频路径中调用
+     * 上次进程留下的缓存在 lookup 或 request 之后才能查到
+     */
+    public synchronized String peek(String url) {
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        String name = urlNames.get(url);
+        if (name == null || !index.containsKey(name)) {
+            return null;
+        }
+        return new File(cacheDir, name).getAbsolutePath();
+    }
+
+    /**
+     * 请求下载，已缓存时立即回调
+     *
+     * @param owner 请求方标识，同一 owner 再次请求会替换之前的请求
+     */
+    public void request(String url, String owner, int priority, Callback callback) {
+        String cached = lookup(url);
+        String previous;
+        Callback replaced = null;
+        boolean rejected = false;
+        synchronized (this) {
+            previous = ownerUrls.remove(owner);
+            if (previous != null && !previous.equals(url)) {
+                replaced = detach(owner, previous);
+            }
+            if (cached != null) {
+                hitCount++;
+                touch(fileName(url));
+            } else if (shutdown) {
+                rejected = true;
+            } else {
+                ownerUrls.put(owner, url);
+                Job job = jobs.get(url);
+                if (job != null) {
+                    if (!job.owners.containsKey(owner)) {
+                        coalescedCount++;
+                    }
+                    job.owners.put(owner, callback);
+                    job.priorities.put(owner, priority);
+                    updatePriority(job);
+                } else {
+                    job = new Job(url, priority, seq++);
+                    jobs.put(url, job);
+                    job.owners.put(owner, callback);
+                    job.priorities.put(owner, priority);
+                    try {
+                        executor.execute(job);
+                    } catch (RejectedExecutionException e) {
+                        removeJob(url, job);
+                        ownerUrls.remove(owner);
+                        rejected = true;
+                    }
+                }
+            }
+        }
+        if (replaced != null) {
+            replaced.onCancelled(previous);
+        }
+        if (cached != null) {
+            callback.onComplete(url, cached);
+        } else if (rejected) {
+            callback.onError(url, "Downloader is shut down");
+        }
+    }
+
+    /**
+     * 调整 owner 的请求优先级，未开始的下载重新排队
+     */
+    public synchronized void setPriority(String owner, int priority) {
+        String url = ownerUrls.get(owner);
+        Job job = url != null ? jobs.get(url) : null;
+        if (job != null) {
+            job.priorities.put(owner, priority);
+            updatePriority(job);
+        }
+    }
+
+    /**
+     * 取消 owner 的请求；没有其他 owner 的下载被取消
+     */
+    public void cancel(String owner) {
+        String url;
+        Callback callback = null;
+        synchronized (this) {
+            url = ownerUrls.remove(owner);
+            if (url != null) {
+                callback = detach(owner, url);
+            }
+        }
+        if (callback != null) {
+            callback.onCancelled(url);
+        }
+    }
+
+    public synchronized Set<String> getOwners() {
+        return new HashSet<>(ownerUrls.keySet());
+    }
+
+    /**
+     * @return 被移除的回调，由调用方在锁外通知取消
+     */
+    private Callback detach(String owner, String url) {
+        Job job = jobs.get(url);
+        if (job == null) {
+            return null;
+        }
+        Callback callback = job.owners.remove(owner);
+        job.priorities.remove(owner);
+        if (!job.owners.isEmpty()) {
+            updatePriority(job);
+            return callback;
+        }
+        removeJob(url, job);
+        cancelledCount++;
+        cancelJob(job);
+        return callback;
+    }
+
+    private void cancelJob(Job job) {
+        job.cancelled = true;
+        if (!executor.remove(job)) {
+            HttpURLConnection connection = job.connection;
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 只移除仍登记为该 url 的任务，已被新任务替换时保留新任务
+     * 等同 Map.remove(key, value)，后者需要 API 24
+     */
+    private void removeJob(String url, Job job) {
+        if (jobs.get(url) == job) {
+            jobs.remove(url);
+        }
+    }
+
+    /**
+     * 下载优先级取各 owner 中最高的一个
+     */
+    private void updatePriority(Job job) {
+        int priority = PRIORITY_BACKGROUND;
+        for (int value : job.priorities.values()) {
+            priority = Math.min(priority, value);
+        }
+        if (priority == job.priority || running.contains(job)) {
+            return;
+        }
+        if (executor.remove(job)) {
+            job.priority = priority;
+            executor.execute(job);
+        }
+    }
+
+    private String download(Job job) throws IOException {
+        if (!cacheDir.exists() && !cacheDir.mkdirs() && !cacheDir.exists()) {
+            throw new IOException("Cannot create dir: " + cacheDir);
+        }
+        String name = fileName(job.url);
+        File target = new File(cacheDir, name);
+        File temp = new File(cacheDir, name + TEMP_SUFFIX);
+        HttpURLConnection connection = (HttpURLConnection) new URL(job.url).openConnection();
+        job.connection = connection;
+        try {
+            connection.setConnectTimeout(connectTimeoutMs);
+            connection.setReadTimeout(readTimeoutMs);
+            int code = connection.getResponseCode();
+            if (code / 100 != 2) {
+                throw new IOException("Download failed: " + code);
+            }
+            long length = 0;
+            try (InputStream in = connection.getInputStream();
+                 FileOutputStream out = new FileOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    if (job.cancelled) {
+                        throw new IOException("Download cancelled");
+                    }
+                    out.write(buffer, 0, read);
+                    length += read;
+                }
+            }
+            long expected = connection.getContentLength();
+            if (expected >= 0 && expected != length) {
+                throw new IOException("Download truncated: " + length + "/" + expected);
+            }
+            if (!temp.renameTo(target)) {
+                throw new IOException("Cannot save " + target);
+            }
+            synchronized (this) {
+                ensureIndex();
+                Long old = index.put(name, length);
+                urlNames.put(job.url, name);
+                cacheBytes += length - (old != null ? old : 0);
+                downloadCount++;
+                downloadedBytes += length;
+            }
+            trim();
+            return target.getAbsolutePath();
+        } catch (IOException e) {
+            temp.delete();
+            synchronized (this) {
+                if (!job.cancelled) {
+                    failedCount++;
+                }
+            }
+            throw e;
+        } finally {
+            job.connection = null;
+            connection.disconnect();
+        }
+    }
+
+    private void touch(String name) {
+        index.get(name);
+        new File(cacheDir, name).setLastModified(System.currentTimeMillis());
+    }
+
+    /**
+     * 按最近使用顺序删除超出预算的文件，进行中的下载目标不删除
+     */
+    private synchronized void trim() {
+        ensureIndex();
+        Set<String> active = new HashSet<>();
+        for (String url : jobs.keySet()) {
+            active.add(fileName(url));
+        }
+        Iterator<Map.Entry<String, Long>> iterator = index.entrySet().iterator();
+        while (cacheBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (active.contains(entry.getKey())) {
+                continue;
+            }
+            new File(cacheDir, entry.getKey()).delete();
+            cacheBytes -= entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    private void ensureIndex() {
+        if (indexLoaded) {
+            return;
+        }
+        indexLoaded = true;
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> sorted = new ArrayList<>();
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                file.delete();
+            } else if (file.isFile()) {
+                sorted.add(file);
+            }
+        }
+        // 按修改时间恢复访问顺序
+        Collections.sort(sorted, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : sorted) {
+            index.put(file.getName(), file.length());
+            cacheBytes += file.length();
+        }
+    }
+
+    static String fileName(String url) {
+        String extension = "";
+        String path = url;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        int dot = path.lastIndexOf('.');
+        if (dot > path.lastIndexOf('/') && path.length() - dot <= 6) {
+            extension = path.substring(dot).toLowerCase(Locale.ROOT);
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2 + extension.length());
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.append(extension).toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(url.hashCode()) + extension;
+        }
+    }
+
+    public void clear() {
+        List<Job> cancelled;
+        synchronized (this) {
+            cancelled = cancelAllJobs();
+            ensureIndex();
+            for (String name : index.keySet()) {
+                new File(cacheDir, name).delete();
+            }
+            index.clear();
+            urlNames.clear();
+            cacheBytes = 0;
+        }
+        notifyCancelled(cancelled);
+    }
+
+    /**
+     * 停止下载线程，未完成的请求收到 onCancelled，之后的请求直接失败
+     */
+    public void shutdown() {
+        List<Job> cancelled;
+        synchronized (this) {
+            shutdown = true;
+            cancelled = cancelAllJobs();
+        }
+        executor.shutdownNow();
+        notifyCancelled(cancelled);
+    }
+
+    private List<Job> cancelAllJobs() {
+        List<Job> cancelled = new ArrayList<>(jobs.values());
+        for (Job job : cancelled) {
+            cancelJob(job);
+        }
+        cancelledCount += cancelled.size();
+        jobs.clear();
+        ownerUrls.clear();
+        return cancelled;
+    }
+
+    /**
+     * 在锁外通知；任务已从 jobs 移除并标记取消，owners 不再变化，下载线程也不会再回调
+     */
+    private static void notifyCancelled(List<Job> cancelled) {
+        for (Job job : cancelled) {
+            for (Callback callback : job.owners.values()) {
+                callback.onCancelled(job.url);
+            }
+        }
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getDownloadCount() {
+        return downloadCount;
+    }
+
+    /**
+     * 合并到已有下载的请求数
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    public synchronized long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    public synchronized long getFailedCount() {
+        return failedCount;
+    }
+
+    public synchronized long getDownloadedBytes() {
+        return downloadedBytes;
+    }
+
+    public synchronized long getCacheBytes() {
+        ensureIndex();
+        return cacheBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized int getPendingCount() {
+        return jobs.size();
+    }
+}
@@ -0,0 +1,320 @@
+package com.juggleim.media;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * 媒体消息发送队列
+ * 同时发送的条数受 parallelism 限制；同一会话内严格按入队顺序开始发送，
+ * 被暂停的批次会阻塞同会话中排在其后的条目。
+ */
+public class MediaSendQueue {
+
+    public interface Task {
+        /**
+         * 开始发送，结束时必须且只能调用一次 handle.finish
+         */
+        void start(Handle handle);
+    }
+
+    public interface Listener {
+        void onBatchChanged(BatchState state);
+    }
+
+    public static final int STATE_QUEUED = 0;
+    public static final int STATE_RUNNING = 1;
+    public static final int STATE_SUCCEEDED = 2;
+    public static final int STATE_FAILED = 3;
+    public static final int STATE_CANCELLED = 4;
+
+    public static class BatchState {
+        public final String batchId;
+        public final int total;
+        public final int succeeded;
+        public final int failed;
+        public final int cancelled;
+        public final int running;
+        public final boolean paused;
+        // 0-100，已结束的条目按 100 计
+        public final int progress;
+
+        BatchState(String batchId, int total, int succeeded, int failed, int cancelled, int running,
+                   boolean paused, int progress) {
+            this.batchId = batchId;
+            this.total = total;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.cancelled = cancelled;
+            this.running = running;
+            this.paused = paused;
+            this.progress = progress;
+        }
+
+        public boolean isFinished() {
+            return succeeded + failed + cancelled == total;
+        }
+    }
+
+    public class Handle {
+        private final Item item;
+
+        Handle(Item item) {
+            this.item = item;
+        }
+
+        public void progress(int percent) {
+            onProgress(item, percent);
+        }
+
+        public void finish(boolean success) {
+            onFinished(item, success);
+        }
+    }
+
+    private static class Item {
+        final Batch batch;
+        final String conversationKey;
+        final Task task;
+        int state = STATE_QUEUED;
+        int progress;
+
+        Item(Batch batch, String conversationKey, Task task) {
+            this.batch = batch;
+            this.conversationKey = conversationKey;
+            this.task = task;
+        }
+    }
+
+    private static class Batch {
+        final String batchId;
+        final List<Item> items = new ArrayList<>();
+        boolean paused;
+        int lastReportedProgress = -1;
+
+        Batch(String batchId) {
+            this.batchId = batchId;
+        }
+    }
+
+    private final Executor executor;
+    private final Listener listener;
+    private final LinkedList<Item> queue = new LinkedList<>();
+    private final Map<String, Batch> batches = new HashMap<>();
+    private int parallelism;
+    private int running;
+
+    public MediaSendQueue(Executor executor, int parallelism, Listener listener) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.listener = listener;
+    }
+
+    public void setParallelism(int parallelism) {
+        synchronized (this) {
+            this.parallelism = Math.max(1, parallelism);
+        }
+        schedule();
+    }
+
+    public synchronized int getParallelism() {
+        return parallelism;
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * 入队一个批次，conversationKeys 与 tasks 一一对应
+     */
+    public void enqueue(String batchId, List<String> conversationKeys, List<Task> tasks) {
+        BatchState state;
+        synchronized (this) {
+            Batch batch = new Batch(batchId);
+            for (int i = 0; i < tasks.size(); i++) {
+                Item item = new Item(batch, conversationKeys.get(i), tasks.get(i));
+                batch.items.add(item);
+                queue.add(item);
+            }
+            batches.put(batchId, batch);
+            state = snapshot(batch);
+        }
+        listener.onBatchChanged(state);
+        schedule();
+    }
+
+    public boolean pause(String batchId) {
+        return setPaused(batchId, true);
+    }
+
+    public boolean resume(String batchId) {
+        boolean found = setPaused(batchId, false);
+        schedule();
+        return found;
+    }
+
+    /**
+     * 取消批次中尚未开始的条目，已开始的条目继续完成
+     * SDK 没有取消进行中媒体发送的接口，因此这里只能取消排队中的条目。
+     */
+    public boolean cancelPending(String batchId) {
+        BatchState state;
+        synchronized (this) {
+            Batch batch = batches.get(batchId);
+            if (batch == null) {
+                return false;
+            }
+            Iterator<Item> it = queue.iterator();
+            while (it.hasNext()) {
+                Item item = it.next();
+                if (item.batch == batch) {
+                    item.state = STATE_CANCELLED;
+                    it.remove();
+                }
+            }
+            state = snapshot(batch);
+            if (state.isFinished()) {
+                batches.remove(batchId);
+            }
+        }
+        listener.onBatchChanged(state);
+        schedule();
+        return true;
+    }
+
+    public synchronized BatchState getState(String batchId) {
+        Batch batch = batches.get(batchId);
+        return batch != null ? snapshot(batch) : null;
+    }
+
+    private boolean setPaused(String batchId, boolean paused) {
+        BatchState state;
+        synchronized (this) {
+            Batch batch = batches.get(batchId);
+            if (batch == null) {
+                return false;
+            }
+            batch.paused = paused;
+            state = snapshot(batch);
+        }
+        listener.onBatchChanged(state);
+        return true;
+    }
+
+    private void schedule() {
+        List<Item> toStart = new ArrayList<>();
+        List<BatchState> changed = new ArrayList<>();
+        synchronized (this) {
+            Set<String> blocked = new HashSet<>();
+            Iterator<Item> it = queue.iterator();
+            while (running < parallelism && it.hasNext()) {
+                Item item = it.next();
+                if (blocked.contains(item.conversationKey)) {
+                    continue;
+                }
+                if (item.batch.paused) {
+                    // 保证同一会话的先后顺序
+                    blocked.add(item.conversationKey);
+                    continue;
+                }
+                it.remove();
+                item.state = STATE_RUNNING;
+                running++;
+                toStart.add(item);
+                changed.add(snapshot(item.batch));
+            }
+        }
+        for (BatchState state : changed) {
+            listener.onBatchChanged(state);
+        }
+        for (Item item : toStart) {
+            executor.execute(() -> {
+                try {
+                    item.task.start(new Handle(item));
+                } catch (Exception e) {
+                    onFinished(item, false);
+                }
+            });
+        }
+    }
+
+    private void onProgress(Item item, int percent) {
+        BatchState state;
+        synchronized (this) {
+            if (item.state != STATE_RUNNING) {
+                return;
+            }
+            item.progress = Math.max(0, Math.min(100, percent));
+            int previous = item.batch.lastReportedProgress;
+            state = snapshot(item.batch);
+            // 汇总进度未变化时不通知
+            if (state.progress == previous) {
+                return;
+            }
+        }
+        listener.onBatchChanged(state);
+    }
+
+    private void onFinished(Item item, boolean success) {
+        BatchState state;
+        synchronized (this) {
+            if (item.state != STATE_RUNNING) {
+                return;
+            }
+            item.state = success ? STATE_SUCCEEDED : STATE_FAILED;
+            running--;
+            state = snapshot(item.batch);
+            if (state.isFinished()) {
+                batches.remove(item.batch.batchId);
+            }
+        }
+        listener.onBatchChanged(state);
+        schedule();
+    }
+
+    private BatchState snapshot(Batch batch) {
+        int succeeded = 0;
+        int failed = 0;
+        int cancelled = 0;
+        int runningCount = 0;
+        int progressSum = 0;
+        for (Item item : batch.items) {
+            switch (item.state) {
+                case STATE_SUCCEEDED:
+                    succeeded++;
+                    progressSum += 100;
+                    break;
+                case STATE_FAILED:
+                    failed++;
+                    progressSum += 100;
+                    break;
+                case STATE_CANCELLED:
+                    cancelled++;
+                    progressSum += 100;
+                    break;
+                case STATE_RUNNING:
+                    runningCount++;
+                    progressSum += item.progress;
+                    break;
+                default:
+                    break;
+            }
+        }
+        int total = batch.items.size();
+        int progress = total > 0 ? progressSum / total : 100;
+        batch.lastReportedProgress = progress;
+        return new BatchState(batch.batchId, total, succeeded, failed, cancelled, runningCount, batch.paused,
+                progress);
+    }
+}
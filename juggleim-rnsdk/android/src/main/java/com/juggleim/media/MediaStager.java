@@ -0,0 +1,366 @@
+package com.juggleim.media;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.provider.OpenableColumns;
+import android.text.TextUtils;
+import android.webkit.MimeTypeMap;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 媒体暂存区
+ * 将 content:// 资源复制到 cacheDir 下，文件以内容 SHA-256 和大小命名，相同内容只保留一份。
+ */
+public class MediaStager {
+    private static final String DIR_NAME = "juggleim_media";
+    static final String TEMP_PREFIX = ".staging-";
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int SOURCE_INDEX_SIZE = 256;
+
+    private static volatile MediaStager instance;
+
+    private final ContentResolver resolver;
+    private final File stagingDir;
+    // 来源 uri（含大小和修改时间）到暂存文件的映射，命中时无需重新读取
+    private final Map<String, File> sourceIndex = new LinkedHashMap<String, File>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, File> eldest) {
+            return size() > SOURCE_INDEX_SIZE;
+        }
+    };
+
+    // 发送中的消息引用的文件，清理时跳过
+    private final Map<String, Integer> pins = new HashMap<>();
+
+    private long stagedCount;
+    private long reusedCount;
+    private long copiedBytes;
+
+    public static MediaStager getInstance(Context context) {
+        if (instance == null) {
+            synchronized (MediaStager.class) {
+                if (instance == null) {
+                    instance = new MediaStager(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private MediaStager(Context context) {
+        this(context.getContentResolver(), new File(context.getCacheDir(), DIR_NAME));
+    }
+
+    // 测试用，只处理普通路径时 resolver 可为 null
+    MediaStager(ContentResolver resolver, File stagingDir) {
+        this.resolver = resolver;
+        this.stagingDir = stagingDir;
+    }
+
+    public File getStagingDir() {
+        return stagingDir;
+    }
+
+    /**
+     * 返回可直接交给 SDK 的本地路径
+     * file:// 去掉前缀，普通路径原样返回，content:// 复制到暂存区
+     */
+    public String stage(String source) throws IOException {
+        return stageCounted(source).path;
+    }
+
+    /**
+     * 同 stage，同时返回本次调用复制的字节数，不受其他线程同时暂存的影响
+     */
+    public Staged stageCounted(String source) throws IOException {
+        if (source.startsWith("file://")) {
+            return new Staged(source.substring(7), 0);
+        }
+        if (!source.startsWith("content://")) {
+            return new Staged(source, 0);
+        }
+        Uri uri = Uri.parse(source);
+        SourceInfo info = querySource(uri);
+        // 没有修改时间的 provider（如复用的拍照 uri）无法区分内容是否变化，每次重新复制
+        String indexKey = info.size >= 0 && info.lastModified > 0
+                ? source + "|" + info.size + "|" + info.lastModified : null;
+        if (indexKey != null) {
+            File staged;
+            synchronized (sourceIndex) {
+                staged = sourceIndex.get(indexKey);
+            }
+            if (staged != null && staged.length() == info.size) {
+                staged.setLastModified(System.currentTimeMillis());
+                synchronized (this) {
+                    reusedCount++;
+                }
+                return new Staged(staged.getAbsolutePath(), 0);
+            }
+        }
+        File staged = copyToStaging(uri, resolveExtension(uri, info.displayName));
+        if (indexKey != null) {
+            synchronized (sourceIndex) {
+                sourceIndex.put(indexKey, staged);
+            }
+        }
+        return new Staged(staged.getAbsolutePath(), staged.length());
+    }
+
+    /**
+     * 读取来源的名称、大小和修改时间，普通路径从文件读取
+     */
+    public SourceInfo describe(String source) {
+        if (source.startsWith("file://")) {
+            source = source.substring(7);
+        }
+        if (!source.startsWith("content://")) {
+            File file = new File(source);
+            SourceInfo info = new SourceInfo();
+            info.displayName = file.getName();
+            info.size = file.exists() ? file.length() : -1;
+            info.lastModified = file.lastModified();
+            return info;
+        }
+        Uri uri = Uri.parse(source);
+        SourceInfo info = querySource(uri);
+        if (info.size < 0) {
+            try (ParcelFileDescriptor pfd = resolver.openFileDescriptor(uri, "r")) {
+                if (pfd != null) {
+                    info.size = pfd.getStatSize();
+                }
+            } catch (IOException ignored) {
+                // 无法打开时保持未知大小
+            }
+        }
+        return info;
+    }
+
+    /**
+     * 打开可随机读取的通道，不复制到暂存区
+     * content:// 通过 ParcelFileDescriptor 打开，provider 只提供管道时返回 null，由调用方改为暂存
+     */
+    public FileChannel openReadChannel(String source) throws IOException {
+        if (source.startsWith("file://")) {
+            source = source.substring(7);
+        }
+        if (!source.startsWith("content://")) {
+            return new FileInputStream(source).getChannel();
+        }
+        ParcelFileDescriptor pfd = resolver.openFileDescriptor(Uri.parse(source), "r");
+        if (pfd == null) {
+            throw new IOException("Cannot open " + source);
+        }
+        if (pfd.getStatSize() < 0) {
+            pfd.close();
+            return null;
+        }
+        return new ParcelFileDescriptor.AutoCloseInputStream(pfd).getChannel();
+    }
+
+    private File copyToStaging(Uri uri, String extension) throws IOException {
+        if (!stagingDir.exists() && !stagingDir.mkdirs() && !stagingDir.exists()) {
+            throw new IOException("Cannot create staging dir: " + stagingDir);
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        File temp = new File(stagingDir, TEMP_PREFIX + System.nanoTime());
+        long size = 0;
+        try (InputStream in = resolver.openInputStream(uri);
+             FileOutputStream out = new FileOutputStream(temp)) {
+            if (in == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            ReadableByteChannel src = in instanceof FileInputStream
+                    ? ((FileInputStream) in).getChannel() : Channels.newChannel(in);
+            FileChannel dst = out.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (src.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    size += dst.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        File target = new File(stagingDir, toHex(digest.digest()) + "-" + size + "." + extension);
+        synchronized (this) {
+            copiedBytes += size;
+            if (target.exists() && target.length() == size) {
+                temp.delete();
+                reusedCount++;
+            } else if (!temp.renameTo(target)) {
+                temp.delete();
+                throw new IOException("Cannot move staged file to " + target);
+            } else {
+                stagedCount++;
+            }
+        }
+        target.setLastModified(System.currentTimeMillis());
+        return target;
+    }
+
+    /**
+     * 标记文件正在被发送中的消息使用
+     */
+    public void pin(String path) {
+        if (path == null) {
+            return;
+        }
+        synchronized (pins) {
+            Integer count = pins.get(path);
+            pins.put(path, count == null ? 1 : count + 1);
+        }
+    }
+
+    public void unpin(String path) {
+        if (path == null) {
+            return;
+        }
+        synchronized (pins) {
+            Integer count = pins.get(path);
+            if (count == null || count <= 1) {
+                pins.remove(path);
+            } else {
+                pins.put(path, count - 1);
+            }
+        }
+    }
+
+    public boolean isPinned(String path) {
+        synchronized (pins) {
+            return pins.containsKey(path);
+        }
+    }
+
+    public int getPinnedCount() {
+        synchronized (pins) {
+            return pins.size();
+        }
+    }
+
+    /**
+     * 更新最近使用时间，清理按此排序
+     */
+    public void touch(String path) {
+        if (path != null) {
+            new File(path).setLastModified(System.currentTimeMillis());
+        }
+    }
+
+    static boolean isTempFile(File file) {
+        return file.getName().startsWith(TEMP_PREFIX);
+    }
+
+    private SourceInfo querySource(Uri uri) {
+        SourceInfo info = new SourceInfo();
+        try (Cursor cursor = resolver.query(uri, null, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                int nameIndex = cursor.getColumnIndex(OpenableColumns.DISPLAY_NAME);
+                int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+                int modifiedIndex = cursor.getColumnIndex("last_modified");
+                if (modifiedIndex < 0) {
+                    modifiedIndex = cursor.getColumnIndex("date_modified");
+                }
+                if (nameIndex >= 0) {
+                    info.displayName = cursor.getString(nameIndex);
+                }
+                if (sizeIndex >= 0 && !cursor.isNull(sizeIndex)) {
+                    info.size = cursor.getLong(sizeIndex);
+                }
+                if (modifiedIndex >= 0 && !cursor.isNull(modifiedIndex)) {
+                    info.lastModified = cursor.getLong(modifiedIndex);
+                }
+            }
+        } catch (Exception ignored) {
+            // 部分 provider 不支持查询，按未知大小处理
+        }
+        return info;
+    }
+
+    private String resolveExtension(Uri uri, String displayName) {
+        String mimeType = resolver.getType(uri);
+        if (mimeType != null) {
+            String extension = MimeTypeMap.getSingleton().getExtensionFromMimeType(mimeType);
+            if (!TextUtils.isEmpty(extension)) {
+                return extension;
+            }
+        }
+        if (displayName != null) {
+            int dot = displayName.lastIndexOf('.');
+            if (dot >= 0 && dot < displayName.length() - 1) {
+                return displayName.substring(dot + 1).toLowerCase(Locale.ROOT);
+            }
+        }
+        return "bin";
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 新写入暂存区的文件数
+     */
+    public synchronized long getStagedCount() {
+        return stagedCount;
+    }
+
+    /**
+     * 复用已有暂存文件的次数
+     */
+    public synchronized long getReusedCount() {
+        return reusedCount;
+    }
+
+    public synchronized long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    public static class Staged {
+        public final String path;
+        // 本次复制写入的字节数，命中已有暂存文件时为 0
+        public final long copiedBytes;
+
+        Staged(String path, long copiedBytes) {
+            this.path = path;
+            this.copiedBytes = copiedBytes;
+        }
+    }
+
+    public static class SourceInfo {
+        public String displayName;
+        public long size = -1;
+        public long lastModified;
+    }
+}
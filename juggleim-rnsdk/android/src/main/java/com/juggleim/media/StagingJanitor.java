@@ -0,0 +1,164 @@
+package com.juggleim.media;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 暂存区清理
+ * 超过保留时间或总大小超出预算时，按最近使用时间从旧到新删除未被发送中消息引用的文件。
+ * 每次最多删除固定数量的文件，由调用方分步调度；一轮清理只列出并排序一次目录，之后各步接着处理。
+ */
+public class StagingJanitor {
+    // 复制中的临时文件在此时间内不清理
+    private static final long TEMP_GRACE_MS = 60 * 60 * 1000L;
+    // 刚暂存的文件在调用方 pin 之前可能已被选中，无论过期还是超出预算都不清理此时间内写入或复用的文件
+    private static final long STAGED_GRACE_MS = 10 * 60 * 1000L;
+    // 早期版本直接写在 cacheDir 下的临时文件
+    private static final String LEGACY_SUFFIX = "temp_image.jpg";
+
+    public static class Result {
+        public final int deletedCount;
+        public final long reclaimedBytes;
+        public final long remainingBytes;
+        public final boolean done;
+
+        Result(int deletedCount, long reclaimedBytes, long remainingBytes, boolean done) {
+            this.deletedCount = deletedCount;
+            this.reclaimedBytes = reclaimedBytes;
+            this.remainingBytes = remainingBytes;
+            this.done = done;
+        }
+    }
+
+    private static class Candidate {
+        final File file;
+        final long lastModified;
+        final long length;
+
+        Candidate(File file) {
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+    }
+
+    private final MediaStager stager;
+    private final File legacyDir;
+    private volatile long maxBytes = 512L * 1024 * 1024;
+    private volatile long maxAgeMs = 7L * 24 * 60 * 60 * 1000;
+
+    // 当前一轮清理的候选文件，按最近使用时间从旧到新
+    private List<Candidate> pass;
+    private int passIndex;
+    private long passTotalBytes;
+
+    private long totalDeletedCount;
+    private long totalReclaimedBytes;
+    private long lastRemainingBytes;
+
+    public StagingJanitor(MediaStager stager, File legacyDir) {
+        this.stager = stager;
+        this.legacyDir = legacyDir;
+    }
+
+    public void configure(long maxBytes, long maxAgeMs) {
+        if (maxBytes > 0) {
+            this.maxBytes = maxBytes;
+        }
+        if (maxAgeMs > 0) {
+            this.maxAgeMs = maxAgeMs;
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getMaxAgeMs() {
+        return maxAgeMs;
+    }
+
+    /**
+     * 执行一步清理
+     *
+     * @param maxDeletes 本步最多删除的文件数
+     */
+    public synchronized Result trimStep(int maxDeletes) {
+        if (pass == null) {
+            pass = listCandidates();
+            passIndex = 0;
+            passTotalBytes = 0;
+            for (Candidate candidate : pass) {
+                passTotalBytes += candidate.length;
+            }
+            Collections.sort(pass, (a, b) -> Long.compare(a.lastModified, b.lastModified));
+        }
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        long reclaimed = 0;
+        boolean done = true;
+        for (; passIndex < pass.size(); passIndex++) {
+            Candidate candidate = pass.get(passIndex);
+            // 列出后文件可能又被复用，按当前的修改时间判断
+            long age = now - candidate.file.lastModified();
+            boolean expired = MediaStager.isTempFile(candidate.file) ? age >= TEMP_GRACE_MS
+                    : age >= STAGED_GRACE_MS && (age >= maxAgeMs || passTotalBytes > maxBytes);
+            if (!expired || stager.isPinned(candidate.file.getAbsolutePath())) {
+                continue;
+            }
+            if (deleted >= maxDeletes) {
+                done = false;
+                break;
+            }
+            if (candidate.file.delete()) {
+                deleted++;
+                reclaimed += candidate.length;
+                passTotalBytes -= candidate.length;
+            }
+        }
+        long remaining = passTotalBytes;
+        if (done) {
+            pass = null;
+        }
+        totalDeletedCount += deleted;
+        totalReclaimedBytes += reclaimed;
+        lastRemainingBytes = remaining;
+        return new Result(deleted, reclaimed, remaining, done);
+    }
+
+    private List<Candidate> listCandidates() {
+        List<Candidate> candidates = new ArrayList<>();
+        File[] staged = stager.getStagingDir().listFiles();
+        if (staged != null) {
+            for (File file : staged) {
+                if (file.isFile()) {
+                    candidates.add(new Candidate(file));
+                }
+            }
+        }
+        File[] legacy = legacyDir != null ? legacyDir.listFiles((dir, name) -> name.endsWith(LEGACY_SUFFIX)) : null;
+        if (legacy != null) {
+            for (File file : legacy) {
+                candidates.add(new Candidate(file));
+            }
+        }
+        return candidates;
+    }
+
+    public synchronized long getTotalDeletedCount() {
+        return totalDeletedCount;
+    }
+
+    public synchronized long getTotalReclaimedBytes() {
+        return totalReclaimedBytes;
+    }
+
+    /**
+     * 最近一次清理后暂存区的大小
+     */
+    public synchronized long getLastRemainingBytes() {
+        return lastRemainingBytes;
+    }
+}
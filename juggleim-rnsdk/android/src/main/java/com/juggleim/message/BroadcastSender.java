@@ -0,0 +1,125 @@
+package com.juggleim.message;
+
+import com.juggle.im.interfaces.IMessageManager;
+import com.juggle.im.model.Conversation;
+import com.juggle.im.model.Message;
+import com.juggleim.BoundedPipeline;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同一内容发送到多个会话
+ * 同时等待回执的发送数不超过 parallelism，一个会话发送结束后开始下一个；发送调用在 executor 上执行。
+ */
+public class BroadcastSender {
+
+    public interface Sender {
+        /**
+         * 发送到单个会话，返回本地消息
+         */
+        Message send(Conversation conversation, IMessageManager.ISendMessageCallback callback);
+    }
+
+    public interface Listener {
+        /**
+         * 每个会话发送结束时回调
+         */
+        void onItem(ItemResult item, int completed, int failed, int total);
+
+        void onComplete(List<ItemResult> results);
+    }
+
+    public static class ItemResult {
+        public final int index;
+        public final Conversation conversation;
+        public long clientMsgNo;
+        public String messageId;
+        public long timestamp;
+        // 0 表示成功；没有收到结果（如执行器已关闭）时保持 -1
+        public int errorCode = -1;
+
+        ItemResult(int index, Conversation conversation) {
+            this.index = index;
+            this.conversation = conversation;
+        }
+
+        public boolean isSuccess() {
+            return errorCode == 0;
+        }
+    }
+
+    private final Executor executor;
+    private final Sender sender;
+
+    public BroadcastSender(Executor executor, Sender sender) {
+        this.executor = executor;
+        this.sender = sender;
+    }
+
+    public void send(List<Conversation> conversations, int parallelism, Listener listener) {
+        int total = conversations.size();
+        ItemResult[] results = new ItemResult[total];
+        for (int i = 0; i < total; i++) {
+            results[i] = new ItemResult(i, conversations.get(i));
+        }
+        AtomicInteger failed = new AtomicInteger();
+        new BoundedPipeline(executor).run(total, parallelism, (index, handle) -> {
+            ItemResult item = results[index];
+            // 回执可能在 send 返回前到达，只结束一次
+            IMessageManager.ISendMessageCallback callback = new IMessageManager.ISendMessageCallback() {
+                @Override
+                public void onSuccess(Message message) {
+                    handle.finish(() -> {
+                        fill(item, message);
+                        item.errorCode = 0;
+                    });
+                }
+
+                @Override
+                public void onError(Message message, int errorCode) {
+                    handle.finish(() -> {
+                        fill(item, message);
+                        item.errorCode = errorCode != 0 ? errorCode : -1;
+                    });
+                }
+            };
+            Message local;
+            try {
+                local = sender.send(item.conversation, callback);
+            } catch (RuntimeException e) {
+                local = null;
+            }
+            if (local == null) {
+                callback.onError(null, -1);
+            } else if (item.clientMsgNo == 0) {
+                item.clientMsgNo = local.getClientMsgNo();
+            }
+        }, new BoundedPipeline.Listener() {
+            @Override
+            public void onItem(int index, int completed) {
+                ItemResult item = results[index];
+                if (!item.isSuccess()) {
+                    failed.incrementAndGet();
+                }
+                listener.onItem(item, completed, failed.get(), total);
+            }
+
+            @Override
+            public void onComplete() {
+                listener.onComplete(Arrays.asList(results));
+            }
+        });
+    }
+
+    private static void fill(ItemResult item, Message message) {
+        if (message == null) {
+            return;
+        }
+        item.clientMsgNo = message.getClientMsgNo();
+        item.messageId = message.getMessageId();
+        item.timestamp = message.getTimestamp();
+    }
+}
@@ -0,0 +1,203 @@
+package com.juggleim.message;
+
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 历史消息游标
+ * 每交付一页后在后台继续向更早方向预取并转换，最多缓存 prefetchDepth 页。
+ */
+public class HistoryCursor {
+
+    public interface PageLoader {
+        void load(long startTime, int count, PageCallback callback);
+    }
+
+    public interface PageCallback {
+        void onPage(List<WritableMap> messages, long timestamp, boolean hasMore, int code);
+    }
+
+    public interface PageConsumer {
+        void onPage(Page page, boolean prefetched);
+
+        void onClosed();
+    }
+
+    public static class Page {
+        public final List<WritableMap> messages;
+        public final long timestamp;
+        public final boolean hasMore;
+        public final int code;
+
+        Page(List<WritableMap> messages, long timestamp, boolean hasMore, int code) {
+            this.messages = messages;
+            this.timestamp = timestamp;
+            this.hasMore = hasMore;
+            this.code = code;
+        }
+    }
+
+    private final String conversationKey;
+    private final int count;
+    private final int prefetchDepth;
+    private final PageLoader loader;
+
+    private final ArrayDeque<Page> buffered = new ArrayDeque<>();
+    private final ArrayDeque<PageConsumer> waiters = new ArrayDeque<>();
+    // 下一次加载的起点
+    private long nextStartTime;
+    private boolean exhausted;
+    // 已交付给 JS 的位置，预取结果失效时从这里重新加载
+    private long deliveredStartTime;
+    private boolean deliveredExhausted;
+    private boolean loading;
+    private int generation;
+    private boolean closed;
+
+    private long prefetchedPageCount;
+    private long directPageCount;
+
+    public HistoryCursor(String conversationKey, long startTime, int count, int prefetchDepth, PageLoader loader) {
+        this.conversationKey = conversationKey;
+        this.count = count;
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+        this.loader = loader;
+        this.nextStartTime = startTime;
+        this.deliveredStartTime = startTime;
+    }
+
+    public String getConversationKey() {
+        return conversationKey;
+    }
+
+    /**
+     * 读取下一页，已预取时立即回调
+     */
+    public void next(PageConsumer consumer) {
+        Page ready = null;
+        boolean prefetched = false;
+        boolean rejected = false;
+        synchronized (this) {
+            if (closed) {
+                rejected = true;
+            } else if (!buffered.isEmpty() && waiters.isEmpty()) {
+                ready = buffered.poll();
+                prefetched = true;
+                prefetchedPageCount++;
+                markDelivered(ready);
+            } else if (exhausted && !loading && buffered.isEmpty() && waiters.isEmpty()) {
+                ready = new Page(Collections.<WritableMap>emptyList(), nextStartTime, false, 0);
+                directPageCount++;
+            } else {
+                waiters.add(consumer);
+            }
+        }
+        if (rejected) {
+            consumer.onClosed();
+            return;
+        }
+        if (ready != null) {
+            consumer.onPage(ready, prefetched);
+        }
+        fill();
+    }
+
+    /**
+     * 会话消息被删除或修改，丢弃预取结果并从已交付的位置重新加载
+     */
+    public void invalidate() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            generation++;
+            loading = false;
+            buffered.clear();
+            nextStartTime = deliveredStartTime;
+            exhausted = deliveredExhausted;
+        }
+        fill();
+    }
+
+    public void close() {
+        List<PageConsumer> pending;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            generation++;
+            buffered.clear();
+            pending = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        for (PageConsumer consumer : pending) {
+            consumer.onClosed();
+        }
+    }
+
+    public synchronized long getPrefetchedPageCount() {
+        return prefetchedPageCount;
+    }
+
+    public synchronized long getDirectPageCount() {
+        return directPageCount;
+    }
+
+    private void fill() {
+        long startTime;
+        int loadGeneration;
+        synchronized (this) {
+            if (closed || loading || exhausted) {
+                return;
+            }
+            if (waiters.isEmpty() && buffered.size() >= prefetchDepth) {
+                return;
+            }
+            loading = true;
+            startTime = nextStartTime;
+            loadGeneration = generation;
+        }
+        loader.load(startTime, count, (messages, timestamp, hasMore, code) ->
+                onLoaded(loadGeneration, new Page(messages, timestamp, hasMore, code)));
+    }
+
+    private void onLoaded(int loadGeneration, Page page) {
+        PageConsumer consumer = null;
+        synchronized (this) {
+            if (closed || loadGeneration != generation) {
+                return;
+            }
+            loading = false;
+            if (page.code == 0) {
+                nextStartTime = page.timestamp;
+                exhausted = !page.hasMore || page.messages.isEmpty();
+            }
+            if (!waiters.isEmpty()) {
+                consumer = waiters.poll();
+                directPageCount++;
+                if (page.code == 0) {
+                    markDelivered(page);
+                }
+            } else if (page.code == 0) {
+                buffered.add(page);
+            }
+        }
+        if (consumer != null) {
+            consumer.onPage(page, false);
+        }
+        // 失败的加载不自动重试，等下一次 next 再加载
+        if (page.code == 0) {
+            fill();
+        }
+    }
+
+    private void markDelivered(Page page) {
+        deliveredStartTime = page.timestamp;
+        deliveredExhausted = !page.hasMore || page.messages.isEmpty();
+    }
+}
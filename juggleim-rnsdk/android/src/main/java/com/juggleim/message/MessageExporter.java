@@ -0,0 +1,368 @@
+package com.juggleim.message;
+
+import com.juggle.im.model.Conversation;
+import com.juggle.im.model.Message;
+import com.juggle.im.model.MessageContent;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 将会话历史消息导出到文件
+ * 逐个会话从 startTime 向更早方向分页读取，每页写入后即丢弃，内存占用与消息总数无关。
+ * SDK 只返回时间严格早于起点的消息，这里以本页最早时间 + 1 为起点重叠读取边界毫秒，并按 clientMsgNo 跳过已写入的消息；
+ * 同一毫秒的消息多于一页时加倍页大小重读，SDK 限制单页条数仍无法越过时跳过这一毫秒剩余的消息。
+ * 先写入 path.part，完成后重命名为 path；取消或出错时删除。
+ * <p>
+ * NDJSON：每行一条消息，包含 conversation、content、timestamp、senderUserId、direction 等字段；
+ * 导入不支持后三个字段，导出文件不能直接用于 MessageImporter。
+ * 二进制：文件头为 "JIMX" 和版本号 1，之后每条记录为 int 记录长度 + byte 会话类型、str 会话 ID、str messageId、
+ * long clientMsgNo、long timestamp、str senderUserId、byte direction、byte state、str contentType、str 内容 JSON；
+ * str 为 int 字节数（null 为 -1）+ UTF-8，整数均为大端。
+ */
+public class MessageExporter {
+
+    public static final int FORMAT_NDJSON = 0;
+    public static final int FORMAT_BINARY = 1;
+
+    public interface ConversationPager {
+        /**
+         * 读取下一页待导出的会话，返回 null 或空列表表示结束
+         */
+        List<Conversation> next();
+    }
+
+    public interface PageLoader {
+        void load(Conversation conversation, long startTime, int count, PageCallback callback);
+    }
+
+    public interface PageCallback {
+        void onPage(List<Message> messages, long timestamp, boolean hasMore, int code);
+    }
+
+    public interface Listener {
+        void onProgress(Result progress);
+    }
+
+    public static class Result {
+        public int conversationCount;
+        public int failedConversationCount;
+        public long messageCount;
+        public long bytesWritten;
+        public boolean cancelled;
+    }
+
+    private static final byte[] BINARY_MAGIC = {'J', 'I', 'M', 'X'};
+    private static final byte BINARY_VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PAGE_TIMEOUT_MS = 30000;
+
+    private final PageLoader loader;
+    private final int format;
+    private final int pageSize;
+    private final long startTime;
+    private final long progressIntervalMs;
+
+    public MessageExporter(PageLoader loader, int format, int pageSize, long startTime, long progressIntervalMs) {
+        this.loader = loader;
+        this.format = format;
+        this.pageSize = Math.max(1, pageSize);
+        this.startTime = startTime;
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    /**
+     * 在调用线程上导出，SDK 分页回调到达前阻塞当前线程
+     * 单个会话读取失败时跳过该会话，计入 failedConversationCount
+     */
+    public Result run(File file, ConversationPager pager, AtomicBoolean cancelled, Listener listener)
+            throws IOException, InterruptedException {
+        Result result = new Result();
+        File partFile = new File(file.getPath() + ".part");
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory: " + parent);
+        }
+        boolean completed = false;
+        try (FileOutputStream out = new FileOutputStream(partFile)) {
+            ChannelWriter writer = new ChannelWriter(out.getChannel());
+            if (format == FORMAT_BINARY) {
+                writer.putBytes(BINARY_MAGIC);
+                writer.putByte(BINARY_VERSION);
+            }
+            long lastProgressMs = System.currentTimeMillis();
+            outer:
+            while (true) {
+                List<Conversation> conversations = pager.next();
+                if (conversations == null || conversations.isEmpty()) {
+                    break;
+                }
+                for (Conversation conversation : conversations) {
+                    if (cancelled.get()) {
+                        break outer;
+                    }
+                    if (!exportConversation(conversation, writer, cancelled, result)) {
+                        result.failedConversationCount++;
+                    }
+                    result.conversationCount++;
+                    result.bytesWritten = writer.getBytesWritten();
+                    long now = System.currentTimeMillis();
+                    if (now - lastProgressMs >= progressIntervalMs) {
+                        lastProgressMs = now;
+                        listener.onProgress(result);
+                    }
+                }
+            }
+            result.cancelled = cancelled.get();
+            writer.flush();
+            out.getFD().sync();
+            result.bytesWritten = writer.getBytesWritten();
+            completed = !result.cancelled;
+        } finally {
+            if (!completed) {
+                partFile.delete();
+            }
+        }
+        if (result.cancelled) {
+            return result;
+        }
+        if (file.exists() && !file.delete()) {
+            partFile.delete();
+            throw new IOException("Cannot replace file: " + file);
+        }
+        if (!partFile.renameTo(file)) {
+            partFile.delete();
+            throw new IOException("Cannot rename to: " + file);
+        }
+        return result;
+    }
+
+    /**
+     * 导出单个会话，返回是否全部读取成功
+     */
+    private boolean exportConversation(Conversation conversation, ChannelWriter writer, AtomicBoolean cancelled,
+                                       Result result) throws IOException, InterruptedException {
+        long from = startTime;
+        int count = pageSize;
+        long boundaryTime = -1;
+        // 边界毫秒上已写入的消息
+        Set<Long> boundaryMsgNos = new HashSet<>();
+        while (!cancelled.get()) {
+            CountDownLatch latch = new CountDownLatch(1);
+            Page page = new Page();
+            loader.load(conversation, from, count, (messages, timestamp, hasMore, code) -> {
+                page.messages = messages;
+                page.timestamp = timestamp;
+                page.hasMore = hasMore;
+                page.code = code;
+                latch.countDown();
+            });
+            if (!latch.await(PAGE_TIMEOUT_MS, TimeUnit.MILLISECONDS) || page.code != 0) {
+                return false;
+            }
+            List<Message> messages = page.messages;
+            if (messages == null || messages.isEmpty()) {
+                return true;
+            }
+            int written = 0;
+            long oldest = Long.MAX_VALUE;
+            for (Message message : messages) {
+                oldest = Math.min(oldest, message.getTimestamp());
+                if (message.getTimestamp() == boundaryTime && boundaryMsgNos.contains(message.getClientMsgNo())) {
+                    continue;
+                }
+                if (format == FORMAT_BINARY) {
+                    writeBinary(message, writer);
+                } else {
+                    writeJson(message, writer);
+                }
+                result.messageCount++;
+                written++;
+            }
+            if (!page.hasMore) {
+                return true;
+            }
+            if (written == 0) {
+                if (messages.size() >= count) {
+                    count *= 2;
+                } else {
+                    from = boundaryTime;
+                    boundaryTime = -1;
+                    boundaryMsgNos.clear();
+                }
+                continue;
+            }
+            if (oldest != boundaryTime) {
+                boundaryTime = oldest;
+                boundaryMsgNos.clear();
+            }
+            for (Message message : messages) {
+                if (message.getTimestamp() == oldest) {
+                    boundaryMsgNos.add(message.getClientMsgNo());
+                }
+            }
+            from = oldest + 1;
+        }
+        return true;
+    }
+
+    private static class Page {
+        volatile List<Message> messages;
+        volatile long timestamp;
+        volatile boolean hasMore;
+        volatile int code;
+    }
+
+    private static void writeJson(Message message, ChannelWriter writer) throws IOException {
+        try {
+            JSONObject line = new JSONObject();
+            Conversation conversation = message.getConversation();
+            if (conversation != null) {
+                JSONObject conversationJson = new JSONObject();
+                conversationJson.put("conversationType", conversation.getConversationType().getValue());
+                conversationJson.put("conversationId", conversation.getConversationId());
+                line.put("conversation", conversationJson);
+            }
+            line.put("messageId", message.getMessageId());
+            line.put("clientMsgNo", message.getClientMsgNo());
+            line.put("timestamp", message.getTimestamp());
+            line.put("senderUserId", message.getSenderUserId());
+            if (message.getDirection() != null) {
+                line.put("direction", message.getDirection().getValue());
+            }
+            if (message.getState() != null) {
+                line.put("messageState", message.getState().getValue());
+            }
+            String contentJson = encodeContent(message.getContent());
+            JSONObject content;
+            try {
+                content = contentJson != null ? new JSONObject(contentJson) : new JSONObject();
+            } catch (JSONException e) {
+                content = new JSONObject();
+            }
+            content.put("contentType", message.getContentType());
+            line.put("content", content);
+            writer.putBytes(line.toString().getBytes(StandardCharsets.UTF_8));
+            writer.putByte((byte) '\n');
+        } catch (JSONException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    private static void writeBinary(Message message, ChannelWriter writer) throws IOException {
+        Conversation conversation = message.getConversation();
+        byte[] conversationId = utf8(conversation != null ? conversation.getConversationId() : null);
+        byte[] messageId = utf8(message.getMessageId());
+        byte[] senderUserId = utf8(message.getSenderUserId());
+        byte[] contentType = utf8(message.getContentType());
+        byte[] content = utf8(encodeContent(message.getContent()));
+        int length = 1 + strLength(conversationId) + strLength(messageId) + 8 + 8 + strLength(senderUserId)
+                + 1 + 1 + strLength(contentType) + strLength(content);
+        writer.putInt(length);
+        writer.putByte((byte) (conversation != null ? conversation.getConversationType().getValue() : 0));
+        writer.putStr(conversationId);
+        writer.putStr(messageId);
+        writer.putLong(message.getClientMsgNo());
+        writer.putLong(message.getTimestamp());
+        writer.putStr(senderUserId);
+        writer.putByte((byte) (message.getDirection() != null ? message.getDirection().getValue() : 0));
+        writer.putByte((byte) (message.getState() != null ? message.getState().getValue() : 0));
+        writer.putStr(contentType);
+        writer.putStr(content);
+    }
+
+    private static String encodeContent(MessageContent content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] bytes = content.encode();
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int strLength(byte[] bytes) {
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+
+    /**
+     * 经固定大小的缓冲写入文件通道
+     */
+    private static class ChannelWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long bytesWritten;
+
+        ChannelWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putStr(byte[] bytes) throws IOException {
+            putInt(bytes != null ? bytes.length : -1);
+            if (bytes != null) {
+                putBytes(bytes);
+            }
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.capacity()) {
+                flush();
+                ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+                while (wrapped.hasRemaining()) {
+                    bytesWritten += channel.write(wrapped);
+                }
+                return;
+            }
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        long getBytesWritten() {
+            return bytesWritten + buffer.position();
+        }
+
+        private void ensure(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.juggleim.message;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 从 NDJSON 文件导入本地消息
+ * 保存前先检查全部待导入的行，有不支持的行时直接以该行的错误结束，不写入任何消息。
+ * 每行一条消息，按 batchSize 分批处理，批次之间检查取消并按间隔回调进度；只保留计数与前 MAX_FAILURES 条失败原因。
+ * 批次只用于进度与事件合并，每行仍单独保存，没有事务：失败的行不影响同批其它行，中断后已保存的行保留不回滚。
+ * 进度中的 processed 只在批次结束时更新，可作为中断后继续导入的 skipLines。
+ * 每批保存后回调 onBatch，调用方可在批次边界合并处理这一批涉及的变更。
+ */
+public class MessageImporter {
+
+    public interface Saver {
+        /**
+         * 解析并保存一行消息，失败时抛出异常
+         */
+        void save(String line) throws Exception;
+    }
+
+    public interface Checker {
+        /**
+         * 检查一行是否可以导入，不支持时抛出 IllegalArgumentException；格式错误等留到保存时计为失败
+         */
+        void check(String line);
+    }
+
+    public interface Listener {
+        /**
+         * 一批保存结束，在导入线程上回调
+         */
+        void onBatch(Result progress);
+
+        void onProgress(Result progress);
+    }
+
+    public static class Failure {
+        // 文件中的行号，从 1 开始
+        public final long line;
+        public final String error;
+
+        Failure(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+    }
+
+    public static class Result {
+        public long processed;
+        public long imported;
+        public long failed;
+        public long bytesRead;
+        public long totalBytes;
+        public boolean cancelled;
+        public final List<Failure> failures = new ArrayList<>();
+    }
+
+    private static final int MAX_FAILURES = 100;
+
+    private final Checker checker;
+    private final Saver saver;
+    private final int batchSize;
+    private final long progressIntervalMs;
+
+    public MessageImporter(Checker checker, Saver saver, int batchSize, long progressIntervalMs) {
+        this.checker = checker;
+        this.saver = saver;
+        this.batchSize = Math.max(1, batchSize);
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    /**
+     * 在调用线程上导入，跳过前 skipLines 行
+     *
+     * @throws IllegalArgumentException 有不支持导入的行，消息带行号
+     */
+    public Result run(File file, long skipLines, AtomicBoolean cancelled, Listener listener) throws IOException {
+        Result result = new Result();
+        result.totalBytes = file.length();
+        if (!checkAll(file, skipLines, cancelled)) {
+            result.processed = skipLines;
+            result.cancelled = true;
+            return result;
+        }
+        CountingInputStream input = new CountingInputStream(new FileInputStream(file));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNo = 0;
+            long lastProgressMs = System.currentTimeMillis();
+            List<String> batch = new ArrayList<>(Math.min(batchSize, 1000));
+            long batchStartLine = 0;
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null) {
+                    lineNo++;
+                    if (lineNo == 1 && line.startsWith("\uFEFF")) {
+                        line = line.substring(1);
+                    }
+                    if (lineNo <= skipLines) {
+                        result.processed = lineNo;
+                        continue;
+                    }
+                    if (batch.isEmpty()) {
+                        batchStartLine = lineNo;
+                    }
+                    batch.add(line);
+                    if (batch.size() < batchSize) {
+                        continue;
+                    }
+                }
+                saveBatch(batch, batchStartLine, result);
+                batch.clear();
+                result.processed = lineNo;
+                result.bytesRead = input.count;
+                listener.onBatch(result);
+                if (line == null) {
+                    break;
+                }
+                if (cancelled.get()) {
+                    result.cancelled = true;
+                    break;
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastProgressMs >= progressIntervalMs) {
+                    lastProgressMs = now;
+                    listener.onProgress(result);
+                }
+            }
+        }
+        result.bytesRead = Math.min(input.count, result.totalBytes);
+        return result;
+    }
+
+    /**
+     * 检查 skipLines 之后的全部行，检查中途取消时返回 false
+     */
+    private boolean checkAll(File file, long skipLines, AtomicBoolean cancelled) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            long lineNo = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (lineNo <= skipLines || line.trim().isEmpty()) {
+                    continue;
+                }
+                if (lineNo % batchSize == 0 && cancelled.get()) {
+                    return false;
+                }
+                try {
+                    checker.check(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + lineNo + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void saveBatch(List<String> batch, long startLine, Result result) {
+        for (int i = 0; i < batch.size(); i++) {
+            String line = batch.get(i);
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                saver.save(line);
+                result.imported++;
+            } catch (Exception e) {
+                result.failed++;
+                if (result.failures.size() < MAX_FAILURES) {
+                    String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                    result.failures.add(new Failure(startLine + i, error));
+                }
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
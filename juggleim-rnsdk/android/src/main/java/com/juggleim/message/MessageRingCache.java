@@ -0,0 +1,358 @@
+package com.juggleim.message;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按会话缓存最近 N 条已转换消息
+ * 仅当缓存来自最新一页查询时才参与响应，之后由消息事件增量维护；会话按最近使用在内存预算内淘汰。
+ * 查询进行中到达的消息事件先记录下来，fill 时合并到查询结果上，避免异步查询覆盖掉期间收到的消息。
+ */
+public class MessageRingCache {
+
+    public static class CachedMessage {
+        final String messageId;
+        final long clientMsgNo;
+        final long timestamp;
+        final ReadableMap map;
+        final int bytes;
+
+        public CachedMessage(String messageId, long clientMsgNo, long timestamp, ReadableMap map, int bytes) {
+            this.messageId = messageId;
+            this.clientMsgNo = clientMsgNo;
+            this.timestamp = timestamp;
+            this.map = map;
+            this.bytes = bytes;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * 缓存内部持有的 map，只能拷贝后交给 JS
+         */
+        public ReadableMap getMap() {
+            return map;
+        }
+
+        boolean sameAs(CachedMessage other) {
+            if (clientMsgNo > 0 && clientMsgNo == other.clientMsgNo) {
+                return true;
+            }
+            return messageId != null && !messageId.isEmpty() && messageId.equals(other.messageId);
+        }
+    }
+
+    /**
+     * 缓存命中时的查询结果
+     */
+    public static class Page {
+        public final List<CachedMessage> messages;
+        public final long timestamp;
+        public final boolean hasMore;
+
+        Page(List<CachedMessage> messages, long timestamp, boolean hasMore) {
+            this.messages = messages;
+            this.timestamp = timestamp;
+            this.hasMore = hasMore;
+        }
+    }
+
+    private static class Ring {
+        // 按 timestamp 升序
+        final LinkedList<CachedMessage> messages = new LinkedList<>();
+        // 缓存之前是否还有更早的消息
+        boolean hasMore;
+        int bytes;
+    }
+
+    // 最新一页查询进行中期间的变更
+    private static class Loading {
+        int refs;
+        boolean invalidated;
+        long clearedBefore = -1;
+        final Set<Long> removed = new HashSet<>();
+        final List<CachedMessage> upserts = new ArrayList<>();
+    }
+
+    private final int capacity;
+    private final int maxBytes;
+    private final LinkedHashMap<String, Ring> rings = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Loading> loading = new HashMap<>();
+    private int totalBytes;
+    private long hitCount;
+    private long missCount;
+
+    public MessageRingCache(int capacity, int maxBytes) {
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 发起最新一页查询前调用，之后必须以 fill 或 cancelFill 结束
+     */
+    public synchronized void beginFill(String conversationKey) {
+        Loading state = loading.get(conversationKey);
+        if (state == null) {
+            state = new Loading();
+            loading.put(conversationKey, state);
+        }
+        state.refs++;
+    }
+
+    /**
+     * 查询失败时结束 beginFill
+     */
+    public synchronized void cancelFill(String conversationKey) {
+        endLoading(conversationKey);
+    }
+
+    /**
+     * 用最新一页查询结果重建会话缓存，并合并查询期间到达的变更
+     * 查询期间会话被整体失效时不写入缓存。
+     *
+     * @param page    按 timestamp 升序的消息
+     * @param hasMore SDK 返回的是否还有更早消息
+     */
+    public synchronized void fill(String conversationKey, List<CachedMessage> page, boolean hasMore) {
+        Loading state = endLoading(conversationKey);
+        dropRing(conversationKey);
+        if (state != null && state.invalidated) {
+            return;
+        }
+        Ring ring = new Ring();
+        ring.hasMore = hasMore;
+        rings.put(conversationKey, ring);
+        for (CachedMessage message : page) {
+            if (state != null && (message.timestamp <= state.clearedBefore
+                    || state.removed.contains(message.clientMsgNo))) {
+                continue;
+            }
+            ring.messages.add(message);
+            ring.bytes += message.bytes;
+            totalBytes += message.bytes;
+        }
+        if (state != null) {
+            for (CachedMessage message : state.upserts) {
+                insert(ring, message);
+            }
+        }
+        trimRing(ring);
+        trim(conversationKey);
+    }
+
+    /**
+     * 新增或替换消息，会话未缓存且没有进行中的查询时忽略
+     */
+    public synchronized void upsert(String conversationKey, CachedMessage message) {
+        Loading state = loading.get(conversationKey);
+        if (state != null) {
+            state.upserts.add(message);
+        }
+        Ring ring = rings.get(conversationKey);
+        if (ring == null) {
+            return;
+        }
+        insert(ring, message);
+        trimRing(ring);
+        trim(conversationKey);
+    }
+
+    private void insert(Ring ring, CachedMessage message) {
+        removeSame(ring, message);
+        if (ring.hasMore && !ring.messages.isEmpty() && message.timestamp < ring.messages.getFirst().timestamp) {
+            // 早于缓存窗口的消息不在最新一页内
+            return;
+        }
+        ListIterator<CachedMessage> it = ring.messages.listIterator(ring.messages.size());
+        while (it.hasPrevious()) {
+            if (it.previous().timestamp <= message.timestamp) {
+                it.next();
+                break;
+            }
+        }
+        it.add(message);
+        ring.bytes += message.bytes;
+        totalBytes += message.bytes;
+    }
+
+    /**
+     * 会话是否已缓存或正在查询，不影响淘汰顺序
+     */
+    public synchronized boolean contains(String conversationKey) {
+        return rings.containsKey(conversationKey) || loading.containsKey(conversationKey);
+    }
+
+    public synchronized void removeMessages(String conversationKey, Collection<Long> clientMsgNos) {
+        Loading state = loading.get(conversationKey);
+        if (state != null) {
+            state.removed.addAll(clientMsgNos);
+            Iterator<CachedMessage> pending = state.upserts.iterator();
+            while (pending.hasNext()) {
+                if (clientMsgNos.contains(pending.next().clientMsgNo)) {
+                    pending.remove();
+                }
+            }
+        }
+        Ring ring = rings.get(conversationKey);
+        if (ring == null) {
+            return;
+        }
+        Iterator<CachedMessage> it = ring.messages.iterator();
+        while (it.hasNext()) {
+            CachedMessage message = it.next();
+            if (clientMsgNos.contains(message.clientMsgNo)) {
+                it.remove();
+                ring.bytes -= message.bytes;
+                totalBytes -= message.bytes;
+            }
+        }
+    }
+
+    /**
+     * 清除 timestamp 及之前的消息
+     */
+    public synchronized void clearBefore(String conversationKey, long timestamp) {
+        Loading state = loading.get(conversationKey);
+        if (state != null) {
+            state.clearedBefore = Math.max(state.clearedBefore, timestamp);
+            Iterator<CachedMessage> pending = state.upserts.iterator();
+            while (pending.hasNext()) {
+                if (pending.next().timestamp <= timestamp) {
+                    pending.remove();
+                }
+            }
+        }
+        Ring ring = rings.get(conversationKey);
+        if (ring == null) {
+            return;
+        }
+        Iterator<CachedMessage> it = ring.messages.iterator();
+        while (it.hasNext()) {
+            CachedMessage message = it.next();
+            if (message.timestamp <= timestamp) {
+                it.remove();
+                ring.bytes -= message.bytes;
+                totalBytes -= message.bytes;
+            }
+        }
+        ring.hasMore = false;
+    }
+
+    /**
+     * 读取最新的 count 条消息，缓存不足以完整响应时返回 null
+     */
+    public synchronized Page query(String conversationKey, int count) {
+        Ring ring = rings.get(conversationKey);
+        if (ring == null || count <= 0 || (ring.hasMore && ring.messages.size() < count)) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        int size = ring.messages.size();
+        int start = Math.max(0, size - count);
+        List<CachedMessage> messages = new ArrayList<>(ring.messages.subList(start, size));
+        long timestamp = messages.isEmpty() ? 0 : messages.get(0).timestamp;
+        return new Page(messages, timestamp, start > 0 || ring.hasMore);
+    }
+
+    /**
+     * 丢弃会话缓存，进行中的查询结果也不再写入
+     */
+    public synchronized void removeConversation(String conversationKey) {
+        Loading state = loading.get(conversationKey);
+        if (state != null) {
+            state.invalidated = true;
+        }
+        dropRing(conversationKey);
+    }
+
+    public synchronized void clear() {
+        for (Loading state : loading.values()) {
+            state.invalidated = true;
+        }
+        rings.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized int getConversationCount() {
+        return rings.size();
+    }
+
+    public synchronized int getSizeBytes() {
+        return totalBytes;
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    private void dropRing(String conversationKey) {
+        Ring ring = rings.remove(conversationKey);
+        if (ring != null) {
+            totalBytes -= ring.bytes;
+        }
+    }
+
+    private Loading endLoading(String conversationKey) {
+        Loading state = loading.get(conversationKey);
+        if (state != null && --state.refs <= 0) {
+            loading.remove(conversationKey);
+        }
+        return state;
+    }
+
+    private void removeSame(Ring ring, CachedMessage message) {
+        Iterator<CachedMessage> it = ring.messages.iterator();
+        while (it.hasNext()) {
+            CachedMessage cached = it.next();
+            if (cached.sameAs(message)) {
+                it.remove();
+                ring.bytes -= cached.bytes;
+                totalBytes -= cached.bytes;
+                return;
+            }
+        }
+    }
+
+    private void trimRing(Ring ring) {
+        while (ring.messages.size() > capacity) {
+            CachedMessage oldest = ring.messages.removeFirst();
+            ring.bytes -= oldest.bytes;
+            totalBytes -= oldest.bytes;
+            ring.hasMore = true;
+        }
+    }
+
+    private void trim(String keepConversationKey) {
+        Iterator<Map.Entry<String, Ring>> it = rings.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Ring> eldest = it.next();
+            if (eldest.getKey().equals(keepConversationKey)) {
+                continue;
+            }
+            totalBytes -= eldest.getValue().bytes;
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.juggleim.message;
+
+import com.juggle.im.interfaces.IMessageManager;
+import com.juggle.im.model.Conversation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已读回执合并
+ * 可见消息按会话累积，第一条待发送 ID 到达后经过 debounceMs 统一发送，每个请求不超过 maxBatch 条。
+ * 本地已标记为已读的消息和已发送成功或正在发送的 ID 不再重复发送；发送失败（包括发送时抛出异常）的 ID
+ * 按退避重新排队，最多重试 MAX_RETRIES 次，之后不计为已发送，再次上报时重新排队。
+ */
+public class ReadReceiptBatcher {
+
+    public interface Sender {
+        void send(Conversation conversation, List<String> messageIds, IMessageManager.ISendReadReceiptCallback callback);
+    }
+
+    public interface ReadStateSource {
+        /**
+         * 返回 messageIds 中本地已标记为已读的 ID，查不到的消息视为未读
+         */
+        Set<String> readIds(Conversation conversation, List<String> messageIds);
+    }
+
+    public interface Listener {
+        /**
+         * 一个请求结束时回调，errorCode 为 0 表示成功
+         */
+        void onFlushed(Conversation conversation, List<String> messageIds, int errorCode);
+    }
+
+    private static class Pending {
+        final String key;
+        final Conversation conversation;
+        final LinkedHashSet<String> messageIds = new LinkedHashSet<>();
+        // 重试中的 ID 已失败的次数
+        final Map<String, Integer> attempts = new HashMap<>();
+
+        Pending(String key, Conversation conversation) {
+            this.key = key;
+            this.conversation = conversation;
+        }
+    }
+
+    // 每个会话记住的已发送 ID 数量与会话数量上限，超出后淘汰最早的
+    private static final int MAX_ACKED_PER_CONVERSATION = 1000;
+    private static final int MAX_ACKED_CONVERSATIONS = 200;
+    private static final int MAX_RETRIES = 3;
+    private static final long RETRY_BASE_DELAY_MS = 2000;
+
+    private final ScheduledExecutorService scheduler;
+    private final Sender sender;
+    private final ReadStateSource readStateSource;
+    private final Listener listener;
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private final LinkedHashMap<String, LinkedHashSet<String>> acked = new LinkedHashMap<>(16, 0.75f, true);
+    private long debounceMs = 1000;
+    private int maxBatch = 50;
+    private boolean flushScheduled;
+    // clear 后递增，之前发出的请求失败时不再重新排队
+    private int generation;
+
+    private long reportedCount;
+    private long dedupedCount;
+    private long sentCount;
+    private long requestCount;
+    private long retryCount;
+
+    public ReadReceiptBatcher(ScheduledExecutorService scheduler, Sender sender,
+                              ReadStateSource readStateSource, Listener listener) {
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.readStateSource = readStateSource;
+        this.listener = listener;
+    }
+
+    public synchronized void configure(long debounceMs, int maxBatch) {
+        if (debounceMs >= 0) {
+            this.debounceMs = debounceMs;
+        }
+        if (maxBatch > 0) {
+            this.maxBatch = maxBatch;
+        }
+    }
+
+    /**
+     * 上报会话中可见的消息，返回新加入待发送的数量
+     */
+    public int report(String conversationKey, Conversation conversation, List<String> messageIds) {
+        int added = 0;
+        boolean schedule = false;
+        long delay;
+        // 本地读取在锁外进行，读取失败时按未读处理
+        Set<String> readIds = null;
+        try {
+            readIds = readStateSource.readIds(conversation, messageIds);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        synchronized (this) {
+            LinkedHashSet<String> ackedIds = acked.get(conversationKey);
+            Pending entry = pending.get(conversationKey);
+            for (String messageId : messageIds) {
+                reportedCount++;
+                if (messageId == null || messageId.isEmpty()
+                        || (readIds != null && readIds.contains(messageId))
+                        || (ackedIds != null && ackedIds.contains(messageId))
+                        || (entry != null && entry.messageIds.contains(messageId))) {
+                    dedupedCount++;
+                    continue;
+                }
+                if (entry == null) {
+                    entry = new Pending(conversationKey, conversation);
+                    pending.put(conversationKey, entry);
+                }
+                entry.messageIds.add(messageId);
+                added++;
+            }
+            if (added > 0 && !flushScheduled) {
+                flushScheduled = true;
+                schedule = true;
+            }
+            delay = debounceMs;
+        }
+        if (schedule) {
+            scheduleFlush(delay);
+        }
+        return added;
+    }
+
+    private void scheduleFlush(long delay) {
+        try {
+            scheduler.schedule(this::flushAll, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                flushScheduled = false;
+            }
+        }
+    }
+
+    /**
+     * 立即发送全部待发送的回执
+     */
+    public void flushAll() {
+        List<Pending> batches = new ArrayList<>();
+        int flushGeneration;
+        synchronized (this) {
+            flushScheduled = false;
+            flushGeneration = generation;
+            for (Pending entry : pending.values()) {
+                LinkedHashSet<String> ackedIds = ackedSet(entry.key);
+                List<String> ids = new ArrayList<>(entry.messageIds);
+                for (int start = 0; start < ids.size(); start += maxBatch) {
+                    Pending batch = new Pending(entry.key, entry.conversation);
+                    batch.messageIds.addAll(ids.subList(start, Math.min(ids.size(), start + maxBatch)));
+                    for (String id : batch.messageIds) {
+                        Integer attempt = entry.attempts.get(id);
+                        if (attempt != null) {
+                            batch.attempts.put(id, attempt);
+                        }
+                    }
+                    batches.add(batch);
+                }
+                // 发送中的 ID 先记为已发送，避免请求结束前重复上报
+                ackedIds.addAll(ids);
+                trimAcked(ackedIds);
+            }
+            pending.clear();
+            requestCount += batches.size();
+        }
+        for (Pending batch : batches) {
+            List<String> ids = new ArrayList<>(batch.messageIds);
+            IMessageManager.ISendReadReceiptCallback callback = new IMessageManager.ISendReadReceiptCallback() {
+                @Override
+                public void onSuccess() {
+                    synchronized (ReadReceiptBatcher.this) {
+                        sentCount += ids.size();
+                    }
+                    listener.onFlushed(batch.conversation, ids, 0);
+                }
+
+                @Override
+                public void onError(int errorCode) {
+                    long retryDelay = requeue(batch, flushGeneration);
+                    if (retryDelay >= 0) {
+                        scheduleFlush(retryDelay);
+                    }
+                    listener.onFlushed(batch.conversation, ids, errorCode != 0 ? errorCode : -1);
+                }
+            };
+            try {
+                sender.send(batch.conversation, ids, callback);
+            } catch (Exception e) {
+                // 发送前已记为已发送，抛出异常时按失败重新排队
+                e.printStackTrace();
+                callback.onError(-1);
+            }
+        }
+    }
+
+    /**
+     * 失败的 ID 移出已发送记录，未超过重试次数的重新排队
+     *
+     * @return 需要安排的重试延迟，-1 表示不需要
+     */
+    private synchronized long requeue(Pending batch, int flushGeneration) {
+        LinkedHashSet<String> ackedIds = acked.get(batch.key);
+        if (ackedIds != null) {
+            ackedIds.removeAll(batch.messageIds);
+        }
+        if (flushGeneration != generation) {
+            return -1;
+        }
+        int maxAttempt = 0;
+        Pending entry = pending.get(batch.key);
+        for (String id : batch.messageIds) {
+            Integer previous = batch.attempts.get(id);
+            int attempt = (previous != null ? previous : 0) + 1;
+            if (attempt > MAX_RETRIES) {
+                continue;
+            }
+            if (entry == null) {
+                entry = new Pending(batch.key, batch.conversation);
+                pending.put(batch.key, entry);
+            }
+            // 等待重试期间仍记为已发送，避免重复上报再排一份
+            ackedSet(batch.key).add(id);
+            entry.messageIds.add(id);
+            entry.attempts.put(id, attempt);
+            maxAttempt = Math.max(maxAttempt, attempt);
+            retryCount++;
+        }
+        if (maxAttempt == 0 || flushScheduled) {
+            return -1;
+        }
+        flushScheduled = true;
+        return RETRY_BASE_DELAY_MS << (maxAttempt - 1);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        pending.clear();
+        acked.clear();
+    }
+
+    public synchronized int getPendingCount() {
+        int count = 0;
+        for (Pending entry : pending.values()) {
+            count += entry.messageIds.size();
+        }
+        return count;
+    }
+
+    public synchronized long getReportedCount() {
+        return reportedCount;
+    }
+
+    public synchronized long getDedupedCount() {
+        return dedupedCount;
+    }
+
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    public synchronized long getRetryCount() {
+        return retryCount;
+    }
+
+    private LinkedHashSet<String> ackedSet(String conversationKey) {
+        LinkedHashSet<String> ids = acked.get(conversationKey);
+        if (ids == null) {
+            ids = new LinkedHashSet<>();
+            acked.put(conversationKey, ids);
+            Iterator<LinkedHashSet<String>> it = acked.values().iterator();
+            while (acked.size() > MAX_ACKED_CONVERSATIONS && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        return ids;
+    }
+
+    private static void trimAcked(LinkedHashSet<String> ids) {
+        Iterator<String> it = ids.iterator();
+        while (ids.size() > MAX_ACKED_PER_CONVERSATION && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
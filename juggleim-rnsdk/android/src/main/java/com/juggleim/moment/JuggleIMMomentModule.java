@@ -1,5 +1,7 @@
 package com.juggleim.moment;
 
+import android.graphics.BitmapFactory;
+
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -9,6 +11,7 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
 import com.juggle.im.JIM;
 import com.juggle.im.JIMConst;
 import com.juggle.im.interfaces.IMessageManager;
@@ -21,15 +24,24 @@ import com.juggle.im.model.MomentMedia;
 import com.juggle.im.model.MomentMedia.MomentMediaType;
 import com.juggle.im.model.MomentReaction;
 import com.juggle.im.model.UserInfo;
+import com.juggleim.media.BatchUploader;
+import com.juggleim.media.MediaStager;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.Nonnull;
 
 public class JuggleIMMomentModule extends ReactContextBaseJavaModule {
     private static final String MODULE_NAME = "JuggleIMMomentModule";
 
+    // 本地媒体的暂存与尺寸读取
+    private final ExecutorService mediaExecutor = Executors.newSingleThreadExecutor();
+
     public JuggleIMMomentModule(ReactApplicationContext reactContext) {
         super(reactContext);
     }
@@ -40,6 +52,12 @@ public class JuggleIMMomentModule extends ReactContextBaseJavaModule {
         return MODULE_NAME;
     }
 
+    @Override
+    public void invalidate() {
+        mediaExecutor.shutdown();
+        super.invalidate();
+    }
+
     private IMomentManager getMomentManager() {
         return JIM.getInstance().getMomentManager();
     }
@@ -52,6 +70,94 @@ public class JuggleIMMomentModule extends ReactContextBaseJavaModule {
                 list.add(convertReadableMapToMomentMedia(mediaList.getMap(i)));
             }
         }
+        postMoment(content, list, promise);
+    }
+
+    /**
+     * 上传本地图片后发布动态
+     * 没有 url 的图片上传 localPath，视频上传 snapshotLocalPath 作为封面，视频本身需已有 url；
+     * 上传并发数受 parallelism 限制（默认 3），进度通过 ImageUploadProgress 通知，任一项失败则不发布。
+     */
+    @ReactMethod
+    public void addMomentWithLocalMedia(String content, ReadableArray mediaList, String batchId,
+                                        ReadableMap options, Promise promise) {
+        List<MomentMedia> list = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        // 上传项对应的媒体下标，封面为负数 -(index + 1)
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; mediaList != null && i < mediaList.size(); i++) {
+            ReadableMap map = mediaList.getMap(i);
+            MomentMedia media = convertReadableMapToMomentMedia(map);
+            list.add(media);
+            boolean hasUrl = media.getUrl() != null && !media.getUrl().isEmpty();
+            if (media.getType() == MomentMediaType.VIDEO) {
+                if (!hasUrl) {
+                    reject(promise, -1);
+                    return;
+                }
+                if (map.hasKey("snapshotLocalPath") && media.getSnapshotUrl() == null) {
+                    sources.add(map.getString("snapshotLocalPath"));
+                    targets.add(-(i + 1));
+                }
+            } else if (!hasUrl && map.hasKey("localPath")) {
+                sources.add(map.getString("localPath"));
+                targets.add(i);
+            }
+        }
+
+        MediaStager stager = MediaStager.getInstance(getReactApplicationContext());
+        Map<String, int[]> bounds = new ConcurrentHashMap<>();
+        BatchUploader uploader = new BatchUploader(mediaExecutor, source -> {
+            String path = stager.stage(source);
+            BitmapFactory.Options decode = new BitmapFactory.Options();
+            decode.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(path, decode);
+            bounds.put(source, new int[]{decode.outWidth, decode.outHeight});
+            return path;
+        }, (path, callback) -> JIM.getInstance().getMessageManager().uploadImage(path, callback));
+        int parallelism = options != null && options.hasKey("parallelism") ? options.getInt("parallelism") : 3;
+        uploader.upload(sources, parallelism, new BatchUploader.Listener() {
+            @Override
+            public void onItem(BatchUploader.ItemResult item, int completed, int failed, int total) {
+                WritableMap params = Arguments.createMap();
+                params.putString("batchId", batchId);
+                params.putInt("index", item.index);
+                params.putString("localPath", item.source);
+                params.putString("url", item.url);
+                params.putInt("errorCode", item.errorCode);
+                params.putInt("completed", completed);
+                params.putInt("failed", failed);
+                params.putInt("total", total);
+                params.putInt("progress", completed * 100 / total);
+                sendEvent("ImageUploadProgress", params);
+            }
+
+            @Override
+            public void onComplete(List<BatchUploader.ItemResult> results) {
+                for (BatchUploader.ItemResult item : results) {
+                    if (!item.isSuccess()) {
+                        reject(promise, item.errorCode);
+                        return;
+                    }
+                    int target = targets.get(item.index);
+                    if (target < 0) {
+                        list.get(-target - 1).setSnapshotUrl(item.url);
+                        continue;
+                    }
+                    MomentMedia media = list.get(target);
+                    media.setUrl(item.url);
+                    int[] size = bounds.get(item.source);
+                    if (media.getWidth() <= 0 && size != null && size[0] > 0) {
+                        media.setWidth(size[0]);
+                        media.setHeight(size[1]);
+                    }
+                }
+                postMoment(content, list, promise);
+            }
+        });
+    }
+
+    private void postMoment(String content, List<MomentMedia> list, Promise promise) {
         getMomentManager().addMoment(content, list, new JIMConst.IResultCallback<Moment>() {
             @Override
             public void onSuccess(Moment moment) {
@@ -236,6 +342,12 @@ public class JuggleIMMomentModule extends ReactContextBaseJavaModule {
 
     // Helper methods
 
+    private void sendEvent(String eventName, WritableMap params) {
+        getReactApplicationContext()
+                .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                .emit(eventName, params);
+    }
+
     private void reject(Promise promise, int errorCode) {
         WritableMap map = Arguments.createMap();
         map.putInt("code", errorCode);
@@ -0,0 +1,125 @@
+package com.juggleim.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 搜索结果的匹配区间与摘要
+ * 区间为 UTF-16 下标的 [start, end)，与 JS 字符串下标一致。整个搜索词未出现时按空白拆分后分别匹配。
+ */
+public final class MatchHighlighter {
+
+    public static class Result {
+        public final String snippet;
+        // 摘要在原文中的起始位置
+        public final int snippetStart;
+        public final boolean truncatedStart;
+        public final boolean truncatedEnd;
+        // 原文中的匹配区间
+        public final List<int[]> ranges;
+        // 摘要中的匹配区间
+        public final List<int[]> snippetRanges;
+
+        Result(String snippet, int snippetStart, boolean truncatedStart, boolean truncatedEnd,
+               List<int[]> ranges, List<int[]> snippetRanges) {
+            this.snippet = snippet;
+            this.snippetStart = snippetStart;
+            this.truncatedStart = truncatedStart;
+            this.truncatedEnd = truncatedEnd;
+            this.ranges = ranges;
+            this.snippetRanges = snippetRanges;
+        }
+    }
+
+    private MatchHighlighter() {
+    }
+
+    /**
+     * 查找不重叠的匹配区间，按起始位置升序，忽略大小写
+     */
+    public static List<int[]> findRanges(String text, String query, int maxRanges) {
+        List<int[]> ranges = new ArrayList<>();
+        if (text == null || query == null || maxRanges <= 0) {
+            return ranges;
+        }
+        String trimmed = query.trim();
+        if (trimmed.isEmpty()) {
+            return ranges;
+        }
+        collect(text, trimmed, ranges, maxRanges);
+        if (ranges.isEmpty()) {
+            for (String term : trimmed.split("\\s+")) {
+                collect(text, term, ranges, maxRanges);
+            }
+            Collections.sort(ranges, (a, b) -> a[0] - b[0]);
+            // 各词的区间可能重叠，合并后再截断
+            List<int[]> merged = new ArrayList<>();
+            for (int[] range : ranges) {
+                int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && range[0] <= last[1]) {
+                    last[1] = Math.max(last[1], range[1]);
+                } else {
+                    merged.add(range);
+                }
+            }
+            ranges = merged.size() > maxRanges ? new ArrayList<>(merged.subList(0, maxRanges)) : merged;
+        }
+        return ranges;
+    }
+
+    /**
+     * 计算匹配区间，并截取以第一个匹配为中心、长度不超过 window 的摘要
+     * 摘要中的换行替换为空格，长度与原文对应部分相同。
+     */
+    public static Result highlight(String text, String query, int window, int maxRanges) {
+        if (text == null) {
+            return null;
+        }
+        List<int[]> ranges = findRanges(text, query, maxRanges);
+        int length = text.length();
+        int start = 0;
+        int end = length;
+        if (window > 0 && length > window) {
+            int anchor = ranges.isEmpty() ? 0 : ranges.get(0)[0];
+            // 匹配前保留约四分之一窗口的上下文
+            start = Math.max(0, anchor - window / 4);
+            end = Math.min(length, start + window);
+            start = Math.max(0, end - window);
+            if (start > 0 && Character.isLowSurrogate(text.charAt(start))) {
+                start++;
+            }
+            if (end < length && Character.isHighSurrogate(text.charAt(end - 1))) {
+                end--;
+            }
+        }
+        List<int[]> snippetRanges = new ArrayList<>();
+        for (int[] range : ranges) {
+            int s = Math.max(range[0], start);
+            int e = Math.min(range[1], end);
+            if (s < e) {
+                snippetRanges.add(new int[]{s - start, e - start});
+            }
+        }
+        String snippet = text.substring(start, end).replace('\n', ' ').replace('\r', ' ');
+        return new Result(snippet, start, start > 0, end < length, ranges, snippetRanges);
+    }
+
+    private static void collect(String text, String term, List<int[]> ranges, int maxRanges) {
+        int termLength = term.length();
+        if (termLength == 0) {
+            return;
+        }
+        int count = 0;
+        int i = 0;
+        while (i + termLength <= text.length() && count < maxRanges) {
+            if (text.regionMatches(true, i, term, 0, termLength)) {
+                ranges.add(new int[]{i, i + termLength});
+                count++;
+                i += termLength;
+            } else {
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.juggleim.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单个群的 @ 候选索引
+ * 以群昵称和用户名建立名称索引，空查询时按加入索引的顺序返回前几个成员。
+ */
+public class MentionIndex {
+
+    public static class Candidate {
+        public final String userId;
+        public final String nickname;
+        public final String avatar;
+        public final String groupDisplayName;
+        public int matchType = NameIndex.MATCH_NAME;
+
+        Candidate(String userId, String nickname, String avatar, String groupDisplayName) {
+            this.userId = userId;
+            this.nickname = nickname;
+            this.avatar = avatar;
+            this.groupDisplayName = groupDisplayName;
+        }
+
+        Candidate withMatchType(int matchType) {
+            Candidate candidate = new Candidate(userId, nickname, avatar, groupDisplayName);
+            candidate.matchType = matchType;
+            return candidate;
+        }
+    }
+
+    private final String groupId;
+    private final NameIndex names;
+    private final Map<String, Candidate> members = new LinkedHashMap<>();
+    private volatile boolean ready;
+    private volatile long lastAccessMs;
+
+    public MentionIndex(String groupId, PinyinConverter pinyin, long nowMs) {
+        this.groupId = groupId;
+        this.names = new NameIndex(pinyin);
+        this.lastAccessMs = nowMs;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void put(String userId, String nickname, String avatar, String groupDisplayName) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (members) {
+            members.put(userId, new Candidate(userId, nickname, avatar, groupDisplayName));
+        }
+        names.putAliases(NameIndex.KIND_USER, userId, Arrays.asList(groupDisplayName, nickname));
+    }
+
+    public Candidate get(String userId) {
+        synchronized (members) {
+            return members.get(userId);
+        }
+    }
+
+    /**
+     * 查询候选成员，索引构建过程中返回已索引部分的结果
+     */
+    public List<Candidate> search(String query, int limit) {
+        List<Candidate> result = new ArrayList<>();
+        if (NameIndex.normalize(query).isEmpty()) {
+            synchronized (members) {
+                for (Candidate candidate : members.values()) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    result.add(candidate);
+                }
+            }
+            return result;
+        }
+        for (NameIndex.Match match : names.search(query, null, limit)) {
+            Candidate candidate = get(match.id);
+            if (candidate != null) {
+                result.add(candidate.withMatchType(match.matchType));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        synchronized (members) {
+            return members.size();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady() {
+        ready = true;
+    }
+
+    public long getLastAccessMs() {
+        return lastAccessMs;
+    }
+
+    public void touch(long nowMs) {
+        lastAccessMs = nowMs;
+    }
+}
@@ -0,0 +1,451 @@
+package com.juggleim.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 名称前缀索引
+ * 以紧凑字典树索引用户名、群名和会话别名，支持原文前缀、全拼前缀、首字母和名称中间位置的匹配。
+ * 同一条目可有多个名称，增删条目只更新其自身的词条。
+ * SDK 名称与调用方补充的别名分开保存，任一方更新时合并两者重新索引，不会互相覆盖。
+ */
+public class NameIndex {
+    public static final String KIND_USER = "user";
+    public static final String KIND_GROUP = "group";
+    public static final String KIND_CONVERSATION = "conversation";
+
+    // 匹配类型，数值越小排序越靠前
+    public static final int MATCH_NAME = 0;
+    public static final int MATCH_PINYIN = 1;
+    public static final int MATCH_INITIALS = 2;
+    public static final int MATCH_INFIX = 3;
+    private static final int MATCH_BITS = 2;
+
+    // 中间位置匹配只从前 MAX_INFIX_START 个位置开始，避免长名称产生过多词条
+    private static final int MAX_INFIX_START = 12;
+    private static final int MAX_TOKEN_LENGTH = 32;
+
+    public static class Match {
+        public final String kind;
+        public final String id;
+        public final String name;
+        public final int matchType;
+        // 词条比查询多出的字符数，0 表示完全匹配
+        public final int extra;
+
+        Match(String kind, String id, String name, int matchType, int extra) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+            this.matchType = matchType;
+            this.extra = extra;
+        }
+    }
+
+    // 叶子节点和没有词条的节点共用空数组
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private static class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int[] postings = NO_POSTINGS;
+        int postingCount;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node getOrAddChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int pos = -i - 1;
+            Node node = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newKeys[pos] = c;
+            newChildren[pos] = node;
+            System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            keys = newKeys;
+            children = newChildren;
+            return node;
+        }
+
+        void addPosting(int posting) {
+            for (int i = 0; i < postingCount; i++) {
+                if (postings[i] == posting) {
+                    return;
+                }
+            }
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, Math.max(2, postingCount * 2));
+            }
+            postings[postingCount++] = posting;
+        }
+
+        void removePosting(int posting) {
+            for (int i = 0; i < postingCount; i++) {
+                if (postings[i] == posting) {
+                    postings[i] = postings[--postingCount];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+        final String kind;
+        final String id;
+        final String name;
+        final List<String> tokens = new ArrayList<>();
+        final List<Integer> tokenTypes = new ArrayList<>();
+
+        Entry(String kind, String id, String name) {
+            this.kind = kind;
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private final PinyinConverter pinyin;
+    // 以下按 kind:id 保存各来源的原始名称
+    private final Map<String, String> sdkNames = new HashMap<>();
+    private final Map<String, List<String>> aliasNames = new HashMap<>();
+    private Node root = new Node();
+    private final Map<String, Integer> handles = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final ArrayDeque<Integer> freeHandles = new ArrayDeque<>();
+    private int tokenCount;
+
+    public NameIndex(PinyinConverter pinyin) {
+        this.pinyin = pinyin;
+    }
+
+    public boolean isPinyinSupported() {
+        return pinyin != null && pinyin.isSupported();
+    }
+
+    /**
+     * 设置条目的 SDK 名称（用户名、群名），保留已有的别名
+     */
+    public void putName(String kind, String id, String name) {
+        if (kind == null || id == null) {
+            return;
+        }
+        List<String> names;
+        synchronized (this) {
+            if (name == null || name.isEmpty()) {
+                sdkNames.remove(key(kind, id));
+            } else {
+                sdkNames.put(key(kind, id), name);
+            }
+            names = mergedNames(key(kind, id));
+        }
+        put(kind, id, names);
+    }
+
+    /**
+     * 设置调用方补充的名称（备注名、会话别名等），保留 SDK 名称；aliases 为空时只移除别名
+     */
+    public void putAliases(String kind, String id, List<String> aliases) {
+        if (kind == null || id == null) {
+            return;
+        }
+        List<String> names;
+        synchronized (this) {
+            if (aliases == null || aliases.isEmpty()) {
+                aliasNames.remove(key(kind, id));
+            } else {
+                aliasNames.put(key(kind, id), new ArrayList<>(aliases));
+            }
+            names = mergedNames(key(kind, id));
+        }
+        put(kind, id, names);
+    }
+
+    /**
+     * 别名在前，作为匹配结果显示的名称
+     */
+    private List<String> mergedNames(String key) {
+        List<String> names = new ArrayList<>();
+        List<String> aliases = aliasNames.get(key);
+        if (aliases != null) {
+            names.addAll(aliases);
+        }
+        String name = sdkNames.get(key);
+        if (name != null) {
+            names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * 按合并后的名称重建条目的词条，names 为空时移除条目
+     */
+    private void put(String kind, String id, List<String> names) {
+        String primary = null;
+        List<String> normalized = new ArrayList<>();
+        for (String name : names) {
+            String n = normalize(name);
+            if (!n.isEmpty() && !normalized.contains(n)) {
+                if (primary == null) {
+                    primary = name;
+                }
+                normalized.add(n);
+            }
+        }
+        if (primary == null) {
+            synchronized (this) {
+                if (names.equals(mergedNames(key(kind, id)))) {
+                    removeEntry(kind, id);
+                }
+            }
+            return;
+        }
+        Entry entry = new Entry(kind, id, primary);
+        for (String n : normalized) {
+            collectTokens(n, entry);
+        }
+        // 拼音计算在锁外完成，锁内只更新字典树
+        synchronized (this) {
+            // 计算期间名称又被更新时，以后一次为准
+            if (!names.equals(mergedNames(key(kind, id)))) {
+                return;
+            }
+            Integer old = handles.get(key(kind, id));
+            if (old != null) {
+                Entry existing = entries.get(old);
+                if (existing.name.equals(entry.name) && existing.tokens.equals(entry.tokens)) {
+                    return;
+                }
+                unlink(old, existing);
+                entries.set(old, entry);
+                link(old, entry);
+                return;
+            }
+            int handle;
+            if (freeHandles.isEmpty()) {
+                handle = entries.size();
+                entries.add(entry);
+            } else {
+                handle = freeHandles.poll();
+                entries.set(handle, entry);
+            }
+            handles.put(key(kind, id), handle);
+            link(handle, entry);
+        }
+    }
+
+    /**
+     * 移除条目及其所有来源的名称
+     */
+    public synchronized void remove(String kind, String id) {
+        sdkNames.remove(key(kind, id));
+        aliasNames.remove(key(kind, id));
+        removeEntry(kind, id);
+    }
+
+    private synchronized void removeEntry(String kind, String id) {
+        Integer handle = handles.remove(key(kind, id));
+        if (handle == null) {
+            return;
+        }
+        unlink(handle, entries.get(handle));
+        entries.set(handle, null);
+        freeHandles.add(handle);
+    }
+
+    public synchronized void clear() {
+        sdkNames.clear();
+        aliasNames.clear();
+        root = new Node();
+        handles.clear();
+        entries.clear();
+        freeHandles.clear();
+        tokenCount = 0;
+    }
+
+    public synchronized int size() {
+        return handles.size();
+    }
+
+    public synchronized int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * 按前缀查询，结果按匹配类型、多余字符数和名称长度排序，每个条目只返回最佳匹配
+     *
+     * @param kinds 限定的条目类型，null 表示全部
+     */
+    public synchronized List<Match> search(String query, Set<String> kinds, int limit) {
+        List<Match> result = new ArrayList<>();
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return result;
+        }
+        Node node = root;
+        for (int i = 0; i < q.length() && node != null; i++) {
+            node = node.child(q.charAt(i));
+        }
+        if (node == null) {
+            return result;
+        }
+        // 按深度遍历子树，越浅的词条越接近完全匹配。排序先看匹配类型，更深处仍可能有更优类型的匹配，
+        // 只有原文前缀匹配在遍历完一层后已经凑够 limit 条时，其余条目都排在它们之后，可以停止
+        Map<Integer, Match> best = new HashMap<>();
+        List<Node> level = Collections.singletonList(node);
+        int depth = 0;
+        int nameMatches = 0;
+        while (!level.isEmpty() && nameMatches < limit) {
+            List<Node> next = new ArrayList<>();
+            for (Node n : level) {
+                for (int i = 0; i < n.postingCount; i++) {
+                    int posting = n.postings[i];
+                    int handle = posting >>> MATCH_BITS;
+                    int type = posting & ((1 << MATCH_BITS) - 1);
+                    Entry entry = entries.get(handle);
+                    if (entry == null || (kinds != null && !kinds.contains(entry.kind))) {
+                        continue;
+                    }
+                    Match current = best.get(handle);
+                    if (current == null || type < current.matchType) {
+                        best.put(handle, new Match(entry.kind, entry.id, entry.name, type, depth));
+                        if (type == MATCH_NAME) {
+                            nameMatches++;
+                        }
+                    }
+                }
+                next.addAll(Arrays.asList(n.children));
+            }
+            level = next;
+            depth++;
+        }
+        result.addAll(best.values());
+        Collections.sort(result, (a, b) -> {
+            if (a.matchType != b.matchType) {
+                return a.matchType - b.matchType;
+            }
+            if (a.extra != b.extra) {
+                return a.extra - b.extra;
+            }
+            return a.name.length() - b.name.length();
+        });
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void collectTokens(String name, Entry entry) {
+        addToken(entry, name, MATCH_NAME);
+        for (int i = 1; i < Math.min(name.length(), MAX_INFIX_START); i++) {
+            addToken(entry, name.substring(i), MATCH_INFIX);
+        }
+        if (!isPinyinSupported()) {
+            return;
+        }
+        // 汉字转为拼音音节，其它字符原样保留为单独的一段
+        List<String> syllables = new ArrayList<>();
+        boolean hasHan = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            String s = pinyin.syllable(c);
+            if (s != null) {
+                hasHan = true;
+                syllables.add(s);
+            } else {
+                syllables.add(String.valueOf(c));
+            }
+        }
+        if (!hasHan) {
+            return;
+        }
+        StringBuilder full = new StringBuilder();
+        StringBuilder initials = new StringBuilder();
+        for (String s : syllables) {
+            full.append(s);
+            initials.append(s.charAt(0));
+        }
+        addToken(entry, full.toString(), MATCH_PINYIN);
+        addToken(entry, initials.toString(), MATCH_INITIALS);
+        int offset = 0;
+        for (int i = 1; i < Math.min(syllables.size(), MAX_INFIX_START); i++) {
+            offset += syllables.get(i - 1).length();
+            addToken(entry, full.substring(offset), MATCH_INFIX);
+            addToken(entry, initials.substring(i), MATCH_INFIX);
+        }
+    }
+
+    private static void addToken(Entry entry, String token, int type) {
+        if (token.isEmpty()) {
+            return;
+        }
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            token = token.substring(0, MAX_TOKEN_LENGTH);
+        }
+        for (int i = 0; i < entry.tokens.size(); i++) {
+            if (entry.tokenTypes.get(i) == type && entry.tokens.get(i).equals(token)) {
+                return;
+            }
+        }
+        entry.tokens.add(token);
+        entry.tokenTypes.add(type);
+    }
+
+    private void link(int handle, Entry entry) {
+        for (int i = 0; i < entry.tokens.size(); i++) {
+            String token = entry.tokens.get(i);
+            Node node = root;
+            for (int j = 0; j < token.length(); j++) {
+                node = node.getOrAddChild(token.charAt(j));
+            }
+            node.addPosting((handle << MATCH_BITS) | entry.tokenTypes.get(i));
+            tokenCount++;
+        }
+    }
+
+    private void unlink(int handle, Entry entry) {
+        for (int i = 0; i < entry.tokens.size(); i++) {
+            String token = entry.tokens.get(i);
+            Node node = root;
+            for (int j = 0; j < token.length() && node != null; j++) {
+                node = node.child(token.charAt(j));
+            }
+            if (node != null) {
+                node.removePosting((handle << MATCH_BITS) | entry.tokenTypes.get(i));
+                tokenCount--;
+            }
+        }
+    }
+
+    private static String key(String kind, String id) {
+        return kind + ":" + id;
+    }
+}
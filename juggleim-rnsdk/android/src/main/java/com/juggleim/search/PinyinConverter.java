@@ -0,0 +1,76 @@
+package com.juggleim.search;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 汉字转拼音
+ * 使用内置的 GB2312 拼音表，不依赖系统 ICU，所有系统版本结果一致；表外的汉字（繁体、生僻字）仅按原文匹配。
+ * 多音字只取表中的一个读音。
+ */
+public class PinyinConverter {
+    // 汉字按码点排序，与 syllables 一一对应
+    private final char[] hans;
+    private final short[] syllables;
+    private final String[] names;
+
+    public static PinyinConverter create() {
+        try {
+            return new PinyinConverter(Charset.forName("GBK"));
+        } catch (RuntimeException e) {
+            // 系统缺少 GBK 编码时退化为不支持拼音
+            return new PinyinConverter(null);
+        }
+    }
+
+    private PinyinConverter(Charset gbk) {
+        if (gbk == null) {
+            hans = new char[0];
+            syllables = new short[0];
+            names = new String[0];
+            return;
+        }
+        names = PinyinTable.SYLLABLES.split(" ");
+        // 一次解码整个汉字区，得到每个区位对应的字符
+        int size = PinyinTable.ROW_COUNT * PinyinTable.ROW_SIZE;
+        byte[] bytes = new byte[size * 2];
+        for (int i = 0; i < size; i++) {
+            bytes[i * 2] = (byte) (PinyinTable.FIRST_ROW + i / PinyinTable.ROW_SIZE);
+            bytes[i * 2 + 1] = (byte) (0xA1 + i % PinyinTable.ROW_SIZE);
+        }
+        String decoded = new String(bytes, gbk);
+        long[] packed = new long[size];
+        int count = 0;
+        for (int i = 0; i < size && i < decoded.length(); i++) {
+            int code = Character.digit(PinyinTable.CODES.charAt(i * 2), 32) * 32
+                    + Character.digit(PinyinTable.CODES.charAt(i * 2 + 1), 32);
+            char c = decoded.charAt(i);
+            if (code > 0 && isHan(c)) {
+                packed[count++] = ((long) c << 16) | (code - 1);
+            }
+        }
+        Arrays.sort(packed, 0, count);
+        hans = new char[count];
+        syllables = new short[count];
+        for (int i = 0; i < count; i++) {
+            hans[i] = (char) (packed[i] >>> 16);
+            syllables[i] = (short) (packed[i] & 0xFFFF);
+        }
+    }
+
+    public boolean isSupported() {
+        return hans.length > 0;
+    }
+
+    public static boolean isHan(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+
+    /**
+     * 单个汉字的拼音（小写、无声调），表中没有时返回 null
+     */
+    public String syllable(char c) {
+        int i = Arrays.binarySearch(hans, c);
+        return i >= 0 ? names[syllables[i]] : null;
+    }
+}
@@ -0,0 +1,178 @@
+package com.juggleim.search;
+
+/**
+ * GB2312 一、二级汉字（6763 字）的拼音表，小写无声调，ü 写作 v，多音字只取一个读音
+ * 按区位顺序每字两位 32 进制，值为 SYLLABLES 中的序号加 1，0 表示该位置没有汉字
+ */
+final class PinyinTable {
+    // 第一个汉字所在的区，每区 94 个位置
+    static final int FIRST_ROW = 0xB0;
+    static final int ROW_COUNT = 72;
+    static final int ROW_SIZE = 94;
+
+    static final String SYLLABLES = ""
+            + "a ai an ang ao ba bai ban bang bao bei ben beng bi bian biao bie bin bing bo bu ca cai can cang "
+            + "cao ce cen ceng cha chai chan chang chao che chen cheng chi chong chou chu chuai chuan chuang "
+            + "chui chun chuo ci cong cou cu cuan cui cun cuo da dai dan dang dao de deng di dia dian diao die "
+            + "ding diu dong dou du duan dui dun duo e ei en er fa fan fang fei fen feng fo fou fu ga gai gan "
+            + "gang gao ge gen geng gong gou gu gua guai guan guang gui gun guo ha hai han hang hao he hei hen "
+            + "heng hong hou hu hua huai huan huang hui hun huo ji jia jian jiang jiao jie jin jing jiong jiu "
+            + "ju juan jue jun ka kai kan kang kao ke ken keng kong kou ku kua kuai kuan kuang kui kun kuo la "
+            + "lai lan lang lao le lei leng li lian liang liao lie lin ling liu long lou lu luan lue lun luo "
+            + "lv m ma mai man mang mao me mei men meng mi mian miao mie min ming miu mo mou mu na nai nan "
+            + "nang nao ne nei nen neng ng ni nian niang niao nie nin ning niu nong nou nu nuan nue nuo nv o "
+            + "ou pa pai pan pang pao pei pen peng pi pian piao pie pin ping po pou pu qi qia qian qiang qiao "
+            + "qie qin qing qiong qiu qu quan que qun ran rang rao re ren reng ri rong rou ru ruan rui run ruo "
+            + "sa sai san sang sao se sen seng sha shai shan shang shao she shei shen sheng shi shou shu shua "
+            + "shuai shuan shuang shui shun shuo si song sou su suan sui sun suo ta tai tan tang tao te teng "
+            + "ti tian tiao tie ting tong tou tu tuan tui tun tuo wa wai wan wang wei wen weng wo wu xi xia "
+            + "xian xiang xiao xie xin xing xiong xiu xu xuan xue xun ya yan yang yao ye yi yin ying yo yong "
+            + "you yu yuan yue yun za zai zan zang zao ze zei zen zeng zha zhai zhan zhang zhao zhe zhen zheng "
+            + "zhi zhong zhou zhu zhua zhuai zhuan zhuang zhui zhun zhuo zi zong zou zu zuan zui zun zuo";
+
+    static final String CODES = ""
+            + "010102020202020202020202020202030303030303030303040404050505050505050505060606060606060606060606"
+            + "067606060606070k0707070707070808080808080808080808080808080909090909090909090909090a0a0a0a0k0k0a"
+            + "0a0a0a0a0a0a0a0a0a0a0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0c0c0c0c0d0d0d0d0d0d0e0e0e0e0e0e0e0e0e0e0e0e0e"
+            + "0e0e0e0e0e0e7e0e0b0e0e0f0f0f0f0f0f0f0f0f0f0f0f0g0g0g0g0h0h0h0h0i0i0i0i0i0i0j0j0j0j0j0j0j0j0j0k0k"
+            + "0k0k0k0k0k0k0k0k0k0k0k0k0k0k0k0k0k0l0l0l0l0l0l0l0l0l0l0l0m0n0n0n0n0n0n0n0n0n0n0n0o0o0o0o0o0o0o0p"
+            + "0p0p0pbi0q0q0q0q0q0r0r0r0r0r0t0t0u0u0u0u0u0u0u0u0u0u0u0v0v0v101010101010101010bq1111111111br1111"
+            + "111111111112121212121212121213131313131314141414141414141414151515151515151515151515151515161616"
+            + "161616161616161616161616161717171717181818181818181818181818191919191919191919191919191919191a1b"
+            + "1b1b1b1b1b1b1c1c1c1c1c1c1d1d1d1d1d1e1e1e1e1e1e1e1f1f1g1g1g1g1g1g1g1g1g1g1g1g1h1h1h1h1h1h1i1j1j1j"
+            + "1j1k1k1k1l1l1l1l1l1l1l1l1m1m1m1n1n1n1n1n1n1o1o1o1o1o1o1p1p1p1p1p1p1p1p1p1p1p1p1q1q1q1q1q1q1q1q1q"
+            + "1q1q1q1q1q1q1r1r1r1r1r1s1s1s1s1s1s1s1s1s1s1s1s1t1t1t1u1u1u1u1u1u1u1v1v1v1v1v1v1v1vbp1v1v1v1v1v1v"
+            + "1v1v1v1v2121212121212121212121212121212122222222222222222223232323232323242424242424242424252626"
+            + "2626262626262626272727272727272728282828282828282828282828282929292929292a2a2a2a2b2b2b2b2b2b2b2b"
+            + "2b2c2c2c2c2c2c2c2c2c2c2c2c2d2d2d2d2d2d2d2d2d2d2d2d2d2f2g2g2g2g2g2g2g2g2h2h2h2h2h2h2h2h2i2i2i2i2i"
+            + "2i2i2i2i2i2i2i2i2i2i2i2i2j2j2j2j2j2j2j2j2j2j2j2k2k2k2k2k2k2k2k2k2k2k2k2l2l2l2l2l2l2l2l2l2l2l2l2l"
+            + "2l2l2m2m2m2m2m2m2m2m2m2m2m2m2m2m2m2n2o2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p"
+            + "2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2p2q2q2r2r2r2r2r2r2s2s2s2s2s2s2s2s2s2s2s2t2t2t2t2t2t2t2t2t2u2u2u2u"
+            + "2u2u2u3g2u2u2v2v2v2v2v2v2v2v2v2v2v3c2v2v2v2v2v3v303031313131313131323232323232323232323232323232"
+            + "333333333333333333343434343434343434343434343434343434353535353535363636373737373737373737373738"
+            + "3838393939393939393939393939493939393a3a3a3b3b3b3b3b3b3c3d3d3d3d3d3d3d3e3e3e3e3e3e3e3e3e3e3e3e3e"
+            + "3e3e3e3e3e3e3f3f3f3g3g3g3g3g3g3g3g3g3h3h3h3h3h3h3h3h3h3h3h3h3h3h3h3h3h3h3i3i3j3j3j3j3k3k3k3k3k3l"
+            + "3l3l3l3l3l3l3l3l3m3m3m3m3m3m3m3n3n3n3n3n3n3n3n3n3n3n3n3n3n3n3n3n3n3o3o3o3o3o3o3o3o3o3p3p3p3p3p3q"
+            + "3q3q3d3q3q3q3q3q3q3q3q3q3q3r3r3r3r3r3r3r3r3r3r3r3r3r3r3s3s3s3s3s3s3s3s3s3s3s3s3s3s3s3s3s3s3s3s3s"
+            + "3t3t3t3t3t3t3u3u3u3u3u3u3u3u3u3u3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v"
+            + "3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v3v404040404040404040404040404040404041414141414141414141"
+            + "414141414141414141414141414141414141414141414141414141414141424242424242424242424242424343434343"
+            + "434343434343434343434343434343434343434343434344444444444444444444444444444444444444444444444444"
+            + "444445454545454545454545454545454545454545464646464646464646464646464646464646464646464646464647"
+            + "474848484848484848484848484848484848494949494949494949494949494949494949494949494949494a4a4a4a4a"
+            + "4a4a4b4b4b4b4b4b4b4b4b4b4c4c4c4c4c4c4c4c4c4c4c4d4d4d2v4e4e4e4e4e4f4f4f4f4f4f4g4g4g4g4g4g4g4h4h4h"
+            + "4h4i4i4i4i4i4i4i7r4i4i4i4i4i4i4i4j4j4j4j4k3f4l4l4l4l4m4m4m4m4n4n4n4n4n4n4n4o4o4o4o4o4p4p4p4p4q4q"
+            + "4r4r4r4r4r4r4r4r4s4s4s4s4s4s4s4s4s4s4s4t4t4t4t4u4u4u4u4v4v4v4v4v4v4v5050505151515151515151515151"
+            + "5151515152525252525252535353535353535l5354545555555555555555555555565656575757575757575757575757"
+            + "575757575757575757575757575757575757575757575958585858585858585858585858585959595959595959595959"
+            + "5a5a5a5a5a5a5a5a545a5a5a5a5b5b5b5b5b5c5c5c5c5c5c5c5c5c5c5c5c5d5d5d5d5d5d5d5d5d5d5d5d5d5d5e5e5e5e"
+            + "5e5e5e5e5e5e5e5f5f5f5f5f5f5f5f5f5g5g5g5g5g5g5h5h5h5h5h5h5h5h5h5h5e5h5h5h5h5h5h5h5h5h5m5m5m5m5m5m"
+            + "5m5m5m5m5m5m5m5m5i5i5i5i5i5i5j5j5k5k5k5k5k5k5k5l5l5l5l5l5l5l5l5l5l5l5l5o5o5o5o5o5o5o5o5o5p5p5p5p"
+            + "5p5p5q5q5q5q5q5q5q5q5q5r5r5r5r5r5r5s5s5s5s5s5s5s5s5s5s5s5s5t5u5u5u5u5u5u5u5u5u5u5u5u5u5u5u5u5v5v"
+            + "5v6060606060606060616161616161616161616161616162626262626262626263636363636363636464656565656565"
+            + "6666666666666768686868686868686868686868686868686969696a6a6a6a6a6a6a6a6a6a6a6a6a6a6a6b6b6b6b6h6b"
+            + "6b6c6c6c6c6c6d6d6d6e6f6f6f6f6f6l6h6h6i6j6l6l6l6l6l6l6l6l6l6l6l6m6m6m6m6m6m6m6n6n6o6o6p6p6p6p6p6p"
+            + "6p6q6r6r6r6r6r6r6s6s6s6s6t6t6t6t6v6v6v73707171727272722d7575757575757576767676767677777777777778"
+            + "7878787878787879797979797a7a0a7a7a7a7a7b7b7b7b7b7b7b7b7b7c7c7d7d7d7d7d7d7d7d7d7d7d7d7d7d7e7e7e7e"
+            + "7e7e7e7e7e7e7e7e7e7e7e7e7e7f7f7f7f7g7g7g7g7h7h7i7i7i7i7i7j7j7j7j7j7j7j7j7j7k7k7k7k7k7k7k7k7l7m7m"
+            + "7m7m7m7m7m7m7k7m7m7m7m7m7m7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n7n"
+            + "7n7o7o7o7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7p7q7q7q7q7q7q7q7q7r7r7r7r7r7r7r7r7r7r7r7r7r7r"
+            + "7r7s7s7s7s7s7t7t7t7t7t7t7t7t7t7t7t7u7u7u7u7u7u7u7u7u7u7u7u7u7v7v80808080808080808181818181818181"
+            + "818181818182828282828282828282828339838383838383848485858585868686868687878788888989898989898989"
+            + "89898a8a8b8c8c8c8c8c8c8c8c8c8c8d8d8d8e8e8e8e8e8e8e8e8e8e8f8f8g8g8g8h8h8i8i8j8j8j8k8k8k8k8l8l8l8l"
+            + "8m8m8m8n8n8n8n8o8o8o8p8q8r8r8r0u8r8r8r8r8r8s8s8t8t8t8t8t8t8t8t8t8t8t8t8t8t8t8t8u8u8u8u8u8u8u8u8v"
+            + "8v8v8v8v8v8v8v8v8v8v9090909090909090909090909292929292929292929292929292929293939393939393939393"
+            + "939494949494949494949494949294949494949494949494949494949494949494949494949494949494949494949494"
+            + "959595959595959595959696969696969696969696969696969696969696969696969696969696969696969797989898"
+            + "9899999a9a9a919b9b9b9c9c9c9c9d9d9d9d9e9e9e9e9e9e9e9e9e9e9e9e9e9e9e9e9f9f9f9f9f9f9f9f9g9g9g9g9h9h"
+            + "9h9h9h9h9h9h9h9h9h9h9i9i9i9j9j9j9j9j9j9j9j9j9j9j9k9k9k9l9l9l9l9l9l9l9l9m9m9m9m9m9m9m9m9m9n9n9n9n"
+            + "9n9n9n9n9n9o9o9o9o9o9o9o9o9o9o9o9o9o9o9o9o9o9o9p9p9p9p9p9p9p9p9p9p9p9p9p9q9q9q9q9q9q9q9q9q9q9q9r"
+            + "9s9s9s9s9t9t9t9t9t9t9t9t9t9t9t9t9t9t9t9u9u9u9u9u9u9u9u9v9v9v9v9va0a0a0a1a1a1a1a1a1a1a1a1a1a2a2a2"
+            + "a2a2a2a2a2a2a2a2a2a2a3a3a3a3a4a4a4a4a4a4a4a4a4a4a4a5a5a6a6a6a6a7a6a7a7a7a8a8a8a8a8a8a8a8a8a8a8a9"
+            + "a9a9a9a9a9a9aaaaabababababababababababababababababacacacacacacacacacacadadadadadadadadadadadadad"
+            + "adadadadadadadadbbadadadadadadadadadadadaeaeaeaeaeaeaeaeaeaeafafafagagagagagagagagagahahahahahah"
+            + "ahahahahahahahahahahahahahahahahahahahahahahahaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiaiai"
+            + "aiaiaiaiakaiaiaiaiaiajajajajajajajajajaj8raj3hakakakakakakakakakakakakakakakakakakakakakakakakak"
+            + "akalalalalalalalalalalalalalalalalalalalalamamamauamamamamamamamamamamamamamamananananananananan"
+            + "ananananananananananananaoaoaoaoaoaoaoaoaoaoapapapapapapapapapapapapapapapaqaqaqaqaqaqaqarararar"
+            + "arararararasasasasasasasasasasasasas19asasasasasatatatatatatatatatatauauauauauauavavavavavavavav"
+            + "avavavavavavb0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b0b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1b1"
+            + "b1b1b1b1b1b1b1b2b2b2b2b2b2b2b2b2b2b2b2b2b2b2b2b2b3b3b3b3b3b3b3b3b3b3b3b3b3b3b3b4b4b4b4b4b4b4b4b4"
+            + "b4b4b4b4b4b4b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5b5"
+            + "b5b5b5b5b5b5b5b5b5b5b5b6b6b6b6b6b6b6b6b6b6b6b6b6b6b6b6b7b7b7b7b7b7b7b7b7b7b7b7b7b7b7b7b7b7b8b9b9"
+            + "b9b9b9b9b9b9b9b9b9b9b9b9b9bababababababababababababababababababababbbbbbbbbbbbbbbbbbbbbbbbbbbbbb"
+            + "bbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbbcbcbcbcbcbcbcbcbcbcbcbcbcbcbcbcbcbc"
+            + "bcbcbdbdbdbdb3bdbdbdbdbdbebebebebebebebebebebebebfbfbfbgbgbgbgbgbgbgbhbhbhbhbibibibjbjbjbjbjbjbj"
+            + "bjbjbjbjbjbjbjbkbkbkbkblbmbnbn0tbnbobobobob0bobobobobobfbobobobpbpbpbpbpbpbqbqbqbqbqbqbqbqbqbqbq"
+            + "bqbqbqbqbqbqbrbrbrbrbrbrbrbrbrbrbrbrbrbrbrbsbsbsbsbsbsbsbsbsbsbtbtbtbtbtbtbtbtbtbtbububububububu"
+            + "bubububububububububvbvbvbvbvbvbvbvbvbvbvbubvbvbvc0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0"
+            + "c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c0c1c1c1c1c1c1c1c1c1c1c1c2c2c2c2c2c2c2c2c2c2c2c2c2c2c3c3c3c3"
+            + "c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c3c4c4c5c6c6c6c6c6c6c7c7c7c7c7c7c7c8c8c8c8c8c8c9c9caca"
+            + "cacacacacacabtcacacbcbcbcbcbcbcbcbcbcbcbcbcbcbcbcccccccccccccccdcdcdcdcececececececececfcfcgcgcg"
+            + "cgchchcicicicicicicici0000000000193vah2r6m8j7e3015576f2d96bb7h0ea8b3b3c01vaob64sbb2u9qc33v6c643v"
+            + "7n610b8o34bk901nb14b9eb4b12j7k394s0fbk35ba1sb5ae464n394e4v3vb1ab4p7g4b7r3ub547ac8924br548j2v6a89"
+            + "bb7eb0a9ah110p4gc36r4dbab533a2a86l403v6cba4o4fc3b59v0v436t6918b1578057bb7jb99e2m7p8i77ca965lag0e"
+            + "9t374l492lb1an44adcc5g9p0i7216ai46414348a2at1qa2a7907pcebd1k1vaiav3l3b104s0a7m3l2p2p9h9ea3b10k3a"
+            + "5san5i7l0jb75l550j3n5bak9f61c166b1443l8t75496g343h1vbs81b54r5535443s923382bv3tas7r2u4r2ecdcaadbb"
+            + "92109j1441aub42dbbat031vcb7f681r9h9461bt41417r4bb1bq1444452pah7p460821ci7kap2rc06pcd1d7ead3radai"
+            + "3e7v4r5rah2j0j7e0bb41v9n40c0c34p7savbe57b72uai2p7e9ob14ab1b6br7k8tcd5d2m193q5p818v3h2v60asan9gan"
+            + "4bb6811r119e0f0c800c2d2h963vb93hadah2vbu4r7eb5577n082s5f215h1316a86l6a05b023a24e8t8u6f2rb615943b"
+            + "av5b3qc003b57e6m7da48n1p4n23b6563m2vbc5qb95916ao7eb50q436c287p3vabaq7nal2pb1be2k3v572d490ec08gak"
+            + "111h7tah7p7n8t0fc34mb5682s7h5f066a49857u162p5d6ob65sb77v659v7p9t870ecb49a23sc3a17r2p89ap823sav66"
+            + "3v4317425lb77p30455p9k3lc24f0e94agba2d5uba57a4ak2p9jba1vao3752b71e463vai9f456c7n069611a0bb3q0b2p"
+            + "a41q1lb1ce1r41bbb7343e7o2m92alad104e7n4sai2d0a76a15g77at40bu948e682f0baf3g3v5709419d52b7bb9h6027"
+            + "ai581j5c814mas5a3sav4b8gcg3v602i7n3lan3ladb5af9g0e3g9n8eavak2u573u813k2i6p6132b54r581ob5aic77aac"
+            + "5a2q2s955va5142p78054443bhb55m4c9ub4026b3v3607497l5b7p3790bob07tbb03at0j4sbc962f1a419dbq728m5lb7"
+            + "c03ebtan5hch1k2s3q7eapca3ucf6eb59r1p940l163v4m9q54bo01b32p5nb51p572d0e0b3b7tb6bf4daj355d266r2c6f"
+            + "ba9e4r3v923s1o5bb5am0e1g383sarb5774p2c3v6461bo6t30695o165331ahbo9lbjaici3v2mbk88635cc6c29q3n1l8r"
+            + "b81q0k245257971f231o6d574s44b94s489gb616445g4nag3s7t059h284i6p3h149l2v016k3g2002029l3da2167b550q"
+            + "7g7nb70d9g1v617d4b5a7mci43747t5h151u3g45aub58k7e8e0m3u6ead416d5k3n5dbabb7ubbbcadc07b9p18bk3badag"
+            + "5qbr2p2i3v7n7p7n81b0ak050s51063n4i2640ar1p335s65b5a243avbv53509fb134b33b4l4b8cb3adbgadbb1n5gcb5u"
+            + "939f3vbr5c1u0ib52116791javb23m50ai113rb3c043818t828003385o6sbeaj7a2k8c4p959k0e4a57bbakb69ib53b5l"
+            + "6l901j613n0uadad5u6fbr464b5aanav3q1b3u9kb6c094apa7ai89bb16b5al0kbb3t0u9g68ar458lc66e7eah397aaral"
+            + "a803bb0e31057t10an5cb7ao1s1m10ahc07517ah4e111cc10f6s3n197d1ob2ci6l2p12b5b5a2b10r4eav4ibe0b9f7p4s"
+            + "4tb59t827sap2k11ac183n1lbe4s2d56c87r0e9h7pb9467r17195c609u3s99b1ad3l654g9m5m4t4852bb11aiae3tb181"
+            + "833h9u834f7q787q9b7n9e0u2mbc6a622b61340fae3fad542s965f5hb29e2c5d5s5lat78a83l65463qad5b40bub63sc3"
+            + "3vas3s9qav425e3nav8e9hah50adca4a0s09ai5u3qc37nai9f28ca7e622s2k1h92375h99anb662809g3ras7c41atag5u"
+            + "b1bu4i905rb77m578e9m3t0ear2p9p79663rb7am510q3n5l3q58c3b55hat2s969e8t8va210509j571q10588e7m0e3gca"
+            + "3eanb7bd2l3g0662391r61ba146r7p7pah5a7p3q41411fb0ah47bkb52g40461p3m790l5780am9t844sad3q5h1b3r80aj"
+            + "05339m5eak5c49an639j4v3v3sa5c04hc03v2d10ai4910466v612p0ebb139d2kb1ahbb0e45cb396sbb9e1oc28t7sb087"
+            + "965i437i0u577ja9ak9l1vad2d460g44110e106v05bca1ah33687e027i1657b17q7g1155brai8t0e6o5o9a2q2q2p6vcb"
+            + "444b0abi9e2pcdb56v9nam3o7f577n4ic80oc0ah055e8t7g1hbq3val61bbc23hab4rbe7e962san2pc22p191p4n3f4231"
+            + "am9t5d7n2k8u3a2c955e82abcb4ial9t633s9e0f33c86545bu8e2u57b5410i7g5q55698nan5abn427p7r3qcfb33v1bbg"
+            + "b9243vad0i654b4i5f211p7k65402g32asb03kb35lai3t587nb77n3n4tb11hab14495sbbbcaj6f029p453rb71l1hatbr"
+            + "7m0o815h0ebhaeadbe9qah8v7n0u5o577e63b38g411915ccam2j76c36cc0bt5f487j5hajambac0a8c05d331v57a8154h"
+            + "53b087c0bu387na135483o3k39445i4a03as2i342p4bcb9l5d192l287pbs5l1d593b411v491i926dbo58513v7i498029"
+            + "1d145m0u49at5ub7bu2k9m9kan2u1l2u9d0i8cc3an457q7n199pc33n2sbd7ua84b7r7t5hchai49bc55b15c0k0uba0568"
+            + "1j8u9ube587g1q3v0ib5892d344i5hc0b5bu3n57b394c0825hbt6mac1fcb1i5h5cad417q403v3v4f1u2r41bi755d0l0d"
+            + "bn7e7k2q4v2s3g9o2ubkaobe393hbh5sbb116l7n93b412b13s0l3e39at4s0266a7avb3ai6e0e944rb5c0cb2r45bu5080"
+            + "3v1q2p103vai1vbb33458141427i5s34ah343v49417f4h7s9l072v0k5s6a1l418l96115h7m817h1sak1b26b0b64ibe7k"
+            + "16432823babc3bbdag8c3r468f9n32c96bb37p5f264d5h4092c2ci35bu81c0463826b14p8j3d7fbu61a75l1n7aab6o46"
+            + "012kbbcc24411i6d62a92d9615b72v5m0i9sc01a34608n8t585cbbaib58rao900g8j499g0g0g9633343n2k3v51ah7b5s"
+            + "bq466l5eb5b2ad2b7q943nc3at9nb4b2ah3e5vcab13nbbad290aat0fa65e5q8ubeb5bb2i9jak4b1k0g1sasai573n473n"
+            + "2k949eakc0813n2pci61c01gbu9v7n8taicaai869r9o2a403s736ib2cb837p656l7n2a5s5v2tbbbb9mau633v2s1r3o13"
+            + "2bb0ca0f2m2h02575fboa21v4va82pap5raj7rbp266f5lag7n2a0b2414c2441vat0fbt3a8m7u812b1u420m600k4fc02p"
+            + "2pas624m2b631q93bcb59jcb166950411v9lb06l9j7e8g9g4s5s4i667g154f5c34240e829u2ibu90aba52p2t3457b17e"
+            + "51573vbn3h374a452qb57kbs5aa41b8t5v0v730l9n49087p2j4ga33u06bbbv344i7k0l0kbd6a9o219d94ata80e6l7e2c"
+            + "4h532gba15406fb41r22b64ec3a1253o823c8rb3bv8o179p038e53509r4kbn572u2d1n5j5e4e41527t49017u720c1t4i"
+            + "4t343u7b4a9ocb7s4e9e2d0u9g3q025g7q2k5u682v4a6b5eb5400i0g9p5q5lb9ceat1v104b7m5h2b517m1k7q1u3ucab5"
+            + "0u0gc1921nc00ecb68965m3v2p524i89bu3v8o6m2p8639433gai7k233nb948bc0abu34265h81169e2gc035ar5i0k573n"
+            + "bbak9tah63030b1e3n2d1g5uahb341b7bt5e5a4348bb3n5h371c2444578t57ba2s4i1qbo7ac3at40b0b5c053ah1nak8r"
+            + "c32k34adbbbb1q4vb53m0v5g408n1668083v3r0g5lb7bp5fb6180850b5217e2181b59fai7vc90fb39v274ibbb649bbb5"
+            + "0u6b89455u781r402v4j581558410g199t0e492c1o0b0a5m0f5116bt7q8e787eas4c1m4555cb129e3u539p755g426u68"
+            + "23241q5d6r3b4s059o3e7n3f443hb74i3e2dc66p5q8m3g8e7i3n7p803v0v3s2v602p7e8gak3g443227b6163e343h57ba"
+            + "85bo805d15ba7v406fc09e81a14u7n43b26992bt8vah57192p7q7u7naibb2k3b3bb57e9v82ab52601e8c6d2p4s4i2p9g"
+            + "bbba5gba0f5s7t055q5r5obcai169p79943r0q7g9paialc1br985s7d3s788t3u601058645728812ob77uaj94c3bb3v28"
+            + "3v41bscb3n7v7k1o93bk33579e9v400f164m0eakb182bvbe942t768vam7ubk7sc38i7pa80e1q4lbcambu4s3r3m332k57"
+            + "0e169h64275h293921bh1u0k50c2bbbb17ai6p731b8tb50ec1082j2v5hc3bkai8vad60950q17607t6o40808r0e1v7q9l"
+            + "449paiak6106579vaicb0o5ccc8l3mbh1gas8d8042303vb55daic32k417f3hb561c07n7nc21s2p8148495bcbbh6dbt42"
+            + "16242sc2b534cia8ak66c0b19415a4554t7b3n9tas3d9p530l43ai4957av941n2b7vau1j0h0a9m412p7qc02p8t57a840"
+            + "0k9n4s7r0eakak3v43593v1f3p16c0210kc041231ac1492c1n7f8d6p78ai194b7m2i1jc35c105bcfanc02268ar687e3n"
+            + "4b8u34cg329hc0cb7u46bb57aea13v7b2k8rb602ak5p14490a9vcbb6bb1fag65bca8c89k4a495l49187v5iahbh69055e"
+            + "0baoba2j067j6m5h9h2p3m9n3944ad2g3v43alav31575841949v3a8r3q3v7u5dcd2k4t11346l6m2294cb2l232d802p3r"
+            + "0f8n057n9m37b3540gau5q65b9398tch571ob21o7r5q41498d330b44a34n341v3m2v4i0e5g7o4q0i285u06b159amac16"
+            + "alb1a09qb90g4t5s859v3vcbar82480i3q5b683s613v4cc3617n05905c1p19baajb58128577u0o032lbaahb1aib13ebo";
+
+    private PinyinTable() {
+    }
+}
@@ -0,0 +1,70 @@
+package com.juggleim.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 边输入边搜索的会话
+ * 每次查询更新生成新的代数，旧代数的搜索在下一个检查点放弃。
+ * 新查询以上一次查询为前缀且上一次结果完整时，可在上一次结果中继续筛选而不重新搜索。
+ */
+public class SearchSession<T> {
+    private final AtomicLong generation = new AtomicLong();
+
+    private String lastQuery;
+    private List<T> lastResults;
+    private boolean lastComplete;
+
+    /**
+     * 开始新的查询，返回其代数
+     */
+    public long update() {
+        return generation.incrementAndGet();
+    }
+
+    public boolean isCurrent(long gen) {
+        return generation.get() == gen;
+    }
+
+    /**
+     * 新查询可复用的上一次结果，不可复用时返回 null
+     */
+    public synchronized List<T> candidates(String query) {
+        if (lastQuery == null || !lastComplete || lastResults == null) {
+            return null;
+        }
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || !normalized.startsWith(lastQuery)) {
+            return null;
+        }
+        return new ArrayList<>(lastResults);
+    }
+
+    /**
+     * 记录当前代数的结果，代数已过期时忽略
+     *
+     * @param complete 结果是否包含全部匹配项（未被条数上限截断）
+     */
+    public synchronized boolean commit(long gen, String query, List<T> results, boolean complete) {
+        if (!isCurrent(gen)) {
+            return false;
+        }
+        lastQuery = normalize(query);
+        lastResults = new ArrayList<>(results);
+        lastComplete = complete;
+        return true;
+    }
+
+    public synchronized void reset() {
+        generation.incrementAndGet();
+        lastQuery = null;
+        lastResults = null;
+        lastComplete = false;
+    }
+
+    public static String normalize(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,257 @@
+package com.juggleim.media;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 用本地 HTTP 服务模拟分片上传服务端，验证断点续传、已收分片查询和最终合并
+ */
+public class ChunkedUploaderTest {
+
+    private static final int CHUNK_SIZE = 4;
+    private static final byte[] DATA = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    private StandInServer server;
+    private ChunkedUploader uploader;
+    private File source;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new StandInServer();
+        source = temp.newFile("source.bin");
+        try (FileOutputStream out = new FileOutputStream(source)) {
+            out.write(DATA);
+        }
+        MediaStager stager = new MediaStager(null, temp.newFolder("staging"));
+        uploader = new ChunkedUploader(temp.newFolder("uploads"), stager);
+        ChunkedUploader.Config config = new ChunkedUploader.Config();
+        config.endpoint = server.endpoint();
+        config.chunkSize = CHUNK_SIZE;
+        uploader.setConfig(config);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void uploadsAllChunksAndCommits() throws IOException {
+        ChunkedUploader.State state = uploader.prepare(source.getPath(), "m1", "p1", 0, false, 0);
+        List<Long> progress = new ArrayList<>();
+
+        String url = uploader.upload(state, (uploaded, total) -> progress.add(uploaded));
+
+        assertEquals(server.urlOf(state.contentKey), url);
+        assertEquals(Arrays.asList("bytes 0-3/10", "bytes 4-7/10", "bytes 8-9/10"), server.ranges);
+        assertArrayEquals(DATA, server.committed.get(state.contentKey));
+        assertEquals(Arrays.asList(0L, 4L, 8L, 10L), progress);
+        // 消息发出前保留状态，由调用方删除
+        assertEquals(state.uploadId, single(uploader.loadPending()).uploadId);
+        uploader.remove(state.uploadId);
+        assertTrue(uploader.loadPending().isEmpty());
+    }
+
+    @Test
+    public void resumesFromChunksReportedByServer() throws IOException {
+        ChunkedUploader.State state = uploader.prepare(source.getPath(), "m1", "p1", 0, false, 0);
+        server.failChunkOnce = 2;
+        try {
+            uploader.upload(state, (uploaded, total) -> {
+            });
+            fail("chunk 2 should fail");
+        } catch (IOException expected) {
+            // 保留已完成的分片
+        }
+        ChunkedUploader.State pending = single(uploader.loadPending());
+        assertEquals(8, pending.getUploadedBytes());
+
+        // 服务端丢失了分片 1，本地记录以 GET 返回为准
+        server.chunks(state.contentKey).remove(1);
+        server.ranges.clear();
+        List<Long> progress = new ArrayList<>();
+
+        String url = uploader.upload(pending, (uploaded, total) -> progress.add(uploaded));
+
+        assertEquals(server.urlOf(state.contentKey), url);
+        assertEquals(Arrays.asList("bytes 4-7/10", "bytes 8-9/10"), server.ranges);
+        assertEquals(Arrays.asList(4L, 8L, 10L), progress);
+        assertArrayEquals(DATA, server.committed.get(state.contentKey));
+    }
+
+    @Test
+    public void ignoresChunkIndexesOutsideTheFile() throws IOException {
+        ChunkedUploader.State state = uploader.prepare(source.getPath(), "m1", "p1", 0, false, 0);
+        server.chunks(state.contentKey).put(0, Arrays.copyOfRange(DATA, 0, CHUNK_SIZE));
+        server.chunks(state.contentKey).put(-1, new byte[0]);
+        server.chunks(state.contentKey).put(7, new byte[0]);
+        server.failChunkOnce = 1;
+        try {
+            uploader.upload(state, (uploaded, total) -> {
+            });
+            fail("chunk 1 should fail");
+        } catch (IOException expected) {
+            // 只记录服务端报告的有效分片
+        }
+        assertEquals(CHUNK_SIZE, single(uploader.loadPending()).getUploadedBytes());
+    }
+
+    @Test
+    public void sameSourceForTwoMessagesKeepsSeparateState() throws IOException {
+        ChunkedUploader.State first = uploader.prepare(source.getPath(), "m1", "p1", 0, false, 0);
+        ChunkedUploader.State second = uploader.prepare(source.getPath(), "m2", "p2", 0, false, 0);
+
+        assertNotEquals(first.uploadId, second.uploadId);
+        assertEquals(first.contentKey, second.contentKey);
+        List<ChunkedUploader.State> pending = uploader.loadPending();
+        assertEquals(2, pending.size());
+        List<String> payloads = new ArrayList<>();
+        for (ChunkedUploader.State state : pending) {
+            payloads.add(state.payload);
+        }
+        Collections.sort(payloads);
+        assertEquals(Arrays.asList("p1", "p2"), payloads);
+
+        String firstUrl = uploader.upload(first, (uploaded, total) -> {
+        });
+        String secondUrl = uploader.upload(second, (uploaded, total) -> {
+        });
+
+        assertEquals(firstUrl, secondUrl);
+        assertEquals(3, server.ranges.size());
+        uploader.remove(first.uploadId);
+        uploader.remove(second.uploadId);
+        assertTrue(uploader.loadPending().isEmpty());
+    }
+
+    private static ChunkedUploader.State single(List<ChunkedUploader.State> states) {
+        assertEquals(1, states.size());
+        return states.get(0);
+    }
+
+    /**
+     * 按 ChunkedUploader 协议保存分片的最小服务端
+     */
+    private static class StandInServer {
+        private static final String PREFIX = "/upload/";
+
+        final Map<String, Map<Integer, byte[]>> sessions = new ConcurrentHashMap<>();
+        final Map<String, byte[]> committed = new ConcurrentHashMap<>();
+        final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+        volatile int failChunkOnce = -1;
+        private final HttpServer http;
+
+        StandInServer() throws IOException {
+            http = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            http.createContext(PREFIX, this::handle);
+            http.start();
+        }
+
+        String endpoint() {
+            return "http://127.0.0.1:" + http.getAddress().getPort() + "/upload";
+        }
+
+        String urlOf(String contentKey) {
+            return "https://files.example/" + contentKey;
+        }
+
+        Map<Integer, byte[]> chunks(String contentKey) {
+            return sessions.computeIfAbsent(contentKey, key -> new TreeMap<>());
+        }
+
+        void stop() {
+            http.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String[] parts = exchange.getRequestURI().getPath().substring(PREFIX.length()).split("/");
+            String method = exchange.getRequestMethod();
+            byte[] body = readAll(exchange.getRequestBody());
+            String contentKey = parts[0];
+            if ("GET".equals(method) && parts.length == 1) {
+                Map<Integer, byte[]> session = sessions.get(contentKey);
+                if (session == null) {
+                    respond(exchange, 404, "");
+                    return;
+                }
+                StringBuilder json = new StringBuilder("{\"chunks\":[");
+                for (Integer index : session.keySet()) {
+                    json.append(json.charAt(json.length() - 1) == '[' ? "" : ",").append(index);
+                }
+                respond(exchange, 200, json.append("]}").toString());
+            } else if ("PUT".equals(method) && parts.length == 2) {
+                int index = Integer.parseInt(parts[1]);
+                if (failChunkOnce == index) {
+                    failChunkOnce = -1;
+                    respond(exchange, 500, "");
+                    return;
+                }
+                ranges.add(exchange.getRequestHeaders().getFirst("Content-Range"));
+                chunks(contentKey).put(index, body);
+                respond(exchange, 200, "");
+            } else if ("POST".equals(method) && parts.length == 2 && "complete".equals(parts[1])) {
+                ByteArrayOutputStream merged = new ByteArrayOutputStream();
+                for (byte[] chunk : chunks(contentKey).values()) {
+                    merged.write(chunk);
+                }
+                committed.put(contentKey, merged.toByteArray());
+                sessions.remove(contentKey);
+                respond(exchange, 200, "{\"url\":\"" + urlOf(contentKey) + "\"}");
+            } else {
+                respond(exchange, 400, "");
+            }
+        }
+
+        private static byte[] readAll(InputStream in) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        }
+
+        private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(code, bytes.length > 0 ? bytes.length : -1);
+            if (bytes.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+            exchange.close();
+        }
+    }
+}
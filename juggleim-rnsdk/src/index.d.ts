@@ -21,6 +21,8 @@ import {
   SendMessageCallback,
   SaveMessageObject,
   SearchMessageOptions,
+  SearchHighlightOptions,
+  SearchHighlight,
   SearchConversationsOptions,
   SearchConversationsResult,
   Message,
@@ -36,6 +38,48 @@ import {
   GroupMember,
   UserInfo,
   MessageFlag,
+  InfoFetchMetrics,
+  InfoCacheMetrics,
+  CachedGroupMemberPage,
+  ConversationIndexMetrics,
+  ConversationListPatch,
+  ConversationListPatchListener,
+  MessageCacheMetrics,
+  MessagePage,
+  MessageCursorOptions,
+  MediaStagingOptions,
+  MediaStagingCleanResult,
+  MediaStagingMetrics,
+  ImageProcessingOptions,
+  ProcessedImage,
+  MediaBatchCallback,
+  ChunkedUploadOptions,
+  ChunkedUploadInfo,
+  ChunkedUploadCallback,
+  ChunkedUploadMetrics,
+  MediaDownloadOptions,
+  MediaDownloadWindowOptions,
+  MediaDownloadListener,
+  MediaDownloadMetrics,
+  UploadImagesOptions,
+  ImageUploadResult,
+  SearchSessionOptions,
+  SearchSessionCallback,
+  SearchSessionHandle,
+  NameIndexEntry,
+  SearchNamesOptions,
+  NameMatch,
+  NameIndexMetrics,
+  MentionCandidate,
+  BroadcastSendResult,
+  BroadcastSendOptions,
+  ReadReceiptsFlushedEvent,
+  ReadReceiptMetrics,
+  BulkConversationResult,
+  MessageImportOptions,
+  MessageImportResult,
+  MessageExportOptions,
+  MessageExportResult,
 } from './types';
 
 /**
@@ -167,6 +211,41 @@ export default class JuggleIM {
     options: GetConversationOptions
   ): Promise<ConversationInfo[]>;
 
+  /**
+   * 添加会话列表增量补丁监听（仅 Android）
+   * 原生层按展示顺序（置顶会话按 topTime 倒序在前，其余按 sortTime 倒序）维护会话列表，
+   * 会话变化时只推送最小变更（插入/移动/更新/删除），JS 无需重新排序
+   * @param listener 监听器
+   * @returns 返回取消监听的函数
+   * @example
+   * ```typescript
+   * const remove = JuggleIM.addConversationListPatchListener({
+   *   onSnapshot: (conversations) => setList(conversations),
+   *   onPatches: (patches) => setList(list => JuggleIM.applyConversationListPatches(list, patches)),
+   * });
+   * ```
+   */
+  static addConversationListPatchListener(listener: ConversationListPatchListener): () => void;
+
+  /**
+   * 将会话列表补丁应用到列表上
+   * @param list 当前会话列表
+   * @param patches 补丁列表
+   * @returns 应用补丁后的新列表
+   */
+  static applyConversationListPatches(
+    list: ConversationInfo[],
+    patches: ConversationListPatch[]
+  ): ConversationInfo[];
+
+  /**
+   * 获取内存会话索引统计（仅 Android，iOS 返回 null）
+   * 索引加载完成后，getConversationInfoList/getTopConversationInfoList 直接由内存响应：
+   * 置顶会话在前，各自按 sortTime 倒序；同一时间的会话不会被页边界拆开，一页可能略多于 count
+   * @returns {Promise<ConversationIndexMetrics | null>} 统计信息
+   */
+  static getConversationIndexMetrics(): Promise<ConversationIndexMetrics | null>;
+
   /**
    * 获取单个会话信息
    * @param {Conversation} conversation 会话对象
@@ -176,6 +255,19 @@ export default class JuggleIM {
     conversation: Conversation
   ): Promise<ConversationInfo | null>;
 
+  /**
+   * 批量获取会话信息
+   * 结果与 conversations 顺序一致，不存在的会话为 null；name、avatar 通过一次批量查询用户/群组信息补全
+   * @param conversations 会话列表
+   * @param options fields 需要返回的字段（仅 Android），conversation 始终返回，为空时返回全部字段；
+   * name、avatar、extra 只在请求时查询用户/群组信息补全
+   * @returns {Promise<Array<ConversationInfo | null>>} 会话信息列表
+   */
+  static getConversationInfos(
+    conversations: Conversation[],
+    options?: { fields?: Array<keyof ConversationInfo> }
+  ): Promise<Array<ConversationInfo | null>>;
+
   /**
    * 创建会话信息
    * @param conversation 会话对象
@@ -221,6 +313,29 @@ export default class JuggleIM {
    */
   static clearUnreadCount(conversation: Conversation): Promise<Boolean>;
 
+  /**
+   * 批量清除会话未读数
+   * Android 上作为一次原生操作执行，结束后只推送一次 ConversationInfoUpdated，包含操作失败的会话的最新状态；
+   * 期间已被删除的会话推送 ConversationInfoDeleted。30 秒内 SDK 未回调的会话按失败（errorCode -1）返回
+   * @param conversations 会话列表
+   */
+  static clearUnreadCounts(conversations: Conversation[]): Promise<BulkConversationResult>;
+
+  /**
+   * 批量设置会话免打扰
+   */
+  static setMuteForConversations(conversations: Conversation[], isMute: boolean): Promise<BulkConversationResult>;
+
+  /**
+   * 批量设置会话置顶
+   */
+  static setTopForConversations(conversations: Conversation[], isTop: boolean): Promise<BulkConversationResult>;
+
+  /**
+   * 批量删除会话，Android 上结束后只推送一次 ConversationInfoDeleted；删除失败的会话通过 ConversationInfoUpdated 推送最新状态
+   */
+  static deleteConversationInfos(conversations: Conversation[]): Promise<BulkConversationResult>;
+
   /**
    * 清除总未读数
    * @param callback 回调函数
@@ -307,6 +422,48 @@ export default class JuggleIM {
    */
   static uploadImage(localPath: string): Promise<string>;
 
+  /**
+   * 批量上传图片，同时上传的数量受 parallelism 限制
+   * @param localPaths 图片本地路径
+   * @param options 并发数与进度回调
+   * @returns {Promise<ImageUploadResult[]>} 与 localPaths 顺序一致的结果
+   */
+  static uploadImages(localPaths: string[], options?: UploadImagesOptions): Promise<ImageUploadResult[]>;
+
+  /**
+   * 设置媒体暂存区预算（仅 Android）
+   * content:// 媒体发送前会复制到暂存区，超出预算或保留时间的文件在发送完成后被后台清理，发送中的文件不会被删除
+   * @param options 预算选项
+   */
+  static configureMediaStaging(options: MediaStagingOptions): void;
+
+  /**
+   * 立即清理媒体暂存区（仅 Android，iOS 返回 null）
+   * @returns {Promise<MediaStagingCleanResult | null>} 删除的文件数与回收的字节数
+   */
+  static cleanMediaStaging(): Promise<MediaStagingCleanResult | null>;
+
+  /**
+   * 获取媒体暂存区统计（仅 Android，iOS 返回 null）
+   * @returns {Promise<MediaStagingMetrics | null>} 统计信息
+   */
+  static getMediaStagingMetrics(): Promise<MediaStagingMetrics | null>;
+
+  /**
+   * 设置图片发送前处理参数（仅 Android）
+   * sendImageMessage 在原生层读取尺寸、降采样压缩到字节预算内并生成缩略图，JS 无需解码图片
+   * @param options 处理参数
+   */
+  static configureImageProcessing(options: ImageProcessingOptions): void;
+
+  /**
+   * 处理本地图片，可用于发送前预览，结果会被后续发送复用（仅 Android，iOS 返回 null）
+   * @param localPath 图片路径，支持 content:// 与 file://
+   * @param original 是否保留原图，只补齐尺寸和缩略图
+   * @returns {Promise<ProcessedImage | null>} 处理结果
+   */
+  static processImage(localPath: string, original?: boolean): Promise<ProcessedImage | null>;
+
   /**
    * 发送消息
    * @param {SendMessageObject} message  发送消息对象
@@ -318,6 +475,20 @@ export default class JuggleIM {
     callback?: SendMessageCallback
   ): Promise<Message>;
 
+  /**
+   * 将同一内容发送到多个会话，同时等待回执的发送数受 parallelism 限制
+   * Android 上内容只解析一次，进度只带发送结果而不带完整消息
+   * @param message content、pushData，同 sendMessage，不含会话
+   * @param conversations 目标会话列表
+   * @param options 并发数与进度回调
+   * @returns {Promise<BroadcastSendResult[]>} 与 conversations 顺序一致的结果
+   */
+  static sendMessageToConversations(
+    message: Omit<SendMessageObject, 'conversationType' | 'conversationId' | 'mentionInfo'>,
+    conversations: Conversation[],
+    options?: BroadcastSendOptions
+  ): Promise<BroadcastSendResult[]>;
+
   /**
    * 保存消息到本地数据库
    * 场景：在客户端本地插入一条消息，消息不需要发送出去
@@ -344,6 +515,23 @@ export default class JuggleIM {
     message: SaveMessageObject
   ): Promise<Message>;
 
+  /**
+   * 从 NDJSON 文件批量导入本地消息（仅 Android）
+   * 每行为一条 SaveMessageObject 的 JSON，结果只包含计数和失败的行号
+   * SDK 只能以当前用户发送、当前时间保存消息，不能用于迁移聊天记录：有带 timestamp、senderUserId 或 direction 为 2 的行时，
+   * 保存前直接以该行的错误拒绝，不写入任何消息。每行单独保存，没有事务，中断后已保存的行保留
+   * @param path 本地文件路径
+   * @param options 批次大小、跳过行数与进度回调
+   * @returns {Promise<MessageImportResult | null>} 非 Android 平台返回 null
+   */
+  static importMessages(path: string, options?: MessageImportOptions): Promise<MessageImportResult | null>;
+
+  /**
+   * 取消消息导入，当前批次保存完成后停止（仅 Android）
+   * @returns {Promise<boolean>} 是否找到正在进行的导入
+   */
+  static cancelMessageImport(importId: string): Promise<boolean>;
+
 
   /**
    * 发送合并消息
@@ -432,6 +620,54 @@ export default class JuggleIM {
     options: GetMessageOptions
   ): Promise<MessageResponse>;
 
+  /**
+   * 打开历史消息游标，从 startTime 向更早方向逐页读取
+   * Android 在每页交付后于后台预取并转换下一页，iOS 按需逐页拉取
+   * @param {Conversation} conversation 会话
+   * @param {MessageCursorOptions} options 游标选项
+   * @returns {Promise<string>} 游标ID
+   */
+  static openMessageCursor(
+    conversation: Conversation,
+    options?: MessageCursorOptions
+  ): Promise<string>;
+
+  /**
+   * 读取游标的下一页历史消息，游标关闭后 reject
+   * @param cursorId 游标ID
+   * @returns {Promise<MessagePage>} 消息页
+   */
+  static nextMessagePage(cursorId: string): Promise<MessagePage>;
+
+  /**
+   * 关闭历史消息游标并取消未完成的预取，离开会话时调用
+   * @param cursorId 游标ID
+   * @returns {Promise<boolean>} 游标是否存在
+   */
+  static closeMessageCursor(cursorId: string): Promise<boolean>;
+
+  /**
+   * 导出会话历史消息到文件（仅 Android）
+   * 原生逐页读取并写入文件，内存占用与消息总数无关；JS 只收到文件路径和统计
+   * @param path 输出文件路径，已存在时覆盖
+   * @param options 导出的会话、格式与进度回调
+   * @returns {Promise<MessageExportResult | null>} 非 Android 平台返回 null
+   */
+  static exportMessages(path: string, options?: MessageExportOptions): Promise<MessageExportResult | null>;
+
+  /**
+   * 取消历史消息导出，已写入的部分文件会被删除（仅 Android）
+   * @returns {Promise<boolean>} 是否找到正在进行的导出
+   */
+  static cancelMessageExport(exportId: string): Promise<boolean>;
+
+  /**
+   * 获取最近消息缓存统计（仅 Android，iOS 返回 null）
+   * 首页（startTime 为 0、向前拉取且指定 count）在缓存足够时直接由内存响应
+   * @returns {Promise<MessageCacheMetrics | null>} 统计信息
+   */
+  static getMessageCacheMetrics(): Promise<MessageCacheMetrics | null>;
+
   /**
    * 撤回消息
    * @param messageId 消息ID列表
@@ -483,6 +719,36 @@ export default class JuggleIM {
     messageIds: string[],
   ): Promise<Boolean>;
 
+  /**
+   * 上报会话中当前可见的消息
+   * Android 上未发送过回执的 ID 按会话合并后批量发送，应用进入后台时立即发送；其它平台直接发送回执
+   * @param conversation 会话对象
+   * @param messageIds 可见的他人发送的消息ID
+   */
+  static reportVisibleMessages(conversation: Conversation, messageIds: string[]): void;
+
+  /**
+   * 立即发送全部待发送的已读回执（仅 Android）
+   */
+  static flushReadReceipts(): void;
+
+  /**
+   * 设置已读回执合并参数（仅 Android）
+   * @param options debounceMs 合并间隔，默认 1000；maxBatch 每个请求的最大条数，默认 50
+   */
+  static configureReadReceipts(options: { debounceMs?: number; maxBatch?: number }): void;
+
+  /**
+   * 监听合并发送的已读回执结果（仅 Android）
+   * @returns 移除监听的函数
+   */
+  static addReadReceiptFlushListener(callback: (event: ReadReceiptsFlushedEvent) => void): () => void;
+
+  /**
+   * 获取已读回执合并统计（仅 Android，iOS 返回 null）
+   */
+  static getReadReceiptMetrics(): Promise<ReadReceiptMetrics | null>;
+
   /**
    * 获取用户信息
    * @param userId 用户ID
@@ -505,6 +771,45 @@ export default class JuggleIM {
    */
   static getGroupMember(groupId: string, userId: string): Promise<GroupMember | null>;
 
+  /**
+   * 批量获取群成员信息
+   * @param groupId 群组ID
+   * @param userIds 用户ID列表
+   * @returns {Promise<Array<GroupMember | null>>} 与 userIds 一一对应的群成员信息，不存在的为 null
+   */
+  static getGroupMembers(groupId: string, userIds: string[]): Promise<Array<GroupMember | null>>;
+
+  /**
+   * 分页查看本地缓存中的群成员（仅 Android）
+   * 只读缓存，不是完整的群成员列表：范围为通过 getGroupMember/getGroupMembers 加载过
+   * 且未过期（5 分钟）的成员，按 userId 升序；未加载过成员的群返回空列表
+   * @param groupId 群组ID
+   * @param cursor 上一页返回的 nextCursor，首页传空字符串
+   * @param count 每页数量，默认 50
+   * @returns {Promise<CachedGroupMemberPage>} 缓存中的一页群成员
+   */
+  static peekCachedGroupMembers(groupId: string, cursor?: string, count?: number): Promise<CachedGroupMemberPage>;
+
+  /**
+   * 打开群的 @ 候选索引（仅 Android）
+   * 输入框打开时调用，原生侧以群昵称和用户名建立前缀与拼音索引，空闲后自动释放
+   * @param groupId 群组ID
+   * @param userIds 群成员ID列表，为空时仅索引已缓存的成员
+   */
+  static openMentionIndex(groupId: string, userIds?: string[]): Promise<{ groupId: string; size: number } | null>;
+
+  /**
+   * 查询 @ 候选成员（仅 Android），结果可直接放入 mentionInfo.targetUsers
+   * @param query @ 之后输入的文本，为空时返回前 limit 个成员
+   * @param limit 最大条数，默认 10
+   */
+  static searchMentionCandidates(groupId: string, query?: string, limit?: number): Promise<MentionCandidate[]>;
+
+  /**
+   * 关闭群的 @ 候选索引（仅 Android），索引保留到空闲超时
+   */
+  static closeMentionIndex(groupId: string): void;
+
   /**
    * 更新消息
    * @param messageId 消息ID
@@ -556,6 +861,13 @@ export default class JuggleIM {
    */
   static fetchGroupInfo(groupId: string): Promise<GroupInfo | null>;
 
+  /**
+   * 获取用户/群组信息拉取合并统计（仅 Android，iOS 返回 null）
+   * 并发的相同 id 共享一次拉取，短时间窗口内的不同 id 合并为一批
+   * @returns {Promise<InfoFetchMetrics | null>} 统计信息
+   */
+  static getInfoFetchMetrics(): Promise<InfoFetchMetrics | null>;
+
   /**
    * 批量获取用户信息
    * @param userIdList 用户ID列表
@@ -570,6 +882,13 @@ export default class JuggleIM {
    */
   static getGroupInfoList(groupIdList: string[]): Promise<GroupInfo[]>;
 
+  /**
+   * 获取用户/群组信息缓存统计（仅 Android，iOS 返回 null）
+   * getUserInfo/getGroupInfo 及其批量接口优先读取桥接层缓存，fetch 接口返回时刷新缓存
+   * @returns {Promise<InfoCacheMetrics | null>} 统计信息
+   */
+  static getInfoCacheMetrics(): Promise<InfoCacheMetrics | null>;
+
   /**
    * 重发消息
    * @param {Message} message - 消息对象
@@ -603,6 +922,147 @@ export default class JuggleIM {
     callback?: SendMediaMessageCallback
   ): Promise<Message>;
 
+  /**
+   * 批量发送媒体消息（仅 Android，iOS 返回 null）
+   * 原生队列限制同时发送的条数（默认 3），同一会话按数组顺序开始发送
+   * @param messages 消息数组，按 content.contentType 区分图片/文件/语音/其他媒体
+   * @param callback 单条及汇总进度回调
+   * @returns {Promise<string | null>} 批次ID
+   */
+  static sendMediaMessageBatch(
+    messages: SendMessageObject[],
+    callback?: MediaBatchCallback
+  ): Promise<string | null>;
+
+  /**
+   * 暂停批次，尚未开始的消息不再开始，已开始的继续完成（仅 Android）
+   * @param batchId 批次ID
+   * @returns {Promise<boolean>} 批次是否存在
+   */
+  static pauseMediaBatch(batchId: string): Promise<boolean>;
+
+  /**
+   * 恢复批次（仅 Android）
+   * @param batchId 批次ID
+   * @returns {Promise<boolean>} 批次是否存在
+   */
+  static resumeMediaBatch(batchId: string): Promise<boolean>;
+
+  /**
+   * 取消批次中尚未开始的消息（仅 Android）
+   * 已开始的消息无法中途取消，会继续发送直到成功或失败
+   * @param batchId 批次ID
+   * @returns {Promise<boolean>} 批次是否存在
+   */
+  static cancelPendingMediaBatch(batchId: string): Promise<boolean>;
+
+  /**
+   * @deprecated 只能取消尚未开始的消息，请使用 cancelPendingMediaBatch
+   */
+  static cancelMediaBatch(batchId: string): Promise<boolean>;
+
+  /**
+   * 设置批量媒体发送的并发数，默认 3（仅 Android）
+   * @param parallelism 并发数
+   */
+  static setMediaSendParallelism(parallelism: number): void;
+
+  /**
+   * 设置分片上传服务（仅 Android）
+   * @param options 服务地址、分片大小与请求头
+   */
+  static configureChunkedUpload(options: ChunkedUploadOptions): void;
+
+  /**
+   * 分片上传文件后发送消息，断网或重启后只补传缺失分片（仅 Android，iOS 返回 null）
+   * content:// 只有在能持久化读权限时才直接上传，否则先复制到暂存区；直接上传的消息不带 localPath
+   * @param message 消息内容，content.localPath 为待上传文件
+   * @param callback 上传与发送回调
+   * @returns {Promise<ChunkedUploadInfo | null>} 上传信息
+   */
+  static sendMessageChunked(
+    message: SendMessageObject,
+    callback?: ChunkedUploadCallback
+  ): Promise<ChunkedUploadInfo | null>;
+
+  /**
+   * 监听指定分片上传的事件，结束后自动移除（仅 Android）
+   * @param messageId 上传对应的 messageId
+   * @param callback 上传与发送回调
+   * @returns 移除监听的函数
+   */
+  static addChunkedUploadListener(messageId: string, callback?: ChunkedUploadCallback): () => void;
+
+  /**
+   * 获取分片上传指标，区分直接读取与先复制到暂存区两种方式（仅 Android，iOS 返回 null）
+   */
+  static getChunkedUploadMetrics(): Promise<ChunkedUploadMetrics | null>;
+
+  /**
+   * 获取未完成的分片上传（仅 Android）
+   */
+  static getPendingChunkedUploads(): Promise<ChunkedUploadInfo[]>;
+
+  /**
+   * 取消分片上传并删除本地进度（仅 Android）
+   * @param uploadId 上传ID
+   */
+  static cancelChunkedUpload(uploadId: string): Promise<boolean>;
+
+  /**
+   * 设置媒体下载缓存（仅 Android）
+   * @param options 缓存上限与并发数
+   */
+  static configureMediaDownload(options: MediaDownloadOptions): void;
+
+  /**
+   * 下载媒体文件到缓存，同一 url 的并发请求共享一次下载（仅 Android，iOS 返回 null）
+   * @param url 文件地址
+   * @param priority 0 可见，1 预取，2 后台，默认 0
+   * @returns {Promise<string | null>} 本地路径
+   */
+  static downloadMedia(url: string, priority?: number): Promise<string | null>;
+
+  /**
+   * 根据列表可见范围更新媒体下载，离开窗口的消息取消下载（仅 Android）
+   * @param windowId 列表标识
+   * @param messages 列表中的消息，按显示顺序
+   * @param firstVisible 第一条可见消息的下标
+   * @param lastVisible 最后一条可见消息的下标
+   * @param options 预取设置
+   */
+  static setMediaDownloadWindow(
+    windowId: string,
+    messages: Message[],
+    firstVisible: number,
+    lastVisible: number,
+    options?: MediaDownloadWindowOptions
+  ): void;
+
+  /**
+   * 取消列表窗口的全部下载（仅 Android）
+   * @param windowId 列表标识
+   */
+  static clearMediaDownloadWindow(windowId: string): void;
+
+  /**
+   * 监听列表窗口的下载结果（仅 Android）
+   * @param windowId 列表标识
+   * @param listener 回调对象
+   * @returns 移除监听的函数
+   */
+  static addMediaDownloadListener(windowId: string, listener: MediaDownloadListener): () => void;
+
+  /**
+   * 获取媒体下载统计（仅 Android，iOS 返回 null）
+   */
+  static getMediaDownloadMetrics(): Promise<MediaDownloadMetrics | null>;
+
+  /**
+   * 清空媒体下载缓存（仅 Android）
+   */
+  static clearMediaDownloadCache(): Promise<boolean>;
+
   /**
    * 搜索会话中的消息
    * 在指定会话中根据关键字搜索消息
@@ -639,6 +1099,49 @@ export default class JuggleIM {
   static searchConversationsWithMessageContent(
     options: SearchConversationsOptions
   ): Promise<SearchConversationsResult[]>;
+
+  /**
+   * 打开边输入边搜索的会话，结果按查询代数分批回调，旧代数的结果被丢弃
+   * Android 上新搜索词以上一次为前缀且结果都是文本、文件消息时在上一次结果中筛选
+   * @param options 搜索类型与过滤条件
+   * @param callback 结果回调
+   * @returns {Promise<SearchSessionHandle>} 会话句柄
+   */
+  static openSearchSession(
+    options?: SearchSessionOptions,
+    callback?: SearchSessionCallback
+  ): Promise<SearchSessionHandle>;
+
+  /**
+   * 添加或更新名称索引条目（仅 Android）
+   * 用户和群组名称在获取用户/群组信息时自动索引，此方法用于补充会话别名、备注名等，与 SDK 名称分开保存、不会被其覆盖
+   * @param entries name 与 aliases 均为空时移除此前补充的名称，SDK 名称保留
+   * @returns {Promise<number>} 处理的条目数
+   */
+  static updateNameIndex(entries: NameIndexEntry[]): Promise<number>;
+
+  /**
+   * 从名称索引中移除条目（仅 Android）
+   */
+  static removeFromNameIndex(entries: { kind: string; id: string }[]): void;
+
+  /**
+   * 从本地数据库批量索引用户和群组名称（仅 Android）
+   * @returns {Promise<number>} 已索引的条目数
+   */
+  static indexContacts(options: { userIds?: string[]; groupIds?: string[] }): Promise<number>;
+
+  /**
+   * 按名称前缀、全拼或首字母查询用户、群组和会话（仅 Android）
+   * @example
+   * const matches = await JuggleIM.searchNames('zs', { kinds: ['user'], limit: 10 });
+   */
+  static searchNames(query: string, options?: SearchNamesOptions): Promise<NameMatch[]>;
+
+  /**
+   * 获取名称索引统计（仅 Android）
+   */
+  static getNameIndexMetrics(): Promise<NameIndexMetrics | null>;
 }
 
 
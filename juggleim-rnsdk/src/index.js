@@ -14,6 +14,12 @@ const juggleIMEmitter = JMI
     removeAllListeners: () => { },
   };
 
+// 非 Android 平台的历史消息游标状态
+const jsCursors = new Map();
+let jsCursorSeq = 0;
+// 会话列表补丁监听的序号，原生层按监听计数
+let conversationPatchSubscriberSeq = 0;
+
 /**
  * Juggle IM React Native SDK
  * @class JuggleIM
@@ -514,6 +520,101 @@ class JuggleIM {
     });
   }
 
+  /**
+   * 添加会话列表增量补丁监听（仅 Android）
+   * 原生层按展示顺序（置顶在前，其余按 sortTime 倒序）维护会话列表，只推送最小变更，JS 无需重新排序
+   * @param {object} listener - 监听器
+   * @param {function} listener.onSnapshot - (conversations, version, ready) 全量快照，首次及需要重新同步时回调
+   * @param {function} listener.onPatches - (patches, version) 增量补丁，可用 applyConversationListPatches 应用
+   * @returns {function} 返回取消监听的函数
+   */
+  static addConversationListPatchListener(listener) {
+    if (Platform.OS !== "android") {
+      console.warn("addConversationListPatchListener is only supported on Android");
+      return () => { };
+    }
+    let version = -1;
+    let queue = Promise.resolve();
+    let active = true;
+    const subscriberId = String(++conversationPatchSubscriberSeq);
+
+    const resync = async () => {
+      const snapshot = await JMI.startConversationListPatches(subscriberId);
+      version = snapshot.version;
+      const convList = await this.buildConversationInfoList(snapshot.conversations);
+      if (active) {
+        listener.onSnapshot?.(convList, snapshot.version, snapshot.ready);
+      }
+    };
+
+    const subscription = juggleIMEmitter.addListener(
+      "ConversationListPatched",
+      (event) => {
+        // 串行处理，保证补丁按版本顺序交给上层
+        queue = queue.then(async () => {
+          if (!active || event.version <= version) return;
+          if (event.reset || event.version !== version + 1) {
+            await resync();
+            return;
+          }
+          version = event.version;
+          const items = event.patches.filter(patch => patch.item).map(patch => patch.item);
+          await this.buildConversationInfoList(items);
+          if (active) {
+            listener.onPatches?.(event.patches, event.version);
+          }
+        }).catch(err => console.error(err));
+      }
+    );
+
+    queue = queue.then(resync).catch(err => console.error(err));
+
+    return () => {
+      active = false;
+      subscription.remove();
+      JMI.stopConversationListPatches(subscriberId);
+    };
+  }
+
+  /**
+   * 将会话列表补丁应用到列表上
+   * @param {Array} list - 当前会话列表
+   * @param {Array} patches - onPatches 回调中的补丁
+   * @returns {Array} 应用补丁后的新列表，可直接交给 FlatList
+   */
+  static applyConversationListPatches(list, patches) {
+    const next = list.slice();
+    for (const patch of patches) {
+      switch (patch.op) {
+        case "insert":
+          next.splice(patch.to, 0, patch.item);
+          break;
+        case "move":
+          next.splice(patch.from, 1);
+          next.splice(patch.to, 0, patch.item);
+          break;
+        case "update":
+          next[patch.to] = patch.item;
+          break;
+        case "remove":
+          next.splice(patch.from, 1);
+          break;
+      }
+    }
+    return next;
+  }
+
+  /**
+   * 获取内存会话索引统计（仅 Android）
+   * @returns {Promise<ConversationIndexMetrics|null>} 统计信息
+   */
+  static getConversationIndexMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getConversationIndexMetrics();
+  }
+
   /**
    * 构建会话信息列表（补齐会话名、头像、扩展信息及最后一条消息发送者信息）
    * @param {Array} convs - 原始会话列表
@@ -587,6 +688,71 @@ class JuggleIM {
     });
   }
 
+  /**
+   * 批量获取会话信息
+   * 结果与 conversations 顺序一致，不存在的会话为 null；name、avatar、extra 通过一次批量查询用户/群组信息补全，
+   * 指定 fields 时只补全其中请求的字段，都未请求时不查询用户/群组信息
+   * @param {Array<object>} conversations - 会话列表
+   * @param {{fields?: string[]}} options - fields 需要返回的字段（仅 Android），conversation 始终返回
+   * @returns {Promise<Array<object|null>>} 会话信息列表
+   */
+  static async getConversationInfos(conversations, options = {}) {
+    const targets = conversations || [];
+    const infos = Platform.OS === "android"
+      ? await JMI.getConversationInfos(targets, options)
+      : await Promise.all(targets.map((conversation) => JMI.getConversationInfo(conversation).catch(() => null)));
+    const fields = options?.fields;
+    const ownerFields = ["name", "avatar", "extra"].filter((field) => !fields || fields.includes(field));
+    const userIds = new Set();
+    const groupIds = new Set();
+    infos.forEach((info) => {
+      if (!info) {
+        return;
+      }
+      // 未请求会话名、头像、扩展信息时不查询会话对应的用户/群组
+      if (ownerFields.length > 0 && info.conversation?.conversationType === 1) {
+        userIds.add(info.conversation.conversationId);
+      } else if (ownerFields.length > 0 && info.conversation?.conversationType === 2) {
+        groupIds.add(info.conversation.conversationId);
+      }
+      if (info.lastMessage?.senderUserId) {
+        userIds.add(info.lastMessage.senderUserId);
+      }
+    });
+    const [users, groups] = await Promise.all([
+      userIds.size > 0 ? JMI.getUserInfoList([...userIds]) : [],
+      groupIds.size > 0 ? JMI.getGroupInfoList([...groupIds]) : [],
+    ]);
+    const userMap = new Map((users || []).map((user) => [user.userId, user]));
+    const groupMap = new Map((groups || []).map((group) => [group.groupId, group]));
+    infos.forEach((info) => {
+      if (!info) {
+        return;
+      }
+      const id = info.conversation?.conversationId;
+      let owner = null;
+      if (info.conversation?.conversationType === 1) {
+        const user = userMap.get(id);
+        owner = { name: user?.nickname, avatar: user?.avatar, extra: user?.extra };
+      } else if (info.conversation?.conversationType === 2) {
+        const group = groupMap.get(id);
+        owner = { name: group?.groupName, avatar: group?.portrait, extra: group?.extra };
+      }
+      if (owner) {
+        ownerFields.forEach((field) => {
+          info[field] = owner[field];
+        });
+      }
+      if (info.lastMessage) {
+        const sender = userMap.get(info.lastMessage.senderUserId);
+        info.lastMessage.senderUserName = sender?.nickname;
+        info.lastMessage.senderUserAvatar = sender?.avatar;
+        info.lastMessage.senderUserExtra = sender?.extra;
+      }
+    });
+    return infos;
+  }
+
   /**
    * 获取用户信息
    * @param {string} userId - 用户ID
@@ -615,6 +781,74 @@ class JuggleIM {
     return JMI.getGroupMember(groupId, userId);
   }
 
+  /**
+   * 批量获取群成员信息
+   * @param {string} groupId - 群组ID
+   * @param {string[]} userIds - 用户ID列表
+   * @returns {Promise<Array<GroupMember|null>>} 与 userIds 一一对应的群成员信息
+   */
+  static getGroupMembers(groupId, userIds) {
+    if (Platform.OS === "android") {
+      return JMI.getGroupMembers(groupId, userIds || []);
+    }
+    return Promise.all((userIds || []).map(userId => JMI.getGroupMember(groupId, userId)));
+  }
+
+  /**
+   * 分页查看本地缓存中的群成员（仅 Android）
+   * 只包含通过 getGroupMember/getGroupMembers 加载过且未过期（5 分钟）的成员，不是完整的群成员列表
+   * @param {string} groupId - 群组ID
+   * @param {string} [cursor] - 上一页返回的 nextCursor，首页不传
+   * @param {number} [count=50] - 每页数量
+   * @returns {Promise<CachedGroupMemberPage>} 缓存中的一页群成员
+   */
+  static peekCachedGroupMembers(groupId, cursor = "", count = 50) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve({ members: [], nextCursor: cursor, hasMoreCached: false });
+    }
+    return JMI.peekCachedGroupMembers(groupId, cursor || "", count);
+  }
+
+  /**
+   * 打开群的 @ 候选索引（仅 Android）
+   * 输入框打开时调用，原生侧以群昵称和用户名建立前缀与拼音索引，空闲后自动释放
+   * @param {string} groupId - 群组ID
+   * @param {string[]} userIds - 群成员ID列表，可为空，为空时仅索引已缓存的成员
+   * @returns {Promise<{groupId: string, size: number}|null>} 索引建立完成后返回成员数
+   */
+  static openMentionIndex(groupId, userIds = []) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.openMentionIndex(groupId, userIds);
+  }
+
+  /**
+   * 查询 @ 候选成员（仅 Android）
+   * 结果可直接放入 mentionInfo.targetUsers；只带 userId 的对象发送时也会从索引补全名称
+   * @param {string} groupId - 群组ID
+   * @param {string} query - @ 之后输入的文本，为空时返回前 limit 个成员
+   * @param {number} limit - 最大条数，默认 10
+   * @returns {Promise<import("juggleim-rnsdk").MentionCandidate[]>}
+   */
+  static searchMentionCandidates(groupId, query = "", limit = 10) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve([]);
+    }
+    return JMI.searchMentionCandidates(groupId, query || "", limit);
+  }
+
+  /**
+   * 关闭群的 @ 候选索引（仅 Android），索引保留到空闲超时
+   * @param {string} groupId - 群组ID
+   */
+  static closeMentionIndex(groupId) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.closeMentionIndex(groupId);
+  }
+
   /**
    * 创建会话信息
    * @param {object} conversation - 会话对象
@@ -693,6 +927,75 @@ class JuggleIM {
     });
   }
 
+  /**
+   * 批量清除会话未读数
+   * Android 上作为一次原生操作执行，结束后只推送一次 ConversationInfoUpdated
+   * @param {Array<object>} conversations - 会话列表
+   * @returns {Promise<import("juggleim-rnsdk").BulkConversationResult>} 汇总结果
+   */
+  static clearUnreadCounts(conversations) {
+    if (Platform.OS !== "android") {
+      return this.runBulkConversationFallback(conversations, (conversation) => JMI.clearUnreadCount(conversation));
+    }
+    return JMI.clearUnreadCounts(conversations || []);
+  }
+
+  /**
+   * 批量设置会话免打扰
+   * @param {Array<object>} conversations - 会话列表
+   * @param {boolean} isMute - 是否免打扰
+   * @returns {Promise<import("juggleim-rnsdk").BulkConversationResult>} 汇总结果
+   */
+  static setMuteForConversations(conversations, isMute) {
+    if (Platform.OS !== "android") {
+      return this.runBulkConversationFallback(conversations, (conversation) => JMI.setMute(conversation, isMute));
+    }
+    return JMI.setMuteForConversations(conversations || [], isMute);
+  }
+
+  /**
+   * 批量设置会话置顶
+   * @param {Array<object>} conversations - 会话列表
+   * @param {boolean} isTop - 是否置顶
+   * @returns {Promise<import("juggleim-rnsdk").BulkConversationResult>} 汇总结果
+   */
+  static setTopForConversations(conversations, isTop) {
+    if (Platform.OS !== "android") {
+      return this.runBulkConversationFallback(conversations, (conversation) => JMI.setTop(conversation, isTop));
+    }
+    return JMI.setTopForConversations(conversations || [], isTop);
+  }
+
+  /**
+   * 批量删除会话
+   * Android 上结束后只推送一次 ConversationInfoDeleted
+   * @param {Array<object>} conversations - 会话列表
+   * @returns {Promise<import("juggleim-rnsdk").BulkConversationResult>} 汇总结果
+   */
+  static deleteConversationInfos(conversations) {
+    if (Platform.OS !== "android") {
+      return this.runBulkConversationFallback(conversations, (conversation) => JMI.deleteConversationInfo(conversation));
+    }
+    return JMI.deleteConversationInfos(conversations || []);
+  }
+
+  /**
+   * 逐个执行会话操作并汇总为与 Android 相同的结果
+   */
+  static async runBulkConversationFallback(conversations, operation) {
+    const results = await Promise.all((conversations || []).map(async (conversation) => {
+      let errorCode = 0;
+      try {
+        await operation(conversation);
+      } catch (error) {
+        errorCode = Number(error?.code) || -1;
+      }
+      return { conversationType: conversation.conversationType, conversationId: conversation.conversationId, errorCode };
+    }));
+    const failedCount = results.filter((result) => result.errorCode !== 0).length;
+    return { successCount: results.length - failedCount, failedCount, results };
+  }
+
   /**
    * 清除总未读数
    * @returns {Promise<boolean>} 清除结果
@@ -814,6 +1117,116 @@ class JuggleIM {
     return JMI.uploadImage(localPath);
   }
 
+  /**
+   * 批量上传图片
+   * 同时上传的数量受 parallelism 限制，每张结束后回调 onProgress
+   * @param {Array<string>} localPaths - 图片本地路径
+   * @param {import("juggleim-rnsdk").UploadImagesOptions} options - parallelism 同时上传数（默认 3），onProgress 进度回调
+   * @returns {Promise<Array<import("juggleim-rnsdk").ImageUploadResult>>} 与 localPaths 顺序一致的结果
+   */
+  static async uploadImages(localPaths, options = {}) {
+    const paths = localPaths || [];
+    const parallelism = options.parallelism ?? 3;
+    if (Platform.OS === "android") {
+      const batchId = Math.random().toString(36).substr(2, 9) + Date.now();
+      const subscription = juggleIMEmitter.addListener("ImageUploadProgress", (event) => {
+        if (event.batchId === batchId) {
+          options.onProgress?.(event);
+        }
+      });
+      try {
+        return await JMI.uploadImages(paths, batchId, { parallelism });
+      } finally {
+        subscription.remove();
+      }
+    }
+    const results = new Array(paths.length);
+    let next = 0;
+    let completed = 0;
+    let failed = 0;
+    const worker = async () => {
+      while (next < paths.length) {
+        const index = next++;
+        const result = { index, localPath: paths[index], url: null, errorCode: 0 };
+        try {
+          result.url = await JMI.uploadImage(paths[index]);
+        } catch (error) {
+          result.errorCode = Number(error?.code) || -1;
+          failed++;
+        }
+        results[index] = result;
+        completed++;
+        options.onProgress?.({
+          ...result,
+          completed,
+          failed,
+          total: paths.length,
+          progress: Math.floor((completed * 100) / paths.length),
+        });
+      }
+    };
+    await Promise.all(Array.from({ length: Math.min(Math.max(1, parallelism), paths.length) }, worker));
+    return results;
+  }
+
+  /**
+   * 设置媒体暂存区预算（仅 Android）
+   * content:// 媒体发送前会复制到暂存区，超出预算或保留时间的文件在发送完成后被后台清理
+   * @param {Object} options - maxBytes 最大字节数，maxAgeMs 最长保留毫秒数
+   */
+  static configureMediaStaging(options) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.configureMediaStaging(options || {});
+  }
+
+  /**
+   * 立即清理媒体暂存区（仅 Android）
+   * @returns {Promise<MediaStagingCleanResult|null>} 删除的文件数与回收的字节数
+   */
+  static cleanMediaStaging() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.cleanMediaStaging();
+  }
+
+  /**
+   * 获取媒体暂存区统计（仅 Android）
+   * @returns {Promise<MediaStagingMetrics|null>} 统计信息
+   */
+  static getMediaStagingMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getMediaStagingMetrics();
+  }
+
+  /**
+   * 设置图片发送前处理参数（仅 Android）
+   * @param {Object} options - maxDimension 长边上限，quality 初始质量，minQuality 最低质量，maxBytes 字节预算，thumbnailDimension 缩略图长边
+   */
+  static configureImageProcessing(options) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.configureImageProcessing(options || {});
+  }
+
+  /**
+   * 处理本地图片，返回压缩后的路径、尺寸与缩略图（仅 Android）
+   * @param {string} localPath - 图片路径
+   * @param {boolean} original - 是否保留原图
+   * @returns {Promise<ProcessedImage|null>} 处理结果
+   */
+  static processImage(localPath, original = false) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.processImage(localPath, original);
+  }
+
   //message
 
   /**
@@ -865,6 +1278,65 @@ class JuggleIM {
     }
   }
 
+  /**
+   * 将同一内容发送到多个会话
+   * 同时等待回执的发送数受 parallelism 限制，每个会话结束后回调 onProgress；Android 上内容只解析一次
+   * @param {Object} message - content、pushData，同 sendMessage，不含会话
+   * @param {Array<import("juggleim-rnsdk").Conversation>} conversations - 目标会话列表
+   * @param {import("juggleim-rnsdk").BroadcastSendOptions} options - parallelism 并发数（默认 5），onProgress 进度回调
+   * @returns {Promise<Array<import("juggleim-rnsdk").BroadcastSendResult>>} 与 conversations 顺序一致的结果
+   */
+  static async sendMessageToConversations(message, conversations, options = {}) {
+    const targets = conversations || [];
+    const parallelism = options.parallelism ?? 5;
+    if (Platform.OS === "android") {
+      const batchId = Math.random().toString(36).substr(2, 9) + Date.now();
+      const subscription = juggleIMEmitter.addListener("BroadcastSendProgress", (event) => {
+        if (event.batchId === batchId) {
+          options.onProgress?.(event);
+        }
+      });
+      try {
+        return await JMI.sendMessageToConversations(message, targets, batchId, { parallelism });
+      } finally {
+        subscription.remove();
+      }
+    }
+    const results = new Array(targets.length);
+    let next = 0;
+    let completed = 0;
+    let failed = 0;
+    const worker = async () => {
+      while (next < targets.length) {
+        const index = next++;
+        const { conversationType, conversationId } = targets[index];
+        const result = { index, conversationType, conversationId, clientMsgNo: 0, messageId: null, timestamp: 0, errorCode: 0 };
+        await new Promise((resolve) => {
+          this.sendMessage({ ...message, conversationType, conversationId }, {
+            onSuccess: (sent) => {
+              result.clientMsgNo = sent.clientMsgNo;
+              result.messageId = sent.messageId;
+              result.timestamp = sent.timestamp;
+              resolve();
+            },
+            onError: (_, errorCode) => {
+              result.errorCode = errorCode || -1;
+              resolve();
+            },
+          });
+        });
+        if (result.errorCode !== 0) {
+          failed++;
+        }
+        results[index] = result;
+        completed++;
+        options.onProgress?.({ ...result, completed, failed, total: targets.length });
+      }
+    };
+    await Promise.all(Array.from({ length: Math.min(Math.max(1, parallelism), targets.length) }, worker));
+    return results;
+  }
+
   /**
    * 保存消息到本地数据库
    * 场景：在客户端本地插入一条消息，消息不需要发送出去
@@ -902,6 +1374,46 @@ class JuggleIM {
     }
   }
 
+  /**
+   * 从 NDJSON 文件批量导入本地消息（仅 Android）
+   * 每行为一条 saveMessage 参数的 JSON；导入在原生后台线程执行，结果只包含计数和失败的行号
+   * SDK 只能以当前用户发送、当前时间保存消息，不能用于迁移聊天记录：有带 timestamp、senderUserId 或 direction 为 2 的行时，
+   * 保存前直接以该行的错误拒绝，不写入任何消息。每行单独保存，没有事务，中断后已保存的行保留，可用 skipLines 继续
+   * @param {string} path - 本地文件路径
+   * @param {import("juggleim-rnsdk").MessageImportOptions} [options] - batchSize 每批条数（默认 500），skipLines 跳过的行数，onProgress 进度回调
+   * @returns {Promise<import("juggleim-rnsdk").MessageImportResult|null>} 非 Android 平台返回 null
+   */
+  static async importMessages(path, options = {}) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    const importId = options.importId || Math.random().toString(36).substr(2, 9) + Date.now();
+    const subscription = juggleIMEmitter.addListener("MessageImportProgress", (event) => {
+      if (event.importId === importId) {
+        options.onProgress?.(event);
+      }
+    });
+    try {
+      const { batchSize, skipLines } = options;
+      return await JMI.importMessages(path, importId, { batchSize, skipLines });
+    } finally {
+      subscription.remove();
+    }
+  }
+
+  /**
+   * 取消消息导入（仅 Android）
+   * 当前批次保存完成后停止，已导入的消息保留
+   * @param {string} importId - importMessages 的 options.importId
+   * @returns {Promise<boolean>} 是否找到正在进行的导入
+   */
+  static cancelMessageImport(importId) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(false);
+    }
+    return JMI.cancelMessageImport(importId);
+  }
+
   /**
    * 搜索会话中的消息
    * @param {Object} options - 搜索选项
@@ -948,23 +1460,7 @@ class JuggleIM {
       const results = await JMI.searchConversationsWithMessageContent(options);
       // Build conversation info for each result to include user info
       const builtResults = await Promise.all(
-        results.map(async (result) => {
-          const convInfo = result.conversationInfo;
-          // For private chats, fetch user info to fill in name and avatar
-          if (convInfo.conversation?.conversationType === 1) {
-            try {
-              const userInfo = await JMI.getUserInfo(convInfo.conversation.conversationId);
-              if (userInfo) {
-                convInfo.name = userInfo.nickname;
-                convInfo.avatar = userInfo.avatar;
-              }
-            } catch (e) {
-              console.warn('Failed to fetch user info for conversation:', e);
-            }
-          }
-          // For group chats, the SDK should already have name and avatar
-          return result;
-        })
+        results.map((result) => this.fillSearchConversationResult(result))
       );
       return builtResults;
     } catch (error) {
@@ -973,6 +1469,166 @@ class JuggleIM {
     }
   }
 
+  static async fillSearchConversationResult(result) {
+    const convInfo = result.conversationInfo;
+    // For private chats, fetch user info to fill in name and avatar
+    if (convInfo.conversation?.conversationType === 1) {
+      try {
+        const userInfo = await JMI.getUserInfo(convInfo.conversation.conversationId);
+        if (userInfo) {
+          convInfo.name = userInfo.nickname;
+          convInfo.avatar = userInfo.avatar;
+        }
+      } catch (e) {
+        console.warn('Failed to fetch user info for conversation:', e);
+      }
+    }
+    // For group chats, the SDK should already have name and avatar
+    return result;
+  }
+
+  /**
+   * 打开边输入边搜索的会话
+   * 每次 update 生成新的查询代数，结果分批通过 onResults 回调，旧代数的结果不再回调；
+   * Android 上新搜索词以上一次为前缀时在上一次结果中筛选，不重新搜索；上一次结果含文本、文件以外的消息时重新搜索
+   * @param {import("juggleim-rnsdk").SearchSessionOptions} options - type 为 message（默认）或 conversation，其余同 searchMessage / searchConversationsWithMessageContent
+   * @param {import("juggleim-rnsdk").SearchSessionCallback} callback - 回调对象
+   * @returns {Promise<import("juggleim-rnsdk").SearchSessionHandle>} 会话句柄
+   */
+  static async openSearchSession(options = {}, callback = {}) {
+    const isConversation = options.type === "conversation";
+    const build = (items) => Promise.all(
+      items.map((item) => isConversation ? this.fillSearchConversationResult(item) : this.buildMessageInfo(item))
+    );
+    let latest = 0;
+    let closed = false;
+    if (Platform.OS !== "android") {
+      return {
+        update: async (query) => {
+          const generation = ++latest;
+          const searchContent = (query || "").trim();
+          let items = [];
+          if (searchContent) {
+            items = isConversation
+              ? await JMI.searchConversationsWithMessageContent({ ...options, searchContent })
+              : await JMI.searchMessage({ ...options, searchContent, count: options.limit ?? 100 });
+            items = await build(items || []);
+          }
+          if (generation === latest && !closed) {
+            callback.onResults?.(items, {
+              generation, query, offset: 0, total: items.length, narrowed: false, done: true,
+            });
+          }
+          return generation;
+        },
+        close: () => {
+          closed = true;
+          latest++;
+        },
+      };
+    }
+    const sessionId = await JMI.openSearchSession(options);
+    // 按到达顺序处理各批，避免异步补全用户信息打乱顺序
+    let queue = Promise.resolve();
+    const subscriptions = [
+      juggleIMEmitter.addListener("SearchSessionResults", (event) => {
+        if (event.sessionId !== sessionId) {
+          return;
+        }
+        queue = queue.then(async () => {
+          if (closed || event.generation < latest) {
+            return;
+          }
+          const items = await build(event.items);
+          if (!closed && event.generation >= latest) {
+            const { items: _, sessionId: __, ...info } = event;
+            callback.onResults?.(items, info);
+          }
+        });
+      }),
+      juggleIMEmitter.addListener("SearchSessionError", (event) => {
+        if (event.sessionId === sessionId && !closed && event.generation >= latest) {
+          callback.onError?.(event.error, event.generation);
+        }
+      }),
+    ];
+    return {
+      sessionId,
+      update: async (query) => {
+        // 原生按调用顺序递增代数，等待返回前先更新，期间到达的旧代数结果不再回调
+        latest++;
+        const generation = await JMI.updateSearchSession(sessionId, query || "");
+        latest = Math.max(latest, generation);
+        return generation;
+      },
+      close: () => {
+        closed = true;
+        subscriptions.forEach((subscription) => subscription.remove());
+        JMI.closeSearchSession(sessionId);
+      },
+    };
+  }
+
+  /**
+   * 添加或更新名称索引条目（仅 Android）
+   * 用户和群组名称在获取用户/群组信息时自动索引，此方法用于补充会话别名、备注名等，与 SDK 名称分开保存、不会被其覆盖
+   * @param {import("juggleim-rnsdk").NameIndexEntry[]} entries - name 与 aliases 均为空时移除此前补充的名称，SDK 名称保留
+   * @returns {Promise<number>} 处理的条目数
+   */
+  static updateNameIndex(entries) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(0);
+    }
+    return JMI.updateNameIndex(entries);
+  }
+
+  /**
+   * 从名称索引中移除条目（仅 Android）
+   * @param {{kind: string, id: string}[]} entries - 条目类型与 ID
+   */
+  static removeFromNameIndex(entries) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.removeFromNameIndex(entries);
+  }
+
+  /**
+   * 从本地数据库批量索引用户和群组名称（仅 Android）
+   * @param {{userIds?: string[], groupIds?: string[]}} options - 用户与群组 ID
+   * @returns {Promise<number>} 已索引的条目数
+   */
+  static indexContacts(options) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(0);
+    }
+    return JMI.indexContacts(options);
+  }
+
+  /**
+   * 按名称前缀、全拼或首字母查询用户、群组和会话（仅 Android）
+   * @param {string} query - 搜索词
+   * @param {import("juggleim-rnsdk").SearchNamesOptions} options - kinds 限定类型，limit 最大条数（默认 20）
+   * @returns {Promise<import("juggleim-rnsdk").NameMatch[]>} 按匹配程度排序的结果
+   */
+  static searchNames(query, options = {}) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve([]);
+    }
+    return JMI.searchNames(query || "", options);
+  }
+
+  /**
+   * 获取名称索引统计（仅 Android）
+   * @returns {Promise<import("juggleim-rnsdk").NameIndexMetrics|null>}
+   */
+  static getNameIndexMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getNameIndexMetrics();
+  }
+
   /**
    * 发送图片消息
    * @param {Object} message - 图片消息内容
@@ -1231,14 +1887,7 @@ class JuggleIM {
   static getMessageList(conversation, direction, options) {
     return new Promise((resolve, reject) => {
       JMI.getMessages(conversation, direction, options).then(async (res) => {
-        const msgs = res?.messages;
-        // 简要描述：等待消息发送者资料补齐后再返回，避免消息列表显示占位昵称/头像。
-        for (const msg of (msgs || [])) {
-          const userInfo = await JMI.getUserInfo(msg.senderUserId);
-          msg.senderUserName = userInfo?.nickname;
-          msg.senderUserAvatar = userInfo?.avatar;
-          msg.senderUserExtra = userInfo?.extra;
-        }
+        await this.fillMessageSenderInfo(res?.messages);
         resolve(res);
       }).catch(err => {
         console.error(err);
@@ -1247,6 +1896,131 @@ class JuggleIM {
     });
   }
 
+  /**
+   * 补齐消息发送者昵称、头像及扩展信息
+   * @param {Array} msgs - 消息列表
+   */
+  static async fillMessageSenderInfo(msgs) {
+    // 简要描述：等待消息发送者资料补齐后再返回，避免消息列表显示占位昵称/头像。
+    for (const msg of (msgs || [])) {
+      const userInfo = await JMI.getUserInfo(msg.senderUserId);
+      msg.senderUserName = userInfo?.nickname;
+      msg.senderUserAvatar = userInfo?.avatar;
+      msg.senderUserExtra = userInfo?.extra;
+    }
+  }
+
+  /**
+   * 打开历史消息游标，从 startTime 向更早方向逐页读取
+   * Android 在每页交付后于后台预取下一页；iOS 按需逐页拉取
+   * @param {Object} conversation - 会话对象
+   * @param {Object} options - count 每页条数，startTime 起始时间（0 为最新），prefetchDepth 预取页数
+   * @returns {Promise<string>} 游标ID
+   */
+  static openMessageCursor(conversation, options = {}) {
+    if (Platform.OS === "android") {
+      return JMI.openMessageCursor(conversation, options);
+    }
+    const cursorId = String(++jsCursorSeq);
+    jsCursors.set(cursorId, {
+      conversation,
+      count: options.count || 20,
+      startTime: options.startTime || 0,
+      hasMore: true,
+    });
+    return Promise.resolve(cursorId);
+  }
+
+  /**
+   * 读取游标的下一页历史消息
+   * @param {string} cursorId - 游标ID
+   * @returns {Promise<MessagePage>} 消息页，prefetched 表示是否来自预取
+   */
+  static async nextMessagePage(cursorId) {
+    if (Platform.OS === "android") {
+      const page = await JMI.nextMessagePage(cursorId);
+      await this.fillMessageSenderInfo(page.messages);
+      return page;
+    }
+    const cursor = jsCursors.get(cursorId);
+    if (!cursor) {
+      throw new Error(`Cursor not found: ${cursorId}`);
+    }
+    if (!cursor.hasMore) {
+      return { messages: [], timestamp: cursor.startTime, hasMore: false, code: 0, prefetched: false };
+    }
+    const res = await this.getMessageList(cursor.conversation, 1, {
+      count: cursor.count,
+      startTime: cursor.startTime,
+    });
+    if (res.code === 0) {
+      cursor.startTime = res.timestamp;
+      cursor.hasMore = res.hasMore && res.messages.length > 0;
+    }
+    return { ...res, prefetched: false };
+  }
+
+  /**
+   * 关闭历史消息游标，离开会话时调用以取消预取
+   * @param {string} cursorId - 游标ID
+   * @returns {Promise<boolean>} 游标是否存在
+   */
+  static closeMessageCursor(cursorId) {
+    if (Platform.OS === "android") {
+      return JMI.closeMessageCursor(cursorId);
+    }
+    return Promise.resolve(jsCursors.delete(cursorId));
+  }
+
+  /**
+   * 导出会话历史消息到文件（仅 Android）
+   * 原生逐页读取并写入文件，JS 只收到文件路径和统计；
+   * 导出行带有 timestamp、senderUserId、direction，importMessages 会拒绝这些字段，导出文件不能直接导入
+   * @param {string} path - 输出文件路径，已存在时覆盖
+   * @param {import("juggleim-rnsdk").MessageExportOptions} [options] - conversations 要导出的会话（默认全部），format 为 ndjson 或 binary，onProgress 进度回调
+   * @returns {Promise<import("juggleim-rnsdk").MessageExportResult|null>} 非 Android 平台返回 null
+   */
+  static async exportMessages(path, options = {}) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    const exportId = options.exportId || Math.random().toString(36).substr(2, 9) + Date.now();
+    const subscription = juggleIMEmitter.addListener("MessageExportProgress", (event) => {
+      if (event.exportId === exportId) {
+        options.onProgress?.(event);
+      }
+    });
+    try {
+      const { format, pageSize, startTime } = options;
+      return await JMI.exportMessages(options.conversations || [], path, exportId, { format, pageSize, startTime });
+    } finally {
+      subscription.remove();
+    }
+  }
+
+  /**
+   * 取消历史消息导出，已写入的部分文件会被删除（仅 Android）
+   * @param {string} exportId - exportMessages 的 options.exportId
+   * @returns {Promise<boolean>} 是否找到正在进行的导出
+   */
+  static cancelMessageExport(exportId) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(false);
+    }
+    return JMI.cancelMessageExport(exportId);
+  }
+
+  /**
+   * 获取最近消息缓存统计（仅 Android）
+   * @returns {Promise<MessageCacheMetrics|null>} 统计信息
+   */
+  static getMessageCacheMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getMessageCacheMetrics();
+  }
+
   /**
    * 撤回消息
    * @param {String} messageId - 消息ID
@@ -1297,6 +2071,71 @@ class JuggleIM {
     return JMI.sendReadReceipt(conversation, messageIds);
   }
 
+  /**
+   * 上报会话中当前可见的消息
+   * Android 上未发送过回执的 ID 按会话合并后批量发送，应用进入后台时立即发送；其它平台直接发送回执
+   * @param {object} conversation - 会话对象
+   * @param {string[]} messageIds - 可见的他人发送的消息ID
+   */
+  static reportVisibleMessages(conversation, messageIds) {
+    if (!messageIds || messageIds.length === 0) {
+      return;
+    }
+    if (Platform.OS !== "android") {
+      JMI.sendReadReceipt(conversation, messageIds).catch((error) => {
+        console.warn("reportVisibleMessages error:", error);
+      });
+      return;
+    }
+    JMI.reportVisibleMessages(conversation, messageIds);
+  }
+
+  /**
+   * 立即发送全部待发送的已读回执（仅 Android）
+   */
+  static flushReadReceipts() {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.flushReadReceipts();
+  }
+
+  /**
+   * 设置已读回执合并参数（仅 Android）
+   * @param {{debounceMs?: number, maxBatch?: number}} options - 合并间隔（默认 1000 毫秒）与每个请求的最大条数（默认 50）
+   */
+  static configureReadReceipts(options) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.configureReadReceipts(options || {});
+  }
+
+  /**
+   * 监听合并发送的已读回执结果（仅 Android）
+   * @param {(event: import("juggleim-rnsdk").ReadReceiptsFlushedEvent) => void} callback - 每个请求结束时回调
+   * @returns {() => void} 移除监听的函数
+   */
+  static addReadReceiptFlushListener(callback) {
+    if (Platform.OS !== "android") {
+      console.warn("addReadReceiptFlushListener is only supported on Android");
+      return () => {};
+    }
+    const subscription = juggleIMEmitter.addListener("ReadReceiptsFlushed", (event) => callback?.(event));
+    return () => subscription.remove();
+  }
+
+  /**
+   * 获取已读回执合并统计（仅 Android）
+   * @returns {Promise<import("juggleim-rnsdk").ReadReceiptMetrics|null>}
+   */
+  static getReadReceiptMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getReadReceiptMetrics();
+  }
+
   /**
    * 更新消息
    * @param {string} messageId - 消息ID
@@ -1357,6 +2196,17 @@ class JuggleIM {
     return JMI.fetchGroupInfo(groupId);
   }
 
+  /**
+   * 获取用户/群组信息拉取合并统计（仅 Android）
+   * @returns {Promise<InfoFetchMetrics|null>} 统计信息
+   */
+  static getInfoFetchMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getInfoFetchMetrics();
+  }
+
   /**
    * 批量获取用户信息
    * @param {Array<string>} userIdList - 用户ID列表
@@ -1375,6 +2225,17 @@ class JuggleIM {
     return JMI.getGroupInfoList(groupIdList);
   }
 
+  /**
+   * 获取用户/群组信息缓存统计（仅 Android）
+   * @returns {Promise<InfoCacheMetrics|null>} 统计信息
+   */
+  static getInfoCacheMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getInfoCacheMetrics();
+  }
+
   /**
    * 重发消息
    * @param {import("juggleim-rnsdk").Message} message
@@ -1574,6 +2435,385 @@ class JuggleIM {
       console.error("sendMediaMessage error:", error);
     }
   }
+
+  /**
+   * 批量发送媒体消息（仅 Android）
+   * 原生队列限制同时发送的条数，同一会话按数组顺序开始发送
+   * @param {Array<import("juggleim-rnsdk").SendMessageObject>} messages - 消息数组，按 content.contentType 区分图片/文件/语音/其他媒体
+   * @param {import("juggleim-rnsdk").MediaBatchCallback} callback - 回调对象
+   * @returns {Promise<string|null>} 批次ID，可用于暂停、恢复、取消
+   */
+  static async sendMediaMessageBatch(messages, callback = {}) {
+    if (Platform.OS !== "android") {
+      console.warn("sendMediaMessageBatch is only supported on Android");
+      return null;
+    }
+    const batchId = Math.random().toString(36).substr(2, 9) + Date.now();
+    const items = (messages || []).map((message, index) => ({
+      ...message,
+      messageId: `${batchId}_${index}`,
+    }));
+    const indexOf = (event) => {
+      const prefix = `${batchId}_`;
+      return event.messageId?.startsWith(prefix) ? Number(event.messageId.slice(prefix.length)) : -1;
+    };
+    const subscriptions = [
+      juggleIMEmitter.addListener("MediaBatchItemStarted", async (event) => {
+        if (event.batchId === batchId) {
+          callback.onItemStart?.(event.index, await this.buildMessageInfo(event.message));
+        }
+      }),
+      juggleIMEmitter.addListener("MediaBatchItemFailed", (event) => {
+        if (event.batchId === batchId) {
+          callback.onItemError?.(event.index, null, -1);
+        }
+      }),
+      juggleIMEmitter.addListener("onMediaMessageSent", async (event) => {
+        const index = indexOf(event);
+        if (index >= 0) {
+          callback.onItemSuccess?.(index, await this.buildMessageInfo(event.message || event));
+        }
+      }),
+      juggleIMEmitter.addListener("onMediaMessageSentError", (event) => {
+        const index = indexOf(event);
+        if (index >= 0) {
+          callback.onItemError?.(index, event.message, event.errorCode || -1);
+        }
+      }),
+      juggleIMEmitter.addListener("onMediaMessageCancelled", (event) => {
+        const index = indexOf(event);
+        if (index >= 0) {
+          callback.onItemCancel?.(index, event.message || event);
+        }
+      }),
+      juggleIMEmitter.addListener("MediaBatchProgress", (event) => {
+        if (event.batchId !== batchId) return;
+        callback.onProgress?.(event);
+        if (event.finished) {
+          subscriptions.forEach(subscription => subscription.remove());
+          callback.onComplete?.(event);
+        }
+      }),
+    ];
+    try {
+      return await JMI.sendMediaMessageBatch(items, batchId);
+    } catch (error) {
+      subscriptions.forEach(subscription => subscription.remove());
+      console.error("sendMediaMessageBatch error:", error);
+      return null;
+    }
+  }
+
+  /**
+   * 暂停批次，尚未开始的消息不再开始（仅 Android）
+   * @param {string} batchId - 批次ID
+   * @returns {Promise<boolean>} 批次是否存在
+   */
+  static pauseMediaBatch(batchId) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(false);
+    }
+    return JMI.pauseMediaBatch(batchId);
+  }
+
+  /**
+   * 恢复批次（仅 Android）
+   * @param {string} batchId - 批次ID
+   * @returns {Promise<boolean>} 批次是否存在
+   */
+  static resumeMediaBatch(batchId) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(false);
+    }
+    return JMI.resumeMediaBatch(batchId);
+  }
+
+  /**
+   * 取消批次中尚未开始的消息（仅 Android）
+   * 已开始的消息无法中途取消，会继续发送直到成功或失败
+   * @param {string} batchId - 批次ID
+   * @returns {Promise<boolean>} 批次是否存在
+   */
+  static cancelPendingMediaBatch(batchId) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(false);
+    }
+    return JMI.cancelPendingMediaBatch(batchId);
+  }
+
+  /**
+   * @deprecated 只能取消尚未开始的消息，请使用 cancelPendingMediaBatch
+   */
+  static cancelMediaBatch(batchId) {
+    return this.cancelPendingMediaBatch(batchId);
+  }
+
+  /**
+   * 设置批量媒体发送的并发数，默认 3（仅 Android）
+   * @param {number} parallelism - 并发数
+   */
+  static setMediaSendParallelism(parallelism) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.setMediaSendParallelism(parallelism);
+  }
+
+  /**
+   * 设置分片上传服务（仅 Android）
+   * 协议：GET {endpoint}/{contentKey} 查询已收分片，PUT {endpoint}/{contentKey}/{index} 上传分片，
+   * POST {endpoint}/{contentKey}/complete 合并并返回 {url}
+   * contentKey 由来源、大小、修改时间和分片大小计算，同一文件发往多个会话时共用服务端分片；uploadId 则按消息区分
+   * @param {Object} options - endpoint 服务地址，chunkSize 分片字节数（默认 2MB），headers 请求头，connectTimeout/readTimeout 超时毫秒数，
+   *   directRead 是否直接读取 content:// 而不复制到暂存区（默认 true）
+   */
+  static configureChunkedUpload(options) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.configureChunkedUpload(options || {});
+  }
+
+  /**
+   * 分片上传文件后发送消息（仅 Android）
+   * 断网或重启后只补传缺失分片，上传完成后才发送消息
+   * content:// 只有在能持久化读权限（选择文件时带 FLAG_GRANT_PERSISTABLE_URI_PERMISSION）时才直接上传，否则先复制到暂存区；
+   * 直接上传的消息不带 localPath
+   * @param {import("juggleim-rnsdk").SendMessageObject} message - 消息内容，content.localPath 为待上传文件
+   * @param {import("juggleim-rnsdk").ChunkedUploadCallback} callback - 回调对象
+   * @returns {Promise<import("juggleim-rnsdk").ChunkedUploadInfo|null>} 上传信息
+   */
+  static async sendMessageChunked(message, callback = {}) {
+    if (Platform.OS !== "android") {
+      console.warn("sendMessageChunked is only supported on Android");
+      return null;
+    }
+    const messageId = Math.random().toString(36).substr(2, 9) + Date.now();
+    const remove = this.addChunkedUploadListener(messageId, callback);
+    try {
+      return await JMI.sendMessageChunked(message, messageId);
+    } catch (error) {
+      remove();
+      callback.onError?.(null, -1);
+      console.error("sendMessageChunked error:", error);
+      return null;
+    }
+  }
+
+  /**
+   * 监听指定分片上传的事件，用于重启后重新关联 getPendingChunkedUploads 返回的上传（仅 Android）
+   * 成功、失败或取消后自动移除
+   * @param {string} messageId - 上传对应的 messageId
+   * @param {import("juggleim-rnsdk").ChunkedUploadCallback} callback - 回调对象
+   * @returns {Function} 移除监听的函数
+   */
+  static addChunkedUploadListener(messageId, callback = {}) {
+    const subscriptions = [];
+    const remove = () => subscriptions.forEach((subscription) => subscription.remove());
+    subscriptions.push(
+      juggleIMEmitter.addListener("onMediaMessageProgress", (event) => {
+        if (event.messageId === messageId) {
+          callback.onProgress?.(event.progress);
+        }
+      }),
+      juggleIMEmitter.addListener("onChunkedUploadPaused", (event) => {
+        if (event.messageId === messageId) {
+          callback.onPaused?.(event);
+        }
+      }),
+      juggleIMEmitter.addListener("onMediaMessageSent", async (event) => {
+        if (event.messageId === messageId) {
+          remove();
+          callback.onSuccess?.(await this.buildMessageInfo(event.message));
+        }
+      }),
+      juggleIMEmitter.addListener("onMediaMessageSentError", (event) => {
+        if (event.messageId === messageId) {
+          remove();
+          callback.onError?.(event.message || null, event.errorCode || -1);
+        }
+      }),
+      juggleIMEmitter.addListener("onMediaMessageCancelled", (event) => {
+        if (event.messageId === messageId) {
+          remove();
+          callback.onCancel?.(event.message || null);
+        }
+      })
+    );
+    return remove;
+  }
+
+  /**
+   * 获取分片上传指标（仅 Android）
+   * direct 为直接读取 content:// 的上传，staged 为先复制到暂存区的上传，可通过 configureChunkedUpload({ directRead: false }) 对比；
+   * 两种方式都有数据时 comparison 给出直接上传每次少写入磁盘的字节数和提前的首字节耗时
+   * @returns {Promise<import("juggleim-rnsdk").ChunkedUploadMetrics|null>} 指标
+   */
+  static getChunkedUploadMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getChunkedUploadMetrics();
+  }
+
+  /**
+   * 获取未完成的分片上传（仅 Android）
+   * @returns {Promise<Array<import("juggleim-rnsdk").ChunkedUploadInfo>>} 上传列表
+   */
+  static getPendingChunkedUploads() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve([]);
+    }
+    return JMI.getPendingChunkedUploads();
+  }
+
+  /**
+   * 取消分片上传并删除本地进度（仅 Android）
+   * @param {string} uploadId - 上传ID
+   * @returns {Promise<boolean>}
+   */
+  static cancelChunkedUpload(uploadId) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(false);
+    }
+    return JMI.cancelChunkedUpload(uploadId);
+  }
+
+  /**
+   * 设置媒体下载缓存（仅 Android）
+   * @param {Object} options - maxBytes 磁盘缓存上限（默认 256MB），parallelism 同时下载数（默认 3）
+   */
+  static configureMediaDownload(options) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.configureMediaDownload(options || {});
+  }
+
+  /**
+   * 下载媒体文件到缓存（仅 Android）
+   * @param {string} url - 文件地址
+   * @param {number} priority - 0 可见，1 预取，2 后台
+   * @returns {Promise<string|null>} 本地路径
+   */
+  static downloadMedia(url, priority = 0) {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.downloadMedia(url, priority);
+  }
+
+  /**
+   * 根据列表可见范围更新媒体下载（仅 Android）
+   * 可见消息优先下载，并预取滚动方向前方的若干条；离开窗口的消息取消下载。
+   * 图片下载缩略图，语音下载原文件，文件消息需设置 includeFiles。
+   * 下载完成后再次获取的消息会带上 localPath / thumbnailLocalPath。
+   * @param {string} windowId - 列表标识
+   * @param {Array<import("juggleim-rnsdk").Message>} messages - 列表中的消息，按显示顺序
+   * @param {number} firstVisible - 第一条可见消息的下标
+   * @param {number} lastVisible - 最后一条可见消息的下标
+   * @param {import("juggleim-rnsdk").MediaDownloadWindowOptions} options - 预取设置
+   */
+  static setMediaDownloadWindow(windowId, messages, firstVisible, lastVisible, options = {}) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    const prefetchCount = options.prefetchCount ?? 5;
+    const direction = options.direction || "both";
+    const toItem = (message) => {
+      const content = message?.content;
+      if (!content) {
+        return null;
+      }
+      let url = null;
+      if (content.contentType === "jg:img") {
+        url = content.thumbnailLocalPath ? null : content.thumbnailUrl || content.url;
+      } else if (content.contentType === "jg:voice") {
+        url = content.localPath ? null : content.url;
+      } else if (content.contentType === "jg:file" && options.includeFiles) {
+        url = content.localPath ? null : content.url;
+      }
+      return url ? { messageId: message.messageId, url } : null;
+    };
+    const collect = (from, to) => {
+      const items = [];
+      for (let i = Math.max(0, from); i <= Math.min(messages.length - 1, to); i++) {
+        const item = toItem(messages[i]);
+        if (item) {
+          items.push(item);
+        }
+      }
+      return items;
+    };
+    const visible = collect(firstVisible, lastVisible);
+    const prefetch = [];
+    if (direction !== "backward") {
+      prefetch.push(...collect(lastVisible + 1, lastVisible + prefetchCount));
+    }
+    if (direction !== "forward") {
+      prefetch.push(...collect(firstVisible - prefetchCount, firstVisible - 1));
+    }
+    JMI.setMediaDownloadWindow(windowId, visible, prefetch);
+  }
+
+  /**
+   * 取消列表窗口的全部下载（仅 Android）
+   * @param {string} windowId - 列表标识
+   */
+  static clearMediaDownloadWindow(windowId) {
+    if (Platform.OS !== "android") {
+      return;
+    }
+    JMI.clearMediaDownloadWindow(windowId);
+  }
+
+  /**
+   * 监听列表窗口的下载结果（仅 Android）
+   * @param {string} windowId - 列表标识
+   * @param {import("juggleim-rnsdk").MediaDownloadListener} listener - 回调对象
+   * @returns {Function} 移除监听的函数
+   */
+  static addMediaDownloadListener(windowId, listener = {}) {
+    if (Platform.OS !== "android") {
+      console.warn("addMediaDownloadListener is only supported on Android");
+      return () => {};
+    }
+    const subscriptions = [
+      juggleIMEmitter.addListener("MediaDownloadCompleted", (event) => {
+        if (event.windowId === windowId) {
+          listener.onComplete?.(event.messageId, event.localPath, event.url);
+        }
+      }),
+      juggleIMEmitter.addListener("MediaDownloadFailed", (event) => {
+        if (event.windowId === windowId) {
+          listener.onError?.(event.messageId, event.error, event.url);
+        }
+      }),
+    ];
+    return () => subscriptions.forEach((subscription) => subscription.remove());
+  }
+
+  /**
+   * 获取媒体下载统计（仅 Android）
+   * @returns {Promise<import("juggleim-rnsdk").MediaDownloadMetrics|null>} 统计信息
+   */
+  static getMediaDownloadMetrics() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(null);
+    }
+    return JMI.getMediaDownloadMetrics();
+  }
+
+  /**
+   * 清空媒体下载缓存（仅 Android）
+   * @returns {Promise<boolean>}
+   */
+  static clearMediaDownloadCache() {
+    if (Platform.OS !== "android") {
+      return Promise.resolve(false);
+    }
+    return JMI.clearMediaDownloadCache();
+  }
 }
 
 export * from './types';
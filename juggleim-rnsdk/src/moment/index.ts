@@ -1,9 +1,9 @@
 
-import { NativeModules, Platform } from 'react-native';
-import { Moment, MomentComment, MomentReaction, GetMomentOption, GetMomentCommentOption } from './types';
-import { SimpleCallback, UserInfo } from '../types';
+import { DeviceEventEmitter, NativeModules, Platform } from 'react-native';
+import { Moment, MomentComment, MomentReaction, GetMomentOption, GetMomentCommentOption, LocalMomentMedia } from './types';
+import { SimpleCallback, UserInfo, UploadImagesOptions } from '../types';
 
-const { JuggleIMMomentModule } = NativeModules;
+const { JuggleIMMomentModule, JuggleIM } = NativeModules;
 
 export class JuggleIMMoment {
     /**
@@ -13,6 +13,54 @@ export class JuggleIMMoment {
         return JuggleIMMomentModule.addMoment(content, mediaList);
     }
 
+    /**
+     * 上传本地图片后发布朋友圈
+     * 没有 url 的图片上传 localPath，视频上传 snapshotLocalPath 作为封面（视频本身需已有 url），任一项失败则不发布
+     */
+    static async addMomentWithLocalMedia(content: string, mediaList: LocalMomentMedia[],
+                                         options: UploadImagesOptions = {}): Promise<Moment> {
+        const parallelism = options.parallelism ?? 3;
+        if (Platform.OS === 'android') {
+            const batchId = Math.random().toString(36).substr(2, 9) + Date.now();
+            const subscription = DeviceEventEmitter.addListener('ImageUploadProgress', (event) => {
+                if (event.batchId === batchId) {
+                    options.onProgress?.(event);
+                }
+            });
+            try {
+                return await JuggleIMMomentModule.addMomentWithLocalMedia(content, mediaList, batchId, { parallelism });
+            } finally {
+                subscription.remove();
+            }
+        }
+        const list = mediaList.map((media) => ({ ...media }));
+        const tasks: Array<() => Promise<void>> = [];
+        list.forEach((media) => {
+            if (media.type === 'video') {
+                if (!media.url) {
+                    throw new Error('Video media requires url');
+                }
+                if (media.snapshotLocalPath && !media.snapshotUrl) {
+                    tasks.push(async () => {
+                        media.snapshotUrl = await JuggleIM.uploadImage(media.snapshotLocalPath);
+                    });
+                }
+            } else if (!media.url && media.localPath) {
+                tasks.push(async () => {
+                    media.url = await JuggleIM.uploadImage(media.localPath);
+                });
+            }
+        });
+        let next = 0;
+        const worker = async () => {
+            while (next < tasks.length) {
+                await tasks[next++]();
+            }
+        };
+        await Promise.all(Array.from({ length: Math.min(Math.max(1, parallelism), tasks.length) }, worker));
+        return JuggleIMMomentModule.addMoment(content, list);
+    }
+
     /**
      * 删除朋友圈
      */
@@ -12,6 +12,22 @@ export interface MomentMedia {
     duration?: number; // Only for video
 }
 
+/**
+ * 待上传的动态媒体，已有 url 的项直接发布
+ */
+export interface LocalMomentMedia {
+    type: MomentMediaType;
+    url?: string;
+    /** 图片本地路径，支持 content:// */
+    localPath?: string;
+    snapshotUrl?: string;
+    /** 视频封面本地路径 */
+    snapshotLocalPath?: string;
+    height?: number;
+    width?: number;
+    duration?: number;
+}
+
 export interface MomentComment {
     commentId: string;
     momentId: string;
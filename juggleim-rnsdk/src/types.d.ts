@@ -154,6 +154,7 @@ export class MergeMessagePreviewUnit {
  * @property {string} [thumbnailUrl] - 缩略图远程URL
  * @property {number} width - 图片宽度
  * @property {number} height - 图片高度
+ * @property {boolean} [original] - 发送原图（Android 默认会在原生层压缩，并以处理结果覆盖宽高与缩略图）
  */
 export class ImageMessageContent extends MessageContent {
     localPath: string;
@@ -162,6 +163,7 @@ export class ImageMessageContent extends MessageContent {
     thumbnailUrl?: string;
     width: number;
     height: number;
+    original?: boolean;
 
     contentType: string;
 }
@@ -269,6 +271,8 @@ export interface Message {
     groupMessageReadInfo?: GroupMessageReadInfo;
     mentionInfo: MessageMentionInfo;
     referredMessage?: Message;
+    /** 搜索时开启 highlight 才有 */
+    highlight?: SearchHighlight;
 }
 
 /**
@@ -285,6 +289,26 @@ export interface MessageResponse {
     code: number;
 }
 
+/**
+ * 历史消息游标选项
+ */
+export interface MessageCursorOptions {
+    /** 每页条数，默认 20 */
+    count?: number;
+    /** 起始时间，0 表示从最新消息开始 */
+    startTime?: number;
+    /** 后台预取的页数，默认 1，0 表示不预取（仅 Android） */
+    prefetchDepth?: number;
+}
+
+/**
+ * 游标读取的一页历史消息
+ */
+export interface MessagePage extends MessageResponse {
+    /** 是否来自后台预取 */
+    prefetched: boolean;
+}
+
 /**
  * 用户信息
  * @property {string} userId - 用户ID
@@ -339,6 +363,211 @@ export interface GroupMember {
     updatedTime?: number;
 }
 
+/**
+ * 本地缓存中的一页群成员，不代表完整的群成员列表
+ */
+export interface CachedGroupMemberPage {
+    members: GroupMember[];
+    /** 传给下一次调用的游标 */
+    nextCursor: string;
+    /** 缓存中是否还有更多成员 */
+    hasMoreCached: boolean;
+}
+
+/**
+ * 批量会话操作的汇总结果，results 与传入的会话一一对应
+ */
+export interface BulkConversationResult {
+    successCount: number;
+    failedCount: number;
+    results: {
+        conversationType: number;
+        conversationId: string;
+        /** 0 表示成功 */
+        errorCode: number;
+    }[];
+}
+
+/**
+ * @ 候选成员，与 UserInfo 字段一致，可直接作为 @ 对象
+ */
+export interface MentionCandidate {
+    userId: string;
+    nickname?: string;
+    avatar?: string;
+    groupDisplayName?: string;
+    matchType: 'name' | 'pinyin' | 'initials' | 'infix';
+}
+
+/**
+ * 单类信息拉取合并统计
+ */
+export interface FetchCoalescerMetrics {
+    requestCount: number;
+    /** 加入已在进行中的拉取的请求数 */
+    inFlightHitCount: number;
+    /** 同一合并窗口内重复 id 的请求数 */
+    dedupeCount: number;
+    batchCount: number;
+    fetchedCount: number;
+    averageBatchSize: number;
+    maxBatchSize: number;
+}
+
+/**
+ * 用户/群组信息拉取合并统计
+ */
+export interface InfoFetchMetrics {
+    user: FetchCoalescerMetrics;
+    group: FetchCoalescerMetrics;
+}
+
+/**
+ * 内存会话索引统计
+ */
+export interface ConversationIndexMetrics {
+    /** 全量加载是否完成 */
+    ready: boolean;
+    size: number;
+    /** 由内存索引响应的查询次数 */
+    servedCount: number;
+    /** 索引未就绪回退到数据库的查询次数 */
+    fallbackCount: number;
+}
+
+/**
+ * 图片发送前处理参数
+ */
+export interface ImageProcessingOptions {
+    /** 长边上限，默认 2048 */
+    maxDimension?: number;
+    /** 初始压缩质量，默认 85 */
+    quality?: number;
+    /** 为满足字节预算逐级降低质量的下限，默认 50 */
+    minQuality?: number;
+    /** 压缩后的字节预算，默认 1MB */
+    maxBytes?: number;
+    /** 缩略图长边，默认 240 */
+    thumbnailDimension?: number;
+    thumbnailQuality?: number;
+}
+
+/**
+ * 图片处理结果
+ */
+export interface ProcessedImage {
+    localPath: string;
+    width: number;
+    height: number;
+    thumbnailLocalPath: string;
+    /** 原图字节数 */
+    originalSize: number;
+    /** 处理后字节数 */
+    size: number;
+}
+
+/**
+ * 媒体暂存区预算
+ */
+export interface MediaStagingOptions {
+    /** 暂存区最大字节数，默认 512MB */
+    maxBytes?: number;
+    /** 文件最长保留毫秒数，默认 7 天 */
+    maxAgeMs?: number;
+}
+
+/**
+ * 媒体暂存区清理结果
+ */
+export interface MediaStagingCleanResult {
+    deletedCount: number;
+    reclaimedBytes: number;
+    remainingBytes: number;
+}
+
+/**
+ * 媒体暂存区统计
+ */
+export interface MediaStagingMetrics {
+    /** 新写入暂存区的文件数 */
+    stagedCount: number;
+    /** 复用已有暂存文件的次数 */
+    reusedCount: number;
+    copiedBytes: number;
+    /** 发送中被保护的文件数 */
+    pinnedCount: number;
+    /** 最近一次清理后的暂存区大小 */
+    sizeBytes: number;
+    maxBytes: number;
+    maxAgeMs: number;
+    /** 累计删除的文件数 */
+    deletedCount: number;
+    /** 累计回收的字节数 */
+    reclaimedBytes: number;
+}
+
+/**
+ * 历史消息导出进度，每导出完一个会话后按间隔推送
+ */
+export interface MessageExportProgress {
+    exportId: string;
+    /** 已处理的会话数，包含读取失败的会话 */
+    conversationCount: number;
+    failedConversationCount: number;
+    messageCount: number;
+    bytesWritten: number;
+}
+
+export interface MessageExportResult extends MessageExportProgress {
+    /** 输出文件的绝对路径，取消时为 null */
+    path: string | null;
+    format: 'ndjson' | 'binary';
+    cancelled: boolean;
+    durationMs: number;
+}
+
+export interface MessageExportOptions {
+    /** 要导出的会话，默认全部会话 */
+    conversations?: Conversation[];
+    /** 默认 ndjson，每行一条消息；含 timestamp 等 importMessages 不支持的字段，不能直接导入 */
+    format?: 'ndjson' | 'binary';
+    /** 每次读取的消息数，默认 100 */
+    pageSize?: number;
+    /** 从该时间向更早方向导出，0 表示从最新消息开始 */
+    startTime?: number;
+    /** 用于 cancelMessageExport，默认自动生成 */
+    exportId?: string;
+    onProgress?: (progress: MessageExportProgress) => void;
+}
+
+/**
+ * 最近消息缓存统计
+ */
+export interface MessageCacheMetrics {
+    hitCount: number;
+    missCount: number;
+    hitRatio: number;
+    /** 已缓存的会话数 */
+    conversationCount: number;
+    /** 按估算字节计算的缓存大小 */
+    sizeBytes: number;
+    maxSizeBytes: number;
+}
+
+/**
+ * 用户/群组信息缓存统计
+ */
+export interface InfoCacheMetrics {
+    hitCount: number;
+    missCount: number;
+    hitRatio: number;
+    evictionCount: number;
+    entryCount: number;
+    /** 按估算字节计算的缓存大小 */
+    sizeBytes: number;
+    maxSizeBytes: number;
+}
+
 export interface MessageReactionItem {
     reactionId: string;
     userInfoList: UserInfo[];
@@ -501,6 +730,60 @@ export interface SendMessageObject {
     referredMessageId?: string;
 }
 
+/**
+ * 多会话发送中单个会话的结果
+ */
+export interface BroadcastSendResult {
+    index: number;
+    conversationType: number;
+    conversationId: string;
+    clientMsgNo: number;
+    messageId: string | null;
+    timestamp: number;
+    /** 0 表示成功 */
+    errorCode: number;
+}
+
+/**
+ * 多会话发送进度，每个会话结束时回调
+ */
+export interface BroadcastSendProgress extends BroadcastSendResult {
+    completed: number;
+    failed: number;
+    total: number;
+}
+
+export interface BroadcastSendOptions {
+    /** 同时等待回执的发送数，默认 5 */
+    parallelism?: number;
+    onProgress?: (progress: BroadcastSendProgress) => void;
+}
+
+/**
+ * 一次合并发送的已读回执结果
+ */
+export interface ReadReceiptsFlushedEvent {
+    conversation: Conversation;
+    messageIds: string[];
+    /** 0 表示成功；失败的 ID 自动退避重试最多 3 次，仍失败的再次上报时会重新发送 */
+    errorCode: number;
+}
+
+/**
+ * 已读回执合并统计
+ */
+export interface ReadReceiptMetrics {
+    /** 上报的 ID 总数 */
+    reportedCount: number;
+    /** 已发送或已在队列中而跳过的 ID 数 */
+    dedupedCount: number;
+    sentCount: number;
+    requestCount: number;
+    /** 失败后自动重新排队的 ID 数 */
+    retryCount: number;
+    pendingCount: number;
+}
+
 /**
  * 保存消息选项
  * @property {MessageMentionInfo} [mentionInfo] - 消息提及信息
@@ -531,6 +814,35 @@ export interface SaveMessageObject {
     direction?: number;
 }
 
+/**
+ * 消息导入进度，按批次推送，processed 可作为中断后继续导入的 skipLines
+ */
+export interface MessageImportProgress {
+    importId: string;
+    /** 已处理的行数，包含跳过和失败的行 */
+    processed: number;
+    imported: number;
+    failed: number;
+    bytesRead: number;
+    totalBytes: number;
+}
+
+export interface MessageImportResult extends MessageImportProgress {
+    cancelled: boolean;
+    /** 失败的行号（从 1 开始）与原因，最多 100 条 */
+    failures: { line: number; error: string }[];
+}
+
+export interface MessageImportOptions {
+    /** 用于 cancelMessageImport，默认自动生成 */
+    importId?: string;
+    /** 每批处理的条数，默认 500；只影响进度推送和会话事件合并，每行仍单独保存 */
+    batchSize?: number;
+    /** 跳过文件开头的行数 */
+    skipLines?: number;
+    onProgress?: (progress: MessageImportProgress) => void;
+}
+
 /**
  * 搜索消息选项
  * @property {Conversation} conversation - 要查询的会话, 不能为空
@@ -539,6 +851,7 @@ export interface SaveMessageObject {
  * @property {number} [timestamp=0] - 消息时间戳，如果传0为当前时间
  * @property {number} [direction=0] - 拉取方向: 0-更新的消息, 1-更旧的消息
  * @property {string[]} [contentTypes] - 内容类型列表，传空返回所有类型
+ * @property {boolean|SearchHighlightOptions} [highlight] - 为结果附加匹配区间与摘要（仅 Android）
  */
 export interface SearchMessageOptions {
     conversation: Conversation;
@@ -547,6 +860,34 @@ export interface SearchMessageOptions {
     timestamp?: number;
     direction?: number;
     contentTypes?: string[];
+    highlight?: boolean | SearchHighlightOptions;
+}
+
+/**
+ * 搜索结果高亮选项
+ */
+export interface SearchHighlightOptions {
+    /** 摘要最大长度，默认 60，0 表示不截取 */
+    snippetLength?: number;
+    /** 最多返回的匹配区间数，默认 10 */
+    maxRanges?: number;
+    /** 为 false 时 content 只包含 contentType，默认 true */
+    includeContent?: boolean;
+}
+
+/**
+ * 搜索命中的匹配信息，区间为 [start, end) 的字符串下标
+ */
+export interface SearchHighlight {
+    /** 匹配的内容字段：文本消息为 content，文件消息为 name */
+    field: 'content' | 'name';
+    snippet: string;
+    /** 摘要在原文中的起始位置 */
+    snippetStart: number;
+    truncatedStart: boolean;
+    truncatedEnd: boolean;
+    ranges: [number, number][];
+    snippetRanges: [number, number][];
 }
 
 /**
@@ -686,6 +1027,304 @@ export interface ConversationListener {
     onTotalUnreadMessageCountUpdate?: (count: number) => void;
 }
 
+/**
+ * 会话列表增量补丁
+ * 下标以依次应用之前的补丁后的列表为准；move 的 to 为移除 from 之后的插入位置
+ */
+export interface ConversationListPatch {
+    op: "insert" | "move" | "update" | "remove";
+    /** 会话唯一标识 conversationType:conversationId */
+    key: string;
+    from?: number;
+    to?: number;
+    /** insert/move/update 时为变更后的会话信息 */
+    item?: ConversationInfo;
+}
+
+/**
+ * 会话列表增量补丁监听器
+ */
+export interface ConversationListPatchListener {
+    /**
+     * 全量快照，首次监听及检测到补丁缺失需要重新同步时回调
+     * @param ready 原生会话索引是否已加载完成，未完成时加载完成后会再次回调
+     */
+    onSnapshot?: (conversations: ConversationInfo[], version: number, ready: boolean) => void;
+    onPatches?: (patches: ConversationListPatch[], version: number) => void;
+}
+
+/**
+ * 批量媒体发送的汇总状态
+ */
+export interface MediaBatchState {
+    batchId: string;
+    total: number;
+    succeeded: number;
+    failed: number;
+    cancelled: number;
+    running: number;
+    paused: boolean;
+    /** 0-100，已结束的消息按 100 计 */
+    progress: number;
+    finished: boolean;
+}
+
+/**
+ * 批量媒体发送回调，index 为消息在数组中的位置
+ */
+export interface MediaBatchCallback {
+    /** 消息开始发送，本地消息已创建 */
+    onItemStart?: (index: number, message: Message) => void;
+    onItemSuccess?: (index: number, message: Message) => void;
+    onItemError?: (index: number, message: Message | null, errorCode: number) => void;
+    onItemCancel?: (index: number, message: Message) => void;
+    onProgress?: (state: MediaBatchState) => void;
+    onComplete?: (state: MediaBatchState) => void;
+}
+
+/**
+ * 分片上传服务设置
+ */
+export interface ChunkedUploadOptions {
+    /** 服务地址，分片请求为 {endpoint}/{contentKey}/{index}，contentKey 由文件内容标识计算，同一文件的多条消息共用 */
+    endpoint: string;
+    /** 分片字节数，默认 2MB */
+    chunkSize?: number;
+    headers?: Record<string, string>;
+    connectTimeout?: number;
+    readTimeout?: number;
+    /** 直接读取 content:// 而不复制到暂存区，默认 true */
+    directRead?: boolean;
+}
+
+/**
+ * 一种读取方式的分片上传指标
+ */
+export interface ChunkedUploadModeMetrics {
+    uploadCount: number;
+    /** 上传前写入磁盘的字节数 */
+    diskBytesWritten: number;
+    networkBytes: number;
+    /** 从发起到开始发送第一个分片的平均耗时 */
+    avgTimeToFirstByteMs: number;
+}
+
+/**
+ * 分片上传指标
+ */
+export interface ChunkedUploadMetrics {
+    /** 直接读取 content:// 的上传 */
+    direct: ChunkedUploadModeMetrics;
+    /** 先复制到暂存区的上传 */
+    staged: ChunkedUploadModeMetrics;
+    /** 直接上传相对先复制的差值，两种方式都有数据时才返回 */
+    comparison?: {
+        /** 每次上传少写入磁盘的字节数 */
+        diskBytesSavedPerUpload: number;
+        /** 首字节平均提前的毫秒数 */
+        timeToFirstByteSavedMs: number;
+    };
+}
+
+/**
+ * 分片上传信息
+ */
+export interface ChunkedUploadInfo {
+    uploadId: string;
+    messageId: string;
+    size: number;
+    /** 已上传的字节数 */
+    uploadedSize: number;
+    /** 是否正在上传，仅 getPendingChunkedUploads 返回 */
+    running?: boolean;
+    /** 待发送的消息，仅 getPendingChunkedUploads 返回 */
+    message?: SendMessageObject;
+}
+
+/**
+ * 分片上传回调，onProgress 为上传进度，消息在上传完成后才创建
+ */
+export interface ChunkedUploadCallback {
+    onProgress?: (progress: number) => void;
+    /** 重试耗尽，进度已保存，重连后自动继续 */
+    onPaused?: (info: ChunkedUploadInfo & { error?: string }) => void;
+    onSuccess?: (message: Message) => void;
+    onError?: (message: Message | null, errorCode: number) => void;
+    onCancel?: (message: Message | null) => void;
+}
+
+/**
+ * 搜索会话设置
+ */
+export interface SearchSessionOptions {
+    /** message（默认）搜索消息，conversation 按消息内容搜索会话 */
+    type?: 'message' | 'conversation';
+    /** 单次搜索的最大条数，默认 100；结果被截断时下一次查询不在其中筛选 */
+    limit?: number;
+    /** 每批推送的条数，默认 20（仅 Android） */
+    chunkSize?: number;
+    /** 仅搜索该会话中的消息（type 为 message） */
+    conversation?: Conversation;
+    contentTypes?: string[];
+    senderUserIds?: string[];
+    conversations?: Conversation[];
+    conversationTypes?: number[];
+    /** 消息状态列表 */
+    states?: number[];
+    /** 消息方向: 1-发送, 2-接收 */
+    direction?: number;
+    /** 为消息结果附加匹配区间与摘要（type 为 message，仅 Android） */
+    highlight?: boolean | SearchHighlightOptions;
+}
+
+/**
+ * 一批搜索结果的信息
+ */
+export interface SearchSessionChunkInfo {
+    generation: number;
+    query: string;
+    /** 本批在全部结果中的起始位置 */
+    offset: number;
+    total: number;
+    /** 是否由上一次结果筛选得到 */
+    narrowed: boolean;
+    /** 是否为本次查询的最后一批 */
+    done: boolean;
+}
+
+/**
+ * 搜索会话回调，items 为 Message 或 SearchConversationsResult
+ */
+export interface SearchSessionCallback {
+    onResults?: (items: any[], info: SearchSessionChunkInfo) => void;
+    onError?: (error: string, generation: number) => void;
+}
+
+export interface SearchSessionHandle {
+    sessionId?: string;
+    /** 更新搜索词，返回本次查询的代数 */
+    update: (query: string) => Promise<number>;
+    close: () => void;
+}
+
+/**
+ * 名称索引条目类型
+ */
+export type NameIndexKind = 'user' | 'group' | 'conversation';
+
+/**
+ * 名称索引条目
+ */
+export interface NameIndexEntry {
+    kind: NameIndexKind;
+    /** 会话条目建议使用 `${conversationType}:${conversationId}` */
+    id: string;
+    name?: string;
+    /** 别名、备注名等，同样参与匹配 */
+    aliases?: string[];
+}
+
+export interface SearchNamesOptions {
+    kinds?: NameIndexKind[];
+    /** 默认 20 */
+    limit?: number;
+}
+
+/**
+ * 名称查询结果，matchType 依次为完全或前缀匹配、全拼前缀、首字母、名称中间位置
+ */
+export interface NameMatch {
+    kind: NameIndexKind;
+    id: string;
+    name: string;
+    matchType: 'name' | 'pinyin' | 'initials' | 'infix';
+}
+
+export interface NameIndexMetrics {
+    size: number;
+    tokenCount: number;
+    /** 拼音匹配使用内置的 GB2312 拼音表，表外的汉字只按原文匹配 */
+    pinyinSupported: boolean;
+}
+
+/**
+ * 单张图片的上传结果
+ */
+export interface ImageUploadResult {
+    index: number;
+    localPath: string;
+    url: string | null;
+    /** 0 表示成功 */
+    errorCode: number;
+}
+
+/**
+ * 批量上传进度，每张图片结束时回调
+ */
+export interface ImageUploadProgress extends ImageUploadResult {
+    completed: number;
+    failed: number;
+    total: number;
+    /** 0-100 */
+    progress: number;
+}
+
+/**
+ * 批量上传设置
+ */
+export interface UploadImagesOptions {
+    /** 同时上传数，默认 3 */
+    parallelism?: number;
+    onProgress?: (progress: ImageUploadProgress) => void;
+}
+
+/**
+ * 媒体下载缓存设置
+ */
+export interface MediaDownloadOptions {
+    /** 磁盘缓存上限，默认 256MB */
+    maxBytes?: number;
+    /** 同时下载数，默认 3 */
+    parallelism?: number;
+}
+
+/**
+ * 列表窗口预取设置
+ */
+export interface MediaDownloadWindowOptions {
+    /** 可见范围外预取的消息条数，默认 5 */
+    prefetchCount?: number;
+    /** 预取方向：forward 下标增大方向，backward 下标减小方向，默认 both */
+    direction?: 'forward' | 'backward' | 'both';
+    /** 是否下载文件消息，默认 false */
+    includeFiles?: boolean;
+}
+
+/**
+ * 列表窗口下载回调
+ */
+export interface MediaDownloadListener {
+    onComplete?: (messageId: string, localPath: string, url: string) => void;
+    onError?: (messageId: string, error: string, url: string) => void;
+}
+
+/**
+ * 媒体下载统计
+ */
+export interface MediaDownloadMetrics {
+    /** 命中磁盘缓存的请求数 */
+    hitCount: number;
+    downloadCount: number;
+    /** 合并到进行中下载的请求数 */
+    coalescedCount: number;
+    cancelledCount: number;
+    failedCount: number;
+    downloadedBytes: number;
+    pendingCount: number;
+    cacheBytes: number;
+    maxBytes: number;
+}
+
 /**
  * 发送媒体消息回调接口
  */